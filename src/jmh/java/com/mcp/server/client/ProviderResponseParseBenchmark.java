@@ -0,0 +1,57 @@
+package com.mcp.server.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ ProviderResponseParseBenchmark
+ * - Groq(OpenAI 호환) chat/completions 응답 본문에서 답변 텍스트를 꺼내는 비용 (GroqAiModelClientImpl.call의 파싱 부분)
+ * - contentLength: 짧은 답변 / 긴 답변
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderResponseParseBenchmark {
+
+    @Param({"256", "8192"})
+    private int contentLength;
+
+    private GroqAiModelClientImpl client;
+    private String responseBody;
+
+    @Setup
+    public void setUp() {
+        client = new GroqAiModelClientImpl(null, null); // 파싱만 사용 (HTTP 호출 없음)
+
+        StringBuilder content = new StringBuilder(contentLength);
+        while (content.length() < contentLength) {
+            content.append("프로젝트 경험은 문제 → 행동 → 결과 순서로 정리하고, \\\"성과\\\"는 수치로 적어 주세요.\\n");
+        }
+        responseBody = "{\"id\":\"chatcmpl-8f1c2d\",\"object\":\"chat.completion\",\"created\":1735689600,"
+                + "\"model\":\"llama3-8b-8192\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\""
+                + content + "\"},\"logprobs\":null,\"finish_reason\":\"stop\"}],"
+                + "\"usage\":{\"queue_time\":0.02,\"prompt_tokens\":412,\"prompt_time\":0.03,\"completion_tokens\":"
+                + contentLength / 4 + ",\"completion_time\":0.4,\"total_tokens\":" + (412 + contentLength / 4)
+                + ",\"total_time\":0.43},\"system_fingerprint\":\"fp_a4265e44d5\",\"x_groq\":{\"id\":\"req_01j\"}}";
+    }
+
+    @Benchmark
+    public String parseContent() throws JsonProcessingException {
+        return client.parseContent(responseBody);
+    }
+}
@@ -0,0 +1,46 @@
+package com.mcp.server.domain.context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ ContextSetBenchmark
+ * - 컨텍스트 세트 → contextJson 변환 (필드별 JSON 이스케이프 + String.format) 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextSetBenchmark {
+
+    private ContextSet contextSet;
+
+    @Setup
+    public void setUp() {
+        contextSet = ContextSet.builder()
+                .name("이력서 첨삭")
+                .persona("10년차 채용 담당자. \"실무 역량\"을 가장 중요하게 본다.\n대기업/스타트업 채용 경험 보유")
+                .role("이력서 첨삭 도우미")
+                .situation("신입 백엔드 개발자 지원서 검토 (Java / Spring 중심)")
+                .goal("강점을 구체적으로 드러내고\t불필요한 문장은 줄이기")
+                .tone("존댓말")
+                .build();
+    }
+
+    @Benchmark
+    public String toContextJson() {
+        return contextSet.toContextJson();
+    }
+}
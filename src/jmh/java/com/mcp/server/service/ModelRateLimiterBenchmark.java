@@ -0,0 +1,69 @@
+package com.mcp.server.service;
+
+import com.mcp.server.config.QuotaProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ✅ ModelRateLimiterBenchmark
+ * - 여러 스레드가 동시에 checkQuota를 호출할 때의 처리량 (CAS 경합)
+ * - sameModel: 모든 스레드가 같은 모델 카운터를 갱신 (최악의 경합)
+ * - modelPerThread: 스레드마다 다른 모델 카운터 (경합 없음, 기준값)
+ *
+ * 💡 카운터가 하루 한도에 닿지 않도록 반복(iteration)마다 limiter를 새로 만든다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ModelRateLimiterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Limiter {
+        ModelRateLimiter limiter;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            QuotaProperties properties = new QuotaProperties();
+            properties.setDefaultModelLimit(Integer.MAX_VALUE);
+            limiter = new ModelRateLimiter(properties);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadModel {
+        private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+        String model;
+
+        @Setup
+        public void setUp() {
+            model = "llama3-8b-8192-" + SEQUENCE.getAndIncrement();
+        }
+    }
+
+    @Benchmark
+    public void sameModel(Limiter state) {
+        state.limiter.checkQuota("llama3-8b-8192");
+    }
+
+    @Benchmark
+    public void modelPerThread(Limiter state, ThreadModel thread) {
+        state.limiter.checkQuota(thread.model);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mcp.server.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ PromptFormatterBenchmark
+ * - /infer 요청마다 실행되는 프롬프트 조립(Map 기반 / contextJson 기반)과 토큰 수 추정 비용
+ * - queryLength: 짧은 질문 / 긴 질문(붙여 넣은 코드·문서)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptFormatterBenchmark {
+
+    @Param({"64", "4096"})
+    private int queryLength;
+
+    private String project;
+    private Map<String, Object> context;
+    private String contextJson;
+    private String query;
+    private String prompt;
+
+    @Setup
+    public void setUp() {
+        project = "resume-ai";
+
+        Map<String, Object> schemas = new LinkedHashMap<>();
+        schemas.put("user", "id BIGINT, name VARCHAR(100), email VARCHAR(200), created_at DATETIME");
+        schemas.put("resume", "id BIGINT, user_id BIGINT, title VARCHAR(200), body TEXT, updated_at DATETIME");
+        schemas.put("feedback", "id BIGINT, resume_id BIGINT, score INT, comment TEXT");
+        context = new LinkedHashMap<>();
+        context.put("currentStep", "이력서 첨삭");
+        context.put("schemas", schemas);
+
+        contextJson = "{\n  \"persona\": \"10년차 채용 담당자\",\n  \"role\": \"이력서 첨삭 도우미\",\n"
+                + "  \"situation\": \"신입 백엔드 개발자 지원서 검토\",\n  \"goal\": \"강점을 구체적으로 드러내기\",\n"
+                + "  \"tone\": \"존댓말\"\n}";
+
+        StringBuilder sb = new StringBuilder(queryLength);
+        while (sb.length() < queryLength) {
+            sb.append("프로젝트 경험을 어떻게 정리하면 좋을까요? ");
+        }
+        query = sb.substring(0, queryLength);
+        prompt = PromptFormatter.formatPrompt(project, contextJson, query);
+    }
+
+    @Benchmark
+    public String formatPromptWithContextMap() {
+        return PromptFormatter.formatPrompt(project, context, query);
+    }
+
+    @Benchmark
+    public String formatPromptWithContextJson() {
+        return PromptFormatter.formatPrompt(project, contextJson, query);
+    }
+
+    @Benchmark
+    public int countForPrompt() {
+        return TokenCounter.countForPrompt(prompt);
+    }
+}
@@ -0,0 +1,68 @@
+package com.mcp.server.util;
+
+import com.mcp.server.domain.template.Template;
+import com.mcp.server.dto.TemplateRequest;
+import com.mcp.server.dto.TemplateResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ TemplateMapperBenchmark
+ * - 템플릿 저장(Map → JSON 직렬화)과 조회(JSON → Map 파싱 + DTO 구성) 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateMapperBenchmark {
+
+    private TemplateRequest request;
+    private Template template;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        Map<String, Object> context = new LinkedHashMap<>();
+        context.put("persona", "10년차 채용 담당자");
+        context.put("role", "이력서 첨삭 도우미");
+        context.put("situation", "신입 백엔드 개발자 지원서 검토");
+        context.put("goal", "강점을 구체적으로 드러내기");
+        context.put("tone", "존댓말");
+        context.put("currentStep", 3);
+        context.put("checklist", List.of("성과 수치화", "기술 스택 정리", "협업 경험"));
+
+        request = new TemplateRequest("resume-ai", "첨삭 기본", "신입 지원서 첨삭용 템플릿", context);
+        template = TemplateMapper.toEntity(request);
+
+        // createdAt은 저장 시 채워지므로 직접 설정
+        Field createdAt = Template.class.getDeclaredField("createdAt");
+        createdAt.setAccessible(true);
+        createdAt.set(template, LocalDateTime.of(2025, 1, 1, 9, 0));
+    }
+
+    @Benchmark
+    public Template toEntity() {
+        return TemplateMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public TemplateResponse toResponse() {
+        return TemplateMapper.toResponse(template);
+    }
+}
@@ -0,0 +1,61 @@
+package com.mcp.server.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ✅ LatencyDistribution
+ * 스텁 제공자의 응답 지연(ms) 분포.
+ *
+ * [형식]
+ * - fixed:200            → 항상 200ms
+ * - uniform:100-400      → 100~400ms 균등 분포
+ * - lognormal:300,1500   → 중앙값 300ms, p99 1500ms인 로그 정규 분포 (실제 LLM API처럼 꼬리가 긴 분포)
+ */
+public interface LatencyDistribution {
+
+    long sampleMillis();
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("❌ 지연 분포 형식 오류: " + spec + " (예: fixed:200, uniform:100-400, lognormal:300,1500)");
+        }
+        String value = parts[1];
+        return switch (parts[0].toLowerCase()) {
+            case "fixed" -> fixed(Long.parseLong(value));
+            case "uniform" -> {
+                String[] range = value.split("-", 2);
+                yield uniform(Long.parseLong(range[0]), Long.parseLong(range[1]));
+            }
+            case "lognormal" -> {
+                String[] params = value.split(",", 2);
+                yield logNormal(Double.parseDouble(params[0]), Double.parseDouble(params[1]));
+            }
+            default -> throw new IllegalArgumentException("❌ 지원하지 않는 지연 분포: " + parts[0]);
+        };
+    }
+
+    static LatencyDistribution fixed(long millis) {
+        return () -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        if (minMillis > maxMillis) {
+            throw new IllegalArgumentException("❌ 최소 지연이 최대 지연보다 큽니다: " + minMillis + " > " + maxMillis);
+        }
+        return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+    }
+
+    /**
+     * @param medianMillis 중앙값
+     * @param p99Millis    99 백분위 값 (중앙값보다 커야 함)
+     */
+    static LatencyDistribution logNormal(double medianMillis, double p99Millis) {
+        if (medianMillis <= 0 || p99Millis <= medianMillis) {
+            throw new IllegalArgumentException("❌ lognormal은 0 < 중앙값 < p99 이어야 합니다: " + medianMillis + ", " + p99Millis);
+        }
+        double mu = Math.log(medianMillis);
+        double sigma = (Math.log(p99Millis) - mu) / 2.326; // p99의 표준 정규 분위수
+        return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+}
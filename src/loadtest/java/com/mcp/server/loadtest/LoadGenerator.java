@@ -0,0 +1,217 @@
+package com.mcp.server.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mcp.server.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ✅ LoadGenerator
+ * /infer에 목표 RPS로 요청을 보내고 처리량과 응답 시간 백분위를 보고하는 부하 생성기.
+ *
+ * [측정 방식]
+ * - 열린 모델(open loop): 응답을 기다리지 않고 1/rps 간격의 예정 시각마다 요청을 보낸다. (요청마다 가상 스레드)
+ * - 응답 시간은 실제 전송 시각이 아니라 "예정 시각"부터 잰다.
+ *   → 서버가 밀려 생성기가 늦게 보내더라도 그 대기 시간이 빠지지 않음 (coordinated omission 방지)
+ * - warmup 동안의 요청은 통계에서 제외
+ * - 동시 요청이 max-in-flight를 넘으면 보내지 않고 dropped로 센다. (생성기 자체 포화 표시)
+ *
+ * [실행] (StubProviderServer + stub 프로필로 띄운 서버 대상)
+ * ./gradlew loadTest -Pload.args="--rps=100 --duration=60s --model=llama3-8b-8192 --context-set-id=1"
+ *
+ * --url=http://localhost:8060/infer --rps=50 --duration=60s --warmup=10s --max-in-flight=5000 --timeout=130s
+ * --project=loadtest --provider=Groq --model=llama3-8b-8192 --context-set-id=1
+ * --unique-queries=true (응답 캐시에 걸리지 않도록 질의마다 번호를 붙임) --out=결과 JSON 경로 (선택)
+ */
+public final class LoadGenerator {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LatencyHistogram histogram = new LatencyHistogram(); // 성공(2xx) 응답 시간
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>(); // "200", "429", "500", "IOException" ...
+    private final LongAdder dropped = new LongAdder();
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestArgs options = new LoadTestArgs(args);
+        URI url = URI.create(options.get("url", "http://localhost:8060/infer"));
+        double rps = options.getDouble("rps", 50);
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        Duration timeout = options.getDuration("timeout", Duration.ofSeconds(130));
+        Semaphore inFlight = new Semaphore(options.getInt("max-in-flight", 5000));
+        boolean uniqueQueries = options.getBoolean("unique-queries", true);
+        if (rps <= 0) {
+            throw new IllegalArgumentException("❌ rps는 0보다 커야 합니다: " + rps);
+        }
+
+        ObjectNode template = objectMapper.createObjectNode()
+                .put("project", options.get("project", "loadtest"))
+                .put("provider", options.get("provider", "Groq"))
+                .put("model", options.get("model", "llama3-8b-8192"))
+                .put("contextSetId", Long.parseLong(options.get("context-set-id", "1")));
+        String query = options.get("query", "부하 테스트 질의입니다. 프로젝트 경험을 어떻게 정리하면 좋을까요?");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(3))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        LoadGenerator generator = new LoadGenerator();
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long nextReport = measureFrom + TimeUnit.SECONDS.toNanos(5);
+
+        System.out.printf("🚀 %s → %.1f rps, warmup %ds + 측정 %ds%n", url, rps, warmup.toSeconds(), duration.toSeconds());
+        long sequence = 0;
+        while (true) {
+            long scheduled = start + sequence * periodNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = scheduled >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    generator.dropped.increment();
+                }
+            } else {
+                String body = template.deepCopy()
+                        .put("query", uniqueQueries ? query + " #" + sequence : query)
+                        .toString();
+                HttpRequest request = HttpRequest.newBuilder(url)
+                        .timeout(timeout)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            inFlight.release();
+                            if (measured) {
+                                generator.record(scheduled, response, error);
+                            }
+                        });
+            }
+
+            sequence++;
+            if (System.nanoTime() >= nextReport) {
+                generator.printProgress(nextReport - measureFrom);
+                nextReport += TimeUnit.SECONDS.toNanos(5);
+            }
+        }
+
+        // 남은 요청 완료 대기 (최대 timeout)
+        int permits = options.getInt("max-in-flight", 5000);
+        inFlight.tryAcquire(permits, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        generator.printSummary(duration, rps, options.get("out", null));
+        System.exit(0);
+    }
+
+    private void record(long scheduledNanos, HttpResponse<Void> response, Throwable error) {
+        String outcome = error != null
+                ? rootCause(error).getClass().getSimpleName()
+                : String.valueOf(response.statusCode());
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        if (error == null && response.statusCode() / 100 == 2) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scheduledNanos);
+            synchronized (histogram) {
+                histogram.record(millis);
+            }
+        }
+    }
+
+    private void printProgress(long elapsedNanos) {
+        long completed;
+        long p99;
+        synchronized (histogram) {
+            completed = histogram.getTotalCount();
+            p99 = histogram.valueAtPercentile(99);
+        }
+        System.out.printf("  %3ds: 성공 %d건, p99 %dms, 결과 %s%n",
+                TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), completed, p99, snapshotOutcomes());
+    }
+
+    private void printSummary(Duration duration, double targetRps, String out) throws IOException {
+        Map<String, Long> counts = snapshotOutcomes();
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        long succeeded;
+        long[] percentiles = new long[5];
+        double[] levels = {50, 90, 99, 99.9, 100};
+        synchronized (histogram) {
+            succeeded = histogram.getTotalCount();
+            for (int i = 0; i < levels.length; i++) {
+                percentiles[i] = histogram.valueAtPercentile(levels[i]);
+            }
+        }
+        double seconds = duration.toMillis() / 1000.0;
+
+        System.out.println();
+        System.out.printf("📊 목표 %.1f rps / 측정 %.0fs%n", targetRps, seconds);
+        System.out.printf("  완료 %d건 (%.1f rps), 성공 %d건 (%.1f rps), 미전송(dropped) %d건%n",
+                total, total / seconds, succeeded, succeeded / seconds, dropped.sum());
+        System.out.printf("  결과별: %s%n", counts);
+        System.out.printf("  성공 응답 시간(ms): p50 %d / p90 %d / p99 %d / p99.9 %d / max %d%n",
+                percentiles[0], percentiles[1], percentiles[2], percentiles[3], percentiles[4]);
+
+        if (out != null) {
+            ObjectNode result = objectMapper.createObjectNode()
+                    .put("targetRps", targetRps)
+                    .put("durationSeconds", seconds)
+                    .put("completed", total)
+                    .put("succeeded", succeeded)
+                    .put("throughputRps", succeeded / seconds)
+                    .put("dropped", dropped.sum());
+            ObjectNode latency = result.putObject("latencyMs");
+            latency.put("p50", percentiles[0]).put("p90", percentiles[1]).put("p99", percentiles[2])
+                    .put("p999", percentiles[3]).put("max", percentiles[4]);
+            ObjectNode outcomeNode = result.putObject("outcomes");
+            counts.forEach(outcomeNode::put);
+
+            Path path = Path.of(out);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+            System.out.println("  결과 저장: " + path.toAbsolutePath());
+        }
+    }
+
+    private Map<String, Long> snapshotOutcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((key, adder) -> counts.put(key, adder.sum()));
+        return counts;
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
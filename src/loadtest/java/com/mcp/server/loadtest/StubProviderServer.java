@@ -0,0 +1,360 @@
+package com.mcp.server.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ✅ StubProviderServer
+ * Groq / Together와 같은 OpenAI 호환 API를 흉내 내는 로컬 스텁 서버 (실제 쿼터를 쓰지 않는 부하 테스트용).
+ *
+ * [지원 API] (제공자마다 기본 경로가 다름, application-stub.yml의 base-url과 맞춤)
+ * - GET  {base}/models             : 모델 목록 (Groq: {"object":"list","data":[...]}, Together: 배열 그대로)
+ * - POST {base}/chat/completions   : 일반 응답 / stream: true면 SSE 청크 + [DONE]
+ * - GET  /_stub/stats              : 제공자별 처리 건수 (200 / 429 / 500 / 스트리밍)
+ *
+ * [동작 설정] (StubProviderServer.Behavior)
+ * - latency: 응답 지연 분포 (스트리밍은 첫 토큰까지의 지연)
+ * - errorRate: 지연 후 500 응답 비율
+ * - rateLimitRate: 즉시 429 응답 비율 (Retry-After 포함)
+ * - maxRps: 제공자별 초당 요청 상한, 넘으면 429 (0이면 제한 없음)
+ * - completionTokens / tokenInterval: 응답 토큰 수, 스트리밍 토큰 간격
+ *
+ * 💡 요청마다 가상 스레드에서 처리하므로 지연이 길어도 동시 연결 수에 제한이 없다.
+ *    → 측정되는 병목은 스텁이 아니라 MCP 서버 쪽이다.
+ */
+public final class StubProviderServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 18080;
+
+    private static final String[] WORDS = {
+            "This ", "is ", "a ", "stub ", "completion ", "generated ", "for ", "load ", "testing. ",
+            "응답 ", "토큰을 ", "일정한 ", "간격으로 ", "보냅니다. "
+    };
+
+    /**
+     * ✅ 흉내 낼 제공자 (이름, 기본 경로, 모델 목록, 모델 목록 응답 형태)
+     */
+    public record Provider(String name, String basePath, List<String> models, ModelListShape modelListShape) {
+    }
+
+    /**
+     * ✅ GET /models 응답 형태 (실제 API와 같게 해야 각 클라이언트의 fetchSupportedModels가 통과)
+     */
+    public enum ModelListShape {
+        OPENAI_LIST, // {"object":"list","data":[...]} (Groq)
+        BARE_ARRAY   // [...] (Together)
+    }
+
+    /**
+     * ✅ 응답 지연 / 오류 주입 설정 (모든 제공자 공통)
+     */
+    public record Behavior(LatencyDistribution latency, double errorRate, double rateLimitRate, int maxRps,
+                           int completionTokens, Duration tokenInterval) {
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Behavior behavior;
+    private final Map<String, ProviderState> states = new LinkedHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StubProviderServer(int port, List<Provider> providers, Behavior behavior) throws IOException {
+        this.behavior = behavior;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.server.setExecutor(executor);
+
+        for (Provider provider : providers) {
+            ProviderState state = new ProviderState(provider);
+            states.put(provider.name(), state);
+            server.createContext(provider.basePath() + "/models", exchange -> handle(exchange, () -> handleModels(exchange, state)));
+            server.createContext(provider.basePath() + "/chat/completions", exchange -> handle(exchange, () -> handleChat(exchange, state)));
+        }
+        server.createContext("/_stub/stats", exchange -> handle(exchange, () -> send(exchange, 200, stats())));
+    }
+
+    /**
+     * ✅ 스텁 서버 시작 (테스트 / 다른 도구에서 내장 실행용)
+     */
+    public static StubProviderServer start(int port, List<Provider> providers, Behavior behavior) throws IOException {
+        StubProviderServer stub = new StubProviderServer(port, providers, behavior);
+        stub.server.start();
+        return stub;
+    }
+
+    /**
+     * ✅ application-stub.yml의 base-url과 맞춘 기본 제공자 (Groq, Together)
+     */
+    public static List<Provider> defaultProviders() {
+        return List.of(
+                new Provider("Groq", "/groq/openai/v1",
+                        List.of("llama3-8b-8192", "llama3-70b-8192", "mixtral-8x7b-32768"), ModelListShape.OPENAI_LIST),
+                new Provider("Together", "/together/v1",
+                        List.of("meta-llama/Llama-3-8b-chat-hf", "mistralai/Mixtral-8x7B-Instruct-v0.1"), ModelListShape.BARE_ARRAY));
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * ✅ 명령행 실행 (./gradlew stubProvider -Pstub.args="--latency=lognormal:300,1500 --rate-limit-rate=0.02")
+     *
+     * --port=18080 --latency=lognormal:300,1500 --error-rate=0 --rate-limit-rate=0 --max-rps=0
+     * --tokens=64 --token-interval=10ms
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTestArgs options = new LoadTestArgs(args);
+        String latency = options.get("latency", "lognormal:300,1500");
+        Behavior behavior = new Behavior(
+                LatencyDistribution.parse(latency),
+                options.getDouble("error-rate", 0),
+                options.getDouble("rate-limit-rate", 0),
+                options.getInt("max-rps", 0),
+                options.getInt("tokens", 64),
+                options.getDuration("token-interval", Duration.ofMillis(10)));
+
+        StubProviderServer stub = start(options.getInt("port", DEFAULT_PORT), defaultProviders(), behavior);
+        System.out.printf("✅ 스텁 제공자 서버 시작: http://localhost:%d (latency=%s, error-rate=%s, rate-limit-rate=%s, max-rps=%d)%n",
+                stub.getPort(), latency, behavior.errorRate(),
+                behavior.rateLimitRate(), behavior.maxRps());
+        stub.states.values().forEach(state ->
+                System.out.printf("   - %s: %s %s%n", state.provider.name(), state.provider.basePath(), state.provider.models()));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("📊 " + stub.stats());
+            stub.close();
+        }));
+        Thread.currentThread().join();
+    }
+
+    // =========================
+    // 🔹 API 처리
+    // =========================
+
+    private void handleModels(HttpExchange exchange, ProviderState state) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed", "invalid_request_error", null);
+            return;
+        }
+        ArrayNode data = objectMapper.createArrayNode();
+        for (String model : state.provider.models()) {
+            data.addObject()
+                    .put("id", model)
+                    .put("object", "model")
+                    .put("created", 1_700_000_000L)
+                    .put("owned_by", state.provider.name());
+        }
+        if (state.provider.modelListShape() == ModelListShape.BARE_ARRAY) {
+            send(exchange, 200, data);
+            return;
+        }
+        ObjectNode body = objectMapper.createObjectNode().put("object", "list");
+        body.set("data", data);
+        send(exchange, 200, body);
+    }
+
+    private void handleChat(HttpExchange exchange, ProviderState state) throws IOException, InterruptedException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed", "invalid_request_error", null);
+            return;
+        }
+        if (exchange.getRequestHeaders().getFirst("Authorization") == null) {
+            sendError(exchange, 401, "Invalid API Key", "invalid_request_error", "invalid_api_key");
+            return;
+        }
+
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String model = request.path("model").asText();
+        if (!state.provider.models().contains(model)) {
+            sendError(exchange, 404, "The model `" + model + "` does not exist", "invalid_request_error", "model_not_found");
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (state.overRateLimit(behavior.maxRps()) || random.nextDouble() < behavior.rateLimitRate()) {
+            state.rateLimited.increment();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            exchange.getResponseHeaders().set("x-ratelimit-remaining-requests", "0");
+            sendError(exchange, 429, "Rate limit reached for model `" + model + "`", "requests", "rate_limit_exceeded");
+            return;
+        }
+
+        Thread.sleep(Math.max(0, behavior.latency().sampleMillis()));
+        if (random.nextDouble() < behavior.errorRate()) {
+            state.failed.increment();
+            sendError(exchange, 500, "Internal server error", "server_error", null);
+            return;
+        }
+
+        JsonNode messages = request.path("messages");
+        String prompt = messages.path(messages.size() - 1).path("content").asText("");
+        if (request.path("stream").asBoolean(false)) {
+            streamCompletion(exchange, model);
+            state.streamed.increment();
+        } else {
+            send(exchange, 200, completion(model, prompt));
+        }
+        state.succeeded.increment();
+    }
+
+    private ObjectNode completion(String model, String prompt) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < behavior.completionTokens(); i++) {
+            content.append(WORDS[i % WORDS.length]);
+        }
+        int promptTokens = prompt.length() / 4;
+
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("id", "chatcmpl-" + UUID.randomUUID())
+                .put("object", "chat.completion")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+        ObjectNode choice = body.putArray("choices").addObject().put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content.toString());
+        choice.put("finish_reason", "stop");
+        body.putObject("usage")
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", behavior.completionTokens())
+                .put("total_tokens", promptTokens + behavior.completionTokens());
+        return body;
+    }
+
+    /**
+     * ✅ SSE 스트리밍 응답: role 청크 → 토큰 청크(tokenInterval 간격) → finish_reason 청크 → [DONE]
+     */
+    private void streamCompletion(HttpExchange exchange, String model) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+
+        String id = "chatcmpl-" + UUID.randomUUID();
+        long created = System.currentTimeMillis() / 1000;
+        try (OutputStream out = exchange.getResponseBody()) {
+            writeEvent(out, chunk(id, created, model, objectMapper.createObjectNode().put("role", "assistant").put("content", ""), null));
+            for (int i = 0; i < behavior.completionTokens(); i++) {
+                if (i > 0 && !behavior.tokenInterval().isZero()) {
+                    Thread.sleep(behavior.tokenInterval());
+                }
+                writeEvent(out, chunk(id, created, model, objectMapper.createObjectNode().put("content", WORDS[i % WORDS.length]), null));
+            }
+            writeEvent(out, chunk(id, created, model, objectMapper.createObjectNode(), "stop"));
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+
+    private ObjectNode chunk(String id, long created, String model, ObjectNode delta, String finishReason) {
+        ObjectNode chunk = objectMapper.createObjectNode()
+                .put("id", id)
+                .put("object", "chat.completion.chunk")
+                .put("created", created)
+                .put("model", model);
+        ObjectNode choice = chunk.putArray("choices").addObject().put("index", 0);
+        choice.set("delta", delta);
+        choice.put("finish_reason", finishReason);
+        return chunk;
+    }
+
+    private void writeEvent(OutputStream out, JsonNode data) throws IOException {
+        out.write(("data: " + objectMapper.writeValueAsString(data) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private ObjectNode stats() {
+        ObjectNode body = objectMapper.createObjectNode();
+        states.forEach((name, state) -> body.putObject(name)
+                .put("succeeded", state.succeeded.sum())
+                .put("streamed", state.streamed.sum())
+                .put("rateLimited", state.rateLimited.sum())
+                .put("failed", state.failed.sum()));
+        return body;
+    }
+
+    // =========================
+    // 🔹 공통
+    // =========================
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle() throws IOException, InterruptedException;
+    }
+
+    private static void handle(HttpExchange exchange, Handler handler) {
+        try (exchange) {
+            handler.handle();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // 클라이언트가 먼저 끊은 경우 (타임아웃 / 헤지 취소 등) → 무시
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message, String type, String code) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("error").put("message", message).put("type", type).put("code", code);
+        send(exchange, status, body);
+    }
+
+    /**
+     * ✅ 제공자별 처리 건수 + 초당 요청 수 (1초 고정 창)
+     */
+    private static final class ProviderState {
+        private final Provider provider;
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder streamed = new LongAdder();
+        private final LongAdder rateLimited = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private long windowSecond;
+        private int windowCount;
+
+        private ProviderState(Provider provider) {
+            this.provider = provider;
+        }
+
+        private synchronized boolean overRateLimit(int maxRps) {
+            if (maxRps <= 0) {
+                return false;
+            }
+            long second = System.nanoTime() / 1_000_000_000L;
+            if (second != windowSecond) {
+                windowSecond = second;
+                windowCount = 0;
+            }
+            return ++windowCount > maxRps;
+        }
+    }
+}
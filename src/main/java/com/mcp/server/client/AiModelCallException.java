@@ -0,0 +1,21 @@
+package com.mcp.server.client;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * ✅ AI 모델 호출 실패 예외
+ * - 연결 실패, 타임아웃, 제공자 오류 응답 등을 호출 측에서 구분할 수 있도록 던진다.
+ * - 컨트롤러까지 전파되면 502 Bad Gateway로 응답
+ */
+@ResponseStatus(HttpStatus.BAD_GATEWAY)
+public class AiModelCallException extends RuntimeException {
+
+    public AiModelCallException(String message) {
+        super(message);
+    }
+
+    public AiModelCallException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
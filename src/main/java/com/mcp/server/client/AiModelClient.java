@@ -1,6 +1,7 @@
 package com.mcp.server.client;
 
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * ✅ AI 모델 호출용 인터페이스
@@ -18,12 +19,35 @@ public interface AiModelClient {
     String call(String model, String prompt);
 
     /**
-     * ✅ 해당 모델을 지원하는지 확인
+     * ✅ 스트리밍 호출
+     * - 모델이 생성하는 토큰을 도착하는 즉시 onToken으로 전달하고,
+     * - 스트림이 끝나면 전체 응답 텍스트를 조립해 반환한다.
+     * - 스트리밍을 지원하지 않는 구현체는 기본 구현(call 결과를 한 번에 전달)을 사용
+     *
+     * @param model   사용할 모델명
+     * @param prompt  사용자가 만든 최종 메시지
+     * @param onToken 토큰(부분 텍스트) 수신 콜백
+     * @return 조립된 전체 응답 텍스트
+     */
+    default String stream(String model, String prompt, Consumer<String> onToken) {
+        String result = call(model, prompt);
+        onToken.accept(result);
+        return result;
+    }
+
+    /**
+     * ✅ 제공자 API에서 현재 키로 사용할 수 있는 모델 ID 목록 조회 (네트워크 호출)
+     * - ModelRegistry가 백그라운드에서 주기적으로 호출하며, 요청 경로에서는 호출하지 않는다.
+     *
+     * @return 모델 ID 목록
+     * @throws AiModelCallException 조회 실패 시
      */
-    boolean supports(String modelName);
+    Set<String> fetchSupportedModels();
 
     /**
-     * ✅ 현재 클라이언트가 지원하는 모델 ID 목록 반환
+     * ✅ 제공자 이름 (예: Groq, Together)
+     * - 로그/사용량의 provider, 모델 카탈로그 스냅샷, 설정 키(infer.batch.provider-concurrency)에 그대로 쓰이므로
+     *   클래스 이름이 아닌 구현체별 고정 상수를 반환한다.
      */
-    Set<String> getSupportedModels();
+    String getProviderName();
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.mcp.server.client;
+
+import java.util.List;
+
+/**
+ * ✅ EmbeddingClient
+ * - 텍스트를 벡터로 바꾸는 임베딩 모듈 인터페이스
+ * - 구현체: OpenAiEmbeddingClient(OpenAI 호환 HTTP API), HashingEmbeddingClient(로컬, 결정적)
+ * - 어떤 구현체를 쓸지는 infer.embedding.provider로 선택 (EmbeddingClientConfig)
+ */
+public interface EmbeddingClient {
+
+    /**
+     * ✅ 여러 텍스트를 한 번에 임베딩
+     *
+     * @param texts 임베딩할 텍스트 목록
+     * @return 입력과 같은 순서의 벡터 목록
+     * @throws AiModelCallException 호출 실패 시
+     */
+    List<float[]> embed(List<String> texts);
+
+    /**
+     * ✅ 저장 시 함께 기록할 임베딩 모델 이름 (예: text-embedding-3-small, local-hash-384)
+     */
+    String getModelName();
+}
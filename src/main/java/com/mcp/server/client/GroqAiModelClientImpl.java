@@ -1,17 +1,17 @@
 package com.mcp.server.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mcp.server.config.GroqProperties;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -35,43 +35,45 @@ import java.util.stream.StreamSupport;
 @RequiredArgsConstructor
 public class GroqAiModelClientImpl implements AiModelClient {
 
-    private final RestTemplate restTemplate;
+    public static final String PROVIDER = "Groq";
+
+    private final ProviderTransport groqTransport;   // ✅ Groq 전용 연결 풀/타임아웃
     private final GroqProperties groqProperties;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    private static final String API_URL = "https://api.groq.com/openai/v1/chat/completions";
-    private static final String MODEL_LIST_URL = "https://api.groq.com/openai/v1/models";
-
-    private Set<String> supportedModels = new HashSet<>();
+    private static final String API_PATH = "/chat/completions";
+    private static final String MODEL_LIST_PATH = "/models";
 
     /**
-     * ✅ 서버 시작 시 지원 가능한 모델 목록 자동 조회
+     * ✅ 지원 가능한 모델 목록 조회
      * - Groq API를 통해 키 기반 사용 가능 모델 목록을 불러옴
+     * - 기동 시 직접 호출하지 않고 ModelRegistry가 백그라운드에서 주기적으로 호출
      */
-    @PostConstruct
-    public void loadSupportedModels() {
+    @Override
+    public Set<String> fetchSupportedModels() {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(groqProperties.getApiKey());
 
             HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-            ResponseEntity<JsonNode> response = restTemplate.exchange(
-                    MODEL_LIST_URL,
+            ResponseEntity<JsonNode> response = groqTransport.getRestTemplate().exchange(
+                    groqTransport.url(MODEL_LIST_PATH),
                     HttpMethod.GET,
                     entity,
                     JsonNode.class
             );
 
-            supportedModels = StreamSupport.stream(
+            Set<String> supportedModels = StreamSupport.stream(
                             Spliterators.spliteratorUnknownSize(response.getBody().get("data").elements(), Spliterator.ORDERED),
                             false
                     ).map(node -> node.get("id").asText())
                     .collect(Collectors.toSet());
 
-            log.info("✅ [Groq] 사용 가능 모델 목록 불러오기 완료: {}", supportedModels);
+            log.info("✅ [Groq] 사용 가능 모델 목록 불러오기 완료: {}개", supportedModels.size());
+            return supportedModels;
         } catch (Exception e) {
-            log.error("❌ [Groq] 모델 목록 불러오기 실패", e);
+            throw new AiModelCallException("Groq 모델 목록 불러오기 실패: " + e.getMessage(), e);
         }
     }
 
@@ -81,6 +83,7 @@ public class GroqAiModelClientImpl implements AiModelClient {
      * @param model 사용할 모델명 (예: llama3-8b-8192)
      * @param prompt 사용자가 만든 최종 메시지
      * @return AI 응답 텍스트
+     * @throws AiModelCallException 연결 실패/타임아웃/오류 응답 시
      */
     @Override
     public String call(String model, String prompt) {
@@ -97,30 +100,35 @@ public class GroqAiModelClientImpl implements AiModelClient {
         HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
 
         try {
-            ResponseEntity<String> response = restTemplate.postForEntity(API_URL, request, String.class);
-            JsonNode root = objectMapper.readTree(response.getBody());
-            return root.path("choices").get(0).path("message").path("content").asText();
+            ResponseEntity<String> response = groqTransport.getRestTemplate()
+                    .postForEntity(groqTransport.url(API_PATH), request, String.class);
+            return parseContent(response.getBody());
         } catch (Exception e) {
             log.error("❌ [Groq] 모델 호출 실패", e);
-            return "[ERROR] Groq 호출 실패: " + e.getMessage();
+            throw new AiModelCallException("Groq 호출 실패: " + e.getMessage(), e);
         }
     }
 
     /**
-     * ✅ 현재 이 구현체가 특정 모델명을 지원하는지 확인
-     *
-     * @param modelName 모델 ID (예: llama3-8b-8192)
-     * @return 지원 여부
+     * ✅ chat/completions 응답 본문에서 첫 번째 choice의 텍스트만 꺼낸다
+     * - 요청 경로에서 매번 실행되므로 JMH 벤치마크(ProviderResponseParseBenchmark) 대상
      */
-    @Override
-    public boolean supports(String modelName) {
-        return supportedModels.contains(modelName);
+    String parseContent(String responseBody) throws JsonProcessingException {
+        JsonNode root = objectMapper.readTree(responseBody);
+        return root.path("choices").get(0).path("message").path("content").asText();
     }
 
     /**
-     * ✅ 외부 노출용: 현재 Groq 키로 사용할 수 있는 모델 목록 반환
+     * ✅ 스트리밍 호출 (stream: true)
+     * - 토큰이 도착하는 대로 onToken에 전달하고 전체 텍스트를 반환
      */
-    public Set<String> getSupportedModels() {
-        return supportedModels;
+    @Override
+    public String stream(String model, String prompt, Consumer<String> onToken) {
+        return OpenAiStreamSupport.stream(groqTransport, groqProperties.getApiKey(), model, prompt, onToken);
+    }
+
+    @Override
+    public String getProviderName() {
+        return PROVIDER;
     }
 }
@@ -0,0 +1,99 @@
+package com.mcp.server.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ HashingEmbeddingClient
+ * - 외부 API 없이 텍스트를 고정 차원 벡터로 바꾸는 로컬 임베딩 (feature hashing)
+ * - 같은 입력은 항상 같은 벡터 → 오프라인 개발 / 테스트 / 부하 테스트용
+ *
+ * [방식]
+ * - 소문자로 바꾼 뒤 글자/숫자 단위로 단어를 나누고, 단어 + 글자 bigram(한글 조사/어미 대응)을 특성으로 사용
+ * - 특성마다 해시로 차원과 부호(±1)를 정해 더한 뒤 L2 정규화 → 코사인 유사도 = 내적
+ *
+ * 💡 의미를 이해하는 모델이 아니라 어휘가 겹치는 정도만 반영한다.
+ */
+public class HashingEmbeddingClient implements EmbeddingClient {
+
+    private final int dimensions;
+
+    public HashingEmbeddingClient(int dimensions) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("❌ 임베딩 차원 수는 1 이상이어야 합니다: " + dimensions);
+        }
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            vectors.add(embed(text));
+        }
+        return vectors;
+    }
+
+    @Override
+    public String getModelName() {
+        return "local-hash-" + dimensions;
+    }
+
+    private float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        String normalized = text == null ? "" : text.toLowerCase();
+
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addWord(vector, normalized, start, i);
+                start = -1;
+            }
+        }
+
+        normalize(vector);
+        return vector;
+    }
+
+    private void addWord(float[] vector, String text, int start, int end) {
+        add(vector, hash(text, start, end, 0x9E3779B9L), 1.0f);
+        for (int i = start; i + 2 <= end; i++) {
+            add(vector, hash(text, i, i + 2, 0x85EBCA6BL), 0.5f);
+        }
+    }
+
+    private void add(float[] vector, long hash, float weight) {
+        int index = (int) Math.floorMod(hash, (long) dimensions);
+        vector[index] += (hash & (1L << 40)) != 0 ? weight : -weight;
+    }
+
+    private static void normalize(float[] vector) {
+        double sum = 0;
+        for (float v : vector) {
+            sum += v * v;
+        }
+        if (sum == 0) {
+            return;
+        }
+        float scale = (float) (1 / Math.sqrt(sum));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+
+    // 구간 문자열 해시 (FNV-1a + 64bit 섞기)
+    private static long hash(String text, int start, int end, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (int i = start; i < end; i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
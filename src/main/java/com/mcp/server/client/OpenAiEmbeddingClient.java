@@ -0,0 +1,95 @@
+package com.mcp.server.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ✅ OpenAiEmbeddingClient
+ * - OpenAI 호환 임베딩 API 구현체 (OpenAI, Together 등 /embeddings를 제공하는 서버)
+ * - 전용 ProviderTransport를 사용하므로 추론 호출과 연결 풀/타임아웃이 분리된다.
+ *
+ * ✅ 연동 대상 API:
+ * POST {base-url}/embeddings  { "model": ..., "input": [ ... ] }
+ */
+@Slf4j
+public class OpenAiEmbeddingClient implements EmbeddingClient {
+
+    private static final String API_PATH = "/embeddings";
+
+    private final ProviderTransport transport;
+    private final String apiKey;
+    private final String model;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public OpenAiEmbeddingClient(ProviderTransport transport, String apiKey, String model) {
+        this.transport = transport;
+        this.apiKey = apiKey;
+        this.model = model;
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(apiKey);
+
+        // 빈 문자열은 API가 거부하므로 공백 1자로 대체
+        List<String> input = texts.stream().map(text -> text == null || text.isEmpty() ? " " : text).toList();
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(Map.of("model", model, "input", input), headers);
+
+        try {
+            ResponseEntity<String> response = transport.getRestTemplate()
+                    .postForEntity(transport.url(API_PATH), request, String.class);
+            return parse(objectMapper.readTree(response.getBody()), texts.size());
+        } catch (AiModelCallException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AiModelCallException("임베딩 호출 실패 (" + transport.getProvider() + "): " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getModelName() {
+        return model;
+    }
+
+    /**
+     * ✅ data[].index 순서대로 벡터 배치 (응답 순서가 입력 순서와 다를 수 있음)
+     */
+    private static List<float[]> parse(JsonNode root, int expected) {
+        JsonNode data = root.path("data");
+        if (!data.isArray() || data.size() != expected) {
+            throw new AiModelCallException("임베딩 응답 개수 불일치: 요청 " + expected + "건, 응답 " + data.size() + "건");
+        }
+
+        float[][] vectors = new float[expected][];
+        for (JsonNode item : data) {
+            int index = item.path("index").asInt(-1);
+            JsonNode embedding = item.path("embedding");
+            if (index < 0 || index >= expected || !embedding.isArray()) {
+                throw new AiModelCallException("잘못된 임베딩 응답 항목: index=" + index);
+            }
+            float[] vector = new float[embedding.size()];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) embedding.get(i).asDouble();
+            }
+            vectors[index] = vector;
+        }
+        for (int i = 0; i < expected; i++) {
+            if (vectors[i] == null) {
+                throw new AiModelCallException("임베딩 응답에 " + i + "번째 항목이 없습니다.");
+            }
+        }
+        return new ArrayList<>(Arrays.asList(vectors));
+    }
+}
@@ -0,0 +1,105 @@
+package com.mcp.server.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * ✅ OpenAI 호환 스트리밍(stream: true) 호출 유틸
+ * - Groq / Together 모두 동일한 SSE 형식(data: {...} / data: [DONE])으로 응답하므로 공통 처리
+ * - choices[0].delta.content 값을 토큰으로 전달하고 전체 텍스트를 조립해 반환
+ * - RestTemplate 인터셉터를 거치지 않으므로 ProviderTransport.measure로 mcp.provider.* 지표를 직접 남긴다.
+ */
+final class OpenAiStreamSupport {
+
+    private static final String DATA_PREFIX = "data:";
+    private static final String DONE = "[DONE]";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OpenAiStreamSupport() {
+    }
+
+    /**
+     * ✅ chat/completions 스트리밍 호출
+     *
+     * @param transport 제공자 전송 계층 (연결 풀/타임아웃 공유)
+     * @param apiKey    제공자 API 키
+     * @param model     모델명
+     * @param prompt    프롬프트
+     * @param onToken   토큰 수신 콜백
+     * @return 조립된 전체 응답 텍스트
+     */
+    static String stream(ProviderTransport transport, String apiKey, String model, String prompt, Consumer<String> onToken) {
+        try (ProviderTransport.Measurement measurement = transport.measure(true)) {
+            String body = objectMapper.writeValueAsString(Map.of(
+                    "model", model,
+                    "stream", true,
+                    "messages", List.of(Map.of("role", "user", "content", prompt))
+            ));
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(transport.url("/chat/completions")))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "text/event-stream")
+                    .header("Authorization", "Bearer " + apiKey)
+                    .timeout(transport.getSettings().getReadTimeout())
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+
+            HttpResponse<Stream<String>> response = transport.getHttpClient()
+                    .send(request, HttpResponse.BodyHandlers.ofLines());
+            measurement.status(response.statusCode());
+
+            try (Stream<String> lines = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new AiModelCallException("[" + transport.getProvider() + "] 스트리밍 호출 실패: HTTP "
+                            + response.statusCode() + " " + String.join("\n", lines.toList()), null);
+                }
+
+                StringBuilder assembled = new StringBuilder();
+                Iterator<String> it = lines.iterator();
+                while (it.hasNext()) {
+                    String line = it.next();
+                    if (!line.startsWith(DATA_PREFIX)) {
+                        continue; // 빈 줄, 주석(:), event: 등은 무시
+                    }
+
+                    String data = line.substring(DATA_PREFIX.length()).trim();
+                    if (DONE.equals(data)) {
+                        break;
+                    }
+
+                    String token = parseDelta(data);
+                    if (token != null && !token.isEmpty()) {
+                        assembled.append(token);
+                        onToken.accept(token);
+                    }
+                }
+                return assembled.toString();
+            }
+        } catch (IOException e) {
+            throw new AiModelCallException("[" + transport.getProvider() + "] 스트리밍 호출 실패: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiModelCallException("[" + transport.getProvider() + "] 스트리밍 호출 중단", e);
+        }
+    }
+
+    /**
+     * ✅ 스트림 청크 하나에서 delta.content 추출
+     */
+    static String parseDelta(String data) throws IOException {
+        JsonNode root = objectMapper.readTree(data);
+        JsonNode content = root.path("choices").path(0).path("delta").path("content");
+        return content.isMissingNode() || content.isNull() ? null : content.asText();
+    }
+}
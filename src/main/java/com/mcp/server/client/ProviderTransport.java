@@ -0,0 +1,156 @@
+package com.mcp.server.client;
+
+import com.mcp.server.config.ProviderTransportSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ✅ ProviderTransport
+ * - 제공자(Groq, Together 등)마다 하나씩 생성되는 전용 HTTP 전송 계층
+ * - 제공자별로 독립된 java.net.http.HttpClient를 사용하므로 연결 풀도 제공자별로 분리된다.
+ *
+ * [특징]
+ * - keep-alive 연결 재사용 (JDK HttpClient 내장 풀)
+ * - HTTP/2 지원 시 하나의 연결에서 여러 요청을 다중화
+ * - connect / read timeout 명시
+ * - 기동 시 warm-up 요청으로 미리 연결 수립
+ * - 요청 수/지연/동시 요청 수를 Micrometer로 노출 (mcp.provider.*)
+ *   → RestTemplate 호출은 인터셉터가, httpClient를 직접 쓰는 스트리밍 호출은 measure()로 같은 지표를 남긴다.
+ *     (stream 태그로 구분, 스트리밍의 지연은 마지막 토큰까지 걸린 시간)
+ */
+@Slf4j
+@Getter
+public class ProviderTransport {
+
+    private final String provider;
+    private final String baseUrl;
+    private final ProviderTransportSettings settings;
+    private final HttpClient httpClient;
+    private final RestTemplate restTemplate;
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ProviderTransport(String provider, String baseUrl, ProviderTransportSettings settings, MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+
+        this.httpClient = HttpClient.newBuilder()
+                .version(settings.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.getConnectTimeout())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(settings.getReadTimeout());
+
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.restTemplate.getInterceptors().add(metricsInterceptor());
+
+        meterRegistry.gauge("mcp.provider.inflight", Tags.of("provider", provider), inFlight);
+    }
+
+    /**
+     * ✅ 기본 URL 뒤에 경로를 붙인 전체 URL 반환
+     *
+     * @param path 예: /chat/completions
+     */
+    public String url(String path) {
+        return baseUrl + path;
+    }
+
+    /**
+     * ✅ 미리 연결 열기 (비동기)
+     * - 응답 내용은 사용하지 않고 연결 수립(TLS, HTTP/2 협상)만 목적
+     * - 실패해도 첫 요청에서 다시 연결하므로 경고 로그만 남김
+     */
+    public void warmUp() {
+        if (!settings.isWarmUp()) {
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .timeout(settings.getConnectTimeout().plus(settings.getConnectTimeout()))
+                .build();
+
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        log.warn("⚠️ [{}] 연결 warm-up 실패: {}", provider, e.getMessage());
+                    } else {
+                        log.info("✅ [{}] 연결 warm-up 완료 ({})", provider, response.version());
+                    }
+                });
+    }
+
+    /**
+     * ✅ 요청 1건 측정 시작 (httpClient를 직접 쓰는 호출용, try-with-resources로 닫음)
+     *
+     * @param stream 스트리밍 호출 여부 (stream 태그)
+     */
+    public Measurement measure(boolean stream) {
+        return new Measurement(stream);
+    }
+
+    /**
+     * ✅ 요청 단위 측정 인터셉터
+     * - 동시 요청 수(inFlight)와 상태 코드별 지연 시간을 기록
+     */
+    private ClientHttpRequestInterceptor metricsInterceptor() {
+        return (request, body, execution) -> {
+            try (Measurement measurement = measure(false)) {
+                ClientHttpResponse response = execution.execute(request, body);
+                measurement.status(response.getStatusCode().value());
+                return response;
+            }
+        };
+    }
+
+    /**
+     * ✅ 요청 1건 측정 (생성 시 inFlight 증가, close 시 감소 + mcp.provider.requests 기록)
+     * - status를 받기 전에 닫히면(연결 실패, 타임아웃 등) IO_ERROR로 기록
+     */
+    public final class Measurement implements AutoCloseable {
+
+        private final Timer.Sample sample = Timer.start(meterRegistry);
+        private final boolean stream;
+        private String status = "IO_ERROR";
+
+        private Measurement(boolean stream) {
+            this.stream = stream;
+            inFlight.incrementAndGet();
+        }
+
+        public void status(int statusCode) {
+            this.status = String.valueOf(statusCode);
+        }
+
+        @Override
+        public void close() {
+            inFlight.decrementAndGet();
+            sample.stop(Timer.builder("mcp.provider.requests")
+                    .tag("provider", provider)
+                    .tag("status", status)
+                    .tag("stream", String.valueOf(stream))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -3,14 +3,13 @@ package com.mcp.server.client;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mcp.server.config.TogetherProperties;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -24,29 +23,30 @@ import java.util.stream.StreamSupport;
 @RequiredArgsConstructor
 public class TogetherAiModelClientImpl implements AiModelClient {
 
-    private final RestTemplate restTemplate;
+    public static final String PROVIDER = "Together";
+
+    private final ProviderTransport togetherTransport;   // ✅ Together 전용 연결 풀/타임아웃
     private final TogetherProperties togetherProperties;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    private static final String API_URL = "https://api.together.xyz/v1/chat/completions";
-    private static final String MODEL_LIST_URL = "https://api.together.xyz/v1/models";
-
-    private Set<String> supportedModels = new HashSet<>();
+    private static final String API_PATH = "/chat/completions";
+    private static final String MODEL_LIST_PATH = "/models";
 
     /**
-     * ✅ 애플리케이션 시작 시 사용 가능한 모델 목록 불러오기
-     * - 응답 구조가 배열인 경우에도 대응하도록 수정
+     * ✅ 지원 가능한 모델 목록 조회
+     * - Together API를 통해 키 기반 사용 가능 모델 목록을 불러옴
+     * - 기동 시 직접 호출하지 않고 ModelRegistry가 백그라운드에서 주기적으로 호출
      */
-    @PostConstruct
-    public void loadSupportedModels() {
+    @Override
+    public Set<String> fetchSupportedModels() {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(togetherProperties.getApiKey());
 
             HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-            ResponseEntity<JsonNode> response = restTemplate.exchange(
-                    MODEL_LIST_URL,
+            ResponseEntity<JsonNode> response = togetherTransport.getRestTemplate().exchange(
+                    togetherTransport.url(MODEL_LIST_PATH),
                     HttpMethod.GET,
                     entity,
                     JsonNode.class
@@ -60,19 +60,20 @@ public class TogetherAiModelClientImpl implements AiModelClient {
             }
 
             // 응답이 배열 형태일 경우 처리
-            if (root.isArray()) {
-                supportedModels = StreamSupport.stream(
-                                Spliterators.spliteratorUnknownSize(root.elements(), Spliterator.ORDERED),
-                                false
-                        ).map(node -> node.get("id").asText())
-                        .collect(Collectors.toSet());
-            } else {
+            if (!root.isArray()) {
                 throw new IllegalStateException("Together 응답이 배열이 아님: " + root);
             }
 
-            log.info("✅ [Together] 사용 가능 모델 목록 불러오기 완료: {}", supportedModels);
+            Set<String> supportedModels = StreamSupport.stream(
+                            Spliterators.spliteratorUnknownSize(root.elements(), Spliterator.ORDERED),
+                            false
+                    ).map(node -> node.get("id").asText())
+                    .collect(Collectors.toSet());
+
+            log.info("✅ [Together] 사용 가능 모델 목록 불러오기 완료: {}개", supportedModels.size());
+            return supportedModels;
         } catch (Exception e) {
-            log.error("❌ [Together] 모델 목록 불러오기 실패", e);
+            throw new AiModelCallException("Together 모델 목록 불러오기 실패: " + e.getMessage(), e);
         }
     }
 
@@ -81,6 +82,7 @@ public class TogetherAiModelClientImpl implements AiModelClient {
      * @param model 모델명
      * @param prompt 사용자 프롬프트
      * @return 응답 메시지 내용
+     * @throws AiModelCallException 연결 실패/타임아웃/오류 응답 시
      */
     @Override
     public String call(String model, String prompt) {
@@ -97,31 +99,27 @@ public class TogetherAiModelClientImpl implements AiModelClient {
         HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
 
         try {
-            ResponseEntity<String> response = restTemplate.postForEntity(API_URL, request, String.class);
+            ResponseEntity<String> response = togetherTransport.getRestTemplate()
+                    .postForEntity(togetherTransport.url(API_PATH), request, String.class);
             JsonNode root = objectMapper.readTree(response.getBody());
             return root.path("choices").get(0).path("message").path("content").asText();
         } catch (Exception e) {
             log.error("❌ [Together] 모델 호출 실패", e);
-            return "[ERROR] Together 호출 실패: " + e.getMessage();
+            throw new AiModelCallException("Together 호출 실패: " + e.getMessage(), e);
         }
     }
 
     /**
-     * ✅ 지원 여부 확인
-     * @param modelName 모델명
-     * @return 지원 여부
+     * ✅ 스트리밍 호출 (stream: true)
+     * - 토큰이 도착하는 대로 onToken에 전달하고 전체 텍스트를 반환
      */
     @Override
-    public boolean supports(String modelName) {
-        return supportedModels.contains(modelName);
+    public String stream(String model, String prompt, Consumer<String> onToken) {
+        return OpenAiStreamSupport.stream(togetherTransport, togetherProperties.getApiKey(), model, prompt, onToken);
     }
 
-    /**
-     * ✅ 지원 모델 반환
-     */
-    public Set<String> getSupportedModels() {
-        return supportedModels;
+    @Override
+    public String getProviderName() {
+        return PROVIDER;
     }
-
-
 }
@@ -0,0 +1,43 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * ✅ 오래된 로그 보관(cold tier) 설정 클래스
+ * - application.yml의 infer.archive 값 읽어옴
+ *
+ * - enabled: 보관 작업 실행 여부 (꺼져 있어도 이미 만들어진 세그먼트는 조회에 포함)
+ * - dir: 세그먼트 파일 디렉터리 (여러 노드가 조회하면 공유 디스크를 지정)
+ * - log-hot-age / usage-hot-age: 이보다 오래된 Log / ApiUsageLog 행을 세그먼트로 옮김 (날짜 단위로 내림)
+ * - cron: 보관 작업 실행 시각
+ * - segment-rows: 세그먼트 파일 한 개의 최대 행 수
+ * - block-rows: 압축/희소 인덱스 단위 (블록 하나의 행 수)
+ * - chunk-size: DB에서 한 번에 읽고 지우는 행 수
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = false;
+
+    private String dir = "data/archive";
+
+    private Duration logHotAge = Duration.ofDays(90);
+
+    private Duration usageHotAge = Duration.ofDays(90);
+
+    private String cron = "0 0 4 * * *";
+
+    private int segmentRows = 100_000;
+
+    private int blockRows = 1024;
+
+    private int chunkSize = 1000;
+}
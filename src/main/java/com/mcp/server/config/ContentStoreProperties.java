@@ -0,0 +1,48 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * ✅ 텍스트 content store(content_blob) 설정 클래스
+ * - application.yml의 infer.content-store 값 읽어옴
+ *
+ * - enabled: false면 예전처럼 Log.prompt / Log.result 컬럼에 텍스트를 그대로 저장
+ * - compression-level: deflate 레벨 (1 빠름 ~ 9 작음)
+ * - min-compress-bytes: 이보다 짧은 텍스트는 압축하지 않음 (RAW)
+ * - cache-size: 복원한 텍스트 메모리 캐시 크기
+ * - known-hashes: 이미 저장된 것으로 확인한 hash를 기억하는 개수 (중복 insert 생략용)
+ * - dictionary-training-interval: 사전 재학습 주기
+ * - dictionary-samples: 사전 학습에 쓰는 최근 텍스트 수
+ * - dictionary-bytes: 사전 최대 크기 (deflate 창 크기 32KB 이하)
+ * - dictionary-min-gain: 새 사전이 샘플 압축 크기를 이 비율 이상 줄일 때만 교체
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.content-store")
+public class ContentStoreProperties {
+
+    private boolean enabled = true;
+
+    private int compressionLevel = 6;
+
+    private int minCompressBytes = 64;
+
+    private DataSize cacheSize = DataSize.ofMegabytes(32);
+
+    private int knownHashes = 200_000;
+
+    private Duration dictionaryTrainingInterval = Duration.ofHours(6);
+
+    private int dictionarySamples = 500;
+
+    private int dictionaryBytes = 32 * 1024;
+
+    private double dictionaryMinGain = 0.05;
+}
@@ -0,0 +1,27 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * ✅ ContextSet 캐시 설정 클래스
+ * - application.yml의 infer.context-cache 값 읽어옴
+ *
+ * - max-size: 메모리에 유지할 ContextSet 최대 개수
+ * - revalidate-after: 캐시 항목을 이 시간 이후 처음 읽을 때 DB의 revision을 백그라운드로 확인
+ *   (다른 노드에서 수정된 내용이 반영되기까지의 최대 지연)
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.context-cache")
+public class ContextCacheProperties {
+
+    private long maxSize = 10_000;
+
+    private Duration revalidateAfter = Duration.ofSeconds(5);
+}
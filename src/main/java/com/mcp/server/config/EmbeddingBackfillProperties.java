@@ -0,0 +1,30 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * ✅ 임베딩 메타데이터 백필 설정 클래스
+ * - application.yml의 infer.embedding-backfill 값 읽어옴
+ *
+ * - interval: 백필 실행 주기
+ * - chunk-size: 한 트랜잭션에서 처리하는 최대 원본 행 수
+ * - settle-delay: 이 시간보다 최근에 만들어진 행은 다음 실행으로 미룸
+ *   (버퍼 저장 / 노드별 시퀀스 할당 때문에 늦게 커밋되는 행을 워터마크가 건너뛰지 않도록)
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.embedding-backfill")
+public class EmbeddingBackfillProperties {
+
+    private Duration interval = Duration.ofHours(1);
+
+    private int chunkSize = 500;
+
+    private Duration settleDelay = Duration.ofMinutes(5);
+}
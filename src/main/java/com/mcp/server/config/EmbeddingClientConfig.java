@@ -0,0 +1,30 @@
+package com.mcp.server.config;
+
+import com.mcp.server.client.EmbeddingClient;
+import com.mcp.server.client.HashingEmbeddingClient;
+import com.mcp.server.client.OpenAiEmbeddingClient;
+import com.mcp.server.client.ProviderTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ✅ 임베딩 클라이언트 Bean
+ * - infer.embedding.provider 값에 따라 구현체 선택
+ *   LOCAL: HashingEmbeddingClient (외부 호출 없음)
+ *   OPENAI: OpenAiEmbeddingClient (전용 ProviderTransport "Embedding" 사용)
+ */
+@Configuration
+public class EmbeddingClientConfig {
+
+    @Bean
+    public EmbeddingClient embeddingClient(EmbeddingProperties properties, MeterRegistry meterRegistry) {
+        return switch (properties.getProvider()) {
+            case LOCAL -> new HashingEmbeddingClient(properties.getDimensions());
+            case OPENAI -> new OpenAiEmbeddingClient(
+                    new ProviderTransport("Embedding", properties.getBaseUrl(), properties.getTransport(), meterRegistry),
+                    properties.getApiKey(),
+                    properties.getModel());
+        };
+    }
+}
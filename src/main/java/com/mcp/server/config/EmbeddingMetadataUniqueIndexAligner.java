@@ -0,0 +1,54 @@
+package com.mcp.server.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ 임베딩 메타데이터 유니크 인덱스 보정
+ * - embedding_log_metadata(log_id, content_type) / embedding_context_metadata(context_set_id, context_type)는 유니크 인덱스다.
+ * - outbox relay와 백필이 동시에 같은 행을 만들던 시절의 중복이 남아 있으면 ddl-auto=update의 인덱스 생성이 실패하므로,
+ *   기동 시 인덱스가 없을 때만 중복을 정리하고 직접 만든다.
+ *   (남기는 행: 임베딩 완료된 행 우선, 그다음 id가 작은 행)
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // 스키마 생성(ddl-auto) 이후 실행
+public class EmbeddingMetadataUniqueIndexAligner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmbeddingMetadataUniqueIndexAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        align("embedding_log_metadata", "uk_embedding_log_metadata_log_type", "log_id", "content_type");
+        align("embedding_context_metadata", "uk_embedding_context_metadata_set_type", "context_set_id", "context_type");
+    }
+
+    private void align(String table, String index, String ownerColumn, String typeColumn) {
+        try {
+            Integer exists = jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+                    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?
+                    """, Integer.class, table, index);
+            if (exists != null && exists > 0) {
+                return;
+            }
+
+            int removed = jdbcTemplate.update("""
+                    DELETE d FROM %1$s d
+                    JOIN %1$s k ON k.%2$s = d.%2$s AND k.%3$s = d.%3$s
+                        AND (k.embedded > d.embedded OR (k.embedded = d.embedded AND k.id < d.id))
+                    """.formatted(table, ownerColumn, typeColumn));
+            jdbcTemplate.execute("CREATE UNIQUE INDEX %s ON %s (%s, %s)".formatted(index, table, ownerColumn, typeColumn));
+            log.info("🔧 {} 유니크 인덱스 생성 (중복 {}행 정리)", table, removed);
+        } catch (Exception e) {
+            log.warn("⚠️ {} 유니크 인덱스 생성 실패: {}", table, e.getMessage());
+        }
+    }
+}
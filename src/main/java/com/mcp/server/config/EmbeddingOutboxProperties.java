@@ -0,0 +1,26 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * ✅ 임베딩 outbox 처리 설정 클래스
+ * - application.yml의 infer.embedding-outbox 값 읽어옴
+ *
+ * - poll-interval: outbox 확인 주기 (저장 → 메타데이터 생성까지의 최대 지연)
+ * - batch-size: 한 트랜잭션에서 처리할 이벤트 수
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.embedding-outbox")
+public class EmbeddingOutboxProperties {
+
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    private int batchSize = 200;
+}
@@ -0,0 +1,63 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * ✅ 임베딩(벡터화) 설정 클래스
+ * - application.yml의 infer.embedding 값 읽어옴
+ *
+ * - provider: LOCAL(외부 호출 없는 해싱 임베딩, 오프라인/테스트용) / OPENAI(OpenAI 호환 /embeddings API)
+ * - model, base-url, api-key, transport: OPENAI일 때 사용
+ * - dimensions: LOCAL 벡터 차원 수
+ * - poll-interval: embedded=false 행 확인 주기
+ * - initial/min/max-batch-size: 한 번에 임베딩할 행 수 (target-batch-latency 기준으로 자동 조절)
+ * - concurrency: 동시에 진행할 배치 수 (이 수만큼 진행 중이면 다음 배치를 읽지 않고 대기)
+ * - max-input-chars: 이보다 긴 본문은 잘라서 임베딩
+ * - max-attempts: 이 횟수만큼 실패한 행은 더 이상 임베딩하지 않음 (attempts를 0으로 되돌리면 다시 대상이 됨)
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.embedding")
+public class EmbeddingProperties {
+
+    public enum Provider {
+        LOCAL,
+        OPENAI
+    }
+
+    private boolean enabled = true;
+
+    private Provider provider = Provider.LOCAL;
+
+    private String model = "text-embedding-3-small";
+
+    private String baseUrl = "https://api.openai.com/v1";
+
+    private String apiKey;
+
+    private final ProviderTransportSettings transport = new ProviderTransportSettings();
+
+    private int dimensions = 384;
+
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    private int initialBatchSize = 32;
+
+    private int minBatchSize = 4;
+
+    private int maxBatchSize = 256;
+
+    private Duration targetBatchLatency = Duration.ofSeconds(2);
+
+    private int concurrency = 4;
+
+    private int maxInputChars = 8000;
+
+    private int maxAttempts = 5;
+}
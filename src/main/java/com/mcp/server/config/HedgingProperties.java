@@ -0,0 +1,44 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ✅ 요청 헤징(hedging) 설정 클래스
+ * - application.yml의 infer.hedging 값 읽어옴
+ *
+ * - enabled: 헤징 사용 여부
+ * - percentile: 모델별 최근 응답 시간 중 이 백분위를 넘기면 두 번째 요청 발송 (예: 0.95)
+ * - min-delay: 백분위 값이 너무 작아도 최소 이만큼은 기다린 뒤 헤징
+ * - min-samples: 모델별 응답 시간 표본이 이만큼 모이기 전에는 헤징하지 않음
+ * - window-size: 모델별로 유지하는 최근 응답 시간 표본 수
+ * - max-hedge-ratio: 전체 호출 대비 헤지 요청 비율 상한 (예: 0.05 = 5%)
+ * - equivalents: 헤지 요청을 보낼 대체 모델 (없으면 같은 모델로 한 번 더)
+ *   예) llama3-8b-8192: meta-llama/Llama-3-8b-chat-hf
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = false;
+
+    private double percentile = 0.95;
+
+    private Duration minDelay = Duration.ofMillis(200);
+
+    private int minSamples = 50;
+
+    private int windowSize = 256;
+
+    private double maxHedgeRatio = 0.05;
+
+    private Map<String, String> equivalents = new HashMap<>();
+}
@@ -0,0 +1,47 @@
+package com.mcp.server.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ 시퀀스 테이블 초기값 보정
+ * - Log / LogEmbeddingMetadata / ApiUsageLog는 IDENTITY에서 SEQUENCE(pooled, 50개 단위)로 바뀌었다.
+ * - MySQL은 시퀀스가 없어 Hibernate가 *_seq 테이블로 흉내 내는데, 새로 만들어진 테이블은 1부터 시작하므로
+ *   기존 행이 있는 DB에서는 id가 겹칠 수 있다.
+ * - 기동 시(첫 insert 전) 시퀀스 값을 MAX(id) + 할당 크기 이상으로 올려 둔다. 이미 크면 그대로 둔다.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // 스키마 생성(ddl-auto) 이후 실행
+public class IdSequenceAligner {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String[][] SEQUENCES = {
+            {"log_seq", "log"},
+            {"embedding_log_metadata_seq", "embedding_log_metadata"},
+            {"api_usage_log_seq", "api_usage_log"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        for (String[] sequence : SEQUENCES) {
+            try {
+                jdbcTemplate.update("UPDATE " + sequence[0]
+                        + " SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + " + (ALLOCATION_SIZE + 1)
+                        + " FROM " + sequence[1] + "))");
+            } catch (Exception e) {
+                log.warn("⚠️ 시퀀스 보정 실패 ({}): {}", sequence[0], e.getMessage());
+            }
+        }
+    }
+}
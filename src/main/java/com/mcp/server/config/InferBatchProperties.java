@@ -0,0 +1,38 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ✅ 배치 추론 설정 클래스
+ * - application.yml의 infer.batch 값 읽어옴
+ *
+ * - max-items: 한 번의 배치 요청에 담을 수 있는 최대 건수
+ * - default-provider-concurrency: 제공자별 동시 호출 상한 (모든 배치 요청 합산)
+ * - provider-concurrency: 제공자별 개별 상한 (예: Groq: 32)
+ * - timeout: 배치 한 건(전체 항목)의 최대 처리 시간
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.batch")
+public class InferBatchProperties {
+
+    private int maxItems = 1000;
+
+    private int defaultProviderConcurrency = 16;
+
+    private Map<String, Integer> providerConcurrency = new HashMap<>();
+
+    private Duration timeout = Duration.ofMinutes(30);
+
+    public int concurrencyFor(String provider) {
+        return providerConcurrency.getOrDefault(provider, defaultProviderConcurrency);
+    }
+}
@@ -0,0 +1,35 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * ✅ 추론 응답 캐시 설정 클래스
+ * - application.yml의 infer.cache 값 읽어옴
+ *
+ * - memory-max-size: 메모리 캐시가 차지할 수 있는 최대 크기 (응답 텍스트 기준, 비용 가중치 적용 전)
+ * - ttl: 캐시 항목 유효 시간 (메모리/DB 공통)
+ * - persistent: DB(infer_response_cache) 캐시 사용 여부
+ * - expensive-call-ms: 이 시간만큼 걸린 호출마다 메모리 가중치를 1/2씩 줄여 더 오래 남김 (최대 1/16)
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.cache")
+public class InferCacheProperties {
+
+    private boolean enabled = true;
+
+    private DataSize memoryMaxSize = DataSize.ofMegabytes(64);
+
+    private Duration ttl = Duration.ofHours(6);
+
+    private boolean persistent = true;
+
+    private long expensiveCallMs = 1000;
+}
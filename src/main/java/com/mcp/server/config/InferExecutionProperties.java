@@ -0,0 +1,34 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * ✅ 추론 실행 모드 설정 클래스
+ * - application.yml의 infer.execution 값 읽어옴
+ *
+ * - mode: PLATFORM(기존 Tomcat 스레드에서 동기 처리) / VIRTUAL(가상 스레드에서 비동기 처리)
+ * - async-persistence: 로그/사용량 저장을 응답 경로 밖(백그라운드)에서 처리할지 여부
+ * - timeout: VIRTUAL 모드에서 추론 한 건에 허용하는 최대 시간
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.execution")
+public class InferExecutionProperties {
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private Mode mode = Mode.VIRTUAL;
+
+    private boolean asyncPersistence = true;
+
+    private Duration timeout = Duration.ofSeconds(120);
+}
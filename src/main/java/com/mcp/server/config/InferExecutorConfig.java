@@ -0,0 +1,29 @@
+package com.mcp.server.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ✅ 추론 파이프라인용 Executor Bean
+ * - inferExecutor: 모델 호출처럼 오래 대기하는 작업을 가상 스레드에서 실행
+ * - persistenceExecutor: 로그/사용량 저장을 응답 경로 밖에서 실행
+ *
+ * 💡 가상 스레드는 블로킹 I/O 동안 캐리어 스레드를 점유하지 않으므로
+ *    Tomcat 스레드 수(기본 200)와 무관하게 수천 건의 모델 호출을 동시에 유지할 수 있다.
+ */
+@Configuration
+public class InferExecutorConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService inferExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("infer-", 0).factory());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService persistenceExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("infer-persist-", 0).factory());
+    }
+}
@@ -0,0 +1,40 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * ✅ 추론 기록 저장 방식 설정 클래스
+ * - application.yml의 infer.persistence 값 읽어옴
+ *
+ * - mode: DIRECT(요청마다 바로 저장) / BUFFERED(메모리 버퍼에 모았다가 한 번에 배치 insert)
+ * - batch-size: 버퍼가 이 건수만큼 쌓이면 즉시 저장 (한 트랜잭션에 쓰는 최대 건수)
+ * - flush-interval: 건수가 덜 차도 이 주기마다 저장 (저장 지연의 상한)
+ * - capacity: 버퍼 최대 건수 (DB가 느려 가득 차면 요청 스레드가 직접 저장해 속도를 맞춤)
+ * - max-retry-backoff: 저장 실패 시 재시도 간격의 상한 (flush-interval부터 두 배씩 늘어남)
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.persistence")
+public class InferPersistenceProperties {
+
+    public enum Mode {
+        DIRECT,
+        BUFFERED
+    }
+
+    private Mode mode = Mode.BUFFERED;
+
+    private int batchSize = 200;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    private int capacity = 20_000;
+
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+}
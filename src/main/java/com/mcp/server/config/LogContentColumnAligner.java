@@ -0,0 +1,44 @@
+package com.mcp.server.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ embedding_log_metadata.content NOT NULL 해제
+ * - 로그 본문을 ContentStore(content_blob)로 옮기면서 메타데이터는 content 대신 contentHash를 가진다.
+ * - ddl-auto=update는 컬럼을 추가만 하고 기존 컬럼의 NOT NULL은 바꾸지 않으므로,
+ *   기존 DB에서는 content가 null인 행 insert가 실패한다.
+ * - 기동 시(첫 insert 전) INFORMATION_SCHEMA로 확인해 아직 NOT NULL일 때만 NULL 허용으로 바꾼다.
+ *   (ALTER는 MySQL에서 테이블을 다시 쓸 수 있으므로 매 기동마다 실행하지 않음)
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // 스키마 생성(ddl-auto) 이후 실행
+public class LogContentColumnAligner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LogContentColumnAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        try {
+            String nullable = jdbcTemplate.query("""
+                    SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS
+                    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'embedding_log_metadata' AND COLUMN_NAME = 'content'
+                    """, rs -> rs.next() ? rs.getString(1) : null);
+            if (!"NO".equalsIgnoreCase(nullable)) {
+                return; // 이미 NULL 허용 (또는 테이블 없음)
+            }
+            jdbcTemplate.execute("ALTER TABLE embedding_log_metadata MODIFY content TEXT NULL");
+            log.info("🔧 embedding_log_metadata.content NULL 허용으로 변경");
+        } catch (Exception e) {
+            log.warn("⚠️ embedding_log_metadata.content NULL 허용 변경 실패: {}", e.getMessage());
+        }
+    }
+}
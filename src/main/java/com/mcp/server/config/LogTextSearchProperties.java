@@ -0,0 +1,34 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * ✅ 로그 전문 검색(메모리 역색인) 설정 클래스
+ * - application.yml의 infer.log-text-search 값 읽어옴
+ *
+ * - sync-interval: 새 로그를 색인에 반영하는 주기
+ * - settle-delay: 이 시간보다 최근 로그는 다음 주기로 미룸 (늦게 커밋되는 행을 워터마크가 건너뛰지 않도록)
+ * - chunk-size: DB에서 한 번에 읽는 로그 수
+ * - max-results: 한 번에 돌려줄 최대 결과 수
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.log-text-search")
+public class LogTextSearchProperties {
+
+    private boolean enabled = true;
+
+    private Duration syncInterval = Duration.ofSeconds(5);
+
+    private Duration settleDelay = Duration.ofSeconds(5);
+
+    private int chunkSize = 2000;
+
+    private int maxResults = 100;
+}
@@ -0,0 +1,30 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * ✅ 모델 목록(ModelRegistry) 설정 클래스
+ * - application.yml의 infer.models 값 읽어옴
+ *
+ * - snapshot-path: 마지막으로 조회한 모델 목록을 저장해 두는 파일 (기동 시 네트워크 없이 바로 사용)
+ * - refresh-interval: 제공자 API에서 모델 목록을 다시 조회하는 주기
+ * - stale-after: 마지막 조회 성공 후 이 시간이 지나면 health에서 STALE로 표시
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.models")
+public class ModelRegistryProperties {
+
+    private Path snapshotPath = Path.of("data", "model-catalog.json");
+
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    private Duration staleAfter = Duration.ofHours(1);
+}
@@ -0,0 +1,44 @@
+package com.mcp.server.config;
+
+import com.mcp.server.client.GroqAiModelClientImpl;
+import com.mcp.server.client.ProviderTransport;
+import com.mcp.server.client.TogetherAiModelClientImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.util.List;
+
+/**
+ * ✅ 제공자별 HTTP 전송 계층(ProviderTransport) Bean
+ * - 기존 공용 RestTemplate(new RestTemplate(), 풀/타임아웃 없음)을 대체
+ * - Groq / Together가 서로 다른 연결 풀과 타임아웃 설정을 사용
+ */
+@Configuration
+public class ProviderTransportConfig {
+
+    @Bean
+    public ProviderTransport groqTransport(GroqProperties groqProperties, MeterRegistry meterRegistry) {
+        return new ProviderTransport(GroqAiModelClientImpl.PROVIDER, groqProperties.getBaseUrl(), groqProperties.getTransport(), meterRegistry);
+    }
+
+    @Bean
+    public ProviderTransport togetherTransport(TogetherProperties togetherProperties, MeterRegistry meterRegistry) {
+        return new ProviderTransport(TogetherAiModelClientImpl.PROVIDER, togetherProperties.getBaseUrl(), togetherProperties.getTransport(), meterRegistry);
+    }
+
+    /**
+     * ✅ 기동 완료 후 제공자 연결 warm-up
+     * - 비동기로 실행되므로 기동 시간에는 영향 없음
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpTransports(ApplicationReadyEvent event) {
+        List<ProviderTransport> transports = event.getApplicationContext()
+                .getBeanProvider(ProviderTransport.class)
+                .orderedStream()
+                .toList();
+        transports.forEach(ProviderTransport::warmUp);
+    }
+}
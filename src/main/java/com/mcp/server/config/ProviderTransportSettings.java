@@ -0,0 +1,28 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * ✅ 제공자별 HTTP 전송 설정
+ * - GroqProperties / TogetherProperties 안에 transport 하위 항목으로 포함됨
+ *
+ * - connect-timeout: TCP + TLS 연결 수립 제한 시간
+ * - read-timeout: 요청 전송 후 응답을 모두 받을 때까지의 제한 시간 (교환 전체에 적용)
+ * - http2: ALPN으로 HTTP/2 협상 시도 여부 (서버가 지원하지 않으면 HTTP/1.1로 자동 전환)
+ * - warm-up: 애플리케이션 기동 후 미리 연결을 열어 TLS 핸드셰이크 비용을 요청 경로에서 제거
+ */
+@Getter
+@Setter
+public class ProviderTransportSettings {
+
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    private Duration readTimeout = Duration.ofSeconds(60);
+
+    private boolean http2 = true;
+
+    private boolean warmUp = true;
+}
@@ -0,0 +1,40 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ✅ 호출 한도(Quota) 초기 설정 클래스
+ * - application.yml의 infer.quota 값 읽어옴 (기동 후에는 PUT /quota/limits로 변경 가능)
+ *
+ * - default-model-limit / models: 모델별 하루 최대 호출 수 (models에 없으면 기본값)
+ * - default-project-limit / projects: 프로젝트별 하루 최대 호출 수
+ * - per-ip-limit: 클라이언트 IP별 하루 최대 호출 수
+ * - zone: 하루의 기준 시간대
+ *
+ * 💡 0 이하는 제한 없음
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.quota")
+public class QuotaProperties {
+
+    private long defaultModelLimit = 1000;
+
+    private Map<String, Long> models = new HashMap<>();
+
+    private long defaultProjectLimit = 0;
+
+    private Map<String, Long> projects = new HashMap<>();
+
+    private long perIpLimit = 0;
+
+    private ZoneId zone = ZoneId.systemDefault();
+}
@@ -0,0 +1,67 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ✅ 의미 기반(semantic) 응답 캐시 설정 클래스
+ * - application.yml의 infer.semantic-cache 값 읽어옴
+ *
+ * - threshold: 이전 질의와의 코사인 유사도가 이 값 이상이면 이전 응답을 재사용
+ * - ttl: 캐시 항목 유효 시간
+ * - max-entries-per-scope: (model, contextSetId, project)마다 보관할 최대 항목 수 (넘으면 오래된 것부터 제거)
+ * - projects: 프로젝트별 enabled / threshold / ttl 덮어쓰기 (지정하지 않은 값은 기본값 사용)
+ *
+ * 💡 기본은 꺼져 있음 (opt-in). 질의가 짧고 반복적인(FAQ성) 프로젝트에만 켜는 것을 권장
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.semantic-cache")
+public class SemanticCacheProperties {
+
+    private boolean enabled = false;
+
+    private double threshold = 0.95;
+
+    private Duration ttl = Duration.ofHours(6);
+
+    private int maxEntriesPerScope = 5000;
+
+    private int m = 12;
+
+    private int efConstruction = 100;
+
+    private int efSearch = 32;
+
+    private Map<String, ProjectPolicy> projects = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class ProjectPolicy {
+        private Boolean enabled;
+        private Double threshold;
+        private Duration ttl;
+    }
+
+    public boolean isEnabledFor(String project) {
+        ProjectPolicy policy = projects.get(project);
+        return policy != null && policy.getEnabled() != null ? policy.getEnabled() : enabled;
+    }
+
+    public double thresholdFor(String project) {
+        ProjectPolicy policy = projects.get(project);
+        return policy != null && policy.getThreshold() != null ? policy.getThreshold() : threshold;
+    }
+
+    public Duration ttlFor(String project) {
+        ProjectPolicy policy = projects.get(project);
+        return policy != null && policy.getTtl() != null ? policy.getTtl() : ttl;
+    }
+}
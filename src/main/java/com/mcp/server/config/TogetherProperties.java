@@ -15,6 +15,8 @@ public class TogetherProperties {
 
     private String apiKey;
     private String model;
+    private String baseUrl = "https://api.together.xyz/v1";   // OpenAI 호환 API 기본 경로
+    private final ProviderTransportSettings transport = new ProviderTransportSettings();
 
     public void setApiKey(String apiKey) {
         this.apiKey = apiKey;
@@ -23,4 +25,8 @@ public class TogetherProperties {
     public void setModel(String model) {
         this.model = model;
     }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
 }
\ No newline at end of file
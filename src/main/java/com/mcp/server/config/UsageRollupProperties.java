@@ -0,0 +1,24 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ✅ 사용량 집계(api_usage_rollup) 설정 클래스
+ * - application.yml의 infer.usage-rollup 값 읽어옴
+ *
+ * - rebuild-cron: 원본 로그 기준으로 집계를 다시 계산하는 야간 작업 주기
+ * - rebuild-days: 야간 작업이 다시 계산할 지난 날짜 수 (오늘 제외, 어제부터)
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.usage-rollup")
+public class UsageRollupProperties {
+
+    private String rebuildCron = "0 30 3 * * *";
+
+    private int rebuildDays = 2;
+}
@@ -0,0 +1,44 @@
+package com.mcp.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * ✅ 벡터 유사도 검색(HNSW 인덱스) 설정 클래스
+ * - application.yml의 infer.vector-search 값 읽어옴
+ *
+ * - snapshot-dir: 인덱스 스냅샷 저장 위치 (재시작 시 DB에서 다시 만들지 않고 바로 로드)
+ * - sync-interval: 새로 임베딩된 행을 인덱스에 반영하는 주기
+ * - settle-delay: 이 시간보다 최근에 임베딩된 행은 다음 주기로 미룸 (늦게 커밋되는 행을 워터마크가 건너뛰지 않도록)
+ * - snapshot-interval: 스냅샷 저장 주기 (종료 시에도 저장)
+ * - m / ef-construction / ef-search: HNSW 그래프 이웃 수 / 추가 시 후보 수 / 검색 시 후보 수
+ * - max-k: 한 번에 돌려줄 최대 결과 수
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "infer.vector-search")
+public class VectorSearchProperties {
+
+    private boolean enabled = true;
+
+    private String snapshotDir = "data/vector-index";
+
+    private Duration syncInterval = Duration.ofSeconds(10);
+
+    private Duration settleDelay = Duration.ofSeconds(10);
+
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+
+    private int m = 16;
+
+    private int efConstruction = 200;
+
+    private int efSearch = 64;
+
+    private int maxK = 100;
+}
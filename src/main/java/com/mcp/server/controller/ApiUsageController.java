@@ -1,22 +1,24 @@
 package com.mcp.server.controller;
 
 import com.mcp.server.domain.usage.ApiUsageLog;
+import com.mcp.server.dto.CursorPage;
 import com.mcp.server.dto.UsageStatResponse;
 import com.mcp.server.service.ApiUsageService;
+import com.mcp.server.util.CsvDownload;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ✅ ApiUsageController
@@ -37,15 +39,19 @@ public class ApiUsageController {
      */
     @Operation(
             summary = "오늘 전체 모델 사용 기록 조회",
-            description = "오늘 하루 동안 호출된 모든 모델의 API 사용 기록을 반환합니다."
+            description = "오늘 하루 동안 호출된 모든 모델의 API 사용 기록을 최신순 페이지로 반환합니다. (size 기본 50, 최대 500 / 다음 페이지는 nextCursor를 cursor로 전달)"
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "성공적으로 사용 기록 반환됨"),
             @ApiResponse(responseCode = "500", description = "서버 내부 오류")
     })
     @GetMapping(value = "/today", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<ApiUsageLog> getTodayUsage() {
-        return apiUsageService.getTodayLogs();
+    public CursorPage<ApiUsageLog> getTodayUsage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        LocalDate today = LocalDate.now();
+        return apiUsageService.getLogsPage(today, today, null, cursor, size);
     }
 
     /**
@@ -53,7 +59,7 @@ public class ApiUsageController {
      */
     @Operation(
             summary = "오늘 특정 모델 사용 기록 조회",
-            description = "오늘 하루 동안 특정 모델(groq, gpt 등)의 API 사용 로그를 조회합니다."
+            description = "오늘 하루 동안 특정 모델(groq, gpt 등)의 API 사용 로그를 최신순 페이지로 조회합니다."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "해당 모델의 사용 기록 반환"),
@@ -61,11 +67,14 @@ public class ApiUsageController {
             @ApiResponse(responseCode = "500", description = "서버 내부 오류")
     })
     @GetMapping(value = "/today/{model}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<ApiUsageLog> getTodayUsageByModel(
+    public CursorPage<ApiUsageLog> getTodayUsageByModel(
             @Parameter(description = "모델 이름 (예: groq, gpt, claude 등)", example = "groq")
-            @PathVariable String model
+            @PathVariable String model,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
     ) {
-        return apiUsageService.getTodayLogsByModel(model);
+        LocalDate today = LocalDate.now();
+        return apiUsageService.getLogsPage(today, today, model, cursor, size);
     }
 
     /**
@@ -73,7 +82,7 @@ public class ApiUsageController {
      */
     @Operation(
             summary = "오늘 모델별 사용량 통계",
-            description = "오늘 날짜 기준 모델별 호출 수, 총 토큰 사용량, 평균 응답 시간(ms)을 반환합니다."
+            description = "오늘 날짜 기준 모델별 호출 수, 총 토큰 사용량, 평균 및 p50/p95/p99 응답 시간(ms)을 반환합니다."
     )
     @ApiResponse(responseCode = "200", description = "모델별 통계 반환")
     @GetMapping(value = "/stats/today", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -86,17 +95,38 @@ public class ApiUsageController {
      */
     @Operation(
             summary = "지정된 기간의 API 호출 기록 조회",
-            description = "from~to 날짜 범위 내의 전체 모델 호출 로그를 반환합니다. (YYYY-MM-DD 형식)"
+            description = "from~to 날짜 범위 내의 모델 호출 로그를 최신순 페이지로 반환합니다. (YYYY-MM-DD 형식, size 기본 50, 최대 500)"
     )
     @ApiResponse(responseCode = "200", description = "기간 내 모든 API 호출 로그 반환")
     @GetMapping(value = "/history", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<ApiUsageLog> getUsageBetweenDates(
+    public CursorPage<ApiUsageLog> getUsageBetweenDates(
+            @RequestParam("from") @Parameter(example = "2025-04-01") String from,
+            @RequestParam("to") @Parameter(example = "2025-04-06") String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        LocalDate fromDate = LocalDate.parse(from);
+        LocalDate toDate = LocalDate.parse(to);
+        return apiUsageService.getLogsPage(fromDate, toDate, null, cursor, size);
+    }
+
+    /**
+     * ✅ 사용량 집계 재계산
+     */
+    @Operation(
+            summary = "사용량 집계 재계산",
+            description = "from~to(날짜 포함) 구간의 모델별 집계(api_usage_rollup)를 원본 호출 기록에서 다시 계산합니다. 집계가 원본과 어긋났을 때 복구용입니다. 오늘은 증분 갱신 중이므로 어제까지만 재계산합니다."
+    )
+    @ApiResponse(responseCode = "200", description = "새로 만들어진 집계 행 수 반환")
+    @PostMapping(value = "/rollup/rebuild", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> rebuildRollup(
             @RequestParam("from") @Parameter(example = "2025-04-01") String from,
             @RequestParam("to") @Parameter(example = "2025-04-06") String to
     ) {
         LocalDate fromDate = LocalDate.parse(from);
         LocalDate toDate = LocalDate.parse(to);
-        return apiUsageService.getLogsBetweenDates(fromDate, toDate);
+        int rows = apiUsageService.rebuildRollup(fromDate, toDate);
+        return Map.of("from", fromDate, "to", toDate, "rows", rows);
     }
 
     /**
@@ -104,7 +134,7 @@ public class ApiUsageController {
      */
     @Operation(
             summary = "기간별 모델별 통계 조회",
-            description = "from~to 날짜 범위 내에서 모델별로 호출 수, 토큰 수, 평균 응답 시간(ms)을 반환합니다."
+            description = "from~to 날짜 범위 내에서 모델별로 호출 수, 토큰 수, 평균 및 p50/p95/p99 응답 시간(ms)을 반환합니다."
     )
     @ApiResponse(responseCode = "200", description = "모델별 통계 반환")
     @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -119,7 +149,7 @@ public class ApiUsageController {
 
     @Operation(
             summary = "기간별 사용 기록 CSV 다운로드",
-            description = "지정한 날짜(from~to) 범위 내의 API 호출 기록을 CSV 형식으로 다운로드합니다."
+            description = "지정한 날짜(from~to) 범위 내의 API 호출 기록을 CSV 형식으로 다운로드합니다. DB에서 읽는 대로 바로 전송하므로 기간이 길어도 서버 메모리 사용량이 일정합니다."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "CSV 파일 다운로드 성공",
@@ -128,19 +158,15 @@ public class ApiUsageController {
             @ApiResponse(responseCode = "500", description = "서버 내부 오류")
     })
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportCsv(
+    public void exportCsv(
             @RequestParam("from") @Parameter(example = "2025-04-01") String from,
-            @RequestParam("to") @Parameter(example = "2025-04-06") String to
-    ) {
+            @RequestParam("to") @Parameter(example = "2025-04-06") String to,
+            @RequestParam(defaultValue = "false") @Parameter(description = "true면 .csv.gz로 압축해서 전송") boolean gzip,
+            HttpServletResponse response
+    ) throws IOException {
         LocalDate fromDate = LocalDate.parse(from);
         LocalDate toDate = LocalDate.parse(to);
 
-        String csv = apiUsageService.exportLogsAsCsv(fromDate, toDate);
-        byte[] csvBytes = csv.getBytes(StandardCharsets.UTF_8);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"api-usage.csv\"")
-                .header(HttpHeaders.CONTENT_TYPE, "text/csv; charset=UTF-8")
-                .body(csvBytes);
+        CsvDownload.write(response, "api-usage", gzip, out -> apiUsageService.writeLogsCsv(fromDate, toDate, out));
     }
-}
+}
\ No newline at end of file
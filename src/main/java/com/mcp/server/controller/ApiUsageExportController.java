@@ -2,11 +2,14 @@ package com.mcp.server.controller;
 
 
 import com.mcp.server.service.ApiUsageService;
+import com.mcp.server.util.CsvDownload;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -17,13 +20,12 @@ public class ApiUsageExportController {
     private final ApiUsageService apiUsageService;
 
     @GetMapping("/admin/export/download")
-    public void exportCsv(String from, String to, HttpServletResponse response) {
+    public void exportCsv(String from, String to,
+                          @RequestParam(defaultValue = "false") boolean gzip,
+                          HttpServletResponse response) throws IOException {
         LocalDate fromDate = LocalDate.parse(from, DateTimeFormatter.ISO_DATE);
         LocalDate toDate = LocalDate.parse(to, DateTimeFormatter.ISO_DATE);
 
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=\"usage_data.csv\"");
-
-        apiUsageService.exportUsageAsCsv(fromDate, toDate, response);
+        CsvDownload.write(response, "usage_data", gzip, out -> apiUsageService.writeUsageCsv(fromDate, toDate, out));
     }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.mcp.server.controller;
 
+import com.mcp.server.dto.InferBatchRequest;
+import com.mcp.server.dto.InferBatchResponse;
 import com.mcp.server.dto.InferRequest;
 import com.mcp.server.dto.InferResponse;
+import com.mcp.server.service.InferBatchService;
 import com.mcp.server.service.InferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,16 +14,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletableFuture;
 
 /*
  // ✅ 4. InferController
 // 추론 요청을 처리하는 REST 컨트롤러
 // - POST /infer 요청을 받고 DTO 검증 후 서비스로 위임
+// - CompletableFuture를 반환하므로 VIRTUAL 모드에서는 Tomcat 스레드가 모델 응답을 기다리지 않음
  */
 
 @RestController
@@ -29,6 +38,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class InferController {
 
     private final InferService inferService;
+    private final InferBatchService inferBatchService;
 
     @Operation(
             summary = "AI 추론 요청",
@@ -41,11 +51,57 @@ public class InferController {
             @ApiResponse(responseCode = "500", description = "서버 오류")
     })
     @PostMapping
-    public ResponseEntity<InferResponse> infer(
+    public CompletableFuture<ResponseEntity<InferResponse>> infer(
+            @Valid @RequestBody InferRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        return inferService.handleInferenceAsync(request, httpRequest.getRemoteAddr())
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @Operation(
+            summary = "AI 추론 스트리밍 요청 (SSE)",
+            description = "모델이 생성하는 토큰을 token 이벤트로 즉시 전달하고, 완료 시 done 이벤트로 전체 응답 정보를 전달합니다."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "SSE 스트림 (token / done / error 이벤트)",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "400", description = "잘못된 요청")
+    })
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter inferStream(
             @Valid @RequestBody InferRequest request,
             HttpServletRequest httpRequest
     ) {
-        InferResponse response = inferService.handleInference(request, httpRequest);
-        return ResponseEntity.ok(response);
+        return inferService.handleStreamingInference(request, httpRequest.getRemoteAddr());
+    }
+
+    @Operation(
+            summary = "AI 배치 추론 요청",
+            description = "여러 InferRequest를 한 번에 처리합니다. 제공자별 동시 호출 수를 제한하며, 결과는 요청 순서대로 반환되고 항목별 오류는 error 필드에 담깁니다."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "항목별 결과 (요청 순서)",
+                    content = @Content(schema = @Schema(implementation = InferBatchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "잘못된 요청 또는 최대 건수 초과")
+    })
+    @PostMapping("/batch")
+    public DeferredResult<InferBatchResponse> inferBatch(
+            @Valid @RequestBody InferBatchRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        return inferBatchService.handleBatch(request, httpRequest.getRemoteAddr());
+    }
+
+    @Operation(
+            summary = "AI 배치 추론 스트리밍 요청 (SSE)",
+            description = "항목이 끝나는 순서대로 item 이벤트(index 포함)를 보내고, 마지막에 done 이벤트로 요약을 보냅니다."
+    )
+    @PostMapping(value = "/batch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter inferBatchStream(
+            @Valid @RequestBody InferBatchRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        return inferBatchService.handleBatchStream(request, httpRequest.getRemoteAddr());
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,20 @@
 package com.mcp.server.controller;
 
 import com.mcp.server.domain.log.Log;
-import com.mcp.server.domain.log.LogRepository;
+import com.mcp.server.dto.CursorPage;
+import com.mcp.server.dto.LogRequestCondition;
+import com.mcp.server.dto.LogSummary;
+import com.mcp.server.dto.LogTextSearchHit;
+import com.mcp.server.service.LogQueryService;
+import com.mcp.server.service.LogTextSearchService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -16,19 +23,35 @@ import java.util.List;
  * ✅ LogController
  * - 저장된 AI 추론 로그 데이터를 조회하기 위한 REST API 컨트롤러
  * - 관리자 또는 개발자용 로그 확인 목적
+ *
+ * 💡 목록 API는 모두 최신순 커서 페이지(CursorPage<LogSummary>)로 응답한다.
+ *    - size: 페이지 크기 (기본 50, 최대 500)
+ *    - cursor: 이전 응답의 nextCursor (첫 페이지는 생략)
+ *    - 목록에는 prompt/result가 없으며, 전체 내용은 GET /logs/{id}로 조회
  */
 @RestController
 @RequestMapping("/logs")
 @RequiredArgsConstructor
 public class LogController {
 
-    private final LogRepository logRepository;
+    private final LogQueryService logQueryService;
+    private final LogTextSearchService logTextSearchService;
 
-    /** ✅ 전체 로그 목록 조회 */
-    @Operation(summary = "모든 추론 로그 조회", description = "DB에 저장된 모든 추론 요청 및 응답 기록을 조회합니다.")
+    /** ✅ 로그 검색 (필터 조합) */
+    @Operation(summary = "추론 로그 검색", description = "project/provider/model/기간(from~to) 조건을 자유롭게 조합해 추론 로그 요약을 페이지로 조회합니다. sort=asc|desc (기본 최신순)")
     @GetMapping
-    public List<Log> findAll() {
-        return logRepository.findAll();
+    public CursorPage<LogSummary> search(@ParameterObject @ModelAttribute LogRequestCondition condition) {
+        return logQueryService.search(condition);
+    }
+
+    /** ✅ 본문 전문 검색 */
+    @Operation(summary = "추론 로그 전문 검색", description = "query/result 본문을 검색해 관련도 순으로 반환합니다. 공백은 AND, OR로 묶기, \"따옴표\"는 구문, -단어는 제외입니다. project/model로 범위를 좁힐 수 있습니다.")
+    @GetMapping("/text-search")
+    public List<LogTextSearchHit> textSearch(@Parameter(description = "검색어") @RequestParam String q,
+                                             @RequestParam(required = false) String project,
+                                             @RequestParam(required = false) String model,
+                                             @RequestParam(defaultValue = "20") int limit) {
+        return logTextSearchService.search(q, project, model, limit);
     }
 
     /** ✅ 단일 로그 조회 */
@@ -40,56 +63,79 @@ public class LogController {
     })
     @GetMapping("/{id}")
     public Log findById(@PathVariable Long id) {
-        return logRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Log not found with id = " + id));
+        return logQueryService.findById(id);
     }
 
     /** ✅ 제공자 기준 조회 */
     @Operation(summary = "제공자별 로그 조회", description = "제공자 이름(Groq 등)으로 로그를 조회합니다.")
     @GetMapping("/provider/{provider}")
-    public List<Log> findByProvider(@PathVariable String provider) {
-        return logRepository.findByProviderIgnoreCase(provider);
+    public CursorPage<LogSummary> findByProvider(@PathVariable String provider,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return logQueryService.search(condition(provider, null, null, cursor, size));
     }
 
     /** ✅ 모델 기준 조회 */
     @Operation(summary = "모델별 로그 조회", description = "모델 이름으로 로그를 조회합니다.")
     @GetMapping("/model/{model}")
-    public List<Log> findByModel(@PathVariable String model) {
-        return logRepository.findByModelIgnoreCase(model);
+    public CursorPage<LogSummary> findByModel(@PathVariable String model,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return logQueryService.search(condition(null, model, null, cursor, size));
     }
 
     /** ✅ 프로젝트 기준 조회 */
     @Operation(summary = "프로젝트별 로그 조회", description = "프로젝트 이름으로 로그를 조회합니다.")
     @GetMapping("/project/{project}")
-    public List<Log> findByProject(@PathVariable String project) {
-        return logRepository.findByProjectIgnoreCase(project);
+    public CursorPage<LogSummary> findByProject(@PathVariable String project,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return logQueryService.search(condition(null, null, project, cursor, size));
     }
 
     /** ✅ 제공자 + 모델 조합 필터링 */
     @Operation(summary = "제공자+모델 조합 로그 조회", description = "제공자와 모델로 로그를 조회합니다.")
     @GetMapping("/provider/{provider}/model/{model}")
-    public List<Log> findByProviderAndModel(@PathVariable String provider, @PathVariable String model) {
-        return logRepository.findByProviderIgnoreCaseAndModelIgnoreCase(provider, model);
+    public CursorPage<LogSummary> findByProviderAndModel(@PathVariable String provider, @PathVariable String model,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return logQueryService.search(condition(provider, model, null, cursor, size));
     }
 
     /** ✅ 전체 최신순 */
     @Operation(summary = "전체 로그 최신순 조회", description = "로그를 생성일 기준으로 내림차순 정렬합니다.")
     @GetMapping("/latest")
-    public List<Log> findAllOrderByCreatedAtDesc() {
-        return logRepository.findAllByOrderByCreatedAtDesc();
+    public CursorPage<LogSummary> findAllOrderByCreatedAtDesc(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return logQueryService.search(condition(null, null, null, cursor, size));
     }
 
     /** ✅ 제공자 기준 최신순 */
     @Operation(summary = "제공자별 최신 로그 조회", description = "제공자별 로그를 최신순으로 조회합니다.")
     @GetMapping("/provider/{provider}/latest")
-    public List<Log> findByProviderOrderByCreatedAtDesc(@PathVariable String provider) {
-        return logRepository.findByProviderIgnoreCaseOrderByCreatedAtDesc(provider);
+    public CursorPage<LogSummary> findByProviderOrderByCreatedAtDesc(@PathVariable String provider,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return logQueryService.search(condition(provider, null, null, cursor, size));
     }
 
     /** ✅ 프로젝트 + 제공자 기준 최신순 */
     @Operation(summary = "프로젝트+제공자 최신 로그 조회", description = "프로젝트와 제공자 기준으로 최신순 조회합니다.")
     @GetMapping("/project/{project}/provider/{provider}/latest")
-    public List<Log> findByProjectAndProviderOrderByCreatedAtDesc(@PathVariable String project, @PathVariable String provider) {
-        return logRepository.findByProjectIgnoreCaseAndProviderIgnoreCaseOrderByCreatedAtDesc(project, provider);
+    public CursorPage<LogSummary> findByProjectAndProviderOrderByCreatedAtDesc(@PathVariable String project, @PathVariable String provider,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return logQueryService.search(condition(provider, null, project, cursor, size));
+    }
+
+    private static LogRequestCondition condition(String provider, String model, String project, String cursor, Integer size) {
+        LogRequestCondition condition = new LogRequestCondition();
+        condition.setProvider(provider);
+        condition.setModel(model);
+        condition.setProject(project);
+        condition.setCursor(cursor);
+        condition.setSize(size);
+        return condition;
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.mcp.server.controller;
+
+import com.mcp.server.dto.QuotaLimits;
+import com.mcp.server.service.ModelRateLimiter;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * ✅ QuotaController
+ * 하루 호출 한도(모델 / 프로젝트 / IP) 조회 및 실행 중 변경을 위한 REST 컨트롤러.
+ */
+@RestController
+@RequestMapping("/quota")
+@RequiredArgsConstructor
+public class QuotaController {
+
+    private final ModelRateLimiter modelRateLimiter;
+
+    @Operation(summary = "현재 호출 한도 조회", description = "모델/프로젝트/IP별 하루 호출 한도를 반환합니다. (0 이하는 제한 없음)")
+    @GetMapping("/limits")
+    public QuotaLimits getLimits() {
+        return modelRateLimiter.getLimits();
+    }
+
+    @Operation(summary = "호출 한도 변경", description = "재시작 없이 즉시 적용됩니다. 오늘 이미 사용한 횟수는 유지됩니다.")
+    @PutMapping("/limits")
+    public QuotaLimits updateLimits(@RequestBody QuotaLimits limits) {
+        modelRateLimiter.updateLimits(limits);
+        return modelRateLimiter.getLimits();
+    }
+
+    @Operation(summary = "오늘 사용량 조회", description = "키(model:xxx, project:xxx, ip:xxx)별 오늘 예약/사용 횟수를 반환합니다.")
+    @GetMapping("/usage")
+    public Map<String, Long> getTodayUsage() {
+        return modelRateLimiter.getTodayUsage();
+    }
+}
@@ -0,0 +1,58 @@
+package com.mcp.server.controller;
+
+import com.mcp.server.dto.SimilarItem;
+import com.mcp.server.dto.SimilarSearchRequest;
+import com.mcp.server.service.VectorSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * ✅ VectorSearchController
+ * - 임베딩 벡터(HNSW 인덱스) 기반 유사 로그/ContextSet 검색 API
+ *
+ * 💡 결과는 유사도(score) 내림차순이며, 임베딩이 끝난 항목만 검색된다. (EmbeddingWorker → VectorSearchService 동기화)
+ */
+@RestController
+@RequestMapping("/search/similar")
+@RequiredArgsConstructor
+public class VectorSearchController {
+
+    private final VectorSearchService vectorSearchService;
+
+    /** ✅ 특정 로그와 비슷한 로그 */
+    @Operation(summary = "유사 로그 검색", description = "기준 로그의 contentType(기본 QUERY) 벡터와 비슷한 로그를 top-k로 반환합니다. project로 범위를 좁힐 수 있습니다.")
+    @GetMapping("/logs/{logId}")
+    public List<SimilarItem> similarLogs(@PathVariable Long logId,
+                                         @RequestParam(defaultValue = "10") int k,
+                                         @RequestParam(required = false) String project,
+                                         @Parameter(description = "PROMPT / QUERY / RESULT") @RequestParam(required = false) String contentType) {
+        return vectorSearchService.findSimilarLogs(logId, k, project, contentType);
+    }
+
+    /** ✅ 특정 ContextSet과 비슷한 ContextSet */
+    @Operation(summary = "유사 ContextSet 검색", description = "기준 ContextSet과 내용이 비슷한 ContextSet을 top-k로 반환합니다.")
+    @GetMapping("/contexts/{contextSetId}")
+    public List<SimilarItem> similarContexts(@PathVariable Long contextSetId,
+                                             @RequestParam(defaultValue = "10") int k,
+                                             @RequestParam(required = false) String project) {
+        return vectorSearchService.findSimilarContexts(contextSetId, k, project);
+    }
+
+    /** ✅ 텍스트와 비슷한 로그 */
+    @Operation(summary = "텍스트로 유사 로그 검색", description = "요청 텍스트를 임베딩해 비슷한 로그를 top-k로 반환합니다.")
+    @PostMapping("/logs")
+    public List<SimilarItem> searchLogs(@RequestBody SimilarSearchRequest request) {
+        return vectorSearchService.searchLogsByText(request.getText(), request.getK(), request.getProject(), request.getContentType());
+    }
+
+    /** ✅ 텍스트와 비슷한 ContextSet */
+    @Operation(summary = "텍스트로 유사 ContextSet 검색", description = "요청 텍스트를 임베딩해 비슷한 ContextSet을 top-k로 반환합니다.")
+    @PostMapping("/contexts")
+    public List<SimilarItem> searchContexts(@RequestBody SimilarSearchRequest request) {
+        return vectorSearchService.searchContextsByText(request.getText(), request.getK(), request.getProject());
+    }
+}
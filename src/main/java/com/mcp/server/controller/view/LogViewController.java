@@ -1,54 +1,52 @@
 package com.mcp.server.controller.view;
 
-import com.mcp.server.domain.log.Log;
-import com.mcp.server.domain.log.LogRepository;
+import com.mcp.server.dto.CursorPage;
+import com.mcp.server.dto.LogRequestCondition;
+import com.mcp.server.dto.LogSummary;
+import com.mcp.server.service.LogQueryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-
-import java.util.List;
 
 /**
  * ✅ LogViewController
  * - 관리자 웹에서 추론 로그를 렌더링하는 전용 컨트롤러
- * - 제공자 / 모델명 조건으로 필터링 기능 포함
+ * - 프로젝트 / 제공자 / 모델명 / 기간 조건으로 필터링 기능 포함
+ * - 목록은 요약 + 커서 페이지(다음 페이지 버튼), 전체 내용은 상세 화면에서 표시
  */
 @Controller
 @RequestMapping("/admin")
 @RequiredArgsConstructor
 public class LogViewController {
 
-    private final LogRepository logRepository;
+    private final LogQueryService logQueryService;
 
     /**
      * ✅ 로그 리스트 화면 렌더링
-     * - 필터 조건이 있을 경우 해당 기준으로 조회
-     * - 대소문자 무시 (IgnoreCase)
+     * - project / provider / model / 기간 조건을 조합해 조회 (대소문자 무시)
+     * - 정렬은 sort=asc|desc (기본 최신순)
      */
     @GetMapping("/logs")
-    public String logs(@RequestParam(required = false) String provider,
-                       @RequestParam(required = false) String model,
-                       Model modelAttr) {
-
-        List<Log> logs;
+    public String logs(@ModelAttribute("condition") LogRequestCondition condition, Model modelAttr) {
+        CursorPage<LogSummary> page = logQueryService.search(condition);
 
-        if (provider != null && !provider.isEmpty() && model != null && !model.isEmpty()) {
-            logs = logRepository.findByProviderIgnoreCaseAndModelIgnoreCase(provider, model);
-        } else if (provider != null && !provider.isEmpty()) {
-            logs = logRepository.findByProviderIgnoreCaseOrderByCreatedAtDesc(provider);
-        } else if (model != null && !model.isEmpty()) {
-            logs = logRepository.findByModelIgnoreCase(model);
-        } else {
-            logs = logRepository.findAllByOrderByCreatedAtDesc();
-        }
-
-        modelAttr.addAttribute("logs", logs);
-        modelAttr.addAttribute("provider", provider); // 필터 입력값 유지
-        modelAttr.addAttribute("model", model);       // 필터 입력값 유지
+        modelAttr.addAttribute("logs", page.getItems());
+        modelAttr.addAttribute("nextCursor", page.getNextCursor());
+        modelAttr.addAttribute("size", page.getSize());
 
         return "admin/logs";
     }
-}
+
+    /**
+     * ✅ 로그 상세 화면 (prompt / query / result 전체)
+     */
+    @GetMapping("/logs/{id}")
+    public String logDetail(@PathVariable Long id, Model modelAttr) {
+        modelAttr.addAttribute("log", logQueryService.findById(id));
+        return "admin/log-detail";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.mcp.server.domain.backfill;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ BackfillWatermark
+ * 백필 작업별로 "여기까지 처리했다"는 위치를 저장하는 엔티티.
+ * - 위치는 원본 테이블의 (createdAt, id) keyset 값
+ * - 청크를 처리할 때마다 같은 트랜잭션에서 갱신되므로, 중간에 멈춰도 다음 실행이 이어서 진행한다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "backfill_watermark")
+public class BackfillWatermark {
+
+    // 처음 실행할 때의 시작 위치 (모든 행보다 앞)
+    public static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Id
+    @Column(length = 100)
+    private String name; // 백필 작업 이름 (예: log-embedding-metadata)
+
+    @Column(nullable = false)
+    private LocalDateTime lastCreatedAt;
+
+    @Column(nullable = false)
+    private Long lastId;
+
+    private LocalDateTime updatedAt;
+
+    public BackfillWatermark(String name) {
+        this.name = name;
+        this.lastCreatedAt = BEGINNING;
+        this.lastId = 0L;
+    }
+
+    /**
+     * ✅ 처리 위치를 앞으로 이동 (뒤로는 이동하지 않음)
+     */
+    public void advance(LocalDateTime createdAt, Long id) {
+        if (createdAt.isBefore(lastCreatedAt) || (createdAt.isEqual(lastCreatedAt) && id <= lastId)) {
+            return;
+        }
+        this.lastCreatedAt = createdAt;
+        this.lastId = id;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
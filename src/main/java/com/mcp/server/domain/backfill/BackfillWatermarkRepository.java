@@ -0,0 +1,29 @@
+package com.mcp.server.domain.backfill;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface BackfillWatermarkRepository extends JpaRepository<BackfillWatermark, String> {
+
+    // 청크 처리 중 다른 노드가 같은 백필을 동시에 진행하지 않도록 행 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM BackfillWatermark w WHERE w.name = :name")
+    Optional<BackfillWatermark> findForUpdate(@Param("name") String name);
+
+    // 워터마크 행이 없으면 시작 위치로 생성 - MySQL 전용 구문
+    // (여러 노드가 처음 실행할 때 동시에 만들어도 중복 키 오류 없이 한 행만 남음, findForUpdate 전에 호출)
+    @Modifying
+    @Query(value = """
+        INSERT INTO backfill_watermark (name, last_created_at, last_id)
+        VALUES (:name, :beginning, 0)
+        ON DUPLICATE KEY UPDATE name = name
+    """, nativeQuery = true)
+    void insertIfAbsent(@Param("name") String name, @Param("beginning") LocalDateTime beginning);
+}
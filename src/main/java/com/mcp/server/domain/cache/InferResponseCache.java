@@ -0,0 +1,60 @@
+package com.mcp.server.domain.cache;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ InferResponseCache
+ * - 추론 응답 캐시의 영속 계층(2차 캐시) 엔티티
+ * - 서버 재시작 후에도 유지되며, 여러 노드가 같은 DB를 통해 캐시를 공유한다.
+ *
+ * cacheKey: SHA-256(model + prompt) 16진수 문자열
+ *           (prompt에 project / context / query가 모두 포함되므로 ContextSet이 바뀌면 키도 바뀜)
+ */
+@Entity
+@Table(name = "infer_response_cache",
+        indexes = @Index(name = "idx_infer_cache_expires_at", columnList = "expiresAt"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InferResponseCache {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    private Long contextSetId;
+
+    @Column(length = 100)
+    private String project;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String result;
+
+    private int tokensUsed;
+
+    private long providerElapsedMs; // 🔹 원래 모델 호출에 걸린 시간 (비용 가중치 계산용)
+
+    private long hitCount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,27 @@
+package com.mcp.server.domain.cache;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface InferResponseCacheRepository extends JpaRepository<InferResponseCache, Long> {
+
+    Optional<InferResponseCache> findByCacheKeyAndExpiresAtAfter(String cacheKey, LocalDateTime now);
+
+    Optional<InferResponseCache> findByCacheKey(String cacheKey);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE InferResponseCache c SET c.hitCount = c.hitCount + 1 WHERE c.cacheKey = :cacheKey")
+    int incrementHitCount(@Param("cacheKey") String cacheKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM InferResponseCache c WHERE c.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
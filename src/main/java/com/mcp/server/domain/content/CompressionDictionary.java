@@ -0,0 +1,43 @@
+package com.mcp.server.domain.content;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ CompressionDictionary
+ * - ContentStore가 최근 저장한 텍스트로 학습한 deflate 사전 (DictionaryTrainer)
+ * - 새 사전이 생겨도 이전 사전으로 압축된 blob을 풀 수 있도록 지우지 않고 쌓아 둔다. (id가 가장 큰 것이 현재 사전)
+ *
+ * ratio: 학습 샘플을 이 사전으로 압축했을 때의 (압축 크기 / 원본 크기)
+ */
+@Entity
+@Table(name = "compression_dictionary")
+@Getter
+@NoArgsConstructor
+public class CompressionDictionary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "BLOB")
+    private byte[] data;
+
+    private int sampleCount;
+
+    private double ratio;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public CompressionDictionary(byte[] data, int sampleCount, double ratio) {
+        this.data = data;
+        this.sampleCount = sampleCount;
+        this.ratio = ratio;
+        this.createdAt = LocalDateTime.now();
+    }
+}
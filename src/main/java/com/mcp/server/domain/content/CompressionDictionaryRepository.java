@@ -0,0 +1,11 @@
+package com.mcp.server.domain.content;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface CompressionDictionaryRepository extends JpaRepository<CompressionDictionary, Integer> {
+
+    // ✅ 현재 사전 (가장 최근에 학습한 것)
+    Optional<CompressionDictionary> findTopByOrderByIdDesc();
+}
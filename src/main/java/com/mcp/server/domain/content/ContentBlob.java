@@ -0,0 +1,51 @@
+package com.mcp.server.domain.content;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ ContentBlob
+ * - prompt / query / result 텍스트를 내용 해시로 한 번만 저장하는 엔티티 (ContentStore 전용)
+ * - Log / LogEmbeddingMetadata는 텍스트 대신 hash만 가진다.
+ *
+ * hash: SHA-256(UTF-8 텍스트) 16진수 → 같은 텍스트는 몇 번 저장해도 한 행
+ * codec:
+ * - RAW: 압축하지 않은 UTF-8 (짧거나 압축해도 줄지 않는 텍스트)
+ * - DEFLATE: raw deflate, dictionaryId가 있으면 그 사전(CompressionDictionary)으로 압축
+ * - CONCAT: 다른 blob hash(64자)들을 이어 붙인 목록 → 텍스트는 각 조각을 순서대로 합친 것
+ *   (prompt = ContextSet 앞부분 + query: 앞부분 blob은 같은 ContextSet을 쓰는 모든 로그가 공유)
+ *
+ * 💡 insert는 ContentStore가 JDBC 배치(INSERT IGNORE)로 직접 하고, 엔티티는 조회용으로만 사용한다.
+ */
+@Entity
+@Table(name = "content_blob")
+@Getter
+@NoArgsConstructor
+public class ContentBlob {
+
+    public enum Codec {
+        RAW, DEFLATE, CONCAT
+    }
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Codec codec;
+
+    private Integer dictionaryId; // 🔹 DEFLATE 압축에 사용한 사전 (없으면 null)
+
+    private int originalLength; // 🔹 원본 UTF-8 바이트 수 (CONCAT은 합친 텍스트 기준)
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] data;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,6 @@
+package com.mcp.server.domain.content;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+}
@@ -1,12 +1,14 @@
 package com.mcp.server.domain.context;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "context_sets")
+@Table(name = "context_sets",
+        indexes = @Index(name = "idx_context_sets_created_at_id", columnList = "createdAt, id")) // 백필 keyset 조회용
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,14 +41,29 @@ public class ContextSet {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    @Column(nullable = false)
+    private long revision; // 수정될 때마다 1씩 증가 (노드 간 캐시 무효화 확인용)
+
     @PrePersist
     public void onCreate() {
         this.createdAt = LocalDateTime.now();
     }
 
-    // 추가: context JSON 자동 구성용 헬퍼 메서드
+    @PreUpdate
+    public void onUpdate() {
+        this.revision++;
+    }
+
+    // 추가: context JSON 자동 구성용 헬퍼 메서드 (값은 JSON 문자열 규칙에 맞게 이스케이프)
     public String toContextJson() {
-        return String.format("{\n  \"persona\": \"%s\",\n  \"role\": \"%s\",\n  \"situation\": \"%s\",\n  \"goal\": \"%s\",\n  \"tone\": \"%s\"\n}",
-                persona, role, situation, goal, tone);
+        return String.format("{\n  \"persona\": %s,\n  \"role\": %s,\n  \"situation\": %s,\n  \"goal\": %s,\n  \"tone\": %s\n}",
+                quote(persona), quote(role), quote(situation), quote(goal), quote(tone));
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        return "\"" + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + "\"";
     }
 }
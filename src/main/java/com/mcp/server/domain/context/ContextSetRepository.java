@@ -1,7 +1,31 @@
 package com.mcp.server.domain.context;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface ContextSetRepository extends JpaRepository<ContextSet, Long> {
     // 필요하면 findByName 같은 커스텀 쿼리도 여기에 추가 가능
-}
\ No newline at end of file
+
+    // 캐시 재검증용: 본문 없이 revision만 조회
+    @Query("SELECT c.revision FROM ContextSet c WHERE c.id = :id")
+    Optional<Long> findRevisionById(@Param("id") Long id);
+
+    // 임베딩 메타데이터가 없는 ContextSet (워터마크 이후, upTo 이전, 생성 순 keyset 청크)
+    @Query("""
+        SELECT c FROM ContextSet c
+        WHERE (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id))
+          AND c.createdAt < :upTo
+          AND NOT EXISTS (SELECT 1 FROM ContextEmbeddingMetadata m WHERE m.contextSetId = c.id)
+        ORDER BY c.createdAt ASC, c.id ASC
+    """)
+    List<ContextSet> findMissingEmbeddingMetadataAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       @Param("upTo") LocalDateTime upTo,
+                                                       Limit limit);
+}
@@ -6,7 +6,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "embedding_context_metadata")
+@Table(name = "embedding_context_metadata",
+        indexes = {
+                @Index(name = "uk_embedding_context_metadata_set_type", columnList = "contextSetId, contextType", unique = true), // ContextSet당 타입별 1행 보장 + 조회 / 백필 anti-join용
+                @Index(name = "idx_embedding_context_metadata_pending", columnList = "embedded, id"), // 임베딩 대기 행 조회용
+                @Index(name = "idx_embedding_context_metadata_embedded_at", columnList = "embeddedAt, id") // 벡터 인덱스 증분 동기화용
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,6 +38,18 @@ public class ContextEmbeddingMetadata {
     @Column(nullable = false)
     private boolean embedded; // 🔹 벡터화 여부
 
+    @Column(nullable = false)
+    private int attempts; // 🔹 임베딩 실패 횟수 (infer.embedding.max-attempts 이상이면 대기 행 조회에서 제외)
+
+    @Lob
+    @Column(columnDefinition = "MEDIUMBLOB")
+    private byte[] vector; // 🔹 임베딩 벡터 (VectorCodec: float32 little-endian)
+
+    @Column(length = 100)
+    private String embeddingModel; // 🔹 벡터를 만든 임베딩 모델
+
+    private LocalDateTime embeddedAt;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -40,4 +57,14 @@ public class ContextEmbeddingMetadata {
     public void onCreate() {
         this.createdAt = LocalDateTime.now();
     }
+
+    /**
+     * ✅ 임베딩 결과 저장 + 완료 표시
+     */
+    public void markEmbedded(byte[] vector, String embeddingModel) {
+        this.vector = vector;
+        this.embeddingModel = embeddingModel;
+        this.embeddedAt = LocalDateTime.now();
+        this.embedded = true;
+    }
 }
@@ -1,11 +1,50 @@
 package com.mcp.server.domain.embedding;
 
+import com.mcp.server.dto.EmbeddedVector;
+import com.mcp.server.dto.PendingEmbedding;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ContextEmbeddingMetadataRepository extends JpaRepository<ContextEmbeddingMetadata, Long> {
     List<ContextEmbeddingMetadata> findAllByEmbeddedFalse();
     List<ContextEmbeddingMetadata> findAllByEmbeddedTrue();
     List<ContextEmbeddingMetadata> findByContextSetId(Long contextSetId);
-}
\ No newline at end of file
+    List<ContextEmbeddingMetadata> findByContextSetIdIn(Collection<Long> contextSetIds);
+
+    // 임베딩 대기 행 (id 순 keyset 청크, 본문만 읽음, max-attempts번 실패한 행은 제외)
+    @Query("""
+        SELECT new com.mcp.server.dto.PendingEmbedding(m.id, m.content)
+        FROM ContextEmbeddingMetadata m
+        WHERE m.embedded = false AND m.attempts < :maxAttempts AND m.id > :afterId
+        ORDER BY m.id ASC
+    """)
+    List<PendingEmbedding> findPending(@Param("afterId") Long afterId, @Param("maxAttempts") int maxAttempts, Limit limit);
+
+    // 임베딩 실패 횟수 증가 (그사이 임베딩된 행은 건드리지 않음)
+    @Modifying
+    @Query("UPDATE ContextEmbeddingMetadata m SET m.attempts = m.attempts + 1 WHERE m.id IN :ids AND m.embedded = false")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+
+    // 벡터 인덱스 증분 동기화: 워터마크(embeddedAt, id) 이후, upTo 이전 임베딩된 행 (같은 임베딩 모델만)
+    // embeddedAt은 커밋 전에 Java에서 정해지므로 upTo(now - settle-delay)로 늦게 커밋되는 행을 건너뛰지 않게 한다.
+    @Query("""
+        SELECT new com.mcp.server.dto.EmbeddedVector(m.id, m.contextSetId, m.project, m.contextType, m.vector, m.embeddedAt)
+        FROM ContextEmbeddingMetadata m
+        WHERE m.embedded = true AND m.embeddingModel = :model
+          AND (m.embeddedAt > :embeddedAt OR (m.embeddedAt = :embeddedAt AND m.id > :id))
+          AND m.embeddedAt < :upTo
+        ORDER BY m.embeddedAt ASC, m.id ASC
+    """)
+    List<EmbeddedVector> findEmbeddedAfter(@Param("model") String model,
+                                           @Param("embeddedAt") LocalDateTime embeddedAt,
+                                           @Param("id") Long id,
+                                           @Param("upTo") LocalDateTime upTo,
+                                           Limit limit);
+}
@@ -7,7 +7,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "embedding_log_metadata")
+@Table(name = "embedding_log_metadata",
+        indexes = {
+                @Index(name = "uk_embedding_log_metadata_log_type", columnList = "logId, contentType", unique = true), // 로그당 타입별 1행 보장 + 로그별 조회 / 백필 anti-join용
+                @Index(name = "idx_embedding_log_metadata_pending", columnList = "embedded, id"), // 임베딩 대기 행 조회용
+                @Index(name = "idx_embedding_log_metadata_embedded_at", columnList = "embeddedAt, id") // 벡터 인덱스 증분 동기화용
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +21,8 @@ import java.time.LocalDateTime;
 public class LogEmbeddingMetadata {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "embedding_log_metadata_seq")
+    @SequenceGenerator(name = "embedding_log_metadata_seq", sequenceName = "embedding_log_metadata_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -28,12 +34,27 @@ public class LogEmbeddingMetadata {
     @Column(nullable = false, length = 100)
     private String contentType; // 🔹 PROMPT / QUERY / RESULT
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String content;
+    @Column(columnDefinition = "TEXT")
+    private String content; // 🔹 content store 도입 전 행만 사용 (이후 행은 contentHash)
+
+    @Column(length = 64)
+    private String contentHash; // 🔹 ContentStore(content_blob) 본문 hash = Log.promptHash / queryHash / resultHash
 
     @Column(nullable = false)
     private boolean embedded; // 🔹 벡터화 여부
 
+    @Column(nullable = false)
+    private int attempts; // 🔹 임베딩 실패 횟수 (infer.embedding.max-attempts 이상이면 대기 행 조회에서 제외)
+
+    @Lob
+    @Column(columnDefinition = "MEDIUMBLOB")
+    private byte[] vector; // 🔹 임베딩 벡터 (VectorCodec: float32 little-endian)
+
+    @Column(length = 100)
+    private String embeddingModel; // 🔹 벡터를 만든 임베딩 모델
+
+    private LocalDateTime embeddedAt;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -41,4 +62,14 @@ public class LogEmbeddingMetadata {
     public void onCreate() {
         this.createdAt = LocalDateTime.now();
     }
+
+    /**
+     * ✅ 임베딩 결과 저장 + 완료 표시
+     */
+    public void markEmbedded(byte[] vector, String embeddingModel) {
+        this.vector = vector;
+        this.embeddingModel = embeddingModel;
+        this.embeddedAt = LocalDateTime.now();
+        this.embedded = true;
+    }
 }
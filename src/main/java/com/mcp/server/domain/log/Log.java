@@ -2,39 +2,85 @@ package com.mcp.server.domain.log;
 
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 // ✅ 7. Log 엔티티 (추론 요청 & 응답 기록)
 // 추론 요청과 응답 정보를 DB에 저장하기 위한 JPA 엔티티
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_log_created_at_id", columnList = "createdAt, id"), // 최신순 keyset 페이지 조회용
+        // 검색 필터 조합(LogSpecifications)용: 등호 조건 컬럼 → createdAt, id 순이라 필터 + 정렬 + keyset이 한 인덱스에서 끝남
+        @Index(name = "idx_log_project_provider_created", columnList = "projectKey, providerKey, createdAt, id"),
+        @Index(name = "idx_log_provider_model_created", columnList = "providerKey, modelKey, createdAt, id"),
+        @Index(name = "idx_log_project_model_created", columnList = "projectKey, modelKey, createdAt, id"),
+        @Index(name = "idx_log_model_created", columnList = "modelKey, createdAt, id")
+})
 @Getter
 @ToString
 @NoArgsConstructor
 public class Log {
 
+    // 💡 IDENTITY는 insert마다 키를 받아와야 해서 JDBC 배치가 꺼지므로, 50개씩 미리 할당하는 시퀀스 사용
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "log_seq")
+    @SequenceGenerator(name = "log_seq", sequenceName = "log_seq", allocationSize = 50)
     private Long id;
 
     private String project;
     private String provider;
     private String model;
 
+    // 🔹 검색용 정규화 값 (소문자). LOWER(column) 조건은 인덱스를 못 쓰므로 저장 시 미리 소문자로 만들어 둠
+    @Column(length = 100)
+    private String projectKey;
+
+    @Column(length = 100)
+    private String providerKey;
+
+    @Column(length = 200)
+    private String modelKey;
+
+    // 🔹 prompt / result 본문은 ContentStore(content_blob)에 저장하고 hash만 보관
+    //    (content store 도입 전 로그나 비활성화 시에는 아래 TEXT 컬럼에 그대로 저장)
+    @Getter(AccessLevel.NONE)
     @Column(columnDefinition = "TEXT")
     private String prompt;
 
+    @Column(length = 64)
+    private String promptHash;
+
     @Column(columnDefinition = "TEXT")
-    private String query;
+    private String query; // 🔹 목록/검색용으로 그대로 유지 (메타데이터는 queryHash 참조)
+
+    @Column(length = 64)
+    private String queryHash;
 
+    @Getter(AccessLevel.NONE)
     @Column(columnDefinition = "TEXT")
     private String result;
 
+    @Column(length = 64)
+    private String resultHash;
+
+    // 🔹 저장 직전 / 복원(rehydrate) 후의 본문 (컬럼 아님)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private String promptText;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private String resultText;
+
     private String elapsed;
 
     @CreationTimestamp
@@ -44,9 +90,88 @@ public class Log {
         this.project = project;
         this.provider = provider;
         this.model = model;
-        this.prompt = prompt;
+        this.projectKey = keyOf(project);
+        this.providerKey = keyOf(provider);
+        this.modelKey = keyOf(model);
+        this.promptText = prompt;
         this.query = query;
-        this.result = result;
+        this.resultText = result;
         this.elapsed = elapsed;
     }
+
+    /**
+     * ✅ 본문 (ContentStore에 저장된 로그는 rehydrate() 이후에만 값이 있음)
+     */
+    public String getPrompt() {
+        return promptText != null ? promptText : prompt;
+    }
+
+    public String getResult() {
+        return resultText != null ? resultText : result;
+    }
+
+    /**
+     * ✅ 본문을 ContentStore에 저장한 hash로 참조 (저장 전 호출)
+     */
+    public void useContentHashes(String promptHash, String queryHash, String resultHash) {
+        this.promptHash = promptHash;
+        this.queryHash = queryHash;
+        this.resultHash = resultHash;
+    }
+
+    /**
+     * ✅ ContentStore에서 읽어 온 본문 채우기 (컬럼이 아닌 필드라 변경 감지 대상이 아님)
+     */
+    public void rehydrate(String prompt, String result) {
+        this.promptText = prompt;
+        this.resultText = result;
+    }
+
+    /**
+     * ✅ 본문을 ContentStore에서 읽어 와야 하는지
+     */
+    public boolean needsRehydration() {
+        return (promptHash != null && getPrompt() == null) || (resultHash != null && getResult() == null);
+    }
+
+    /**
+     * ✅ hash로 참조하지 않는 본문은 TEXT 컬럼에 저장 (content store 비활성화 / 직접 저장한 경우)
+     */
+    @PrePersist
+    void inlineUnstoredContent() {
+        if (promptHash == null) {
+            prompt = promptText;
+        }
+        if (resultHash == null) {
+            result = resultText;
+        }
+    }
+
+    /**
+     * ✅ 보관 세그먼트(LogArchiveService)에서 읽은 로그 복원 (영속 상태가 아닌 조회 전용 객체)
+     */
+    public static Log archived(Long id, String project, String provider, String model,
+                               String prompt, String promptHash, String query, String queryHash,
+                               String result, String resultHash, String elapsed, LocalDateTime createdAt) {
+        Log log = new Log(project, provider, model, null, query, null, elapsed);
+        log.id = id;
+        log.prompt = prompt;
+        log.promptHash = promptHash;
+        log.queryHash = queryHash;
+        log.result = result;
+        log.resultHash = resultHash;
+        log.createdAt = createdAt;
+        return log;
+    }
+
+    /**
+     * ✅ 검색 키 정규화 (앞뒤 공백 제거 + 소문자, 빈 값은 null)
+     * - 저장(projectKey 등)과 검색 조건(LogSpecifications)에 같은 규칙을 적용해야 인덱스 등호 조건이 맞는다.
+     */
+    public static String keyOf(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
@@ -1,37 +1,86 @@
 package com.mcp.server.domain.log;
 
+import com.mcp.server.dto.LogSummary;
+import com.mcp.server.dto.LogTextRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * ✅ 8. LogRepository
  * - Log 엔티티를 DB에 저장하고 조회하는 Spring Data JPA 인터페이스
- * - 기본 제공되는 CRUD 외에도, 필터 조건에 따라 다양한 조회 기능 제공
+ * - 목록 검색은 LogQueryService.search()에서 LogSpecifications 조건을 조합해 실행
  */
 public interface LogRepository extends JpaRepository<Log, Long> {
 
-    // ✅ 제공자 기준으로 필터 (대소문자 구분 없이)
-    List<Log> findByProviderIgnoreCase(String provider);
+    // ✅ 검색 키(projectKey/providerKey/modelKey)가 비어 있는 이전 로그 채우기 (id 구간 단위)
+    @Modifying
+    @Query("""
+        UPDATE Log l
+        SET l.projectKey = LOWER(TRIM(l.project)),
+            l.providerKey = LOWER(TRIM(l.provider)),
+            l.modelKey = LOWER(TRIM(l.model))
+        WHERE l.id > :fromId AND l.id <= :toId
+          AND l.projectKey IS NULL AND l.providerKey IS NULL AND l.modelKey IS NULL
+    """)
+    int fillSearchKeys(@Param("fromId") Long fromId, @Param("toId") Long toId);
 
-    // ✅ 모델 기준으로 필터 (대소문자 구분 없이)
-    List<Log> findByModelIgnoreCase(String model);
+    @Query("SELECT MAX(l.id) FROM Log l")
+    Long findMaxId();
 
-    // ✅ 프로젝트 기준으로 필터 (대소문자 구분 없이)
-    List<Log> findByProjectIgnoreCase(String project);
+    // ✅ 전문 검색 색인용 로그 (워터마크 이후, upTo 이전, 생성 순 keyset 청크)
+    @Query("""
+        SELECT new com.mcp.server.dto.LogTextRow(l.id, l.project, l.model, l.query, l.result, l.resultHash, l.createdAt)
+        FROM Log l
+        WHERE (l.createdAt > :createdAt OR (l.createdAt = :createdAt AND l.id > :id))
+          AND l.createdAt < :upTo
+        ORDER BY l.createdAt ASC, l.id ASC
+    """)
+    List<LogTextRow> findTextRowsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       @Param("upTo") LocalDateTime upTo,
+                                       Limit limit);
 
-    // ✅ 제공자 + 모델로 필터 (대소문자 구분 없이)
-    List<Log> findByProviderIgnoreCaseAndModelIgnoreCase(String provider, String model);
+    // ✅ 로그 요약 (ID 목록, 순서는 호출 측에서 정렬)
+    @Query("""
+        SELECT new com.mcp.server.dto.LogSummary(
+            l.id, l.project, l.provider, l.model, SUBSTRING(l.query, 1, 200), l.elapsed, l.createdAt
+        )
+        FROM Log l
+        WHERE l.id IN :ids
+    """)
+    List<LogSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 
-    // ✅ 최근 생성일 기준 정렬
-    List<Log> findAllByOrderByCreatedAtDesc();
+    // ✅ 보관 대상 로그 (before 이전, 생성 순 keyset 청크)
+    @Query("""
+        SELECT l FROM Log l
+        WHERE (l.createdAt > :createdAt OR (l.createdAt = :createdAt AND l.id > :id))
+          AND l.createdAt < :before
+        ORDER BY l.createdAt ASC, l.id ASC
+    """)
+    List<Log> findCreatedBefore(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                @Param("before") LocalDateTime before,
+                                Limit limit);
 
-    // ✅ 제공자 기준 + 최신순 정렬 (대소문자 구분 없이)
-    List<Log> findByProviderIgnoreCaseOrderByCreatedAtDesc(String provider);
-
-    // ✅ 프로젝트 + 제공자 기준 + 최신순 정렬 (대소문자 구분 없이)
-    List<Log> findByProjectIgnoreCaseAndProviderIgnoreCaseOrderByCreatedAtDesc(String project, String provider);
-
-    // 필요하면 Paging 지원도 가능:
-    // Page<Log> findByProviderIgnoreCase(String provider, Pageable pageable);
+    // ✅ 임베딩 메타데이터(PROMPT / QUERY / RESULT 중 하나라도)가 없는 로그 (워터마크 이후, upTo 이전, 생성 순 keyset 청크)
+    @Query("""
+        SELECT l FROM Log l
+        WHERE (l.createdAt > :createdAt OR (l.createdAt = :createdAt AND l.id > :id))
+          AND l.createdAt < :upTo
+          AND (NOT EXISTS (SELECT 1 FROM LogEmbeddingMetadata m WHERE m.logId = l.id AND m.contentType = 'PROMPT')
+            OR NOT EXISTS (SELECT 1 FROM LogEmbeddingMetadata m WHERE m.logId = l.id AND m.contentType = 'QUERY')
+            OR NOT EXISTS (SELECT 1 FROM LogEmbeddingMetadata m WHERE m.logId = l.id AND m.contentType = 'RESULT'))
+        ORDER BY l.createdAt ASC, l.id ASC
+    """)
+    List<Log> findMissingEmbeddingMetadataAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                @Param("upTo") LocalDateTime upTo,
+                                                Limit limit);
 }
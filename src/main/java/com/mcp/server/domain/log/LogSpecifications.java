@@ -0,0 +1,59 @@
+package com.mcp.server.domain.log;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * ✅ LogSpecifications
+ * - 로그 검색 조건을 조합하기 위한 Specification 모음
+ * - 값이 비어 있으면 null(조건 없음)을 반환하므로 Specification.where(...).and(...)로 그대로 이어 붙이면 된다.
+ *
+ * 💡 문자열 조건은 모두 정규화 컬럼(projectKey/providerKey/modelKey)에 대한 등호 비교
+ *    → LOWER(column) 없이 인덱스(idx_log_project_provider_created 등)를 그대로 탄다.
+ */
+public final class LogSpecifications {
+
+    private LogSpecifications() {
+    }
+
+    public static Specification<Log> projectIs(String project) {
+        return keyEquals("projectKey", project);
+    }
+
+    public static Specification<Log> providerIs(String provider) {
+        return keyEquals("providerKey", provider);
+    }
+
+    public static Specification<Log> modelIs(String model) {
+        return keyEquals("modelKey", model);
+    }
+
+    /**
+     * ✅ 생성일 범위 (from 00:00 이상, to 다음 날 00:00 미만)
+     */
+    public static Specification<Log> createdBetween(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThan(root.get("createdAt"), to.plusDays(1).atStartOfDay());
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from.atStartOfDay());
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.get("createdAt"), from.atStartOfDay()),
+                    cb.lessThan(root.get("createdAt"), to.plusDays(1).atStartOfDay()));
+        };
+    }
+
+    private static Specification<Log> keyEquals(String attribute, String value) {
+        String key = Log.keyOf(value);
+        if (key == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(attribute), key);
+    }
+}
@@ -0,0 +1,55 @@
+package com.mcp.server.domain.outbox;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ EmbeddingOutboxEvent
+ * 임베딩 메타데이터를 만들어야 하는 변경(로그 생성, ContextSet 생성/수정)을 기록하는 outbox 엔티티.
+ * - 원본(Log / ContextSet) 저장과 같은 트랜잭션에서 insert → 원본이 커밋되면 이벤트도 반드시 남는다.
+ * - EmbeddingOutboxRelay가 몇 초 간격으로 가져가 메타데이터로 바꾼 뒤 삭제한다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "embedding_outbox")
+public class EmbeddingOutboxEvent {
+
+    public enum AggregateType {
+        LOG,          // 새 로그 → PROMPT / QUERY / RESULT 메타데이터 생성
+        CONTEXT_SET   // ContextSet 생성/수정 → CONTEXT 메타데이터 생성 또는 내용 갱신 후 재임베딩 대기
+    }
+
+    // 💡 배치 저장(saveLogs)과 함께 insert가 묶이도록 시퀀스 사용
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "embedding_outbox_seq")
+    @SequenceGenerator(name = "embedding_outbox_seq", sequenceName = "embedding_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private AggregateType aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private EmbeddingOutboxEvent(AggregateType aggregateType, Long aggregateId) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public static EmbeddingOutboxEvent logCreated(Long logId) {
+        return new EmbeddingOutboxEvent(AggregateType.LOG, logId);
+    }
+
+    public static EmbeddingOutboxEvent contextSetChanged(Long contextSetId) {
+        return new EmbeddingOutboxEvent(AggregateType.CONTEXT_SET, contextSetId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.mcp.server.domain.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EmbeddingOutboxRepository extends JpaRepository<EmbeddingOutboxEvent, Long> {
+
+    // ✅ 처리할 이벤트를 오래된 순으로 잠그며 가져옴
+    // 💡 SKIP LOCKED: 다른 노드가 잡고 있는 행은 건너뛰므로 여러 노드가 같은 이벤트를 기다리지 않고 나눠서 처리 (MySQL 8+)
+    @Query(value = """
+        SELECT * FROM embedding_outbox
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<EmbeddingOutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
@@ -15,10 +15,12 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_api_usage_created_at_id", columnList = "createdAt, id")) // 기간별 keyset 페이지 조회용
 public class ApiUsageLog {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "api_usage_log_seq")
+    @SequenceGenerator(name = "api_usage_log_seq", sequenceName = "api_usage_log_seq", allocationSize = 50)
     private Long id;
 
     private String model;
@@ -28,15 +30,34 @@ public class ApiUsageLog {
     private LocalDate date;
     private String ipAddress;
 
+    private boolean cacheHit; // 캐시 응답 여부 (true면 모델 호출 없음)
+
     @CreatedDate
     private LocalDateTime createdAt;
 
     public ApiUsageLog(String model, int tokensUsed, long elapsedTimeMs, String ipAddress) {
+        this(model, tokensUsed, elapsedTimeMs, ipAddress, false);
+    }
+
+    public ApiUsageLog(String model, int tokensUsed, long elapsedTimeMs, String ipAddress, boolean cacheHit) {
         this.model = model;
         this.tokensUsed = tokensUsed;
         this.elapsedTimeMs = elapsedTimeMs;
         this.ipAddress = ipAddress;
+        this.cacheHit = cacheHit;
         this.date = LocalDate.now();
         this.createdAt = LocalDateTime.now();
     }
+
+    /**
+     * ✅ 보관 세그먼트(LogArchiveService)에서 읽은 사용 기록 복원 (영속 상태가 아닌 조회 전용 객체)
+     */
+    public static ApiUsageLog archived(Long id, String model, int tokensUsed, long elapsedTimeMs, LocalDate date,
+                                       String ipAddress, boolean cacheHit, LocalDateTime createdAt) {
+        ApiUsageLog log = new ApiUsageLog(model, tokensUsed, elapsedTimeMs, ipAddress, cacheHit);
+        log.id = id;
+        log.date = date;
+        log.createdAt = createdAt;
+        return log;
+    }
 }
@@ -1,13 +1,21 @@
 package com.mcp.server.domain.usage;
 
-import com.mcp.server.dto.ApiUsageStats;
+import com.mcp.server.dto.ApiUsageExportRow;
+import jakarta.persistence.QueryHint;
 import com.mcp.server.dto.ApiUsageSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.AvailableHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.AvailableHints.HINT_READ_ONLY;
 
 /**
  * ✅ ApiUsageLogRepository
@@ -20,20 +28,48 @@ public interface ApiUsageLogRepository extends JpaRepository<ApiUsageLog, Long>
 
     List<ApiUsageLog> findByDateBetween(LocalDate from, LocalDate to);
 
+    // ✅ 가장 오래된 사용 기록 날짜 (기록이 없으면 null)
+    @Query("SELECT MIN(u.date) FROM ApiUsageLog u")
+    LocalDate findMinDate();
+
+    // ✅ 기간 내 사용 기록 첫 페이지 (최신순, model이 null이면 전체)
     @Query("""
-        SELECT new com.mcp.server.dto.ApiUsageStats(
-            u.date,
-            u.model,
-            COUNT(u),
-            SUM(u.tokensUsed),
-            AVG(u.elapsedTimeMs)
-        )
-        FROM ApiUsageLog u
-        WHERE u.date BETWEEN :from AND :to
-        GROUP BY u.date, u.model
-        ORDER BY u.date ASC
+        SELECT u FROM ApiUsageLog u
+        WHERE u.createdAt >= :from AND u.createdAt < :to
+          AND (:model IS NULL OR u.model = :model)
+        ORDER BY u.createdAt DESC, u.id DESC
     """)
-    List<ApiUsageStats> findStatsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    List<ApiUsageLog> findPage(@Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to,
+                               @Param("model") String model,
+                               Limit limit);
+
+    // ✅ 기간 내 사용 기록 다음 페이지 (keyset)
+    @Query("""
+        SELECT u FROM ApiUsageLog u
+        WHERE u.createdAt >= :from AND u.createdAt < :to
+          AND (:model IS NULL OR u.model = :model)
+          AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id))
+        ORDER BY u.createdAt DESC, u.id DESC
+    """)
+    List<ApiUsageLog> findPageBefore(@Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("model") String model,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+    // ✅ 보관 대상 사용 기록 (before 이전, 생성 순 keyset 청크)
+    @Query("""
+        SELECT u FROM ApiUsageLog u
+        WHERE (u.createdAt > :createdAt OR (u.createdAt = :createdAt AND u.id > :id))
+          AND u.createdAt < :before
+        ORDER BY u.createdAt ASC, u.id ASC
+    """)
+    List<ApiUsageLog> findCreatedBefore(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        @Param("before") LocalDateTime before,
+                                        Limit limit);
 
     @Query("""
     SELECT new com.mcp.server.dto.ApiUsageSummary(
@@ -49,4 +85,21 @@ public interface ApiUsageLogRepository extends JpaRepository<ApiUsageLog, Long>
     ORDER BY u.date ASC
 """)
     List<ApiUsageSummary> findSummaryBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // ✅ CSV 내보내기용 스트리밍 조회 (전방향 커서, 1000건씩 가져옴)
+    // 💡 MySQL은 URL에 useCursorFetch=true가 있어야 fetch size 단위로 서버 커서에서 읽음
+    //    (없으면 결과 전체를 한 번에 메모리로 받음). 호출 측 트랜잭션 안에서 사용 후 닫아야 한다.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.mcp.server.dto.ApiUsageExportRow(
+            u.model, u.tokensUsed, u.elapsedTimeMs, u.ipAddress, u.cacheHit, u.date, u.createdAt
+        )
+        FROM ApiUsageLog u
+        WHERE u.date BETWEEN :from AND :to
+        ORDER BY u.date ASC, u.id ASC
+    """)
+    Stream<ApiUsageExportRow> streamExportRowsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.mcp.server.domain.usage;
+
+import com.mcp.server.util.LatencyHistogram;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.LocalDate;
+
+/**
+ * ✅ ApiUsageRollup
+ * (날짜, 시간대, 모델) 단위로 미리 합산해 둔 사용량 집계 엔티티.
+ * - api_usage_log에 기록이 저장될 때 같은 트랜잭션에서 증분 갱신된다. (ApiUsageRollupRepository.upsert)
+ * - 통계/대시보드는 호출 건수와 무관하게 (일수 × 24 × 모델 수) 행만 읽는다.
+ * - 응답 시간 분포(LatencyHistogram)를 함께 저장해 어떤 기간이든 합쳐서 p50/p95/p99를 계산한다.
+ * - 캐시 적중(cacheHit) 호출은 calls/cacheHits에만 세고, 응답 시간 합계와 분포에서는 빼서 모델 응답 시간만 반영한다.
+ *
+ * 💡 행 생성/증가는 모두 네이티브 upsert로 처리하므로 JPA로 직접 저장하지 않는다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@DynamicUpdate // 히스토그램만 바꿔도 upsert로 늘어난 calls 등을 덮어쓰지 않도록 변경된 컬럼만 UPDATE
+@Table(name = "api_usage_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_api_usage_rollup", columnNames = {"date", "hour_of_day", "model"}))
+public class ApiUsageRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "hour_of_day", nullable = false)
+    private int hourOfDay; // 0~23 (ApiUsageLog.createdAt 기준)
+
+    @Column(nullable = false)
+    private String model;
+
+    private long calls;
+    private long cacheHits;    // calls 중 캐시 적중 건수
+    private long totalTokens;
+    private long elapsedSumMs; // 캐시 적중 제외, 평균 = elapsedSumMs / (calls - cacheHits)
+
+    @Lob
+    @Column(name = "latency_histogram", columnDefinition = "BLOB")
+    private byte[] latencyHistogram; // LatencyHistogram.toBytes()
+
+    public LatencyHistogram latency() {
+        return LatencyHistogram.fromBytes(latencyHistogram);
+    }
+
+    /**
+     * ✅ 응답 시간 분포에 새 기록을 합침 (행 잠금을 잡은 상태에서 호출)
+     */
+    public void mergeLatency(LatencyHistogram delta) {
+        LatencyHistogram merged = latency();
+        merged.merge(delta);
+        this.latencyHistogram = merged.toBytes();
+    }
+}
@@ -0,0 +1,95 @@
+package com.mcp.server.domain.usage;
+
+import com.mcp.server.dto.ApiUsageSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ✅ ApiUsageRollupRepository
+ * - 사용량 집계 증분 갱신(upsert), 응답 시간 분포 갱신, 구간 재계산, 집계 조회
+ */
+public interface ApiUsageRollupRepository extends JpaRepository<ApiUsageRollup, Long> {
+
+    // ✅ 집계 행 증분 갱신 (없으면 생성) - MySQL 전용 구문
+    @Modifying
+    @Query(value = """
+        INSERT INTO api_usage_rollup (date, hour_of_day, model, calls, cache_hits, total_tokens, elapsed_sum_ms)
+        VALUES (:date, :hour, :model, :calls, :cacheHits, :tokens, :elapsedSum)
+        ON DUPLICATE KEY UPDATE
+            calls = calls + VALUES(calls),
+            cache_hits = cache_hits + VALUES(cache_hits),
+            total_tokens = total_tokens + VALUES(total_tokens),
+            elapsed_sum_ms = elapsed_sum_ms + VALUES(elapsed_sum_ms)
+    """, nativeQuery = true)
+    void upsert(@Param("date") LocalDate date,
+                @Param("hour") int hour,
+                @Param("model") String model,
+                @Param("calls") long calls,
+                @Param("cacheHits") long cacheHits,
+                @Param("tokens") long tokens,
+                @Param("elapsedSum") long elapsedSum);
+
+    @Modifying
+    @Query(value = "DELETE FROM api_usage_rollup WHERE date BETWEEN :from AND :to", nativeQuery = true)
+    int deleteBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // ✅ 원본 로그(api_usage_log)에서 구간 집계를 다시 계산해 채움 (deleteBetween 이후 호출)
+    // - 응답 시간 합계는 캐시 적중 건을 뺀 모델 호출만 더한다. (apply와 같은 기준)
+    @Modifying
+    @Query(value = """
+        INSERT INTO api_usage_rollup (date, hour_of_day, model, calls, cache_hits, total_tokens, elapsed_sum_ms)
+        SELECT u.date, HOUR(u.created_at), u.model, COUNT(*),
+               SUM(CASE WHEN u.cache_hit THEN 1 ELSE 0 END),
+               SUM(u.tokens_used),
+               SUM(CASE WHEN u.cache_hit THEN 0 ELSE u.elapsed_time_ms END)
+        FROM api_usage_log u
+        WHERE u.date BETWEEN :from AND :to
+        GROUP BY u.date, HOUR(u.created_at), u.model
+    """, nativeQuery = true)
+    int rebuildBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // ✅ 응답 시간 분포 갱신용 행 잠금 조회 (upsert 직후 같은 트랜잭션에서 호출)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ApiUsageRollup r WHERE r.date = :date AND r.hourOfDay = :hour AND r.model = :model")
+    Optional<ApiUsageRollup> findForUpdate(@Param("date") LocalDate date,
+                                           @Param("hour") int hour,
+                                           @Param("model") String model);
+
+    // ✅ 재계산 시 응답 시간 분포 덮어쓰기
+    @Modifying
+    @Query(value = """
+        UPDATE api_usage_rollup SET latency_histogram = :histogram
+        WHERE date = :date AND hour_of_day = :hour AND model = :model
+    """, nativeQuery = true)
+    int updateHistogram(@Param("date") LocalDate date,
+                        @Param("hour") int hour,
+                        @Param("model") String model,
+                        @Param("histogram") byte[] histogram);
+
+    // ✅ 기간 내 집계 행 (모델별/날짜별 합산과 백분위 계산은 UsageRollupService에서)
+    List<ApiUsageRollup> findByDateBetweenOrderByDateAscModelAsc(LocalDate from, LocalDate to);
+
+    // ✅ 기간 내 날짜별/모델별 합계 (관리자 내보내기 화면용)
+    @Query("""
+        SELECT new com.mcp.server.dto.ApiUsageSummary(
+            r.date,
+            r.model,
+            SUM(r.calls),
+            SUM(r.totalTokens),
+            CAST(SUM(r.elapsedSumMs) AS double) / NULLIF(SUM(r.calls) - SUM(r.cacheHits), 0)
+        )
+        FROM ApiUsageRollup r
+        WHERE r.date BETWEEN :from AND :to
+        GROUP BY r.date, r.model
+        ORDER BY r.date ASC, r.model ASC
+    """)
+    List<ApiUsageSummary> findDailySummaryBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,20 @@
+package com.mcp.server.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * ✅ ApiUsageExportRow
+ * CSV 내보내기용 사용 기록 한 줄 (JPQL 생성자 프로젝션)
+ * - 엔티티가 아니므로 영속성 컨텍스트에 쌓이지 않아, 스트리밍 중 메모리가 늘지 않는다.
+ */
+public record ApiUsageExportRow(
+        String model,
+        int tokensUsed,
+        long elapsedTimeMs,
+        String ipAddress,
+        boolean cacheHit,
+        LocalDate date,
+        LocalDateTime createdAt
+) {
+}
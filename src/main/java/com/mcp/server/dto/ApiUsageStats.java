@@ -13,4 +13,7 @@ public class ApiUsageStats {
     private long count;
     private long totalTokens;
     private double averageElapsed;
+    private long p50Ms;
+    private long p95Ms;
+    private long p99Ms;
 }
@@ -0,0 +1,86 @@
+package com.mcp.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ✅ CursorPage
+ * 커서(keyset) 기반 페이지 응답 DTO. 정렬 기준은 (createdAt DESC, id DESC).
+ *
+ * - items: 현재 페이지 항목
+ * - nextCursor: 다음 페이지 요청 시 cursor 파라미터로 그대로 전달 (마지막 페이지면 null)
+ * - size: 요청한(보정된) 페이지 크기
+ *
+ * 💡 OFFSET 방식과 달리 몇 번째 페이지든 인덱스에서 바로 이어 읽으므로 테이블이 커져도 속도가 일정하다.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private List<T> items;
+    private String nextCursor;
+    private int size;
+
+    /**
+     * ✅ 커서 위치 (마지막으로 읽은 항목의 createdAt, id)
+     */
+    public record Cursor(LocalDateTime createdAt, Long id) {
+
+        public String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @param cursor encode()로 만든 문자열 (null/빈 값이면 첫 페이지 → null 반환)
+         * @throws IllegalArgumentException 형식이 잘못된 경우
+         */
+        public static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 cursor 값입니다: " + cursor);
+            }
+        }
+    }
+
+    /**
+     * ✅ 페이지 크기 보정 (기본 50, 최대 500)
+     */
+    public static int clampSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * ✅ size + 1개를 조회한 결과로 페이지 구성
+     * - 하나 더 읽힌 항목이 있으면 다음 페이지가 있다는 뜻
+     *
+     * @param fetched  size + 1개까지 조회한 결과
+     * @param size     페이지 크기
+     * @param cursorOf 항목 → 커서 변환 함수
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int size, Function<T, Cursor> cursorOf) {
+        if (fetched.size() <= size) {
+            return new CursorPage<>(fetched, null, size);
+        }
+        List<T> items = fetched.subList(0, size);
+        return new CursorPage<>(List.copyOf(items), cursorOf.apply(items.get(size - 1)).encode(), size);
+    }
+}
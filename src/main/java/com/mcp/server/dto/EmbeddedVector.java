@@ -0,0 +1,24 @@
+package com.mcp.server.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ EmbeddedVector
+ * 벡터 인덱스에 넣을 임베딩 한 건 (JPQL 생성자 프로젝션)
+ *
+ * @param metadataId  메타데이터 ID (인덱스 label)
+ * @param sourceId    원본 ID (logId 또는 contextSetId)
+ * @param project     프로젝트 이름
+ * @param contentType PROMPT / QUERY / RESULT / CONTEXT
+ * @param vector      VectorCodec으로 인코딩된 벡터
+ * @param embeddedAt  임베딩 시각 (동기화 워터마크)
+ */
+public record EmbeddedVector(
+        Long metadataId,
+        Long sourceId,
+        String project,
+        String contentType,
+        byte[] vector,
+        LocalDateTime embeddedAt
+) {
+}
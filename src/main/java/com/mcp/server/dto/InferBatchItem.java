@@ -0,0 +1,27 @@
+package com.mcp.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/*
+// ✅ InferBatchItem
+// 배치 추론 결과 한 건
+// - index: 요청 목록에서의 위치 (0부터)
+// - response: 성공 시 응답 (실패 시 null)
+// - error: 실패 시 오류 메시지 (성공 시 null)
+*/
+@Data
+@AllArgsConstructor
+public class InferBatchItem {
+    private int index;
+    private InferResponse response;
+    private String error;
+
+    public static InferBatchItem success(int index, InferResponse response) {
+        return new InferBatchItem(index, response, null);
+    }
+
+    public static InferBatchItem failure(int index, String error) {
+        return new InferBatchItem(index, null, error);
+    }
+}
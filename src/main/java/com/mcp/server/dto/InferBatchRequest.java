@@ -0,0 +1,19 @@
+package com.mcp.server.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * ✅ InferBatchRequest DTO
+ * - 여러 건의 추론 요청을 한 번에 전달하는 요청 구조
+ * - 각 항목은 /infer의 InferRequest와 동일한 형식
+ */
+@Data
+public class InferBatchRequest {
+
+    @NotEmpty(message = "requests는 비어 있을 수 없습니다.")
+    private List<@Valid InferRequest> requests;
+}
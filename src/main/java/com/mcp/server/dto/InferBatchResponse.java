@@ -0,0 +1,23 @@
+package com.mcp.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/*
+// ✅ InferBatchResponse
+// 배치 추론 전체 결과 (items는 요청 순서와 동일)
+// - succeeded / failed: 성공/실패 건수
+// - elapsed: 배치 전체 처리 시간 (ms)
+*/
+@Data
+@Builder
+@AllArgsConstructor
+public class InferBatchResponse {
+    private List<InferBatchItem> items;
+    private int succeeded;
+    private int failed;
+    private String elapsed;
+}
@@ -12,6 +12,8 @@ import lombok.Data;
 // - model: 어떤 모델로 호출했는지
 // - elapsed: 걸린 시간 (ms)
 // - tokensUsed: 사용된 토큰 수
+// - cached: 캐시에서 반환된 응답인지 여부
+// - similarity: semantic cache 적중 시 이전 질의와의 유사도 (그 외 null)
 */
 @Data
 @Builder
@@ -22,4 +24,6 @@ public class InferResponse {
     private String model;
     private String elapsed;
     private int tokensUsed;
+    private boolean cached;
+    private Float similarity;
 }
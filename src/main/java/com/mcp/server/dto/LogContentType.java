@@ -0,0 +1,9 @@
+package com.mcp.server.dto;
+
+/**
+ * ✅ LogContentType
+ * 로그별로 이미 만들어진 임베딩 메타데이터 종류 (JPQL 생성자 프로젝션)
+ * - 백필이 누락된 종류(PROMPT / QUERY / RESULT)만 골라 만들 때 사용
+ */
+public record LogContentType(Long logId, String contentType) {
+}
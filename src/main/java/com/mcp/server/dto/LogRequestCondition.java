@@ -2,34 +2,49 @@ package com.mcp.server.dto;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
 
 /**
  * ✅ LogRequestCondition
  * - 추론 로그 조회 시 사용할 필터 조건 DTO
- * - GET /logs 요청의 쿼리 파라미터를 바인딩하는 용도
+ * - GET /logs, /admin/logs 요청의 쿼리 파라미터를 바인딩하는 용도
+ * - 모든 필터는 선택이며 어떤 조합이든 LogQueryService.search()에서 하나의 쿼리로 만들어진다.
  */
 @Getter
 @Setter
 public class LogRequestCondition {
 
     /**
-     * 필터링할 프로젝트 이름 (선택)
+     * 필터링할 프로젝트 이름 (선택, 대소문자 무시)
      * 예: A, B, C
      */
     private String project;
 
+    /**
+     * 제공자 이름 (선택, 대소문자 무시)
+     * 예: Groq, Together
+     */
+    private String provider;
+
+    /**
+     * 모델 ID (선택, 대소문자 무시)
+     */
+    private String model;
+
     /**
      * 시작 날짜 (yyyy-MM-dd 형식)
      * 해당 날짜 이후의 로그만 포함됨
      */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     private LocalDate from;
 
     /**
      * 종료 날짜 (yyyy-MM-dd 형식)
      * 해당 날짜 이전의 로그만 포함됨
      */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     private LocalDate to;
 
     /**
@@ -37,4 +52,18 @@ public class LogRequestCondition {
      * 기본값: desc (최신 순)
      */
     private String sort = "desc";
-}
\ No newline at end of file
+
+    /**
+     * 이전 응답의 nextCursor (첫 페이지는 생략)
+     */
+    private String cursor;
+
+    /**
+     * 페이지 크기 (기본 50, 최대 500)
+     */
+    private Integer size;
+
+    public boolean isAscending() {
+        return "asc".equalsIgnoreCase(sort);
+    }
+}
@@ -0,0 +1,24 @@
+package com.mcp.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ LogSummary
+ * 로그 목록 조회용 요약 DTO (JPQL 생성자 프로젝션)
+ * - prompt / result 같은 큰 TEXT 컬럼은 읽지 않고, query는 앞 200자만 가져온다.
+ * - 전체 내용은 단건 조회(GET /logs/{id}, /admin/logs/{id})에서만 로드
+ */
+@Getter
+@AllArgsConstructor
+public class LogSummary {
+    private Long id;
+    private String project;
+    private String provider;
+    private String model;
+    private String queryPreview;   // query 앞 200자
+    private String elapsed;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.mcp.server.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ LogTextRow
+ * 전문 검색 색인용 로그 한 건 (JPQL 생성자 프로젝션, prompt는 읽지 않음)
+ * - result가 ContentStore에 있으면 result는 null, resultHash로 복원
+ */
+public record LogTextRow(
+        Long id,
+        String project,
+        String model,
+        String query,
+        String result,
+        String resultHash,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.mcp.server.dto;
+
+/**
+ * ✅ LogTextSearchHit
+ * 로그 전문 검색 결과 한 건
+ *
+ * @param log   로그 요약 (전체 내용은 GET /logs/{id})
+ * @param score BM25 관련도 점수 (클수록 관련도 높음)
+ */
+public record LogTextSearchHit(LogSummary log, double score) {
+}
@@ -0,0 +1,13 @@
+package com.mcp.server.dto;
+
+/**
+ * ✅ PendingEmbedding
+ * 임베딩 대기 중인 메타데이터 한 건 (JPQL 생성자 프로젝션, id + 본문만 읽음)
+ * - 본문이 ContentStore에 있으면 contentHash만 채워서 읽고, EmbeddingWorker가 content를 복원한다.
+ */
+public record PendingEmbedding(Long id, String content, String contentHash) {
+
+    public PendingEmbedding(Long id, String content) {
+        this(id, content, null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.mcp.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ✅ 호출 한도 조회/변경 DTO (GET, PUT /quota/limits)
+ * - 0 이하는 제한 없음
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuotaLimits {
+    private long defaultModelLimit;                       // 모델별 기본 하루 한도
+    private Map<String, Long> models = new HashMap<>();   // 모델별 개별 한도
+    private long defaultProjectLimit;                     // 프로젝트별 기본 하루 한도
+    private Map<String, Long> projects = new HashMap<>(); // 프로젝트별 개별 한도
+    private long perIpLimit;                              // IP별 하루 한도
+}
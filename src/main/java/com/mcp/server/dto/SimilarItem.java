@@ -0,0 +1,14 @@
+package com.mcp.server.dto;
+
+/**
+ * ✅ SimilarItem
+ * 유사도 검색 결과 한 건
+ *
+ * @param sourceId    로그 ID 또는 ContextSet ID
+ * @param metadataId  일치한 임베딩 메타데이터 ID
+ * @param project     프로젝트 이름
+ * @param contentType 일치한 본문 종류 (PROMPT / QUERY / RESULT / CONTEXT)
+ * @param score       코사인 유사도 (클수록 비슷함)
+ */
+public record SimilarItem(Long sourceId, Long metadataId, String project, String contentType, float score) {
+}
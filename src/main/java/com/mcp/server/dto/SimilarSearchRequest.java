@@ -0,0 +1,33 @@
+package com.mcp.server.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * ✅ SimilarSearchRequest
+ * - 텍스트 기반 유사도 검색 요청 DTO (POST /search/similar/**)
+ */
+@Getter
+@Setter
+public class SimilarSearchRequest {
+
+    /**
+     * 검색할 텍스트 (현재 임베딩 모델로 벡터화됨)
+     */
+    private String text;
+
+    /**
+     * 결과 수 (기본 10, 최대 infer.vector-search.max-k)
+     */
+    private int k = 10;
+
+    /**
+     * 프로젝트 필터 (선택)
+     */
+    private String project;
+
+    /**
+     * 본문 종류 필터 (로그 검색 시 PROMPT / QUERY / RESULT, 선택)
+     */
+    private String contentType;
+}
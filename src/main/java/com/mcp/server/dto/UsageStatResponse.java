@@ -11,7 +11,10 @@ import lombok.Getter;
 @AllArgsConstructor
 public class UsageStatResponse {
     private String model;
-    private int calls;
-    private int totalTokens;
+    private long calls;
+    private long totalTokens;
     private long avgElapsedMs;
+    private long p50Ms;
+    private long p95Ms;
+    private long p99Ms;
 }
\ No newline at end of file
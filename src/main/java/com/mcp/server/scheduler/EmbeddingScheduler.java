@@ -13,12 +13,14 @@ public class EmbeddingScheduler {
     private final LogEmbeddingBackfillService logEmbeddingBackfillService;
     private final ContextEmbeddingBackfillService contextEmbeddingBackfillService;
 
-    @Scheduled(fixedRate = 60 * 60 * 1000)
+    // 💡 새 로그 / ContextSet 변경은 EmbeddingOutboxRelay가 몇 초 안에 처리하므로, 여기서는 누락분만 보충하는 안전망
+    //    워터마크 이후 새로 생긴 행만 처리하므로 실행 비용은 실행 간격 동안 쌓인 양에 비례
+    @Scheduled(fixedDelayString = "${infer.embedding-backfill.interval:PT1H}")
     public void runLogEmbeddingBackfill() {
         logEmbeddingBackfillService.backfillMissingMetadata();
     }
 
-    @Scheduled(fixedRate = 60 * 60 * 1000)
+    @Scheduled(fixedDelayString = "${infer.embedding-backfill.interval:PT1H}")
     public void runContextEmbeddingBackfill() {
         contextEmbeddingBackfillService.backfillMissingMetadata();
     }
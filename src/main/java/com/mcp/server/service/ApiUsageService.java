@@ -1,22 +1,31 @@
 package com.mcp.server.service;
 
-import com.mcp.server.client.AiModelClient;
 import com.mcp.server.domain.usage.ApiUsageLog;
 import com.mcp.server.domain.usage.ApiUsageLogRepository;
+import com.mcp.server.domain.usage.ApiUsageRollupRepository;
+import com.mcp.server.dto.ApiUsageExportRow;
 import com.mcp.server.dto.ApiUsageStats;
 import com.mcp.server.dto.ApiUsageSummary;
+import com.mcp.server.dto.CursorPage;
 import com.mcp.server.dto.ModelInfo;
 import com.mcp.server.dto.UsageStatResponse;
-import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * ✅ ApiUsageService
@@ -34,8 +43,15 @@ public class ApiUsageService {
 
     private final ApiUsageLogRepository repo;
 
-    // ✅ 등록된 모델 클라이언트들 (Groq, GPT 등)
-    private final List<AiModelClient> modelClients;
+    // ✅ (날짜, 시간대, 모델)별 사용량 집계 (통계 조회는 모두 집계 테이블에서)
+    private final UsageRollupService usageRollupService;
+    private final ApiUsageRollupRepository rollupRepository;
+
+    // ✅ 보관(cold) 계층의 오래된 사용 기록
+    private final LogArchiveService logArchiveService;
+
+    // ✅ 모델 라우팅 테이블 (Groq, GPT 등 제공자별 모델 목록)
+    private final ModelRegistry modelRegistry;
 
     /**
      * ✅ record
@@ -47,29 +63,67 @@ public class ApiUsageService {
      * @param ipAddress  요청자의 IP 주소
      */
     public void record(String model, int tokensUsed, long elapsedMs, String ipAddress) {
-        ApiUsageLog log = new ApiUsageLog(model, tokensUsed, elapsedMs, ipAddress);
+        record(model, tokensUsed, elapsedMs, ipAddress, false);
+    }
+
+    /**
+     * ✅ record (캐시 여부 포함)
+     *
+     * @param cacheHit 캐시에서 반환된 응답이면 true
+     */
+    @Transactional
+    public void record(String model, int tokensUsed, long elapsedMs, String ipAddress, boolean cacheHit) {
+        ApiUsageLog log = new ApiUsageLog(model, tokensUsed, elapsedMs, ipAddress, cacheHit);
         repo.save(log);
+        usageRollupService.apply(List.of(log));
     }
 
     /**
-     * ✅ getTodayLogs
-     * 오늘 하루 동안 발생한 모든 모델의 API 호출 로그를 반환합니다.
+     * ✅ recordAll
+     * 여러 건의 API 호출 기록을 한 번에 저장합니다. (배치 추론용)
+     * - 같은 트랜잭션에서 사용량 집계도 함께 갱신
      *
-     * @return 전체 로그 리스트
+     * @param logs 저장할 사용 기록 목록
      */
-    public List<ApiUsageLog> getTodayLogs() {
-        return repo.findByDate(LocalDate.now());
+    @Transactional
+    public void recordAll(List<ApiUsageLog> logs) {
+        if (!logs.isEmpty()) {
+            repo.saveAll(logs);
+            usageRollupService.apply(logs);
+        }
     }
 
     /**
-     * ✅ getTodayLogsByModel
-     * 오늘 하루 동안 특정 모델에 대해 호출된 API 로그만 반환합니다.
+     * ✅ getLogsPage
+     * 기간(from~to, 날짜 포함) 내 API 호출 로그를 최신순 커서 페이지로 반환합니다.
+     * - DB의 기록을 먼저 읽고, 모자라면 보관 세그먼트(LogArchiveService)에서 이어 읽습니다.
      *
-     * @param model 모델 이름
-     * @return 해당 모델의 로그 리스트
+     * @param from   시작 날짜 (포함)
+     * @param to     끝 날짜 (포함)
+     * @param model  모델 필터 (null이면 전체)
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @param size   페이지 크기 (기본 50, 최대 500)
+     * @return 로그 페이지
      */
-    public List<ApiUsageLog> getTodayLogsByModel(String model) {
-        return repo.findByDateAndModel(LocalDate.now(), model);
+    public CursorPage<ApiUsageLog> getLogsPage(LocalDate from, LocalDate to, String model, String cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<ApiUsageLog> fetched = new ArrayList<>(after == null
+                ? repo.findPage(start, end, model, limit)
+                : repo.findPageBefore(start, end, model, after.createdAt(), after.id(), limit));
+        if (fetched.size() < limit.max()) {
+            // 💡 보관된 기록은 DB의 기록보다 항상 오래되었으므로 DB 결과 뒤에 이어 붙인다.
+            ApiUsageLog last = fetched.isEmpty() ? null : fetched.get(fetched.size() - 1);
+            fetched.addAll(logArchiveService.findUsagePage(from, to, model,
+                    last == null ? after : new CursorPage.Cursor(last.getCreatedAt(), last.getId()),
+                    limit.max() - fetched.size()));
+        }
+
+        return CursorPage.of(fetched, pageSize, log -> new CursorPage.Cursor(log.getCreatedAt(), log.getId()));
     }
 
     /**
@@ -82,34 +136,8 @@ public class ApiUsageService {
      * @return 모델별 통계 리스트
      */
     public List<UsageStatResponse> getTodayStatsGroupedByModel() {
-        List<ApiUsageLog> todayLogs = repo.findByDate(LocalDate.now());
-
-        return todayLogs.stream()
-                .collect(Collectors.groupingBy(ApiUsageLog::getModel))  // 모델별 그룹화
-                .entrySet()
-                .stream()
-                .map(entry -> {
-                    String model = entry.getKey();
-                    List<ApiUsageLog> logs = entry.getValue();
-
-                    int totalTokens = logs.stream().mapToInt(ApiUsageLog::getTokensUsed).sum();
-                    long avgElapsed = (long) logs.stream().mapToLong(ApiUsageLog::getElapsedTimeMs).average().orElse(0);
-
-                    return new UsageStatResponse(model, logs.size(), totalTokens, avgElapsed);
-                })
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * ✅ getLogsBetweenDates
-     * 지정된 날짜 범위 내의 모든 API 호출 로그를 반환합니다.
-     *
-     * @param from 시작 날짜 (포함)
-     * @param to   끝 날짜 (포함)
-     * @return 로그 리스트
-     */
-    public List<ApiUsageLog> getLogsBetweenDates(LocalDate from, LocalDate to) {
-        return repo.findByDateBetween(from, to);
+        LocalDate today = LocalDate.now();
+        return getStatsGroupedByModelBetween(today, today);
     }
 
     /**
@@ -118,106 +146,139 @@ public class ApiUsageService {
      * - 총 호출 수
      * - 총 사용 토큰 수
      * - 평균 응답 시간(ms)
+     * - 응답 시간 p50/p95/p99(ms)
+     *
+     * 💡 api_usage_rollup의 (일수 × 24 × 모델 수) 행만 합산하므로 호출 건수가 늘어도 비용이 같다.
      *
      * @param from 시작 날짜 (포함)
      * @param to   끝 날짜 (포함)
      * @return 모델별 통계 리스트
      */
     public List<UsageStatResponse> getStatsGroupedByModelBetween(LocalDate from, LocalDate to) {
-        List<ApiUsageLog> logs = repo.findByDateBetween(from, to);
-
-        return logs.stream()
-                .collect(Collectors.groupingBy(ApiUsageLog::getModel))  // 모델별 그룹화
-                .entrySet()
-                .stream()
-                .map(entry -> {
-                    String model = entry.getKey();
-                    List<ApiUsageLog> modelLogs = entry.getValue();
-
-                    int totalTokens = modelLogs.stream().mapToInt(ApiUsageLog::getTokensUsed).sum();
-                    long avgElapsed = (long) modelLogs.stream().mapToLong(ApiUsageLog::getElapsedTimeMs).average().orElse(0);
-
-                    return new UsageStatResponse(model, modelLogs.size(), totalTokens, avgElapsed);
-                })
-                .collect(Collectors.toList());
+        return usageRollupService.getModelStats(from, to);
     }
 
     /**
-     * ✅ exportLogsAsCsv
-     * 주어진 날짜 범위(from~to)의 API 사용 로그를 CSV 문자열로 반환합니다.
+     * ✅ rebuildRollup
+     * 원본 로그 기준으로 기간 내 사용량 집계를 다시 계산합니다.
+     *
+     * @return 새로 만들어진 집계 행 수
+     */
+    public int rebuildRollup(LocalDate from, LocalDate to) {
+        return usageRollupService.rebuild(from, to);
+    }
+
+    /**
+     * ✅ writeLogsCsv
+     * 주어진 날짜 범위(from~to)의 API 사용 로그를 CSV로 출력 스트림에 바로 씁니다.
+     * - DB 커서에서 한 줄씩 읽어 바로 쓰므로 기간이 길어도 메모리 사용량이 일정
+     * - 보관 세그먼트의 기록(더 오래됨)을 블록 단위로 먼저 쓰고, DB의 기록을 이어서 쓴다.
      *
      * @param from 시작 날짜
      * @param to   끝 날짜
-     * @return CSV 형식 문자열
+     * @param out  응답 출력 스트림 (gzip 스트림일 수 있음, 닫지 않음)
      */
-    public String exportLogsAsCsv(LocalDate from, LocalDate to) {
-        List<ApiUsageLog> logs = getLogsBetweenDates(from, to);
-
-        StringBuilder csv = new StringBuilder();
-        csv.append("Model,TokensUsed,ElapsedTimeMs,IP,Date,CreatedAt\n");
-
-        for (ApiUsageLog log : logs) {
-            csv.append(log.getModel()).append(",")
-                    .append(log.getTokensUsed()).append(",")
-                    .append(log.getElapsedTimeMs()).append(",")
-                    .append(log.getIpAddress()).append(",")
-                    .append(log.getDate()).append(",")
-                    .append(log.getCreatedAt()).append("\n");
-        }
+    @Transactional(readOnly = true)
+    public void writeLogsCsv(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Writer writer = csvWriter(out);
+        writer.write("Model,TokensUsed,ElapsedTimeMs,IP,CacheHit,Date,CreatedAt\n");
 
-        return csv.toString();
+        try {
+            logArchiveService.forEachUsage(from, to, row -> {
+                try {
+                    writeCsvRow(writer, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        try (Stream<ApiUsageExportRow> rows = repo.streamExportRowsBetween(from, to)) {
+            for (ApiUsageExportRow row : (Iterable<ApiUsageExportRow>) rows::iterator) {
+                writeCsvRow(writer, row);
+            }
+        }
+        writer.flush();
     }
 
     /**
      * ✅ getAvailableModels
      * 현재 등록된 클라이언트 기준으로 사용할 수 있는 모델 목록을 반환합니다.
-     * - Groq, TogetherAI, OpenAI 등 클라이언트가 자동 반환한 목록 기반
+     * - Groq, TogetherAI, OpenAI 등 클라이언트가 자동 반환한 목록 기반 (ModelRegistry가 주기적으로 갱신)
      *
      * @return 모델 정보 리스트
      */
     public List<ModelInfo> getAvailableModels() {
-        List<ModelInfo> result = new ArrayList<>();
+        return modelRegistry.getAvailableModels();
+    }
 
-        for (AiModelClient client : modelClients) {
-            // ✅ 제공자 이름 추출 (ex: GroqAiModelClientImpl → Groq)
-            String className = client.getClass().getSimpleName(); // 예: GroqAiModelClientImpl
-            String provider = className.replace("AiModelClientImpl", ""); // Groq, Together 등
-            String source = provider + "에서 자동 등록된 모델";
 
-            // ✅ 클라이언트가 반환한 모델 목록 순회
-            for (String modelId : client.getSupportedModels()) {
-                result.add(new ModelInfo(modelId, provider, source));
-            }
+    /**
+     * ✅ writeUsageCsv
+     * 통계 기반으로 요약 정보를 CSV로 출력 (날짜별 사용량)
+     * - 집계 테이블에서 읽으므로 행 수는 (일수 × 모델 수)
+     *
+     * @param out 응답 출력 스트림 (gzip 스트림일 수 있음, 닫지 않음)
+     */
+    @Transactional(readOnly = true)
+    public void writeUsageCsv(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Writer writer = csvWriter(out);
+        writer.write("날짜,모델명,요청 수,총 토큰 수,평균 응답 시간(ms),p50(ms),p95(ms),p99(ms)\n");
+
+        for (ApiUsageStats usage : usageRollupService.getDailyStats(from, to)) {
+            writer.write(String.format("%s,%s,%d,%d,%.2f,%d,%d,%d%n",
+                    usage.getDate(),
+                    csvField(usage.getModel()),
+                    usage.getCount(),
+                    usage.getTotalTokens(),
+                    usage.getAverageElapsed(),
+                    usage.getP50Ms(),
+                    usage.getP95Ms(),
+                    usage.getP99Ms()));
         }
+        writer.flush();
+    }
 
-        return result;
+    /**
+     * ✅ CSV용 Writer (64KB 버퍼가 찰 때마다 응답으로 전송)
+     */
+    private static void writeCsvRow(Writer writer, ApiUsageExportRow row) throws IOException {
+        writer.write(csvField(row.model()));
+        writer.write(',');
+        writer.write(Integer.toString(row.tokensUsed()));
+        writer.write(',');
+        writer.write(Long.toString(row.elapsedTimeMs()));
+        writer.write(',');
+        writer.write(csvField(row.ipAddress()));
+        writer.write(',');
+        writer.write(Boolean.toString(row.cacheHit()));
+        writer.write(',');
+        writer.write(String.valueOf(row.date()));
+        writer.write(',');
+        writer.write(String.valueOf(row.createdAt()));
+        writer.write('\n');
     }
 
+    private static Writer csvWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
 
     /**
-     * ✅ exportUsageAsCsv
-     * 통계 기반으로 요약 정보를 CSV로 출력 (날짜별 사용량)
+     * ✅ 쉼표/따옴표/줄바꿈이 있는 값만 따옴표로 감싸기
      */
-    public void exportUsageAsCsv(LocalDate from, LocalDate to, HttpServletResponse response) {
-        try (PrintWriter writer = response.getWriter()) {
-            writer.println("날짜,모델명,요청 수,총 토큰 수,평균 응답 시간(ms)");
-
-            List<ApiUsageStats> usages = repo.findStatsBetween(from, to);
-            for (ApiUsageStats usage : usages) {
-                writer.printf("%s,%s,%d,%d,%.2f%n",
-                        usage.getDate(),
-                        usage.getModel(),
-                        usage.getCount(),
-                        usage.getTotalTokens(),
-                        usage.getAverageElapsed());
-            }
-
-        } catch (IOException e) {
-            throw new RuntimeException("CSV 생성 실패", e);
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
         }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
+    @Transactional(readOnly = true)
     public List<ApiUsageSummary> getUsageSummary(LocalDate from, LocalDate to) {
-        return repo.findSummaryBetween(from, to); // JPQL에서 DTO 직접 리턴해도 됨
+        return rollupRepository.findDailySummaryBetween(from, to);
     }
 }
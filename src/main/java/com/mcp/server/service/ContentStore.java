@@ -0,0 +1,431 @@
+package com.mcp.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mcp.server.config.ContentStoreProperties;
+import com.mcp.server.domain.content.CompressionDictionary;
+import com.mcp.server.domain.content.CompressionDictionaryRepository;
+import com.mcp.server.domain.content.ContentBlob;
+import com.mcp.server.domain.content.ContentBlobRepository;
+import com.mcp.server.util.DeflateCodec;
+import com.mcp.server.util.DictionaryTrainer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * ✅ ContentStore
+ * - prompt / query / result 텍스트를 내용 해시(SHA-256)로 한 번만, 압축해서 저장하는 저장소 (content_blob)
+ * - Log / LogEmbeddingMetadata는 텍스트 대신 hash를 가지고, 읽을 때 getAll()로 복원한다.
+ *
+ * [저장] Batch에 모았다가 write()로 한 번에 (호출 측 트랜잭션 안에서 JDBC 배치 INSERT IGNORE)
+ * - 같은 hash는 이미 있으면 건너뜀 (최근 확인한 hash는 메모리에 기억해 insert 자체를 생략)
+ * - prompt는 "ContextSet 앞부분 + query"로 나눠 CONCAT blob으로 저장
+ *   → 같은 ContextSet/프로젝트의 앞부분(컨텍스트 JSON)은 로그가 몇 건이든 한 행
+ * - 텍스트는 현재 사전으로 deflate 압축 (짧거나 줄지 않으면 RAW)
+ *
+ * [사전 학습] dictionary-training-interval마다
+ * - 최근 새로 저장한 텍스트 중 절반으로 사전을 만들고(DictionaryTrainer) 나머지 절반으로 효과를 측정
+ * - 현재 사전보다 dictionary-min-gain 이상 작아질 때만 새 사전으로 교체 (이전 사전은 복원용으로 유지)
+ *
+ * 💡 mcp.content.bytes{stage=original|stored} 비율이 압축률, mcp.content.blobs{result=duplicate} 비율이 중복 제거율이다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentStore {
+
+    private static final int HASH_LENGTH = 64;
+    private static final int MAX_SAMPLE_CHARS = 8 * 1024;
+    private static final String INSERT_SQL = """
+        INSERT IGNORE INTO content_blob (hash, codec, dictionary_id, original_length, data, created_at)
+        VALUES (?, ?, ?, ?, ?, ?)
+    """;
+
+    private final ContentStoreProperties properties;
+    private final ContentBlobRepository blobRepository;
+    private final CompressionDictionaryRepository dictionaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<String> samples = new ConcurrentLinkedDeque<>();
+
+    private Cache<String, String> texts;
+    private Cache<String, Boolean> knownHashes;
+    private volatile ActiveDictionary active;
+
+    private Counter originalBytes;
+    private Counter storedBytes;
+    private Counter newBlobs;
+    private Counter duplicateBlobs;
+
+    private record ActiveDictionary(int id, byte[] data) {
+    }
+
+    /**
+     * ✅ 저장 대기 중인 blob 한 개 (text: 저장 후 캐시에 올릴 원문, CONCAT은 null)
+     */
+    private record Encoded(String hash, ContentBlob.Codec codec, Integer dictionaryId, int originalLength, byte[] data,
+                           String text) {
+    }
+
+    @PostConstruct
+    public void init() {
+        texts = Caffeine.newBuilder()
+                .maximumWeight(properties.getCacheSize().toBytes())
+                .weigher((String hash, String text) -> HASH_LENGTH + text.length() * 2)
+                .recordStats()
+                .build();
+        knownHashes = Caffeine.newBuilder()
+                .maximumSize(properties.getKnownHashes())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, texts, "content.text");
+
+        originalBytes = meterRegistry.counter("mcp.content.bytes", "stage", "original");
+        storedBytes = meterRegistry.counter("mcp.content.bytes", "stage", "stored");
+        newBlobs = meterRegistry.counter("mcp.content.blobs", "result", "new");
+        duplicateBlobs = meterRegistry.counter("mcp.content.blobs", "result", "duplicate");
+
+        try {
+            dictionaryRepository.findTopByOrderByIdDesc().ifPresent(this::activate);
+        } catch (Exception e) {
+            log.warn("⚠️ 압축 사전 로드 실패 (사전 없이 압축): {}", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * ✅ 내용 해시: SHA-256(UTF-8 텍스트) 16진수
+     */
+    public static String hashOf(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 미지원 환경", e);
+        }
+    }
+
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * ✅ 한 번에 저장할 텍스트 묶음
+     * - add 계열은 hash만 계산해 돌려주고, 실제 저장은 write()에서 한 번에 한다.
+     */
+    public final class Batch {
+
+        private final Map<String, Encoded> pending = new LinkedHashMap<>();
+
+        private Batch() {
+        }
+
+        /**
+         * ✅ 텍스트 추가
+         *
+         * @return 내용 hash (text가 null이면 null)
+         */
+        public String add(String text) {
+            if (text == null) {
+                return null;
+            }
+            String hash = hashOf(text);
+            if (isStoredOrPending(hash)) {
+                duplicateBlobs.increment();
+                return hash;
+            }
+            pending.put(hash, encode(hash, text));
+            newBlobs.increment();
+            return hash;
+        }
+
+        /**
+         * ✅ suffix로 끝나는 텍스트 추가 (prompt = 앞부분 + query)
+         * - 앞부분과 suffix를 각각 저장하고, 전체 텍스트는 두 hash를 잇는 CONCAT blob으로 저장
+         * - suffix로 끝나지 않으면 add(text)와 같다.
+         *
+         * @return 전체 텍스트의 내용 hash
+         */
+        public String addWithSuffix(String text, String suffix) {
+            if (text == null || suffix == null || suffix.isEmpty()
+                    || text.length() <= suffix.length() || !text.endsWith(suffix)) {
+                return add(text);
+            }
+            String hash = hashOf(text);
+            if (isStoredOrPending(hash)) {
+                duplicateBlobs.increment();
+                return hash;
+            }
+            String prefixHash = add(text.substring(0, text.length() - suffix.length()));
+            String suffixHash = add(suffix);
+            byte[] parts = (prefixHash + suffixHash).getBytes(StandardCharsets.US_ASCII);
+            pending.put(hash, new Encoded(hash, ContentBlob.Codec.CONCAT, null,
+                    text.getBytes(StandardCharsets.UTF_8).length, parts, null));
+            storedBytes.increment(parts.length);
+            newBlobs.increment();
+            return hash;
+        }
+
+        /**
+         * ✅ 모은 blob 저장 (호출 측 트랜잭션 안에서, 이미 있는 hash는 DB가 무시)
+         * - 커밋된 뒤에만 "저장됨"으로 기억 (롤백되면 다음 저장에서 다시 insert)
+         */
+        public void write() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Encoded> rows = List.copyOf(pending.values());
+            pending.clear();
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (statement, row) -> {
+                statement.setString(1, row.hash());
+                statement.setString(2, row.codec().name());
+                if (row.dictionaryId() == null) {
+                    statement.setNull(3, Types.INTEGER);
+                } else {
+                    statement.setInt(3, row.dictionaryId());
+                }
+                statement.setInt(4, row.originalLength());
+                statement.setBytes(5, row.data());
+                statement.setTimestamp(6, now);
+            });
+
+            afterCommit(() -> rows.forEach(row -> {
+                knownHashes.put(row.hash(), Boolean.TRUE);
+                if (row.text() != null) {
+                    texts.put(row.hash(), row.text());
+                }
+            }));
+        }
+
+        private boolean isStoredOrPending(String hash) {
+            return pending.containsKey(hash) || knownHashes.getIfPresent(hash) != null;
+        }
+    }
+
+    /**
+     * ✅ 단건 복원
+     *
+     * @return 원문 (hash가 null이거나 blob이 없으면 null)
+     */
+    public String get(String hash) {
+        return hash == null ? null : getAll(List.of(hash)).get(hash);
+    }
+
+    /**
+     * ✅ 여러 건 복원 (캐시 → DB 한 번 조회 순)
+     *
+     * @param hashes 내용 hash 목록 (null은 무시)
+     * @return hash → 원문 (찾지 못한 hash는 빠짐)
+     */
+    public Map<String, String> getAll(Collection<String> hashes) {
+        Map<String, String> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String hash : hashes) {
+            if (hash == null || found.containsKey(hash)) {
+                continue;
+            }
+            String text = texts.getIfPresent(hash);
+            if (text != null) {
+                found.put(hash, text);
+            } else {
+                missing.add(hash);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        List<ContentBlob> blobs = blobRepository.findAllById(missing);
+
+        // CONCAT 조각은 한 번에 모아서 복원 (앞부분 blob은 대부분 캐시에 있음)
+        List<String> partHashes = blobs.stream()
+                .filter(blob -> blob.getCodec() == ContentBlob.Codec.CONCAT)
+                .flatMap(blob -> partsOf(blob).stream())
+                .toList();
+        Map<String, String> parts = partHashes.isEmpty() ? Map.of() : getAll(partHashes);
+
+        for (ContentBlob blob : blobs) {
+            String text = decode(blob, parts);
+            if (text == null) {
+                log.warn("⚠️ content blob 복원 실패 (조각 누락): {}", blob.getHash());
+                continue;
+            }
+            found.put(blob.getHash(), text);
+            knownHashes.put(blob.getHash(), Boolean.TRUE);
+            if (blob.getCodec() != ContentBlob.Codec.CONCAT) {
+                texts.put(blob.getHash(), text); // CONCAT은 캐시된 조각으로 다시 합칠 수 있으므로 올리지 않음
+            }
+        }
+        return found;
+    }
+
+    /**
+     * ✅ 주기적 실행: 압축 사전 재학습
+     * - 다른 노드가 더 최근 사전을 만들었으면 먼저 그것으로 바꾼다.
+     */
+    @Scheduled(fixedDelayString = "${infer.content-store.dictionary-training-interval:PT6H}",
+            initialDelayString = "${infer.content-store.dictionary-training-interval:PT6H}")
+    public void trainDictionary() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        dictionaryRepository.findTopByOrderByIdDesc()
+                .filter(latest -> active == null || latest.getId() > active.id())
+                .ifPresent(this::activate);
+
+        List<String> recent = List.copyOf(samples);
+        if (recent.size() < Math.max(10, properties.getDictionarySamples() / 2)) {
+            return;
+        }
+        List<String> training = new ArrayList<>();
+        List<String> holdout = new ArrayList<>();
+        for (int i = 0; i < recent.size(); i++) {
+            (i % 2 == 0 ? training : holdout).add(recent.get(i));
+        }
+
+        byte[] candidate = DictionaryTrainer.train(training,
+                Math.min(properties.getDictionaryBytes(), DeflateCodec.MAX_DICTIONARY_BYTES));
+        if (candidate.length == 0) {
+            return;
+        }
+
+        ActiveDictionary current = active;
+        long original = holdout.stream().mapToLong(text -> text.getBytes(StandardCharsets.UTF_8).length).sum();
+        long currentSize = compressedSize(holdout, current == null ? null : current.data());
+        long candidateSize = compressedSize(holdout, candidate);
+        if (candidateSize > currentSize * (1 - properties.getDictionaryMinGain())) {
+            log.debug("🗜️ 새 압축 사전 효과 부족 (현재 {}B → 후보 {}B), 교체하지 않음", currentSize, candidateSize);
+            return;
+        }
+
+        CompressionDictionary saved = dictionaryRepository.save(
+                new CompressionDictionary(candidate, training.size(), (double) candidateSize / Math.max(1, original)));
+        activate(saved);
+        log.info("🗜️ 압축 사전 #{} 적용 ({}B, 샘플 압축 {}B → {}B / 원본 {}B)",
+                saved.getId(), candidate.length, currentSize, candidateSize, original);
+    }
+
+    private void activate(CompressionDictionary dictionary) {
+        dictionaries.put(dictionary.getId(), dictionary.getData());
+        active = new ActiveDictionary(dictionary.getId(), dictionary.getData());
+    }
+
+    private Encoded encode(String hash, String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        sample(text);
+        originalBytes.increment(raw.length);
+
+        if (raw.length >= properties.getMinCompressBytes()) {
+            ActiveDictionary dictionary = active;
+            byte[] compressed = DeflateCodec.compress(raw, dictionary == null ? null : dictionary.data(),
+                    properties.getCompressionLevel());
+            if (compressed.length < raw.length) {
+                storedBytes.increment(compressed.length);
+                return new Encoded(hash, ContentBlob.Codec.DEFLATE, dictionary == null ? null : dictionary.id(),
+                        raw.length, compressed, text);
+            }
+        }
+        storedBytes.increment(raw.length);
+        return new Encoded(hash, ContentBlob.Codec.RAW, null, raw.length, raw, text);
+    }
+
+    private String decode(ContentBlob blob, Map<String, String> parts) {
+        return switch (blob.getCodec()) {
+            case RAW -> new String(blob.getData(), StandardCharsets.UTF_8);
+            case DEFLATE -> new String(DeflateCodec.decompress(blob.getData(), dictionary(blob.getDictionaryId()),
+                    blob.getOriginalLength()), StandardCharsets.UTF_8);
+            case CONCAT -> {
+                StringBuilder text = new StringBuilder();
+                for (String part : partsOf(blob)) {
+                    String partText = parts.get(part);
+                    if (partText == null) {
+                        yield null;
+                    }
+                    text.append(partText);
+                }
+                yield text.toString();
+            }
+        };
+    }
+
+    private static List<String> partsOf(ContentBlob blob) {
+        String joined = new String(blob.getData(), StandardCharsets.US_ASCII);
+        List<String> parts = new ArrayList<>(joined.length() / HASH_LENGTH);
+        for (int i = 0; i + HASH_LENGTH <= joined.length(); i += HASH_LENGTH) {
+            parts.add(joined.substring(i, i + HASH_LENGTH));
+        }
+        return parts;
+    }
+
+    private byte[] dictionary(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        return dictionaries.computeIfAbsent(id, key -> dictionaryRepository.findById(key)
+                .map(CompressionDictionary::getData)
+                .orElseThrow(() -> new IllegalStateException("❌ 압축 사전이 없습니다: " + key)));
+    }
+
+    /**
+     * ✅ 사전 학습용 최근 텍스트 보관 (dictionary-samples개까지, 오래된 것부터 버림)
+     */
+    private void sample(String text) {
+        samples.addLast(text.length() > MAX_SAMPLE_CHARS ? text.substring(0, MAX_SAMPLE_CHARS) : text);
+        while (samples.size() > properties.getDictionarySamples()) {
+            samples.pollFirst();
+        }
+    }
+
+    private long compressedSize(List<String> sampleTexts, byte[] dictionary) {
+        long size = 0;
+        for (String text : sampleTexts) {
+            size += DeflateCodec.compress(text.getBytes(StandardCharsets.UTF_8), dictionary,
+                    properties.getCompressionLevel()).length;
+        }
+        return size;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -11,14 +11,19 @@
  */
 package com.mcp.server.service;
 
+import com.mcp.server.config.EmbeddingBackfillProperties;
+import com.mcp.server.domain.backfill.BackfillWatermark;
+import com.mcp.server.domain.backfill.BackfillWatermarkRepository;
 import com.mcp.server.domain.context.ContextSet;
 import com.mcp.server.domain.context.ContextSetRepository;
-import com.mcp.server.domain.embedding.ContextEmbeddingMetadata;
 import com.mcp.server.domain.embedding.ContextEmbeddingMetadataRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,46 +34,68 @@ public class ContextEmbeddingBackfillService {
 
     private static final Logger log = LoggerFactory.getLogger(ContextEmbeddingBackfillService.class);
 
+    static final String WATERMARK = "context-embedding-metadata";
+
     private final ContextSetRepository contextSetRepository;
     private final ContextEmbeddingMetadataRepository metadataRepository;
+    private final BackfillWatermarkRepository watermarkRepository;
+    private final EmbeddingBackfillProperties properties;
+    private final TransactionTemplate transactionTemplate;
 
     /**
-     * ✅ 전체 ContextSet 중 메타데이터가 누락된 항목을 찾아 보충하는 작업
-     * - 매 실행 시, 각 ContextSet에 대해 CONTEXT 유형 메타데이터가 없는 경우 생성
+     * ✅ 지난 실행 이후 생긴 ContextSet 중 메타데이터가 누락된 항목을 찾아 보충하는 작업
+     * - LogEmbeddingBackfillService와 같은 방식 (워터마크 + anti-join + 청크별 트랜잭션)
      */
     public void backfillMissingMetadata() {
-        List<ContextSet> allContexts = contextSetRepository.findAll();
+        LocalDateTime upTo = LocalDateTime.now().minus(properties.getSettleDelay());
         int addedCount = 0;
 
-        for (ContextSet context : allContexts) {
-            Long contextSetId = context.getId();
-
-            // 해당 ContextSet에 대해 이미 생성된 메타데이터 목록 조회
-            List<ContextEmbeddingMetadata> existing = metadataRepository.findByContextSetId(contextSetId);
-
-            boolean hasContext = !existing.isEmpty();
-
-            // 메타데이터가 존재하지 않으면 생성
-            if (!hasContext) {
-                metadataRepository.save(buildMetadata(context));
-                addedCount++;
+        int duplicates = 0;
+        while (true) {
+            Integer added;
+            try {
+                added = transactionTemplate.execute(status -> backfillChunk(upTo));
+            } catch (DataIntegrityViolationException e) {
+                // outbox relay가 같은 메타데이터를 먼저 만든 경우 → 롤백된 청크를 다시 조회하면 이미 있는 행은 빠짐
+                if (++duplicates > EmbeddingMetadataFactory.MAX_DUPLICATE_RETRIES) {
+                    throw e;
+                }
+                log.info("🔁 메타데이터 중복으로 백필 청크 롤백, 다시 처리 ({}회)", duplicates);
+                continue;
+            }
+            if (added == null || added < 0) {
+                break;
             }
+            addedCount += added;
         }
 
-        log.info("✅ Context 백필 완료: {}건의 메타데이터 생성됨", addedCount);
+        log.info("✅ Context 백필 완료: {}건의 메타데이터 생성됨 (워터마크 {})", addedCount, upTo);
     }
 
     /**
-     * ✅ ContextEmbeddingMetadata 생성 빌더
+     * ✅ 청크 1개 처리 (호출 측 트랜잭션 안에서 실행)
+     *
+     * @return 생성한 메타데이터 수, 더 처리할 ContextSet이 없으면 -1
      */
-    private ContextEmbeddingMetadata buildMetadata(ContextSet context) {
-        return ContextEmbeddingMetadata.builder()
-                .project("mcp") // 필요시 ContextSet에 따라 프로젝트 필드 구분 가능
-                .contextSetId(context.getId())
-                .contextType("CONTEXT")
-                .content(context.toContextJson())
-                .embedded(false)
-                .createdAt(LocalDateTime.now())
-                .build();
+    private int backfillChunk(LocalDateTime upTo) {
+        watermarkRepository.insertIfAbsent(WATERMARK, BackfillWatermark.BEGINNING); // 첫 실행 시 노드 간 생성 경합 방지
+        BackfillWatermark watermark = watermarkRepository.findForUpdate(WATERMARK)
+                .orElseThrow(() -> new IllegalStateException("백필 워터마크 없음: " + WATERMARK));
+
+        List<ContextSet> missing = contextSetRepository.findMissingEmbeddingMetadataAfter(
+                watermark.getLastCreatedAt(), watermark.getLastId(), upTo, Limit.of(properties.getChunkSize()));
+
+        if (missing.isEmpty()) {
+            watermark.advance(upTo, 0L);
+            return -1;
+        }
+
+        metadataRepository.saveAll(missing.stream()
+                .map(context -> EmbeddingMetadataFactory.forContext(context, context.toContextJson()))
+                .toList());
+
+        ContextSet last = missing.get(missing.size() - 1);
+        watermark.advance(last.getCreatedAt(), last.getId());
+        return missing.size();
     }
 }
@@ -1,24 +1,80 @@
 package com.mcp.server.service;
 
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.mcp.server.config.ContextCacheProperties;
 import com.mcp.server.domain.context.ContextSet;
 import com.mcp.server.domain.context.ContextSetRepository;
+import com.mcp.server.domain.outbox.EmbeddingOutboxEvent;
+import com.mcp.server.domain.outbox.EmbeddingOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * ContextSetService
  *
  * 컨텍스트 세트(ContextSet)를 관리하는 서비스 계층.
  * 주로 관리자 기능 또는 추론 요청 시 contextJson 구성을 위해 사용됨.
+ *
+ * 💡 추론 경로(resolve)는 메모리 캐시를 거치므로 매 요청마다 DB를 조회하지 않는다.
+ *    - 이 노드에서 save() 하면 즉시 무효화
+ *    - 다른 노드에서 수정된 경우 revalidate-after 이후 revision 비교로 감지 (백그라운드 재검증)
  */
 @Service
 @RequiredArgsConstructor
 public class ContextSetService {
 
     private final ContextSetRepository contextSetRepository;
+    private final EmbeddingOutboxRepository embeddingOutboxRepository;
+    private final ContextCacheProperties cacheProperties;
+    private final MeterRegistry meterRegistry;
+
+    private LoadingCache<Long, ResolvedContext> resolvedContexts;
+
+    @PostConstruct
+    public void init() {
+        resolvedContexts = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaxSize())
+                .refreshAfterWrite(cacheProperties.getRevalidateAfter())
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public ResolvedContext load(Long id) {
+                        return contextSetRepository.findById(id).map(ResolvedContext::of).orElse(null);
+                    }
+
+                    @Override
+                    public Map<Long, ResolvedContext> loadAll(Set<? extends Long> ids) {
+                        Map<Long, ResolvedContext> loaded = new HashMap<>();
+                        contextSetRepository.findAllById(List.copyOf(ids))
+                                .forEach(contextSet -> loaded.put(contextSet.getId(), ResolvedContext.of(contextSet)));
+                        return loaded;
+                    }
+
+                    // revision이 그대로면 기존 항목 유지, 바뀌었으면 다시 로드, 삭제됐으면 제거(null)
+                    @Override
+                    public ResolvedContext reload(Long id, ResolvedContext old) {
+                        return contextSetRepository.findRevisionById(id)
+                                .map(revision -> revision == old.getRevision() ? old : load(id))
+                                .orElse(null);
+                    }
+                });
+
+        CaffeineCacheMetrics.monitor(meterRegistry, resolvedContexts, "context.sets");
+    }
 
     /**
      * 모든 컨텍스트 세트를 조회
@@ -41,13 +97,43 @@ public class ContextSetService {
                 .orElseThrow(() -> new IllegalArgumentException("ContextSet not found"));
     }
 
+    /**
+     * 추론용 컨텍스트 조회 (캐시 우선)
+     *
+     * @param id ContextSet ID
+     * @return JSON/프롬프트 앞부분이 준비된 ResolvedContext
+     * @throws IllegalArgumentException 존재하지 않을 경우 예외 발생
+     */
+    public ResolvedContext resolve(Long id) {
+        ResolvedContext resolved = resolvedContexts.get(id);
+        if (resolved == null) {
+            throw new IllegalArgumentException("ContextSet not found");
+        }
+        return resolved;
+    }
+
+    /**
+     * 여러 ID의 추론용 컨텍스트를 한 번에 조회 (배치 추론용, 캐시에 없는 것만 한 번에 DB 조회)
+     *
+     * @param ids 조회할 ContextSet ID 목록 (중복 허용)
+     * @return ID → ResolvedContext 맵 (존재하지 않는 ID는 포함되지 않음)
+     */
+    public Map<Long, ResolvedContext> resolveAll(Collection<Long> ids) {
+        return resolvedContexts.getAll(new HashSet<>(ids));
+    }
+
     /**
      * 컨텍스트 세트 저장 (생성 또는 수정)
+     * - 같은 트랜잭션에서 outbox에 변경 이벤트를 남겨 CONTEXT 메타데이터를 새 내용으로 다시 임베딩하게 함
      *
      * @param contextSet 저장할 ContextSet 객체
      * @return 저장된 ContextSet
      */
+    @Transactional
     public ContextSet save(ContextSet contextSet) {
-        return contextSetRepository.save(contextSet);
+        ContextSet saved = contextSetRepository.save(contextSet);
+        embeddingOutboxRepository.save(EmbeddingOutboxEvent.contextSetChanged(saved.getId()));
+        resolvedContexts.invalidate(saved.getId());
+        return saved;
     }
 }
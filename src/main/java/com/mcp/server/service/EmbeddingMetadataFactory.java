@@ -0,0 +1,86 @@
+package com.mcp.server.service;
+
+import com.mcp.server.domain.context.ContextSet;
+import com.mcp.server.domain.embedding.ContextEmbeddingMetadata;
+import com.mcp.server.domain.embedding.LogEmbeddingMetadata;
+import com.mcp.server.domain.log.Log;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ✅ EmbeddingMetadataFactory
+ * - 임베딩 대기 메타데이터 생성 규칙을 한 곳에 모은 클래스
+ * - EmbeddingOutboxRelay(변경 즉시)와 Log/ContextEmbeddingBackfillService(누락 보충)가 같은 행을 만들도록 공유한다.
+ *
+ * 💡 (logId, contentType) / (contextSetId, contextType)은 유니크 인덱스이므로, 두 경로가 같은 행을 동시에 만들면
+ *    늦은 쪽 트랜잭션이 중복 키로 롤백되고 다시 조회해 이미 있는 행을 건너뛴다.
+ */
+final class EmbeddingMetadataFactory {
+
+    // 로그 하나당 만드는 메타데이터 종류
+    static final List<String> LOG_CONTENT_TYPES = List.of("PROMPT", "QUERY", "RESULT");
+
+    static final String CONTEXT_PROJECT = "mcp"; // 필요시 ContextSet에 따라 프로젝트 필드 구분 가능
+    static final String CONTEXT_TYPE = "CONTEXT";
+
+    // 다른 경로가 같은 메타데이터를 먼저 만들어 중복 키로 롤백됐을 때 다시 시도하는 횟수
+    static final int MAX_DUPLICATE_RETRIES = 3;
+
+    private EmbeddingMetadataFactory() {
+    }
+
+    /**
+     * ✅ 로그 메타데이터 생성
+     *
+     * @param log         원본 로그 객체
+     * @param contentType 메타데이터 타입 (PROMPT, QUERY, RESULT)
+     * @return            임베딩 대기 상태의 LogEmbeddingMetadata (본문이 ContentStore에 있으면 hash만 참조)
+     */
+    static LogEmbeddingMetadata forLog(Log log, String contentType) {
+        String contentHash;
+        String content;
+        switch (contentType) {
+            case "PROMPT" -> {
+                contentHash = log.getPromptHash();
+                content = log.getPrompt();
+            }
+            case "QUERY" -> {
+                contentHash = log.getQueryHash();
+                content = log.getQuery();
+            }
+            case "RESULT" -> {
+                contentHash = log.getResultHash();
+                content = log.getResult();
+            }
+            default -> throw new IllegalArgumentException("❌ 지원하지 않는 로그 메타데이터 타입: " + contentType);
+        }
+
+        return LogEmbeddingMetadata.builder()
+                .project(log.getProject())
+                .logId(log.getId())
+                .contentType(contentType)
+                .contentHash(contentHash)
+                .content(contentHash == null ? content : null)
+                .embedded(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * ✅ 컨텍스트 메타데이터 생성
+     *
+     * @param contextSet 원본 ContextSet
+     * @param content    contextSet.toContextJson() (호출 측에서 이미 만든 경우 재사용)
+     */
+    static ContextEmbeddingMetadata forContext(ContextSet contextSet, String content) {
+        return ContextEmbeddingMetadata.builder()
+                .project(CONTEXT_PROJECT)
+                .contextSetId(contextSet.getId())
+                .contextType(CONTEXT_TYPE)
+                .content(content)
+                .embedded(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.mcp.server.service;
+
+import com.mcp.server.config.EmbeddingOutboxProperties;
+import com.mcp.server.domain.context.ContextSet;
+import com.mcp.server.domain.context.ContextSetRepository;
+import com.mcp.server.domain.embedding.ContextEmbeddingMetadata;
+import com.mcp.server.domain.embedding.ContextEmbeddingMetadataRepository;
+import com.mcp.server.domain.embedding.LogEmbeddingMetadata;
+import com.mcp.server.domain.embedding.LogEmbeddingMetadataRepository;
+import com.mcp.server.domain.log.Log;
+import com.mcp.server.domain.log.LogRepository;
+import com.mcp.server.domain.outbox.EmbeddingOutboxEvent;
+import com.mcp.server.domain.outbox.EmbeddingOutboxEvent.AggregateType;
+import com.mcp.server.domain.outbox.EmbeddingOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * ✅ EmbeddingOutboxRelay
+ * - embedding_outbox에 쌓인 변경 이벤트를 몇 초 간격으로 가져가 임베딩 메타데이터로 바꾸는 서비스
+ *
+ * [처리 방식]
+ * - LOG: PROMPT / QUERY / RESULT 메타데이터 생성 (이미 있으면 건너뜀)
+ * - CONTEXT_SET: CONTEXT 메타데이터가 없으면 생성, 있으면 최신 내용으로 바꾸고 embedded=false로 되돌려 재임베딩 대기
+ * - 배치(batch-size건)마다 한 트랜잭션: 잠금(SKIP LOCKED) → 메타데이터 저장 → 이벤트 삭제
+ *   → 중간에 실패하면 이벤트가 그대로 남아 다음 주기에 다시 처리됨
+ *   → 백필이 같은 메타데이터를 먼저 만들어 유니크 인덱스에 걸리면 롤백 후 바로 다시 처리 (이미 있는 행은 건너뜀)
+ *
+ * 💡 원본 전체를 훑지 않고 바뀐 것만 처리하므로, 저장 후 메타데이터가 생기기까지 poll-interval 정도만 걸린다.
+ *    (EmbeddingScheduler의 워터마크 백필은 outbox 도입 이전 데이터 / 누락 대비 안전망)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmbeddingOutboxRelay {
+
+    private final EmbeddingOutboxRepository outboxRepository;
+    private final LogRepository logRepository;
+    private final LogEmbeddingMetadataRepository logMetadataRepository;
+    private final ContextSetRepository contextSetRepository;
+    private final ContextEmbeddingMetadataRepository contextMetadataRepository;
+    private final EmbeddingOutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * ✅ 쌓인 이벤트를 모두 처리할 때까지 배치 단위로 반복
+     */
+    @Scheduled(fixedDelayString = "${infer.embedding-outbox.poll-interval:PT2S}")
+    public void relay() {
+        int duplicates = 0;
+        while (true) {
+            Integer processed;
+            try {
+                processed = transactionTemplate.execute(status -> relayBatch());
+            } catch (DataIntegrityViolationException e) {
+                if (++duplicates > EmbeddingMetadataFactory.MAX_DUPLICATE_RETRIES) {
+                    throw e;
+                }
+                log.info("📨 메타데이터 중복으로 outbox 배치 롤백, 다시 처리 ({}회)", duplicates);
+                continue;
+            }
+            if (processed == null || processed < properties.getBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * ✅ 배치 1개 처리 (호출 측 트랜잭션 안에서 실행)
+     *
+     * @return 처리한 이벤트 수
+     */
+    private int relayBatch() {
+        List<EmbeddingOutboxEvent> events = outboxRepository.lockNextBatch(properties.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // 같은 대상에 대한 이벤트가 여러 개여도 한 번만 처리
+        Map<AggregateType, Set<Long>> idsByType = events.stream()
+                .collect(Collectors.groupingBy(EmbeddingOutboxEvent::getAggregateType,
+                        Collectors.mapping(EmbeddingOutboxEvent::getAggregateId, Collectors.toCollection(TreeSet::new))));
+
+        int logMetadata = createLogMetadata(idsByType.getOrDefault(AggregateType.LOG, Set.of()));
+        int contextMetadata = refreshContextMetadata(idsByType.getOrDefault(AggregateType.CONTEXT_SET, Set.of()));
+
+        outboxRepository.deleteAllInBatch(events);
+
+        meterRegistry.counter("mcp.embedding.outbox", "type", "log").increment(logMetadata);
+        meterRegistry.counter("mcp.embedding.outbox", "type", "context").increment(contextMetadata);
+        log.debug("📨 outbox 이벤트 {}건 처리 (로그 메타데이터 {}건, 컨텍스트 메타데이터 {}건)", events.size(), logMetadata, contextMetadata);
+        return events.size();
+    }
+
+    private int createLogMetadata(Set<Long> logIds) {
+        if (logIds.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> alreadyCreated = new HashSet<>(logMetadataRepository.findLogIdsWithMetadata(logIds));
+        List<LogEmbeddingMetadata> metadata = new ArrayList<>();
+        for (Log log : logRepository.findAllById(logIds)) {
+            if (alreadyCreated.contains(log.getId())) {
+                continue;
+            }
+            for (String contentType : EmbeddingMetadataFactory.LOG_CONTENT_TYPES) {
+                metadata.add(EmbeddingMetadataFactory.forLog(log, contentType));
+            }
+        }
+        logMetadataRepository.saveAll(metadata);
+        meterRegistry.counter("mcp.persistence.rows", "entity", "log_metadata").increment(metadata.size());
+        return metadata.size();
+    }
+
+    private int refreshContextMetadata(Set<Long> contextSetIds) {
+        if (contextSetIds.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<ContextEmbeddingMetadata>> existing = contextMetadataRepository.findByContextSetIdIn(contextSetIds)
+                .stream()
+                .collect(Collectors.groupingBy(ContextEmbeddingMetadata::getContextSetId));
+
+        List<ContextEmbeddingMetadata> changed = new ArrayList<>();
+        for (ContextSet contextSet : contextSetRepository.findAllById(contextSetIds)) {
+            String content = contextSet.toContextJson();
+            List<ContextEmbeddingMetadata> rows = existing.get(contextSet.getId());
+            if (rows == null) {
+                changed.add(EmbeddingMetadataFactory.forContext(contextSet, content));
+                continue;
+            }
+            for (ContextEmbeddingMetadata row : rows) {
+                if (!content.equals(row.getContent())) {
+                    // 내용이 바뀐 경우만 다시 임베딩 대상으로
+                    row.setContent(content);
+                    row.setEmbedded(false);
+                    row.setAttempts(0); // 새 내용은 실패 횟수를 처음부터 다시 셈
+                    changed.add(row);
+                }
+            }
+        }
+        contextMetadataRepository.saveAll(changed);
+        return changed.size();
+    }
+}
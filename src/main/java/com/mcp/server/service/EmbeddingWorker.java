@@ -0,0 +1,291 @@
+package com.mcp.server.service;
+
+import com.mcp.server.client.EmbeddingClient;
+import com.mcp.server.config.EmbeddingProperties;
+import com.mcp.server.domain.embedding.ContextEmbeddingMetadata;
+import com.mcp.server.domain.embedding.ContextEmbeddingMetadataRepository;
+import com.mcp.server.domain.embedding.LogEmbeddingMetadata;
+import com.mcp.server.domain.embedding.LogEmbeddingMetadataRepository;
+import com.mcp.server.dto.PendingEmbedding;
+import com.mcp.server.util.VectorCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * ✅ EmbeddingWorker
+ * - embedded=false인 Log/Context 메타데이터를 읽어 벡터를 만들고 저장하는 백그라운드 작업
+ *
+ * [처리 흐름] (poll-interval마다, 대기 행이 없어질 때까지)
+ * 1. id 순 keyset으로 현재 배치 크기만큼 대기 행을 읽음 (id + 본문만, Log 본문은 ContentStore에서 복원)
+ * 2. inferExecutor(가상 스레드)에서 EmbeddingClient 호출 → 최대 concurrency개 배치가 동시에 진행
+ *    → 진행 중인 배치가 concurrency개면 다음 배치를 읽지 않고 기다림 (backpressure: 메모리에 쌓아 두지 않음)
+ * 3. 배치마다 한 트랜잭션으로 벡터(float32 bytes) 저장 + embedded=true
+ *    → 임베딩 도중 내용이 바뀐 행(ContextSet 수정 등)은 건너뛰어 다음 주기에 새 내용으로 다시 처리
+ *
+ * [실패 행 처리]
+ * - ContentStore에 본문이 없는 행은 그 행의 문제이므로 바로 attempts를 1 늘린다.
+ * - 임베딩/저장에 실패한 배치의 행은, 같은 실행에서 성공한 배치가 하나라도 있을 때만(제공자는 살아 있음) attempts를 늘린다.
+ *   → 제공자 장애로 전부 실패한 실행은 세지 않아, 장애가 길어져도 정상 행이 제외되지 않는다.
+ * - attempts가 max-attempts에 닿은 행은 findPending에서 빠져 매 주기 다시 시도되지 않는다.
+ *
+ * [배치 크기 자동 조절]
+ * - 배치가 target-batch-latency 안에 끝나면 조금씩 키우고(+1/4), 넘기거나 실패하면 절반으로 줄임 (min~max 범위)
+ *
+ * 💡 처리량은 mcp.embedding.rows(카운터)와 mcp.embedding.throughput(직전 실행의 rows/s 게이지)로 확인
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmbeddingWorker {
+
+    private final EmbeddingClient embeddingClient;
+    private final EmbeddingProperties properties;
+    private final LogEmbeddingMetadataRepository logMetadataRepository;
+    private final ContextEmbeddingMetadataRepository contextMetadataRepository;
+    private final ContentStore contentStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService inferExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger batchSize = new AtomicInteger();
+    private final AtomicLong lastRowsPerSecond = new AtomicLong();
+
+    private record Embedded(PendingEmbedding item, byte[] vector) {
+    }
+
+    @PostConstruct
+    public void init() {
+        batchSize.set(clamp(properties.getInitialBatchSize()));
+        meterRegistry.gauge("mcp.embedding.batch.size", batchSize);
+        meterRegistry.gauge("mcp.embedding.throughput", lastRowsPerSecond);
+    }
+
+    /**
+     * ✅ 주기적 실행: Log → Context 순으로 대기 행을 모두 처리
+     */
+    @Scheduled(fixedDelayString = "${infer.embedding.poll-interval:PT5S}")
+    public void embedPending() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int maxAttempts = properties.getMaxAttempts();
+        drain("log", (afterId, limit) -> logMetadataRepository.findPending(afterId, maxAttempts, limit),
+                this::storeLogVectors, logMetadataRepository::incrementAttempts);
+        drain("context", (afterId, limit) -> contextMetadataRepository.findPending(afterId, maxAttempts, limit),
+                this::storeContextVectors, contextMetadataRepository::incrementAttempts);
+    }
+
+    /**
+     * ✅ 한 종류의 대기 행을 끝까지 처리
+     *
+     * @param source 메트릭/로그용 이름
+     * @param fetch  (afterId, limit) → 대기 행
+     * @param store  임베딩 결과 저장 (트랜잭션 안에서 호출됨)
+     * @param fail   실패 횟수 증가 (트랜잭션 안에서 호출됨)
+     */
+    private void drain(String source,
+                       BiFunction<Long, Limit, List<PendingEmbedding>> fetch,
+                       Consumer<List<Embedded>> store,
+                       Consumer<List<Long>> fail) {
+        int concurrency = Math.max(1, properties.getConcurrency());
+        Semaphore slots = new Semaphore(concurrency);
+        AtomicLong embeddedRows = new AtomicLong();
+        ConcurrentLinkedQueue<Long> failedIds = new ConcurrentLinkedQueue<>();
+        long startedAt = System.nanoTime();
+        long afterId = 0;
+
+        try {
+            while (true) {
+                slots.acquire(); // 진행 중인 배치가 concurrency개면 여기서 대기
+                List<PendingEmbedding> batch = fetch.apply(afterId, Limit.of(batchSize.get()));
+                if (batch.isEmpty()) {
+                    slots.release();
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).id();
+
+                inferExecutor.execute(() -> {
+                    try {
+                        embeddedRows.addAndGet(embedBatch(source, batch, store, fail, failedIds));
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+            slots.acquire(concurrency); // 남은 배치가 모두 끝날 때까지 대기
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        long rows = embeddedRows.get();
+        if (!failedIds.isEmpty()) {
+            if (rows > 0) {
+                countFailures(source, List.copyOf(failedIds), fail);
+            } else {
+                log.warn("⚠️ [{}] 이번 실행의 배치가 모두 실패 (제공자 장애로 보고 실패 횟수는 세지 않음)", source);
+            }
+        }
+        if (rows > 0) {
+            double seconds = Math.max(1e-3, (System.nanoTime() - startedAt) / 1e9);
+            long rowsPerSecond = Math.round(rows / seconds);
+            lastRowsPerSecond.set(rowsPerSecond);
+            log.info("🧮 [{}] 임베딩 {}건 완료 ({} rows/s, 배치 크기 {})", source, rows, rowsPerSecond, batchSize.get());
+        }
+    }
+
+    /**
+     * ✅ 배치 1개 임베딩 + 저장
+     *
+     * @param failedIds 실패한 행 id를 모아 두는 곳 (drain()이 끝날 때 실패 횟수 반영 여부를 정함)
+     * @return 저장한 행 수 (실패 시 0, 해당 행들은 다음 주기에 다시 시도)
+     */
+    private int embedBatch(String source, List<PendingEmbedding> pending, Consumer<List<Embedded>> store,
+                           Consumer<List<Long>> fail, Collection<Long> failedIds) {
+        long start = System.nanoTime();
+        List<PendingEmbedding> batch = pending;
+        try {
+            batch = withContent(pending);
+            if (batch.size() < pending.size()) {
+                Set<Long> resolved = batch.stream().map(PendingEmbedding::id).collect(Collectors.toSet());
+                countFailures(source, pending.stream().map(PendingEmbedding::id).filter(id -> !resolved.contains(id)).toList(), fail);
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            List<String> texts = batch.stream().map(item -> truncate(item.content())).toList();
+            List<float[]> vectors = embeddingClient.embed(texts);
+
+            List<Embedded> results = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                results.add(new Embedded(batch.get(i), VectorCodec.toBytes(vectors.get(i))));
+            }
+            transactionTemplate.executeWithoutResult(status -> store.accept(results));
+
+            long elapsedNanos = System.nanoTime() - start;
+            adjustBatchSize(elapsedNanos <= properties.getTargetBatchLatency().toNanos());
+            Timer.builder("mcp.embedding.batch").tag("source", source).register(meterRegistry)
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("mcp.embedding.rows", "source", source, "result", "ok").increment(batch.size());
+            return batch.size();
+        } catch (Exception e) {
+            adjustBatchSize(false);
+            meterRegistry.counter("mcp.embedding.rows", "source", source, "result", "failed").increment(batch.size());
+            log.warn("⚠️ [{}] 임베딩 배치 실패 ({}건, 다음 주기에 재시도): {}", source, batch.size(), e.getMessage());
+            batch.forEach(item -> failedIds.add(item.id()));
+            return 0;
+        }
+    }
+
+    /**
+     * ✅ 실패 횟수 증가 (max-attempts에 닿은 행은 다음 조회부터 제외됨)
+     */
+    private void countFailures(String source, List<Long> ids, Consumer<List<Long>> fail) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> fail.accept(ids));
+            meterRegistry.counter("mcp.embedding.rows", "source", source, "result", "attempt_failed").increment(ids.size());
+        } catch (Exception e) {
+            log.warn("⚠️ [{}] 임베딩 실패 횟수 기록 실패 ({}건): {}", source, ids.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * ✅ contentHash만 있는 대기 행의 본문을 ContentStore에서 한 번에 복원
+     * - 본문을 찾지 못한 행은 건너뜀 (읽기 keyset은 drain()이 원래 배치 기준으로 진행)
+     */
+    private List<PendingEmbedding> withContent(List<PendingEmbedding> batch) {
+        List<String> hashes = batch.stream()
+                .filter(item -> item.content() == null && item.contentHash() != null)
+                .map(PendingEmbedding::contentHash)
+                .toList();
+        if (hashes.isEmpty()) {
+            return batch;
+        }
+
+        Map<String, String> texts = contentStore.getAll(hashes);
+        List<PendingEmbedding> resolved = new ArrayList<>(batch.size());
+        for (PendingEmbedding item : batch) {
+            String content = item.content() != null ? item.content() : texts.get(item.contentHash());
+            if (content == null) {
+                log.warn("⚠️ 임베딩 대상 본문 없음 (metadata id {}, hash {})", item.id(), item.contentHash());
+                continue;
+            }
+            resolved.add(new PendingEmbedding(item.id(), content, item.contentHash()));
+        }
+        return resolved;
+    }
+
+    private void storeLogVectors(List<Embedded> results) {
+        Map<Long, Embedded> byId = index(results);
+        for (LogEmbeddingMetadata metadata : logMetadataRepository.findAllById(byId.keySet())) {
+            Embedded result = byId.get(metadata.getId());
+            PendingEmbedding item = result.item();
+            boolean unchanged = metadata.getContentHash() != null
+                    ? metadata.getContentHash().equals(item.contentHash())
+                    : Objects.equals(metadata.getContent(), item.content());
+            if (!metadata.isEmbedded() && unchanged) {
+                metadata.markEmbedded(result.vector(), embeddingClient.getModelName());
+            }
+        }
+    }
+
+    private void storeContextVectors(List<Embedded> results) {
+        Map<Long, Embedded> byId = index(results);
+        for (ContextEmbeddingMetadata metadata : contextMetadataRepository.findAllById(byId.keySet())) {
+            Embedded result = byId.get(metadata.getId());
+            if (!metadata.isEmbedded() && metadata.getContent().equals(result.item().content())) {
+                metadata.markEmbedded(result.vector(), embeddingClient.getModelName());
+            }
+        }
+    }
+
+    private static Map<Long, Embedded> index(List<Embedded> results) {
+        Map<Long, Embedded> byId = new HashMap<>(results.size() * 2);
+        results.forEach(result -> byId.put(result.item().id(), result));
+        return byId;
+    }
+
+    /**
+     * ✅ 배치 크기 조절 (AIMD: 성공 시 +1/4, 느리거나 실패 시 절반)
+     */
+    private void adjustBatchSize(boolean fast) {
+        batchSize.updateAndGet(size -> clamp(fast ? size + Math.max(1, size / 4) : size / 2));
+    }
+
+    private int clamp(int size) {
+        int min = Math.max(1, properties.getMinBatchSize());
+        return Math.max(min, Math.min(Math.max(min, properties.getMaxBatchSize()), size));
+    }
+
+    private String truncate(String content) {
+        int max = properties.getMaxInputChars();
+        return max > 0 && content.length() > max ? content.substring(0, max) : content;
+    }
+}
@@ -0,0 +1,226 @@
+package com.mcp.server.service;
+
+import com.mcp.server.client.AiModelCallException;
+import com.mcp.server.client.AiModelClient;
+import com.mcp.server.config.HedgingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ✅ HedgedCallService
+ * - 모델 호출이 평소보다 오래 걸릴 때 같은 요청을 한 번 더 보내 꼬리 지연(p99)을 줄이는 서비스
+ *
+ * [동작 방식]
+ * 1. 모델별 최근 응답 시간(window-size개)에서 percentile 값을 헤징 기준 시간으로 사용
+ * 2. 첫 요청이 기준 시간 안에 끝나지 않으면 두 번째 요청 발송
+ *    (equivalents에 대체 모델이 있고 ModelRegistry에 등록돼 있으며 모델 한도에 여유가 있으면 그 모델, 없으면 같은 모델)
+ * 3. 먼저 성공한 응답을 사용하고 나머지 요청은 Future.cancel(true)로 취소
+ *    (가상 스레드 인터럽트 → JDK HttpClient 요청 취소)
+ * 4. 헤지 요청은 전체 호출의 max-hedge-ratio 비율까지만 허용 (토큰 버킷)
+ *
+ * 💡 로그/사용량 기록은 호출 측(InferService)이 승자 결과 하나만 남긴다.
+ * 💡 스트리밍 호출은 이미 토큰을 보내기 시작하므로 헤징 대상이 아니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HedgedCallService {
+
+    private static final long TOKEN_UNIT = 1_000_000L;  // 헤지 1회 = 1,000,000
+    private static final long MAX_BUDGET = 10 * TOKEN_UNIT; // 짧은 구간에 몰리는 헤지 상한 (10회)
+    private static final int RECOMPUTE_EVERY = 32;       // 표본 32개마다 기준 시간 다시 계산
+
+    private final HedgingProperties properties;
+    private final ModelRegistry modelRegistry;
+    private final ModelRateLimiter modelRateLimiter;
+    private final ExecutorService inferExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong hedgeBudget = new AtomicLong(MAX_BUDGET);
+
+    /**
+     * ✅ 호출 결과
+     *
+     * @param result 모델 응답 텍스트
+     * @param model  실제로 응답한 모델 (대체 모델이 이기면 그 모델)
+     * @param client 실제로 응답한 클라이언트
+     * @param hedged 헤지 요청이 이겼는지 여부
+     */
+    public record HedgedResult(String result, String model, AiModelClient client, boolean hedged) {
+    }
+
+    /**
+     * ✅ 모델 호출 (필요 시 헤징)
+     *
+     * @throws AiModelCallException 모든 시도가 실패한 경우 (마지막 실패 원인 전달)
+     */
+    public HedgedResult call(AiModelClient client, String model, String prompt) {
+        if (!properties.isEnabled()) {
+            return new HedgedResult(timed(client, model, prompt), model, client, false);
+        }
+
+        refillBudget();
+        LatencyWindow window = windowOf(model);
+        long delayMs = window.threshold();
+
+        CompletionService<HedgedResult> completion = new ExecutorCompletionService<>(inferExecutor);
+        List<Future<HedgedResult>> attempts = new ArrayList<>(2);
+        attempts.add(completion.submit(() -> new HedgedResult(timed(client, model, prompt), model, client, false)));
+
+        try {
+            Future<HedgedResult> done = delayMs > 0 ? completion.poll(delayMs, TimeUnit.MILLISECONDS) : null;
+            if (done == null && delayMs > 0) {
+                if (tryAcquireHedge()) {
+                    attempts.add(completion.submit(() -> hedge(client, model, prompt)));
+                    meterRegistry.counter("mcp.infer.hedge", "model", model, "outcome", "sent").increment();
+                } else {
+                    meterRegistry.counter("mcp.infer.hedge", "model", model, "outcome", "budget_exhausted").increment();
+                }
+            }
+
+            // 먼저 성공한 결과 사용 (한쪽이 실패하면 남은 쪽을 기다림)
+            Exception lastFailure = null;
+            for (int pending = attempts.size(); pending > 0; pending--) {
+                Future<HedgedResult> next = done != null ? done : completion.take();
+                done = null;
+                try {
+                    HedgedResult result = next.get();
+                    if (result.hedged()) {
+                        meterRegistry.counter("mcp.infer.hedge", "model", model, "outcome", "won").increment();
+                    }
+                    return result;
+                } catch (ExecutionException e) {
+                    lastFailure = e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+            throw asCallException(lastFailure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiModelCallException("모델 호출 중단됨: " + model, e);
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true)); // 진 쪽(또는 남은 쪽) 요청 취소
+        }
+    }
+
+    /**
+     * ✅ 헤지 요청: 대체 모델이 등록돼 있고 한도에 여유가 있으면 그 모델, 아니면 같은 모델로 다시 호출
+     * - 대체 모델이 이기면 호출 측이 Reservation.commitAs로 한도를 그 모델에 기록
+     */
+    private HedgedResult hedge(AiModelClient client, String model, String prompt) {
+        String alternate = properties.getEquivalents().get(model);
+        AiModelClient alternateClient = alternate == null || !modelRateLimiter.hasModelCapacity(alternate)
+                ? null : modelRegistry.find(alternate);
+        if (alternateClient != null) {
+            return new HedgedResult(timed(alternateClient, alternate, prompt), alternate, alternateClient, true);
+        }
+        return new HedgedResult(timed(client, model, prompt), model, client, true);
+    }
+
+    /**
+     * ✅ 호출 + 응답 시간 기록
+     * - 실패(타임아웃, 5xx 등)도 걸린 시간을 기록한다. 성공만 세면 모델이 느려져 타임아웃이 늘수록
+     *   표본에서 느린 호출이 빠져 기준 시간이 오히려 내려간다.
+     * - 헤징에서 져서 취소(인터럽트)된 호출은 기록하지 않는다. (실제 응답 시간이 아니라 상대가 이긴 시점까지의 시간)
+     */
+    private String timed(AiModelClient client, String model, String prompt) {
+        long start = System.nanoTime();
+        boolean cancelled = false;
+        try {
+            return client.call(model, prompt);
+        } catch (RuntimeException e) {
+            cancelled = Thread.currentThread().isInterrupted();
+            throw e;
+        } finally {
+            if (properties.isEnabled() && !cancelled) {
+                windowOf(model).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+    }
+
+    /**
+     * ✅ 헤지 예산: 호출마다 max-hedge-ratio만큼 충전, 헤지 1회에 1 단위 소모
+     */
+    private void refillBudget() {
+        long refill = (long) (properties.getMaxHedgeRatio() * TOKEN_UNIT);
+        hedgeBudget.getAndUpdate(budget -> Math.min(MAX_BUDGET, budget + refill));
+    }
+
+    private boolean tryAcquireHedge() {
+        while (true) {
+            long budget = hedgeBudget.get();
+            if (budget < TOKEN_UNIT) {
+                return false;
+            }
+            if (hedgeBudget.compareAndSet(budget, budget - TOKEN_UNIT)) {
+                return true;
+            }
+        }
+    }
+
+    private LatencyWindow windowOf(String model) {
+        return windows.computeIfAbsent(model, m -> new LatencyWindow(properties.getWindowSize()));
+    }
+
+    private static AiModelCallException asCallException(Exception failure) {
+        if (failure instanceof AiModelCallException callException) {
+            return callException;
+        }
+        return new AiModelCallException("모델 호출 실패: " + (failure == null ? "unknown" : failure.getMessage()), failure);
+    }
+
+    /**
+     * ✅ 모델별 최근 응답 시간 링 버퍼
+     * - 기록은 락 없이 AtomicLongArray에 덮어쓰기, 기준 시간은 표본 32개마다 다시 계산
+     */
+    private final class LatencyWindow {
+
+        private final AtomicLongArray samples;
+        private final AtomicLong count = new AtomicLong();
+        private volatile long thresholdMs = -1; // 표본 부족 시 -1 (헤징 안 함)
+
+        private LatencyWindow(int size) {
+            this.samples = new AtomicLongArray(size);
+        }
+
+        void record(long elapsedMs) {
+            long index = count.getAndIncrement();
+            samples.set((int) (index % samples.length()), elapsedMs);
+            if (index + 1 >= properties.getMinSamples() && index % RECOMPUTE_EVERY == 0) {
+                recompute();
+            }
+        }
+
+        long threshold() {
+            return thresholdMs;
+        }
+
+        private void recompute() {
+            int size = (int) Math.min(count.get(), samples.length());
+            long[] copy = new long[size];
+            for (int i = 0; i < size; i++) {
+                copy[i] = samples.get(i);
+            }
+            Arrays.sort(copy);
+            int rank = (int) Math.ceil(properties.getPercentile() * size) - 1;
+            long percentileMs = copy[Math.max(0, Math.min(size - 1, rank))];
+            thresholdMs = Math.max(percentileMs, properties.getMinDelay().toMillis());
+        }
+    }
+}
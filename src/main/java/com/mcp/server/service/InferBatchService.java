@@ -0,0 +1,219 @@
+package com.mcp.server.service;
+
+import com.mcp.server.client.AiModelClient;
+import com.mcp.server.config.InferBatchProperties;
+import com.mcp.server.dto.InferBatchItem;
+import com.mcp.server.dto.InferBatchRequest;
+import com.mcp.server.dto.InferBatchResponse;
+import com.mcp.server.dto.InferRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * ✅ InferBatchService
+ * - 여러 건의 추론 요청을 한 번에 처리하는 배치 서비스 (POST /infer/batch)
+ *
+ * [처리 흐름]
+ * 1. 요청에 등장하는 ContextSet을 ID별로 한 번만 조회
+ * 2. 각 항목을 가상 스레드에서 동시에 실행하되, 제공자별 Semaphore로 동시 호출 수 제한
+ *    (제한은 모든 배치 요청이 공유하므로 여러 배치가 동시에 들어와도 제공자 용량을 넘지 않음)
+ * 3. 모든 항목이 끝나면 Log / ApiUsageLog를 한 번에 저장 (InferenceRecorder.recordAll)
+ *    → 항목 실패/전송 실패와 관계없이 이미 호출한 항목의 기록은 항상 저장 (finally)
+ * 4. 결과는 요청 순서대로 반환하거나(SSE 모드에서는) 끝나는 순서대로 흘려보냄
+ *    → SSE 연결이 끊기면 전송을 멈추고, 아직 시작하지 않은 항목은 제공자를 호출하지 않음
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InferBatchService {
+
+    private final InferService inferService;
+    private final ContextSetService contextSetService;
+    private final InferenceRecorder inferenceRecorder;
+    private final InferBatchProperties batchProperties;
+    private final ExecutorService inferExecutor;
+
+    // 제공자별 동시 호출 허용 수 (모든 배치 요청 공유)
+    private final Map<String, Semaphore> providerPermits = new ConcurrentHashMap<>();
+
+    /**
+     * ✅ handleBatch
+     * - 모든 항목이 끝나면 요청 순서대로 결과를 담아 완료되는 DeferredResult 반환
+     */
+    public DeferredResult<InferBatchResponse> handleBatch(InferBatchRequest batch, String clientIp) {
+        validate(batch);
+        DeferredResult<InferBatchResponse> deferred = new DeferredResult<>(batchProperties.getTimeout().toMillis());
+
+        inferExecutor.execute(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                List<InferBatchItem> items = run(batch.getRequests(), clientIp, item -> { }, () -> false);
+                deferred.setResult(toResponse(items, System.currentTimeMillis() - start));
+            } catch (Exception e) {
+                deferred.setErrorResult(e);
+            }
+        });
+
+        return deferred;
+    }
+
+    /**
+     * ✅ handleBatchStream
+     * - 항목이 끝나는 순서대로 item 이벤트를 보내고, 마지막에 done 이벤트(요약)를 보냄
+     */
+    public SseEmitter handleBatchStream(InferBatchRequest batch, String clientIp) {
+        validate(batch);
+        SseEmitter emitter = new SseEmitter(batchProperties.getTimeout().toMillis());
+        AtomicBoolean clientGone = new AtomicBoolean();
+        emitter.onTimeout(() -> clientGone.set(true));
+        emitter.onError(error -> clientGone.set(true));
+
+        inferExecutor.execute(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                List<InferBatchItem> items = run(batch.getRequests(), clientIp, item -> {
+                    if (clientGone.get()) {
+                        return;
+                    }
+                    try {
+                        send(emitter, "item", item);
+                    } catch (IllegalStateException e) {
+                        // 클라이언트 연결 종료 → 이후 전송 중단, 남은 항목은 호출하지 않음 (기록은 run()이 저장)
+                        clientGone.set(true);
+                        log.info("🔌 배치 스트림 연결 종료: 항목 {} 이후 전송 중단", item.getIndex());
+                    }
+                }, clientGone::get);
+
+                if (clientGone.get()) {
+                    return;
+                }
+                InferBatchResponse summary = toResponse(items, System.currentTimeMillis() - start);
+                summary.setItems(List.of()); // 항목은 이미 item 이벤트로 전달됨
+                send(emitter, "done", summary);
+                emitter.complete();
+            } catch (Exception e) {
+                log.error("❌ 배치 스트리밍 실패", e);
+                emitter.completeWithError(e);
+            }
+        });
+
+        return emitter;
+    }
+
+    /**
+     * ✅ 배치 실행 본체
+     *
+     * @param requests 요청 목록
+     * @param clientIp 요청자 IP
+     * @param onItem   항목 완료 콜백 (완료 순서대로 호출, 예외를 던지지 않아야 함)
+     * @param cancelled true가 되면 아직 시작하지 않은 항목은 제공자를 호출하지 않고 실패 처리
+     * @return 요청 순서대로 정렬된 결과 목록
+     */
+    private List<InferBatchItem> run(List<InferRequest> requests, String clientIp, Consumer<InferBatchItem> onItem,
+                                     BooleanSupplier cancelled) {
+        // 1. ContextSet은 ID별로 한 번만 조회 (캐시에 없는 것만 DB에서 한 번에)
+        Map<Long, ResolvedContext> contexts = contextSetService.resolveAll(
+                requests.stream().map(InferRequest::getContextSetId).toList());
+
+        // 2. 항목별 동시 실행 (제공자별 동시 호출 제한)
+        Queue<InferenceRecord> records = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<InferBatchItem>> futures = new ArrayList<>(requests.size());
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                int index = i;
+                InferRequest request = requests.get(i);
+                futures.add(CompletableFuture
+                        .supplyAsync(() -> cancelled.getAsBoolean()
+                                ? InferBatchItem.failure(index, "클라이언트 연결 종료")
+                                : runOne(index, request, contexts, clientIp, records), inferExecutor)
+                        .thenApply(item -> {
+                            onItem.accept(item);
+                            return item;
+                        })
+                        .handle((item, error) -> error == null ? item
+                                : InferBatchItem.failure(index, String.valueOf(error.getMessage()))));
+            }
+
+            // 한 항목이 실패해도 나머지를 모두 기다림 (handle로 예외를 결과로 바꿔 두었으므로 join은 던지지 않음)
+            List<InferBatchItem> items = futures.stream().map(CompletableFuture::join).toList();
+            log.info("✅ 배치 추론 완료: {}건 (성공 {}건)", items.size(), records.size());
+            return items;
+        } finally {
+            // 3. 저장은 배치 단위로 한 번에 (이미 호출하고 한도를 확정한 항목은 반드시 기록)
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+            inferenceRecorder.recordAll(new ArrayList<>(records));
+        }
+    }
+
+    private InferBatchItem runOne(int index, InferRequest request, Map<Long, ResolvedContext> contexts,
+                                  String clientIp, Queue<InferenceRecord> records) {
+        try {
+            ResolvedContext context = contexts.get(request.getContextSetId());
+            if (context == null) {
+                return InferBatchItem.failure(index, "ContextSet not found: " + request.getContextSetId());
+            }
+
+            AiModelClient client = inferService.resolveClient(request.getModel());
+            Semaphore permits = providerPermits.computeIfAbsent(client.getProviderName(),
+                    provider -> new Semaphore(batchProperties.concurrencyFor(provider)));
+
+            permits.acquire();
+            try {
+                InferService.ExecutedInference executed = inferService.execute(request, context, clientIp, null);
+                records.add(executed.record());
+                return InferBatchItem.success(index, executed.response());
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return InferBatchItem.failure(index, "중단됨");
+        } catch (Exception e) {
+            log.warn("⚠️ 배치 항목 {} 실패: {}", index, e.getMessage());
+            return InferBatchItem.failure(index, e.getMessage());
+        }
+    }
+
+    private void validate(InferBatchRequest batch) {
+        if (batch.getRequests().size() > batchProperties.getMaxItems()) {
+            throw new IllegalArgumentException("배치 최대 건수 초과: " + batch.getRequests().size()
+                    + " > " + batchProperties.getMaxItems());
+        }
+    }
+
+    private InferBatchResponse toResponse(List<InferBatchItem> items, long elapsed) {
+        int failed = (int) items.stream().filter(item -> item.getError() != null).count();
+        return InferBatchResponse.builder()
+                .items(items)
+                .succeeded(items.size() - failed)
+                .failed(failed)
+                .elapsed(elapsed + "ms")
+                .build();
+    }
+
+    private void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new IllegalStateException("SSE 전송 실패 (클라이언트 연결 종료)", e);
+        }
+    }
+}
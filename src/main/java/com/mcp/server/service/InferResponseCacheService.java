@@ -0,0 +1,211 @@
+package com.mcp.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mcp.server.config.InferCacheProperties;
+import com.mcp.server.domain.cache.InferResponseCache;
+import com.mcp.server.domain.cache.InferResponseCacheRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * ✅ InferResponseCacheService
+ * - 같은 (model, prompt) 요청이 반복될 때 모델 호출 없이 이전 응답을 돌려주는 2단 캐시
+ *
+ * [구성]
+ * 1. 메모리 캐시 (Caffeine)
+ *    - 최대 크기(memory-max-size) 기준으로 제한, TTL 적용
+ *    - 항목 가중치 = 응답 크기 / 비용 계수 → 느린(비싼) 호출의 응답일수록 더 오래 남는다
+ * 2. DB 캐시 (infer_response_cache 테이블)
+ *    - 재시작 후에도 유지, 여러 노드가 공유
+ *    - DB에서 찾은 항목은 메모리 캐시로 올림
+ *
+ * 💡 캐시 키에는 prompt 전체(project + contextJson + query)가 포함되므로
+ *    ContextSet 내용이 바뀌면 자연스럽게 다른 키가 된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InferResponseCacheService {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    private static final int MAX_COST_SHIFT = 4; // 최대 1/16 가중치
+
+    private final InferCacheProperties properties;
+    private final InferResponseCacheRepository repository;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<String, CachedResponse> memory;
+
+    /**
+     * ✅ 캐시에 저장되는 응답 값
+     *
+     * @param result            모델 응답 텍스트
+     * @param tokensUsed        원래 호출 시 추정 토큰 수
+     * @param providerElapsedMs 원래 모델 호출에 걸린 시간
+     * @param expiresAtMillis   만료 시각 (epoch ms)
+     */
+    public record CachedResponse(String result, int tokensUsed, long providerElapsedMs, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    public void init() {
+        memory = Caffeine.newBuilder()
+                .maximumWeight(properties.getMemoryMaxSize().toBytes())
+                .weigher((String key, CachedResponse value) -> weightOf(value))
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "infer.response");
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * ✅ 캐시 키 생성: SHA-256(model + "\n" + prompt)
+     */
+    public String keyOf(String model, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 미지원 환경", e);
+        }
+    }
+
+    /**
+     * ✅ 캐시 조회 (메모리 → DB 순)
+     *
+     * @param key keyOf()로 만든 캐시 키
+     * @return 유효한 캐시 항목 (없으면 empty)
+     */
+    public Optional<CachedResponse> get(String key) {
+        CachedResponse cached = memory.getIfPresent(key);
+        if (cached != null) {
+            count("hit", "memory");
+            return Optional.of(cached);
+        }
+
+        if (properties.isPersistent()) {
+            Optional<InferResponseCache> stored = repository.findByCacheKeyAndExpiresAtAfter(key, LocalDateTime.now());
+            if (stored.isPresent()) {
+                InferResponseCache row = stored.get();
+                CachedResponse promoted = new CachedResponse(
+                        row.getResult(),
+                        row.getTokensUsed(),
+                        row.getProviderElapsedMs(),
+                        row.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                );
+                memory.put(key, promoted);
+                repository.incrementHitCount(key);
+                count("hit", "database");
+                return Optional.of(promoted);
+            }
+        }
+
+        count("miss", "none");
+        return Optional.empty();
+    }
+
+    /**
+     * ✅ 캐시 저장 (메모리 + DB)
+     * - InferenceRecorder가 저장 단계에서 호출 (응답 경로 밖에서 실행될 수 있음)
+     */
+    public void put(InferenceRecord record) {
+        String key = record.cacheKey();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(properties.getTtl());
+        long expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        memory.put(key, new CachedResponse(record.result(), record.tokensUsed(), record.elapsedMs(), expiresAtMillis));
+
+        if (!properties.isPersistent()) {
+            return;
+        }
+
+        try {
+            InferResponseCache row = repository.findByCacheKey(key)
+                    .orElseGet(() -> InferResponseCache.builder().cacheKey(key).build());
+            row.setModel(record.model());
+            row.setContextSetId(record.contextSetId());
+            row.setProject(record.project());
+            row.setResult(record.result());
+            row.setTokensUsed(record.tokensUsed());
+            row.setProviderElapsedMs(record.elapsedMs());
+            row.setExpiresAt(expiresAt);
+            repository.save(row);
+        } catch (DataIntegrityViolationException e) {
+            // 다른 노드가 같은 키를 먼저 저장한 경우 → 그대로 사용
+            log.debug("캐시 키 중복 저장 무시: {}", key);
+        }
+    }
+
+    /**
+     * ✅ 만료된 DB 캐시 정리 (1시간마다)
+     */
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    public void purgeExpired() {
+        if (!properties.isEnabled() || !properties.isPersistent()) {
+            return;
+        }
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("🧹 만료된 추론 캐시 {}건 삭제", deleted);
+        }
+    }
+
+    /**
+     * ✅ 메모리 가중치 계산
+     * - 기본은 응답 크기(byte, UTF-16 기준)
+     * - expensive-call-ms 만큼 걸린 호출마다 가중치를 절반으로 (최대 1/16)
+     */
+    private int weightOf(CachedResponse value) {
+        long bytes = (long) value.result().length() * 2 + ENTRY_OVERHEAD_BYTES;
+        long costShift = Math.min(MAX_COST_SHIFT, value.providerElapsedMs() / Math.max(1, properties.getExpensiveCallMs()));
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, bytes >> costShift));
+    }
+
+    private long remainingNanos(CachedResponse value) {
+        long remainingMs = value.expiresAtMillis() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(0, remainingMs)).toNanos();
+    }
+
+    private void count(String result, String tier) {
+        meterRegistry.counter("mcp.infer.cache", "result", result, "tier", tier).increment();
+    }
+}
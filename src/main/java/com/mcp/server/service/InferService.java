@@ -1,35 +1,102 @@
 package com.mcp.server.service;
 
+import com.mcp.server.client.AiModelCallException;
 import com.mcp.server.client.AiModelClient;
+import com.mcp.server.config.InferExecutionProperties;
 import com.mcp.server.dto.InferRequest;
 import com.mcp.server.dto.InferResponse;
 import com.mcp.server.dto.ModelInfo;
 
-import com.mcp.server.util.PromptFormatter;
 import com.mcp.server.util.TokenCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * ✅ InferService
  * - 사용자 요청을 기반으로 프롬프트를 구성하고,
  * - 적절한 AI 모델을 호출하며,
  * - 결과를 로그로 저장하고 통계를 기록하는 핵심 서비스
+ *
+ * 💡 infer.execution.mode=VIRTUAL 이면 추론 전체가 가상 스레드에서 실행되고,
+ *    Tomcat 스레드는 CompletableFuture를 반환한 즉시 풀로 돌아간다.
+ * 💡 저장(로그/사용량/캐시)은 InferenceRecorder가 담당하므로,
+ *    execute()는 배치 처리(InferBatchService)에서도 그대로 재사용된다.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InferService {
 
-    private final List<AiModelClient> modelClients;      // ✅ 지원하는 모델 클라이언트 목록 (Groq, Together 등)
-    private final LogService logService;                 // ✅ 로그 저장용 서비스
-    private final ApiUsageService apiUsageService;       // ✅ 사용량 기록용 서비스
+    private final ModelRegistry modelRegistry;           // ✅ 모델명 → 클라이언트 라우팅 테이블 (Groq, Together 등)
+    private final ApiUsageService apiUsageService;       // ✅ 사용 가능 모델 조회용 서비스
     private final ModelRateLimiter modelRateLimiter;     // ✅ 호출 제한 체크
+    private final HedgedCallService hedgedCallService;   // ✅ 지연 시 헤지 요청 (꼬리 지연 감소)
+    private final InferResponseCacheService responseCache; // ✅ 반복 요청 응답 캐시 (메모리 + DB)
+    private final SemanticCacheService semanticCache;    // ✅ 비슷한 질의 응답 캐시 (임베딩 유사도, opt-in)
     private final ContextSetService contextSetService;   // ✅ ContextSet을 조회하는 서비스
+    private final InferenceRecorder inferenceRecorder;   // ✅ 로그/사용량/캐시 저장
+    private final InferExecutionProperties executionProperties; // ✅ 실행 모드 설정
+    private final ExecutorService inferExecutor;         // ✅ 추론 실행용 가상 스레드 Executor
+    private final MeterRegistry meterRegistry;           // ✅ 처리 시간/동시 처리 수 측정
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("mcp.infer.inflight", inFlight);
+    }
+
+    /**
+     * ✅ handleInferenceAsync
+     * - 설정된 실행 모드에 따라 추론을 수행하고 결과를 CompletableFuture로 반환
+     * - VIRTUAL: 가상 스레드에서 실행 (요청 스레드 즉시 반환, timeout 적용)
+     *   → 시간이 지나면 실행 중인 가상 스레드를 인터럽트해 모델 호출(헤지 요청 포함)을 취소하고,
+     *     그 뒤 도착한 응답은 한도 확정/로그 기록 없이 버린다. (execute 참고)
+     * - PLATFORM: 기존처럼 호출 스레드에서 동기 실행 후 완료된 Future 반환
+     *
+     * @param request  사용자 요청 DTO
+     * @param clientIp 요청자 IP (서블릿 요청은 다른 스레드로 넘기지 않음)
+     */
+    public CompletableFuture<InferResponse> handleInferenceAsync(InferRequest request, String clientIp) {
+        if (executionProperties.getMode() == InferExecutionProperties.Mode.PLATFORM) {
+            return CompletableFuture.completedFuture(handleInference(request, clientIp));
+        }
+
+        CompletableFuture<InferResponse> future = new CompletableFuture<>();
+        Future<?> task = inferExecutor.submit(() -> {
+            try {
+                future.complete(handleInference(request, clientIp));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future
+                .orTimeout(executionProperties.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        task.cancel(true); // 시간 초과 → 진행 중인 호출 인터럽트 (이미 끝났으면 아무 일 없음)
+                    }
+                });
+    }
 
     /**
      * ✅ handleInference
@@ -40,64 +107,266 @@ public class InferService {
      * @return             모델 응답 결과 + 부가 정보 포함 응답 객체
      */
     public InferResponse handleInference(InferRequest request, HttpServletRequest httpRequest) {
-        log.info("📩 요청 수신: {}", request); // 요청 로그
+        return handleInference(request, httpRequest.getRemoteAddr());
+    }
 
-        // 1. 모델별 호출 제한 검사 (제한 초과 시 예외 발생)
-        modelRateLimiter.checkQuota(request.getModel());
+    /**
+     * ✅ handleInference (IP 기반)
+     * - 실행 모드와 무관하게 실제 추론 단계를 수행하고 처리 시간을 측정
+     */
+    public InferResponse handleInference(InferRequest request, String clientIp) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        inFlight.incrementAndGet();
+        String outcome = "success";
+        try {
+            log.info("📩 요청 수신: {}", request); // 요청 로그
 
-        // 2. contextSetId 기반으로 JSON 형태 context 구성
-        String contextJson = contextSetService
-                .getContextSet(request.getContextSetId()) // ID로 조회 (예외 포함)
-                .toContextJson(); // → contextJson 문자열 반환
+            ExecutedInference executed = execute(request, resolveContext(request.getContextSetId()), clientIp, null);
 
-        // 3. 프롬프트 생성 (contextJson + query → 모델 입력값)
-        String prompt = PromptFormatter.formatPrompt(
-                request.getProject(),
-                contextJson,
-                request.getQuery()
-        );
+            // 로그 저장 + 사용량 통계 기록 (설정에 따라 응답 경로 밖에서 처리)
+            inferenceRecorder.record(executed.record());
+            return executed.response();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+            sample.stop(Timer.builder("mcp.infer.requests")
+                    .tag("mode", executionProperties.getMode().name())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
 
-        // 4. 토큰 수 계산 (단순 추정)
-        int tokensUsed = TokenCounter.countForPrompt(prompt);
+    /**
+     * ✅ handleStreamingInference
+     * - 모델 응답을 토큰 단위로 SSE 이벤트(token)로 즉시 전달하고,
+     * - 스트림이 끝나면 전체 텍스트를 조립해 로그/사용량을 기록한 뒤 done 이벤트를 보낸다.
+     * - 실제 처리는 inferExecutor(가상 스레드)에서 실행되므로 요청 스레드는 바로 반환된다.
+     *
+     * @param request  사용자 요청 DTO
+     * @param clientIp 요청자 IP
+     * @return         토큰 이벤트를 흘려보낼 SseEmitter
+     */
+    public SseEmitter handleStreamingInference(InferRequest request, String clientIp) {
+        SseEmitter emitter = new SseEmitter(executionProperties.getTimeout().toMillis());
+
+        inferExecutor.execute(() -> {
+            inFlight.incrementAndGet();
+            try {
+                log.info("📩 스트리밍 요청 수신: {}", request);
 
-        // 5. 모델명으로 클라이언트 선택 (ex: groq-llama3)
-        AiModelClient client = modelClients.stream()
-                .filter(c -> c.supports(request.getModel()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("❌ 지원하지 않는 모델입니다: " + request.getModel()));
+                ExecutedInference executed = execute(request, resolveContext(request.getContextSetId()), clientIp,
+                        token -> sendEvent(emitter, "token", Map.of("token", token)));
 
-        // 6. 모델 호출
+                inferenceRecorder.record(executed.record());
+
+                sendEvent(emitter, "done", executed.response());
+                emitter.complete();
+            } catch (Exception e) {
+                log.error("❌ 스트리밍 추론 실패", e);
+                try {
+                    emitter.send(SseEmitter.event().name("error").data(Map.of("message", String.valueOf(e.getMessage())), MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException ignored) {
+                    // 클라이언트 연결이 이미 끊긴 경우
+                }
+                emitter.completeWithError(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+
+        return emitter;
+    }
+
+    /**
+     * ✅ execute
+     * - 프롬프트 구성 → 캐시 확인 → 호출 제한 검사 → 모델 호출까지 수행하고,
+     * - 응답 DTO와 저장할 기록(InferenceRecord)을 함께 반환한다. (저장은 호출 측 책임)
+     *
+     * @param request     사용자 요청 DTO
+     * @param context     미리 조회한 컨텍스트 (캐시된 JSON + 프롬프트 앞부분)
+     * @param clientIp    요청자 IP
+     * @param onToken     스트리밍 토큰 콜백 (null이면 일반 호출)
+     */
+    public ExecutedInference execute(InferRequest request, ResolvedContext context, String clientIp, Consumer<String> onToken) {
+        // 1~3. 프롬프트 구성 + 토큰 수 추정
         long start = System.currentTimeMillis();
-        String result = client.call(request.getModel(), prompt); // 실제 호출
-        long elapsed = System.currentTimeMillis() - start;
+        PreparedInference prepared = prepare(request, context);
+
+        // 4. 캐시 확인 (적중 시 호출 제한/모델 호출 없이 바로 응답)
+        Optional<InferResponseCacheService.CachedResponse> cached = lookupCache(prepared);
+        if (cached.isPresent()) {
+            long elapsed = System.currentTimeMillis() - start;
+            log.info("♻️ 캐시 응답 반환: model={}, elapsed={}ms", request.getModel(), elapsed);
+
+            String result = cached.get().result();
+            if (onToken != null) {
+                onToken.accept(result); // 캐시 적중 시 전체 응답을 한 번에 전달
+            }
+
+            InferResponse response = toResponse(request, request.getModel(), prepared, result, elapsed);
+            response.setCached(true);
+            return new ExecutedInference(response,
+                    toRecord(request, request.getProvider(), request.getModel(), prepared, result, cached.get().tokensUsed(), elapsed, clientIp, true, null));
+        }
+
+        // 4-1. semantic cache 확인 (같은 model/ContextSet/project의 비슷한 이전 질의)
+        float[] queryVector = embedQuery(request);
+        Optional<SemanticCacheService.Hit> similar = queryVector == null ? Optional.empty()
+                : semanticCache.lookup(request.getModel(), request.getContextSetId(), prepared.contextRevision(),
+                        request.getProject(), queryVector);
+        if (similar.isPresent()) {
+            long elapsed = System.currentTimeMillis() - start;
+            log.info("♻️ 유사 질의 캐시 응답 반환: model={}, similarity={}, elapsed={}ms",
+                    request.getModel(), similar.get().similarity(), elapsed);
+
+            String result = similar.get().result();
+            if (onToken != null) {
+                onToken.accept(result);
+            }
+
+            InferResponse response = toResponse(request, request.getModel(), prepared, result, elapsed);
+            response.setCached(true);
+            response.setSimilarity(similar.get().similarity());
+            return new ExecutedInference(response,
+                    toRecord(request, request.getProvider(), request.getModel(), prepared, result, similar.get().tokensUsed(), elapsed, clientIp, true, null));
+        }
+
+        // 5. 클라이언트 선택 + 모델/프로젝트/IP별 호출 한도 예약 (제한 초과 시 예외 발생)
+        AiModelClient client = resolveClient(request.getModel());
+        ModelRateLimiter.Reservation reservation =
+                modelRateLimiter.reserve(request.getModel(), request.getProject(), clientIp);
+
+        // 6. 모델 호출 (스트리밍이면 토큰 단위 전달), 실패하면 예약 반환
+        //    일반 호출은 지연이 길어지면 헤지 요청을 보낼 수 있으며, 이긴 쪽 모델/제공자로 기록하고 모델 한도도 그 모델로 확정
+        long callStart = System.currentTimeMillis();
+        String result;
+        String answeredModel = request.getModel();
+        String answeredProvider = client.getProviderName();
+        try {
+            if (onToken == null) {
+                HedgedCallService.HedgedResult hedged = hedgedCallService.call(client, request.getModel(), prepared.prompt()); // 실제 호출
+                result = hedged.result();
+                answeredModel = hedged.model();
+                answeredProvider = hedged.client().getProviderName();
+            } else {
+                AtomicBoolean firstToken = new AtomicBoolean(true);
+                result = client.stream(request.getModel(), prepared.prompt(), token -> {
+                    if (firstToken.compareAndSet(true, false)) {
+                        meterRegistry.timer("mcp.infer.stream.first-token", "model", request.getModel())
+                                .record(System.currentTimeMillis() - callStart, TimeUnit.MILLISECONDS);
+                    }
+                    onToken.accept(token);
+                });
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // 응답이 왔지만 호출 측이 이미 시간 초과로 취소함 → 한도를 쓰지 않고 기록도 남기지 않음
+                throw new AiModelCallException("모델 호출 취소됨 (시간 초과): " + request.getModel(), null);
+            }
+            reservation.commitAs(answeredModel);
+        } catch (RuntimeException e) {
+            reservation.refund();
+            throw e;
+        }
+        long elapsed = System.currentTimeMillis() - callStart;
 
         log.info("✅ 모델 응답: {}", result);
 
-        // 7. 로그 저장
-        logService.saveLog(
-                request.getProject(),
-                request.getProvider(),
-                request.getModel(),
-                prompt,
-                request.getQuery(),
-                result,
-                elapsed + "ms"
-        );
+        // 7. 응답 + 저장할 기록 반환
+        return new ExecutedInference(
+                toResponse(request, answeredModel, prepared, result, elapsed),
+                toRecord(request, answeredProvider, answeredModel, prepared, result, prepared.tokensUsed(), elapsed, clientIp, false, queryVector));
+    }
+
+    /**
+     * ✅ contextSetId로 컨텍스트 조회 (캐시 우선, 존재하지 않으면 예외)
+     */
+    public ResolvedContext resolveContext(Long contextSetId) {
+        return contextSetService.resolve(contextSetId);
+    }
+
+    /**
+     * ✅ 모델명으로 클라이언트 선택 (ex: groq-llama3)
+     */
+    public AiModelClient resolveClient(String model) {
+        return modelRegistry.resolve(model);
+    }
+
+    /**
+     * ✅ prepare
+     * - 프롬프트 생성, 토큰 수 추정, 캐시 키 계산까지 수행
+     */
+    private PreparedInference prepare(InferRequest request, ResolvedContext context) {
+        // 1~2. 프롬프트 생성 (미리 만든 [Project]/[Context] 앞부분 + query → 모델 입력값)
+        String prompt = context.promptFor(request.getProject(), request.getQuery());
+
+        // 3. 토큰 수 계산 (단순 추정)
+        int tokensUsed = TokenCounter.countForPrompt(prompt);
+
+        String cacheKey = responseCache.isEnabled() ? responseCache.keyOf(request.getModel(), prompt) : null;
 
-        // 8. 사용량 통계 기록
-        String clientIp = httpRequest.getRemoteAddr();
-        apiUsageService.record(request.getModel(), tokensUsed, elapsed, clientIp);
+        return new PreparedInference(prompt, tokensUsed, cacheKey, context.getRevision());
+    }
+
+    private Optional<InferResponseCacheService.CachedResponse> lookupCache(PreparedInference prepared) {
+        if (prepared.cacheKey() == null) {
+            return Optional.empty();
+        }
+        return responseCache.get(prepared.cacheKey());
+    }
 
-        // 9. 최종 응답 반환
+    /**
+     * ✅ semantic cache용 질의 임베딩 (꺼져 있거나 실패하면 null)
+     * - 캐시 미스로 모델을 호출하면 같은 벡터를 InferenceRecord에 담아 저장 단계에서 재사용
+     */
+    private float[] embedQuery(InferRequest request) {
+        if (!semanticCache.isEnabledFor(request.getProject())) {
+            return null;
+        }
+        return semanticCache.embed(request.getProject(), request.getQuery());
+    }
+
+    private InferResponse toResponse(InferRequest request, String model, PreparedInference prepared, String result, long elapsed) {
         return InferResponse.builder()
                 .result(result)
-                .prompt(prompt)
-                .model(request.getModel())
+                .prompt(prepared.prompt())
+                .model(model)
                 .elapsed(elapsed + "ms")
-                .tokensUsed(tokensUsed)
+                .tokensUsed(prepared.tokensUsed())
                 .build();
     }
 
+    private InferenceRecord toRecord(InferRequest request, String provider, String model, PreparedInference prepared, String result,
+                                     int tokensUsed, long elapsed, String clientIp, boolean cacheHit, float[] queryVector) {
+        return new InferenceRecord(
+                request.getProject(),
+                provider,
+                model,
+                request.getModel(),
+                request.getContextSetId(),
+                prepared.contextRevision(),
+                prepared.prompt(),
+                request.getQuery(),
+                result,
+                tokensUsed,
+                elapsed,
+                clientIp,
+                cacheHit,
+                prepared.cacheKey(),
+                queryVector
+        );
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new IllegalStateException("SSE 전송 실패 (클라이언트 연결 종료)", e);
+        }
+    }
+
     /**
      * ✅ getAvailableModels
      * - 현재 사용 가능한 모델 목록 조회 (Groq / Together 등 통합 관리)
@@ -105,4 +374,16 @@ public class InferService {
     public List<ModelInfo> getAvailableModels() {
         return apiUsageService.getAvailableModels();
     }
+
+    /**
+     * ✅ 모델 호출 직전까지 준비된 값 묶음
+     */
+    private record PreparedInference(String prompt, int tokensUsed, String cacheKey, long contextRevision) {
+    }
+
+    /**
+     * ✅ 추론 실행 결과: 클라이언트 응답 + 저장할 기록
+     */
+    public record ExecutedInference(InferResponse response, InferenceRecord record) {
+    }
 }
@@ -0,0 +1,32 @@
+package com.mcp.server.service;
+
+/**
+ * ✅ InferenceRecord
+ * - 추론 한 건이 끝난 뒤 저장해야 할 값 묶음 (Log / ApiUsageLog / 응답 캐시)
+ * - InferService가 만들고 InferenceRecorder가 저장한다.
+ *
+ * @param model    실제로 응답한 모델 (헤지 요청의 대체 모델이 이기면 그 모델)
+ * @param requestedModel  요청에 지정된 모델 (semantic cache 범위 키)
+ * @param contextRevision 프롬프트를 만든 ContextSet의 revision (semantic cache 범위 키)
+ * @param cacheHit 캐시에서 반환된 응답이면 true (이 경우 Log/캐시는 다시 저장하지 않음)
+ * @param cacheKey 응답 캐시 키 (캐시 비활성화 시 null)
+ * @param queryVector semantic cache용 질의 임베딩 (해당 프로젝트에서 꺼져 있으면 null)
+ */
+public record InferenceRecord(
+        String project,
+        String provider,
+        String model,
+        String requestedModel,
+        Long contextSetId,
+        long contextRevision,
+        String prompt,
+        String query,
+        String result,
+        int tokensUsed,
+        long elapsedMs,
+        String clientIp,
+        boolean cacheHit,
+        String cacheKey,
+        float[] queryVector
+) {
+}
@@ -0,0 +1,257 @@
+package com.mcp.server.service;
+
+import com.mcp.server.config.InferExecutionProperties;
+import com.mcp.server.config.InferPersistenceProperties;
+import com.mcp.server.domain.log.Log;
+import com.mcp.server.domain.usage.ApiUsageLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ✅ InferenceRecorder
+ * - 추론이 끝난 뒤의 저장 작업(Log + 메타데이터, ApiUsageLog, 응답 캐시, semantic cache)을 한곳에서 처리
+ * - 단건(/infer, /infer/stream)과 배치(/infer/batch) 모두 같은 경로를 사용한다.
+ *
+ * [저장 방식: infer.persistence.mode]
+ * - DIRECT: 호출마다 바로 저장 (infer.execution.async-persistence면 persistenceExecutor에서)
+ * - BUFFERED: 메모리 버퍼에 모았다가 batch-size건이 차거나 flush-interval이 지나면 한 트랜잭션으로 저장
+ *   → Log / 메타데이터 / ApiUsageLog가 JDBC 배치 insert(rewriteBatchedStatements)로 묶여
+ *     요청당 5번이던 DB 왕복이 배치당 몇 번으로 줄어든다.
+ *
+ * 💡 flush-interval 주기 저장은 전용 스레드(inference-flush)에서 돌린다.
+ *    @Scheduled 스레드는 임베딩/outbox/모델 목록 갱신 같은 긴 작업과 공유되므로, 거기에 맡기면 저장 지연 상한이 지켜지지 않는다.
+ * 💡 저장에 실패한 배치는 버리지 않고 버퍼 앞에 되돌린 뒤, flush-interval부터 두 배씩(최대 max-retry-backoff) 늘려가며 재시도한다.
+ *    단, 제약 위반(DataIntegrityViolationException)처럼 재시도해도 안 되는 실패는 한 건씩 나눠 저장해 문제 행만 건너뛴다.
+ * 💡 종료 시(@PreDestroy) 버퍼에 남은 기록을 모두 저장한다.
+ * 💡 mcp.persistence.rows(entity별 insert 건수)의 rate가 초당 insert 수, mcp.persistence.flush가 배치 저장 시간이다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InferenceRecorder {
+
+    private final LogService logService;
+    private final ApiUsageService apiUsageService;
+    private final InferResponseCacheService responseCache;
+    private final SemanticCacheService semanticCache;
+    private final InferExecutionProperties executionProperties;
+    private final InferPersistenceProperties persistenceProperties;
+    private final ExecutorService persistenceExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final LinkedBlockingDeque<InferenceRecord> buffer = new LinkedBlockingDeque<>();
+    private final ReentrantLock flushLock = new ReentrantLock();     // 가상 스레드 고정(pinning)을 피하려고 synchronized 대신 사용
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flushTimerExecutor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("inference-flush").daemon().factory());
+
+    // 재시도 대기 상태 (flushLock 안에서만 읽고 씀)
+    private int consecutiveFailures;
+    private long retryAtNanos;
+
+    private Counter logRows;
+    private Counter outboxRows;
+    private Counter usageRows;
+    private Counter droppedRows;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        logRows = meterRegistry.counter("mcp.persistence.rows", "entity", "log");
+        outboxRows = meterRegistry.counter("mcp.persistence.rows", "entity", "embedding_outbox"); // 메타데이터 행은 EmbeddingOutboxRelay가 기록
+        usageRows = meterRegistry.counter("mcp.persistence.rows", "entity", "api_usage_log");
+        droppedRows = meterRegistry.counter("mcp.persistence.dropped");
+        flushTimer = Timer.builder("mcp.persistence.flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        meterRegistry.gaugeCollectionSize("mcp.persistence.pending", Tags.empty(), buffer);
+
+        long intervalMillis = Math.max(1, persistenceProperties.getFlushInterval().toMillis());
+        flushTimerExecutor.scheduleWithFixedDelay(this::flushPeriodically, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * ✅ 단건 기록
+     */
+    public void record(InferenceRecord record) {
+        recordAll(List.of(record));
+    }
+
+    /**
+     * ✅ 여러 건 기록 (배치 저장)
+     */
+    public void recordAll(List<InferenceRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        if (persistenceProperties.getMode() == InferPersistenceProperties.Mode.BUFFERED) {
+            buffer.addAll(records);
+            if (buffer.size() >= persistenceProperties.getCapacity()) {
+                flush(); // DB가 밀리는 동안 버퍼가 무한히 커지지 않도록 요청 스레드가 직접 저장
+            } else if (buffer.size() >= persistenceProperties.getBatchSize() && flushScheduled.compareAndSet(false, true)) {
+                persistenceExecutor.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            }
+            return;
+        }
+
+        if (!executionProperties.isAsyncPersistence()) {
+            write(records);
+            return;
+        }
+
+        persistenceExecutor.execute(() -> {
+            try {
+                write(records);
+            } catch (Exception e) {
+                log.error("❌ 추론 로그/사용량 저장 실패 ({}건)", records.size(), e);
+            }
+        });
+    }
+
+    /**
+     * ✅ 주기적 저장 (건수가 batch-size에 못 미쳐도 flush-interval마다 저장, 전용 스레드에서 실행)
+     * - 예외가 밖으로 나가면 ScheduledExecutorService가 이후 실행을 멈추므로 여기서 잡는다.
+     */
+    void flushPeriodically() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("❌ 주기적 추론 기록 저장 실패", e);
+        }
+    }
+
+    /**
+     * ✅ 종료 시 남은 기록 저장
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushTimerExecutor.shutdown();
+        flush(true);
+        if (buffer.isEmpty()) {
+            log.info("✅ 종료 전 추론 기록 저장 완료");
+        } else {
+            log.error("❌ 종료 전 추론 기록 저장 실패, 저장하지 못한 기록 {}건", buffer.size());
+        }
+    }
+
+    /**
+     * ✅ 버퍼 비우기
+     * - batch-size 단위로 잘라 한 트랜잭션씩 저장, 동시에 하나의 flush만 실행
+     * - 재시도 대기 중이면 건너뛴다. 단, 버퍼가 capacity까지 찼으면 대기와 상관없이 시도한다 (요청 스레드 역압)
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    private void flush(boolean force) {
+        flushLock.lock();
+        try {
+            if (!force && consecutiveFailures > 0 && System.nanoTime() - retryAtNanos < 0
+                    && buffer.size() < persistenceProperties.getCapacity()) {
+                return;
+            }
+
+            List<InferenceRecord> chunk = new ArrayList<>(persistenceProperties.getBatchSize());
+            while (buffer.drainTo(chunk, persistenceProperties.getBatchSize()) > 0) {
+                try {
+                    write(chunk);
+                    consecutiveFailures = 0;
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("⚠️ 추론 로그/사용량 배치에 저장할 수 없는 행이 있어 한 건씩 저장 ({}건)", chunk.size(), e);
+                    writeEach(chunk);
+                } catch (Exception e) {
+                    requeue(chunk, e);
+                    return;
+                }
+                chunk.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * ✅ 실패한 배치를 버퍼 앞에 원래 순서대로 되돌리고 다음 재시도 시각을 정함
+     */
+    private void requeue(List<InferenceRecord> chunk, Exception cause) {
+        for (int i = chunk.size() - 1; i >= 0; i--) {
+            buffer.addFirst(chunk.get(i));
+        }
+
+        consecutiveFailures++;
+        long intervalMillis = Math.max(1, persistenceProperties.getFlushInterval().toMillis());
+        long backoffMillis = Math.min(intervalMillis << Math.min(consecutiveFailures - 1, 20),
+                persistenceProperties.getMaxRetryBackoff().toMillis());
+        retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+        log.error("❌ 추론 로그/사용량 배치 저장 실패 ({}건, 연속 {}회), {}ms 후 재시도 (대기 {}건)",
+                chunk.size(), consecutiveFailures, backoffMillis, buffer.size(), cause);
+    }
+
+    /**
+     * ✅ 한 건씩 저장 (제약 위반 행만 건너뜀)
+     */
+    private void writeEach(List<InferenceRecord> chunk) {
+        for (InferenceRecord record : chunk) {
+            try {
+                write(List.of(record));
+            } catch (Exception e) {
+                droppedRows.increment();
+                log.error("❌ 저장할 수 없는 추론 기록 제외 (model={}, project={})", record.model(), record.project(), e);
+            }
+        }
+    }
+
+    private void write(List<InferenceRecord> records) {
+        // 1. 로그 + 메타데이터 (캐시 적중 건은 같은 내용이므로 제외)
+        List<Log> logs = records.stream()
+                .filter(r -> !r.cacheHit())
+                .map(r -> new Log(r.project(), r.provider(), r.model(), r.prompt(), r.query(), r.result(), r.elapsedMs() + "ms"))
+                .toList();
+
+        // 2. 사용량 통계
+        List<ApiUsageLog> usages = records.stream()
+                .map(r -> new ApiUsageLog(r.model(), r.tokensUsed(), r.elapsedMs(), r.clientIp(), r.cacheHit()))
+                .toList();
+
+        // 1~2를 한 트랜잭션(한 커넥션, 한 번의 commit)으로 저장
+        flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            logService.saveLogs(logs);
+            apiUsageService.recordAll(usages);
+        }));
+        logRows.increment(logs.size());
+        outboxRows.increment(logs.size()); // 로그당 outbox 1행
+        usageRows.increment(usages.size());
+
+        // 3. 응답 캐시 (정확히 같은 프롬프트 / 비슷한 질의)
+        records.stream()
+                .filter(r -> !r.cacheHit() && r.cacheKey() != null)
+                .forEach(responseCache::put);
+        records.stream()
+                .filter(r -> !r.cacheHit() && r.queryVector() != null)
+                .forEach(semanticCache::put);
+    }
+}
@@ -0,0 +1,556 @@
+package com.mcp.server.service;
+
+import com.mcp.server.config.ArchiveProperties;
+import com.mcp.server.domain.log.Log;
+import com.mcp.server.domain.log.LogRepository;
+import com.mcp.server.domain.usage.ApiUsageLog;
+import com.mcp.server.domain.usage.ApiUsageLogRepository;
+import com.mcp.server.dto.ApiUsageExportRow;
+import com.mcp.server.dto.CursorPage;
+import com.mcp.server.dto.LogRequestCondition;
+import com.mcp.server.dto.LogSummary;
+import com.mcp.server.util.ColumnarSegment;
+import com.mcp.server.util.ColumnarSegment.BlockInfo;
+import com.mcp.server.util.ColumnarSegment.Column;
+import com.mcp.server.util.ColumnarSegment.Type;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.mcp.server.util.ColumnarSegment.CREATED_AT;
+import static com.mcp.server.util.ColumnarSegment.ID;
+import static com.mcp.server.util.ColumnarSegment.compareKey;
+import static com.mcp.server.util.ColumnarSegment.dateTimeOf;
+import static com.mcp.server.util.ColumnarSegment.micros;
+
+/**
+ * ✅ LogArchiveService
+ * - 오래된 Log / ApiUsageLog 행을 DB(hot)에서 로컬 디스크의 압축 열 지향 세그먼트(cold, ColumnarSegment)로 옮기고,
+ *   조회 서비스(LogQueryService, ApiUsageService)가 두 계층을 함께 읽을 수 있도록 cold 조회를 제공한다.
+ *
+ * [보관 작업] cron마다 (별도 가상 스레드, 동시에 하나만)
+ * 1. hot-age보다 오래된(날짜 단위로 내린 시각 이전) 행을 (createdAt, id) 순 keyset 청크로 읽어
+ *    segment-rows개씩 임시 파일에 쓰고 → fsync → 원자적 이동(ATOMIC_MOVE)으로 세그먼트 확정
+ * 2. 확정된 세그먼트에 담긴 행을 DB에서 chunk-size개씩 삭제
+ *    → 1과 2 사이에 중단되면 다음 실행 때 마지막 세그먼트 키 이하의 행은 다시 쓰지 않고 삭제만 한다. (중복 없음)
+ * 💡 ApiUsageLog는 보관 전에 UsageArchivingEvent를 발행해 해당 날짜 집계(api_usage_rollup)를 원본 기준으로 다시 맞춘다.
+ *    (원본이 지워진 뒤에는 집계를 다시 만들 수 없으므로)
+ *
+ * [조회]
+ * - 보관된 행은 항상 DB의 행보다 오래되었으므로 최신순은 hot → cold, 오래된순은 cold → hot 순서로 이어 읽으면 된다.
+ * - 블록 희소 인덱스(첫/마지막 키, id 범위)로 기간/커서/id에 맞지 않는 블록은 풀지 않고, 필요한 열만 푼다.
+ *
+ * 💡 세그먼트는 노드 로컬 파일이므로 여러 노드가 조회한다면 dir을 공유 디스크로 지정하고 보관 작업은 한 노드에서만 켠다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogArchiveService {
+
+    private static final int SUMMARY_QUERY_LENGTH = 200;
+
+    private static final List<Column> LOG_COLUMNS = List.of(
+            new Column(CREATED_AT, Type.LONG),
+            new Column(ID, Type.LONG),
+            new Column("project", Type.STRING),
+            new Column("provider", Type.STRING),
+            new Column("model", Type.STRING),
+            new Column("query", Type.STRING),
+            new Column("queryHash", Type.STRING),
+            new Column("prompt", Type.STRING),
+            new Column("promptHash", Type.STRING),
+            new Column("result", Type.STRING),
+            new Column("resultHash", Type.STRING),
+            new Column("elapsed", Type.STRING));
+
+    private static final List<Column> USAGE_COLUMNS = List.of(
+            new Column(CREATED_AT, Type.LONG),
+            new Column(ID, Type.LONG),
+            new Column("model", Type.STRING),
+            new Column("tokensUsed", Type.INT),
+            new Column("elapsedTimeMs", Type.LONG),
+            new Column("date", Type.INT),
+            new Column("ipAddress", Type.STRING),
+            new Column("cacheHit", Type.BOOLEAN));
+
+    private final ArchiveProperties properties;
+    private final LogRepository logRepository;
+    private final ApiUsageLogRepository usageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final Tier logTier = new Tier("log");
+    private final Tier usageTier = new Tier("usage");
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * ✅ 테이블 하나의 cold 계층 (세그먼트는 키 오름차순)
+     */
+    private static final class Tier {
+        private final String name;
+        private final List<ColumnarSegment> segments = new CopyOnWriteArrayList<>();
+
+        private Tier(String name) {
+            this.name = name;
+        }
+
+        private List<ColumnarSegment> ordered(boolean ascending) {
+            return ascending ? segments : segments.reversed();
+        }
+
+        private BlockInfo last() {
+            return segments.isEmpty() ? null : segments.get(segments.size() - 1).lastBlock();
+        }
+    }
+
+    /**
+     * ✅ 보관 대상 청크 읽기 ((createdAt, id) 이후, limit개)
+     */
+    @FunctionalInterface
+    private interface ChunkReader<T> {
+        List<T> read(LocalDateTime createdAt, Long id, Limit limit);
+    }
+
+    /**
+     * ✅ 조건(기간/커서)을 통과한 cold 행 방문 (false를 돌려주면 중단)
+     */
+    @FunctionalInterface
+    private interface RowVisitor {
+        boolean visit(ColumnarSegment.Block block, int row);
+    }
+
+    @PostConstruct
+    public void loadSegments() {
+        for (Tier tier : List.of(logTier, usageTier)) {
+            load(tier);
+            meterRegistry.gauge("mcp.archive.segments", Tags.of("table", tier.name), tier.segments, List::size);
+        }
+    }
+
+    // =========================
+    // 🔹 보관 작업
+    // =========================
+
+    /**
+     * ✅ 주기적 실행: 오래된 행 보관 (스케줄러 스레드를 오래 붙잡지 않도록 별도 가상 스레드에서)
+     */
+    @Scheduled(cron = "${infer.archive.cron:0 0 4 * * *}")
+    public void archiveOldRows() {
+        if (!properties.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("log-archive").start(() -> {
+            long start = System.nanoTime();
+            try {
+                int logs = archiveLogs();
+                int usages = archiveUsages();
+                if (logs + usages > 0) {
+                    log.info("🗄️ 오래된 행 보관 완료: Log {}건, ApiUsageLog {}건 ({}ms)",
+                            logs, usages, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            } catch (Exception e) {
+                log.warn("⚠️ 오래된 행 보관 실패 (다음 실행에 이어서 진행): {}", e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * ✅ log-hot-age보다 오래된 Log 보관
+     *
+     * @return 세그먼트로 옮긴 행 수
+     */
+    public int archiveLogs() throws IOException {
+        LocalDateTime before = cutoff(properties.getLogHotAge());
+        return archive(logTier, LOG_COLUMNS,
+                (createdAt, id, limit) -> logRepository.findCreatedBefore(createdAt, id, before, limit),
+                LogArchiveService::logRow,
+                logRepository::deleteAllByIdInBatch);
+    }
+
+    /**
+     * ✅ usage-hot-age보다 오래된 ApiUsageLog 보관
+     *
+     * @return 세그먼트로 옮긴 행 수
+     */
+    public int archiveUsages() throws IOException {
+        LocalDateTime before = cutoff(properties.getUsageHotAge());
+        LocalDate oldest = usageRepository.findMinDate();
+        if (oldest == null || !oldest.isBefore(before.toLocalDate())) {
+            return 0;
+        }
+        eventPublisher.publishEvent(new UsageArchivingEvent(oldest, before.toLocalDate().minusDays(1))); // 삭제 전에 집계 확정
+        return archive(usageTier, USAGE_COLUMNS,
+                (createdAt, id, limit) -> usageRepository.findCreatedBefore(createdAt, id, before, limit),
+                LogArchiveService::usageRow,
+                usageRepository::deleteAllByIdInBatch);
+    }
+
+    private <T> int archive(Tier tier, List<Column> columns, ChunkReader<T> reader,
+                            Function<T, Object[]> toRow, Consumer<List<Long>> delete) throws IOException {
+        Path dir = dirOf(tier);
+        Files.createDirectories(dir);
+
+        LocalDateTime cursorTime = LocalDateTime.of(1970, 1, 1, 0, 0);
+        long cursorId = 0;
+        int archived = 0;
+        boolean more = true;
+        while (more) {
+            BlockInfo watermark = tier.last(); // 이 키 이하는 이미 세그먼트에 있음 (삭제만)
+            Path temp = dir.resolve(tier.name + ".seg.tmp");
+            List<Long> written = new ArrayList<>();
+            List<Long> alreadyArchived = new ArrayList<>();
+            long firstTime = 0;
+            long firstId = 0;
+
+            try (ColumnarSegment.Writer writer = ColumnarSegment.writer(temp, columns, properties.getBlockRows())) {
+                while (written.size() < properties.getSegmentRows()) {
+                    List<T> rows = reader.read(cursorTime, cursorId, Limit.of(properties.getChunkSize()));
+                    if (rows.isEmpty()) {
+                        more = false;
+                        break;
+                    }
+                    long time = 0;
+                    long id = 0;
+                    for (T row : rows) {
+                        Object[] values = toRow.apply(row);
+                        time = (Long) values[0];
+                        id = (Long) values[1];
+                        if (watermark != null && compareKey(time, id, watermark.lastTime(), watermark.lastId()) <= 0) {
+                            alreadyArchived.add(id);
+                            continue;
+                        }
+                        if (written.isEmpty()) {
+                            firstTime = time;
+                            firstId = id;
+                        }
+                        writer.append(values);
+                        written.add(id);
+                    }
+                    cursorTime = dateTimeOf(time);
+                    cursorId = id;
+                }
+                if (!written.isEmpty()) {
+                    writer.finish();
+                }
+            }
+
+            if (written.isEmpty()) {
+                Files.deleteIfExists(temp);
+            } else {
+                Path target = dir.resolve(String.format("%s-%019d-%019d.seg", tier.name, firstTime, firstId));
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                tier.segments.add(ColumnarSegment.open(target));
+            }
+
+            alreadyArchived.addAll(written);
+            deleteInChunks(alreadyArchived, delete);
+            archived += written.size();
+            meterRegistry.counter("mcp.archive.rows", "table", tier.name).increment(written.size());
+        }
+        return archived;
+    }
+
+    private void deleteInChunks(List<Long> ids, Consumer<List<Long>> delete) {
+        for (int from = 0; from < ids.size(); from += properties.getChunkSize()) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + properties.getChunkSize()));
+            transactionTemplate.executeWithoutResult(status -> delete.accept(chunk));
+        }
+    }
+
+    private static LocalDateTime cutoff(java.time.Duration hotAge) {
+        return LocalDate.now().minusDays(Math.max(1, hotAge.toDays())).atStartOfDay();
+    }
+
+    private static Object[] logRow(Log log) {
+        return new Object[]{
+                micros(log.getCreatedAt()), log.getId(),
+                log.getProject(), log.getProvider(), log.getModel(),
+                log.getQuery(), log.getQueryHash(),
+                log.getPrompt(), log.getPromptHash(),
+                log.getResult(), log.getResultHash(),
+                log.getElapsed()
+        };
+    }
+
+    private static Object[] usageRow(ApiUsageLog usage) {
+        LocalDate date = usage.getDate() != null ? usage.getDate() : usage.getCreatedAt().toLocalDate();
+        return new Object[]{
+                micros(usage.getCreatedAt()), usage.getId(),
+                usage.getModel(), usage.getTokensUsed(), usage.getElapsedTimeMs(),
+                (int) date.toEpochDay(), usage.getIpAddress(), usage.isCacheHit()
+        };
+    }
+
+    // =========================
+    // 🔹 Log 조회
+    // =========================
+
+    /**
+     * ✅ 보관된 로그 요약 검색 (LogQueryService.search와 같은 조건/정렬/커서 규칙)
+     *
+     * @param after     이 키 다음부터 (null이면 처음부터)
+     * @param ascending true면 오래된순
+     * @param limit     최대 개수
+     */
+    public List<LogSummary> findLogSummaries(LogRequestCondition condition, CursorPage.Cursor after,
+                                             boolean ascending, int limit) {
+        List<LogSummary> found = new ArrayList<>();
+        if (logTier.segments.isEmpty() || limit <= 0) {
+            return found;
+        }
+        String projectKey = Log.keyOf(condition.getProject());
+        String providerKey = Log.keyOf(condition.getProvider());
+        String modelKey = Log.keyOf(condition.getModel());
+        long from = condition.getFrom() == null ? Long.MIN_VALUE : micros(condition.getFrom().atStartOfDay());
+        long to = condition.getTo() == null ? Long.MAX_VALUE : micros(condition.getTo().plusDays(1).atStartOfDay());
+
+        scan(logTier, from, to, after, ascending, (block, i) -> {
+            String project = block.strings("project")[i];
+            String provider = block.strings("provider")[i];
+            String model = block.strings("model")[i];
+            if ((projectKey != null && !projectKey.equals(Log.keyOf(project)))
+                    || (providerKey != null && !providerKey.equals(Log.keyOf(provider)))
+                    || (modelKey != null && !modelKey.equals(Log.keyOf(model)))) {
+                return true;
+            }
+            found.add(summaryOf(block, i));
+            return found.size() < limit;
+        });
+        return found;
+    }
+
+    /**
+     * ✅ 보관된 로그 요약 id 일괄 조회 (id 범위가 겹치는 블록만 확인, 모두 찾으면 중단)
+     * - 전문 검색 색인처럼 DB에서 빠진 로그 id를 들고 있는 곳에서 사용
+     *
+     * @return id → 요약 (보관본에도 없는 id는 빠짐)
+     */
+    public Map<Long, LogSummary> findLogSummariesByIds(Collection<Long> ids) {
+        Map<Long, LogSummary> found = new HashMap<>();
+        if (logTier.segments.isEmpty() || ids.isEmpty()) {
+            return found;
+        }
+        Set<Long> remaining = new HashSet<>(ids);
+        for (ColumnarSegment segment : logTier.ordered(false)) {
+            List<BlockInfo> blocks = segment.getBlocks();
+            for (int b = 0; b < blocks.size() && !remaining.isEmpty(); b++) {
+                BlockInfo info = blocks.get(b);
+                if (remaining.stream().noneMatch(id -> id >= info.minId() && id <= info.maxId())) {
+                    continue;
+                }
+                ColumnarSegment.Block block = segment.block(b);
+                long[] blockIds = block.longs(ID);
+                for (int i = 0; i < blockIds.length; i++) {
+                    if (remaining.remove(blockIds[i])) {
+                        found.put(blockIds[i], summaryOf(block, i));
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static LogSummary summaryOf(ColumnarSegment.Block block, int i) {
+        String query = block.strings("query")[i];
+        return new LogSummary(block.longs(ID)[i],
+                block.strings("project")[i], block.strings("provider")[i], block.strings("model")[i],
+                query == null || query.length() <= SUMMARY_QUERY_LENGTH ? query : query.substring(0, SUMMARY_QUERY_LENGTH),
+                block.strings("elapsed")[i], dateTimeOf(block.longs(CREATED_AT)[i]));
+    }
+
+    /**
+     * ✅ 보관된 로그 단건 조회 (id 범위가 맞는 블록만 확인)
+     */
+    public Optional<Log> findLog(Long id) {
+        for (ColumnarSegment segment : logTier.ordered(false)) {
+            List<BlockInfo> blocks = segment.getBlocks();
+            for (int b = 0; b < blocks.size(); b++) {
+                if (id < blocks.get(b).minId() || id > blocks.get(b).maxId()) {
+                    continue;
+                }
+                ColumnarSegment.Block block = segment.block(b);
+                long[] ids = block.longs(ID);
+                for (int i = 0; i < ids.length; i++) {
+                    if (ids[i] == id) {
+                        return Optional.of(Log.archived(id,
+                                block.strings("project")[i], block.strings("provider")[i], block.strings("model")[i],
+                                block.strings("prompt")[i], block.strings("promptHash")[i],
+                                block.strings("query")[i], block.strings("queryHash")[i],
+                                block.strings("result")[i], block.strings("resultHash")[i],
+                                block.strings("elapsed")[i], dateTimeOf(block.longs(CREATED_AT)[i])));
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // =========================
+    // 🔹 ApiUsageLog 조회
+    // =========================
+
+    /**
+     * ✅ 보관된 사용 기록 (최신순, ApiUsageService.getLogsPage와 같은 커서 규칙)
+     *
+     * @param model  모델 필터 (null이면 전체)
+     * @param before 이 키 이전부터 (null이면 가장 최근부터)
+     */
+    public List<ApiUsageLog> findUsagePage(LocalDate from, LocalDate to, String model,
+                                           CursorPage.Cursor before, int limit) {
+        List<ApiUsageLog> found = new ArrayList<>();
+        if (usageTier.segments.isEmpty() || limit <= 0) {
+            return found;
+        }
+        scan(usageTier, micros(from.atStartOfDay()), micros(to.plusDays(1).atStartOfDay()), before, false, (block, i) -> {
+            if (model != null && !model.equals(block.strings("model")[i])) {
+                return true;
+            }
+            found.add(ApiUsageLog.archived(block.longs(ID)[i], block.strings("model")[i], block.ints("tokensUsed")[i],
+                    block.longs("elapsedTimeMs")[i], LocalDate.ofEpochDay(block.ints("date")[i]),
+                    block.strings("ipAddress")[i], block.booleans("cacheHit")[i],
+                    dateTimeOf(block.longs(CREATED_AT)[i])));
+            return found.size() < limit;
+        });
+        return found;
+    }
+
+    /**
+     * ✅ 보관된 사용 기록을 오래된순으로 모두 방문 (CSV 내보내기용, 블록 단위로 풀어서 메모리 일정)
+     */
+    public void forEachUsage(LocalDate from, LocalDate to, Consumer<ApiUsageExportRow> action) {
+        scan(usageTier, micros(from.atStartOfDay()), micros(to.plusDays(1).atStartOfDay()), null, true, (block, i) -> {
+            action.accept(new ApiUsageExportRow(block.strings("model")[i], block.ints("tokensUsed")[i],
+                    block.longs("elapsedTimeMs")[i], block.strings("ipAddress")[i], block.booleans("cacheHit")[i],
+                    LocalDate.ofEpochDay(block.ints("date")[i]), dateTimeOf(block.longs(CREATED_AT)[i])));
+            return true;
+        });
+    }
+
+    /**
+     * ✅ 사용 기록이 모두 보관된 마지막 날짜 (보관된 것이 없으면 null)
+     * - 보관 기준 시각이 날짜 경계라 마지막 보관 행의 날짜까지는 DB에 남은 행이 없다.
+     */
+    public LocalDate usageArchivedThrough() {
+        BlockInfo last = usageTier.last();
+        return last == null ? null : dateTimeOf(last.lastTime()).toLocalDate();
+    }
+
+    // =========================
+    // 🔹 공통
+    // =========================
+
+    /**
+     * ✅ 기간 [from, to) + 커서 조건으로 cold 행을 정렬 순서대로 방문
+     * - 블록의 첫/마지막 키로 범위 밖 블록은 풀지 않고 건너뜀
+     */
+    private void scan(Tier tier, long from, long to, CursorPage.Cursor after, boolean ascending, RowVisitor visitor) {
+        long cursorTime = after == null ? 0 : micros(after.createdAt());
+        long cursorId = after == null ? 0 : after.id();
+
+        for (ColumnarSegment segment : tier.ordered(ascending)) {
+            List<BlockInfo> blocks = segment.getBlocks();
+            for (int n = 0; n < blocks.size(); n++) {
+                int b = ascending ? n : blocks.size() - 1 - n;
+                BlockInfo info = blocks.get(b);
+                if (info.lastTime() < from || info.firstTime() >= to) {
+                    continue;
+                }
+                if (after != null && (ascending
+                        ? compareKey(info.lastTime(), info.lastId(), cursorTime, cursorId) <= 0
+                        : compareKey(info.firstTime(), info.firstId(), cursorTime, cursorId) >= 0)) {
+                    continue;
+                }
+
+                ColumnarSegment.Block block = segment.block(b);
+                long[] times = block.longs(CREATED_AT);
+                long[] ids = block.longs(ID);
+                for (int k = 0; k < times.length; k++) {
+                    int i = ascending ? k : times.length - 1 - k;
+                    if (times[i] < from || times[i] >= to) {
+                        continue;
+                    }
+                    if (after != null && (ascending
+                            ? compareKey(times[i], ids[i], cursorTime, cursorId) <= 0
+                            : compareKey(times[i], ids[i], cursorTime, cursorId) >= 0)) {
+                        continue;
+                    }
+                    if (!visitor.visit(block, i)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private Path dirOf(Tier tier) {
+        return Paths.get(properties.getDir(), tier.name);
+    }
+
+    /**
+     * ✅ 기동 시 디렉터리의 세그먼트 열기 (손상된 파일은 경고 후 건너뜀, 쓰다 만 임시 파일은 삭제)
+     */
+    private void load(Tier tier) {
+        Path dir = dirOf(tier);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : files.sorted().toList()) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".seg.tmp")) {
+                    Files.deleteIfExists(path);
+                } else if (name.endsWith(".seg")) {
+                    try {
+                        ColumnarSegment segment = ColumnarSegment.open(path);
+                        if (!segment.isEmpty()) {
+                            tier.segments.add(segment);
+                        }
+                    } catch (Exception e) {
+                        log.warn("⚠️ 보관 세그먼트 로드 실패 (건너뜀): {} - {}", path, e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ 보관 디렉터리 읽기 실패: {} - {}", dir, e.getMessage());
+        }
+        tier.segments.sort(Comparator.comparingLong((ColumnarSegment segment) -> segment.firstBlock().firstTime())
+                .thenComparingLong(segment -> segment.firstBlock().firstId()));
+        if (!tier.segments.isEmpty()) {
+            log.info("🗄️ [{}] 보관 세그먼트 {}개 로드 ({}행)", tier.name, tier.segments.size(),
+                    tier.segments.stream().mapToLong(ColumnarSegment::getRowCount).sum());
+        }
+    }
+}
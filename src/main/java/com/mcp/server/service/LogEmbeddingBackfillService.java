@@ -13,17 +13,29 @@
  */
 package com.mcp.server.service;
 
+import com.mcp.server.config.EmbeddingBackfillProperties;
+import com.mcp.server.domain.backfill.BackfillWatermark;
+import com.mcp.server.domain.backfill.BackfillWatermarkRepository;
 import com.mcp.server.domain.embedding.LogEmbeddingMetadata;
 import com.mcp.server.domain.embedding.LogEmbeddingMetadataRepository;
 import com.mcp.server.domain.log.Log;
 import com.mcp.server.domain.log.LogRepository;
+import com.mcp.server.dto.LogContentType;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -31,62 +43,84 @@ public class LogEmbeddingBackfillService {
 
     private static final Logger log = LoggerFactory.getLogger(LogEmbeddingBackfillService.class);
 
+    static final String WATERMARK = "log-embedding-metadata";
+
     private final LogRepository logRepository;
     private final LogEmbeddingMetadataRepository metadataRepository;
+    private final BackfillWatermarkRepository watermarkRepository;
+    private final EmbeddingBackfillProperties properties;
+    private final TransactionTemplate transactionTemplate;
 
     /**
-     * ✅ 전체 로그 중 메타데이터가 누락된 항목을 찾아 보충하는 작업
-     * - 매 실행 시, 로그를 순회하며 누락된 contentType 별 LogEmbeddingMetadata 생성
+     * ✅ 지난 실행 이후 생긴 로그 중 메타데이터가 누락된 항목을 찾아 보충하는 작업
+     * - 워터마크(createdAt, id) 이후의 로그만 anti-join으로 조회하므로 비용은 새로 쌓인 로그 수에 비례
+     * - anti-join은 종류(PROMPT / QUERY / RESULT)별로 하고, 일부만 있는 로그는 누락된 종류만 만든다.
+     * - 청크(chunk-size건)마다 별도 트랜잭션으로 메타데이터 저장 + 워터마크 이동 → 중단돼도 이어서 진행
+     * - settle-delay보다 최근 로그는 늦게 커밋되는 행이 있을 수 있어 다음 실행으로 미룸
      */
     public void backfillMissingMetadata() {
-        List<Log> allLogs = logRepository.findAll();
+        LocalDateTime upTo = LocalDateTime.now().minus(properties.getSettleDelay());
         int addedCount = 0;
 
-        for (Log log : allLogs) {
-            Long logId = log.getId();
-
-            // 해당 로그에 대해 이미 생성된 메타데이터 목록 조회
-            List<LogEmbeddingMetadata> existing = metadataRepository.findByLogId(logId);
-
-            // 각 contentType의 존재 여부 확인
-            boolean hasPrompt = existing.stream().anyMatch(m -> m.getContentType().equals("PROMPT"));
-            boolean hasQuery  = existing.stream().anyMatch(m -> m.getContentType().equals("QUERY"));
-            boolean hasResult = existing.stream().anyMatch(m -> m.getContentType().equals("RESULT"));
-
-            // 누락된 contentType이 있으면 메타데이터 생성
-            if (!hasPrompt) {
-                metadataRepository.save(buildMetadata(log, "PROMPT", log.getPrompt()));
-                addedCount++;
+        int duplicates = 0;
+        while (true) {
+            Integer added;
+            try {
+                added = transactionTemplate.execute(status -> backfillChunk(upTo));
+            } catch (DataIntegrityViolationException e) {
+                // outbox relay가 같은 메타데이터를 먼저 만든 경우 → 롤백된 청크를 다시 조회하면 이미 있는 행은 빠짐
+                if (++duplicates > EmbeddingMetadataFactory.MAX_DUPLICATE_RETRIES) {
+                    throw e;
+                }
+                log.info("🔁 메타데이터 중복으로 백필 청크 롤백, 다시 처리 ({}회)", duplicates);
+                continue;
             }
-            if (!hasQuery) {
-                metadataRepository.save(buildMetadata(log, "QUERY", log.getQuery()));
-                addedCount++;
-            }
-            if (!hasResult) {
-                metadataRepository.save(buildMetadata(log, "RESULT", log.getResult()));
-                addedCount++;
+            if (added == null || added < 0) {
+                break;
             }
+            addedCount += added;
         }
 
-        log.info("✅ Backfill 완료: {}건의 메타데이터 생성됨", addedCount);
+        log.info("✅ Backfill 완료: {}건의 메타데이터 생성됨 (워터마크 {})", addedCount, upTo);
     }
 
     /**
-     * ✅ LogEmbeddingMetadata 객체 생성 빌더
+     * ✅ 청크 1개 처리 (호출 측 트랜잭션 안에서 실행)
      *
-     * @param log         원본 로그 객체
-     * @param contentType 메타데이터 타입 (PROMPT, QUERY, RESULT)
-     * @param content     저장할 텍스트 내용
-     * @return            생성된 LogEmbeddingMetadata 객체
+     * @return 생성한 메타데이터 수, 더 처리할 로그가 없으면 -1
      */
-    private LogEmbeddingMetadata buildMetadata(Log log, String contentType, String content) {
-        return LogEmbeddingMetadata.builder()
-                .project(log.getProject())
-                .logId(log.getId())
-                .contentType(contentType)
-                .content(content)
-                .embedded(false)
-                .createdAt(LocalDateTime.now())
-                .build();
+    private int backfillChunk(LocalDateTime upTo) {
+        watermarkRepository.insertIfAbsent(WATERMARK, BackfillWatermark.BEGINNING); // 첫 실행 시 노드 간 생성 경합 방지
+        BackfillWatermark watermark = watermarkRepository.findForUpdate(WATERMARK)
+                .orElseThrow(() -> new IllegalStateException("백필 워터마크 없음: " + WATERMARK));
+
+        List<Log> missing = logRepository.findMissingEmbeddingMetadataAfter(
+                watermark.getLastCreatedAt(), watermark.getLastId(), upTo, Limit.of(properties.getChunkSize()));
+
+        if (missing.isEmpty()) {
+            // upTo 이전에는 누락이 없으므로 upTo까지 한 번에 이동 (id 0: upTo 시각에 만들어진 행은 다음 실행 대상)
+            watermark.advance(upTo, 0L);
+            return -1;
+        }
+
+        Map<Long, Set<String>> existing = new HashMap<>();
+        for (LogContentType type : metadataRepository.findContentTypes(missing.stream().map(Log::getId).toList())) {
+            existing.computeIfAbsent(type.logId(), id -> new HashSet<>()).add(type.contentType());
+        }
+
+        List<LogEmbeddingMetadata> metadata = new ArrayList<>(missing.size() * 3);
+        for (Log log : missing) {
+            Set<String> types = existing.getOrDefault(log.getId(), Set.of());
+            for (String contentType : EmbeddingMetadataFactory.LOG_CONTENT_TYPES) {
+                if (!types.contains(contentType)) {
+                    metadata.add(EmbeddingMetadataFactory.forLog(log, contentType));
+                }
+            }
+        }
+        metadataRepository.saveAll(metadata);
+
+        Log last = missing.get(missing.size() - 1);
+        watermark.advance(last.getCreatedAt(), last.getId());
+        return metadata.size();
     }
 }
@@ -0,0 +1,145 @@
+package com.mcp.server.service;
+
+import com.mcp.server.domain.log.Log;
+import com.mcp.server.domain.log.LogRepository;
+import com.mcp.server.domain.log.LogSpecifications;
+import com.mcp.server.dto.CursorPage;
+import com.mcp.server.dto.LogRequestCondition;
+import com.mcp.server.dto.LogSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ✅ LogQueryService
+ * - 추론 로그 목록/단건 조회 전용 서비스 (REST /logs, 관리자 화면 /admin/logs 공용)
+ * - 목록은 요약(LogSummary) + keyset 페이지, 전체 내용(prompt/result)은 단건 조회에서만 로드
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LogQueryService {
+
+    private static final int SUMMARY_QUERY_LENGTH = 200;
+
+    private final LogRepository logRepository;
+    private final ContentStore contentStore;
+    private final LogArchiveService logArchiveService;
+    private final EntityManager entityManager;
+
+    /**
+     * ✅ 로그 요약 검색 (project / provider / model / 기간 필터 조합 + 정렬 + 커서 페이지)
+     *
+     * [쿼리 구성]
+     * - 비어 있지 않은 조건만 LogSpecifications로 이어 붙여 WHERE 절을 만든다.
+     * - 정렬은 (createdAt, id) 방향만 바뀌며, cursor 이후 항목은 같은 방향의 keyset 조건으로 이어 읽는다.
+     * - 목록에는 query 앞 200자만 담고 prompt/result는 읽지 않는다. (전체 내용은 findById)
+     *
+     * [보관 계층]
+     * - 보관된(cold) 로그는 DB의 로그보다 항상 오래되었으므로
+     *   최신순은 DB → 보관 세그먼트, 오래된순은 보관 세그먼트 → DB 순서로 이어 읽는다.
+     *
+     * @param condition 검색 조건 (null 필드는 조건 없음)
+     */
+    public CursorPage<LogSummary> search(LogRequestCondition condition) {
+        int pageSize = CursorPage.clampSize(condition.getSize());
+        CursorPage.Cursor after = CursorPage.Cursor.decode(condition.getCursor());
+        boolean ascending = condition.isAscending();
+        int limit = pageSize + 1;
+
+        List<LogSummary> fetched = new ArrayList<>(ascending
+                ? logArchiveService.findLogSummaries(condition, after, true, limit)
+                : findHot(condition, after, false, limit));
+        if (fetched.size() < limit) {
+            CursorPage.Cursor next = fetched.isEmpty() ? after : cursorOf(fetched.get(fetched.size() - 1));
+            int remaining = limit - fetched.size();
+            fetched.addAll(ascending
+                    ? findHot(condition, next, true, remaining)
+                    : logArchiveService.findLogSummaries(condition, next, false, remaining));
+        }
+
+        return CursorPage.of(fetched, pageSize, LogQueryService::cursorOf);
+    }
+
+    /**
+     * ✅ 단건 조회 (전체 내용 포함, ContentStore에 저장된 prompt/result는 복원해서 채움)
+     * - DB에 없으면 보관 세그먼트에서 찾는다.
+     */
+    public Log findById(Long id) {
+        Log log = logRepository.findById(id)
+                .or(() -> logArchiveService.findLog(id))
+                .orElseThrow(() -> new IllegalArgumentException("Log not found with id = " + id));
+        if (log.needsRehydration()) {
+            Map<String, String> texts = contentStore.getAll(Arrays.asList(log.getPromptHash(), log.getResultHash()));
+            log.rehydrate(
+                    log.getPromptHash() == null ? log.getPrompt() : texts.get(log.getPromptHash()),
+                    log.getResultHash() == null ? log.getResult() : texts.get(log.getResultHash()));
+        }
+        return log;
+    }
+
+    /**
+     * ✅ DB(hot) 로그 요약 조회
+     */
+    private List<LogSummary> findHot(LogRequestCondition condition, CursorPage.Cursor after,
+                                     boolean ascending, int limit) {
+        Specification<Log> spec = Specification.where(LogSpecifications.projectIs(condition.getProject()))
+                .and(LogSpecifications.providerIs(condition.getProvider()))
+                .and(LogSpecifications.modelIs(condition.getModel()))
+                .and(LogSpecifications.createdBetween(condition.getFrom(), condition.getTo()));
+        if (after != null) {
+            spec = spec.and(after(after, ascending));
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LogSummary> query = cb.createQuery(LogSummary.class);
+        Root<Log> root = query.from(Log.class);
+        query.select(cb.construct(LogSummary.class,
+                root.get("id"), root.get("project"), root.get("provider"), root.get("model"),
+                cb.substring(root.get("query"), 1, SUMMARY_QUERY_LENGTH), root.get("elapsed"), root.get("createdAt")));
+
+        Predicate where = spec.toPredicate(root, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(ascending
+                ? List.of(cb.asc(root.get("createdAt")), cb.asc(root.get("id")))
+                : List.of(cb.desc(root.get("createdAt")), cb.desc(root.get("id"))));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static CursorPage.Cursor cursorOf(LogSummary log) {
+        return new CursorPage.Cursor(log.getCreatedAt(), log.getId());
+    }
+
+    /**
+     * ✅ keyset 조건: 정렬 방향으로 커서 다음 항목부터
+     */
+    private static Specification<Log> after(CursorPage.Cursor cursor, boolean ascending) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> createdAt = root.get("createdAt");
+            Path<Long> id = root.get("id");
+            return ascending
+                    ? cb.or(cb.greaterThan(createdAt, cursor.createdAt()),
+                            cb.and(cb.equal(createdAt, cursor.createdAt()), cb.greaterThan(id, cursor.id())))
+                    : cb.or(cb.lessThan(createdAt, cursor.createdAt()),
+                            cb.and(cb.equal(createdAt, cursor.createdAt()), cb.lessThan(id, cursor.id())));
+        };
+    }
+}
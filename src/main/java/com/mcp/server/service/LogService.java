@@ -1,28 +1,44 @@
 package com.mcp.server.service;
 
-import com.mcp.server.domain.embedding.LogEmbeddingMetadata;
-import com.mcp.server.domain.embedding.LogEmbeddingMetadataRepository;
 import com.mcp.server.domain.log.Log;
 import com.mcp.server.domain.log.LogRepository;
+import com.mcp.server.domain.outbox.EmbeddingOutboxEvent;
+import com.mcp.server.domain.outbox.EmbeddingOutboxRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * ✅ LogService
  * - 추론 요청이 발생한 후, 해당 요청 및 응답 데이터를 DB에 저장하는 서비스 계층
- * - 로그 저장 + 벡터화를 위한 메타데이터(LogEmbeddingMetadata) 분리 저장
+ * - 로그 저장 + 벡터화를 위한 메타데이터(LogEmbeddingMetadata) 생성 요청을 outbox에 기록
+ * - prompt / query / result 본문은 ContentStore에 저장하고 로그에는 hash만 남김 (같은 트랜잭션)
+ *
+ * 💡 메타데이터(로그당 3행)는 EmbeddingOutboxRelay가 몇 초 뒤 배치로 만든다.
+ *    요청 경로의 저장은 로그 1행 + outbox 1행으로 줄고, 같은 트랜잭션이라 로그만 남고 요청이 사라지는 일은 없다.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class LogService {
 
+    private static final long SEARCH_KEY_FILL_CHUNK = 10_000;
+
     private final LogRepository logRepository;
-    private final LogEmbeddingMetadataRepository logEmbeddingMetadataRepository;
+    private final EmbeddingOutboxRepository embeddingOutboxRepository;
+    private final ContentStore contentStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService persistenceExecutor;
 
     /**
-     * ✅ 로그 저장 + 메타데이터(PROMPT, QUERY, RESULT) 생성
+     * ✅ 로그 저장 + 메타데이터(PROMPT, QUERY, RESULT) 생성 요청
      *
      * @param project  프로젝트 이름
      * @param provider 모델 제공자
@@ -32,37 +48,78 @@ public class LogService {
      * @param result   AI 응답 결과
      * @param elapsed  처리 시간(ms)
      */
+    @Transactional
     public void saveLog(String project, String provider, String model, String prompt, String query, String result, String elapsed) {
         // 1. 로그 저장
         Log log = new Log(project, provider, model, prompt, query, result, elapsed);
+        storeContent(List.of(log));
         logRepository.save(log);
 
-        Long logId = log.getId();
-
-        // 2. LogEmbeddingMetadata 저장 (세분화된 contentType으로 각각 저장)
-        logEmbeddingMetadataRepository.save(buildMetadata(project, logId, "PROMPT", prompt));
-        logEmbeddingMetadataRepository.save(buildMetadata(project, logId, "QUERY", query));
-        logEmbeddingMetadataRepository.save(buildMetadata(project, logId, "RESULT", result));
+        // 2. 메타데이터 생성 요청 (같은 트랜잭션)
+        embeddingOutboxRepository.save(EmbeddingOutboxEvent.logCreated(log.getId()));
     }
 
     /**
-     * ✅ LogEmbeddingMetadata 생성 유틸
+     * ✅ 여러 로그 일괄 저장 + 메타데이터(PROMPT, QUERY, RESULT) 생성 요청
+     * - 배치 추론 결과를 한 트랜잭션에서 saveAll로 저장
      *
-     * @param project      프로젝트명
-     * @param logId        로그 ID
-     * @param contentType  PROMPT / QUERY / RESULT
-     * @param content      실제 텍스트
-     * @return             LogEmbeddingMetadata 객체
+     * @param logs 저장할 로그 목록
+     */
+    @Transactional
+    public void saveLogs(List<Log> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+
+        storeContent(logs);
+        logRepository.saveAll(logs);
+
+        embeddingOutboxRepository.saveAll(logs.stream()
+                .map(log -> EmbeddingOutboxEvent.logCreated(log.getId()))
+                .toList());
+    }
+
+    /**
+     * ✅ 본문을 ContentStore에 저장하고 로그가 hash를 참조하도록 설정 (비활성화 시 TEXT 컬럼에 그대로 저장)
+     * - prompt는 "ContextSet 앞부분 + query"로 나눠 저장 → 앞부분은 같은 ContextSet의 모든 로그가 공유
+     */
+    private void storeContent(List<Log> logs) {
+        if (!contentStore.isEnabled()) {
+            return;
+        }
+        ContentStore.Batch batch = contentStore.newBatch();
+        for (Log log : logs) {
+            log.useContentHashes(
+                    batch.addWithSuffix(log.getPrompt(), log.getQuery()),
+                    batch.add(log.getQuery()),
+                    batch.add(log.getResult()));
+        }
+        batch.write();
+    }
+
+    /**
+     * ✅ 검색 키 컬럼 추가 전에 저장된 로그의 projectKey/providerKey/modelKey 채우기
+     * - 기동 후 persistenceExecutor에서 id 구간(1만 건)마다 한 트랜잭션으로 실행 (채울 행이 없으면 금방 끝남)
      */
-    private LogEmbeddingMetadata buildMetadata(String project, Long logId, String contentType, String content) {
-        return LogEmbeddingMetadata.builder()
-                .project(project)
-                .logId(logId)
-                .contentType(contentType)
-                .content(content)
-                .embedded(false)
-                .createdAt(LocalDateTime.now())
-                .build();
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillMissingSearchKeys() {
+        persistenceExecutor.execute(() -> {
+            try {
+                Long maxId = logRepository.findMaxId();
+                long filled = 0;
+                for (long fromId = 0; maxId != null && fromId < maxId; fromId += SEARCH_KEY_FILL_CHUNK) {
+                    long from = fromId;
+                    Integer updated = transactionTemplate.execute(status ->
+                            logRepository.fillSearchKeys(from, from + SEARCH_KEY_FILL_CHUNK));
+                    filled += updated == null ? 0 : updated;
+                }
+                if (filled > 0) {
+                    log.info("🔎 로그 검색 키 {}건 채움", filled);
+                }
+            } catch (Exception e) {
+                log.warn("⚠️ 로그 검색 키 채우기 실패 (다음 기동 시 재시도): {}", e.getMessage());
+            }
+        });
     }
 
     /**
@@ -0,0 +1,237 @@
+package com.mcp.server.service;
+
+import com.mcp.server.config.LogTextSearchProperties;
+import com.mcp.server.domain.log.Log;
+import com.mcp.server.domain.log.LogRepository;
+import com.mcp.server.dto.LogSummary;
+import com.mcp.server.dto.LogTextRow;
+import com.mcp.server.dto.LogTextSearchHit;
+import com.mcp.server.util.InvertedIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * ✅ LogTextSearchService
+ * - Log.query / Log.result 전문 검색 (메모리 역색인, InvertedIndex)
+ * - LIKE '%x%' 스캔 없이 구문/AND/OR/제외 검색 + BM25 순위 + project/model 필터
+ *
+ * [색인 유지]
+ * - 기동 후 별도 스레드에서 DB 전체를 (createdAt, id) 순 keyset 청크로 읽어 색인 생성
+ * - 이후 sync-interval마다 워터마크 이후 로그만 추가 (로그는 수정되지 않으므로 추가만 필요)
+ * - prompt는 색인하지 않음 (ContextSet JSON이 반복되어 검색 품질만 떨어뜨림. query는 prompt에 그대로 포함됨)
+ * - ContentStore에 저장된 result는 청크마다 한 번에 복원해서 색인
+ *
+ * 💡 색인 문서 번호 → logId / project / model 은 문서 번호 순 배열로 보관 (project/model은 정수 코드)
+ * 💡 보관(LogArchiveService)으로 DB에서 빠진 로그도 색인에는 남아 있으므로, DB에 없는 id는 보관 세그먼트에서 찾아 결과에 포함한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogTextSearchService {
+
+    private static final IntPredicate NO_MATCH = doc -> false;
+
+    private final LogTextSearchProperties properties;
+    private final LogRepository logRepository;
+    private final LogArchiveService logArchiveService;
+    private final ContentStore contentStore;
+    private final MeterRegistry meterRegistry;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>(); // project/model 키 → 코드
+
+    // 문서 번호 순 배열 (쓰기는 syncLock 보유 스레드만, 배열 교체는 volatile로 공개)
+    private volatile long[] logIds = new long[1024];
+    private volatile int[] projectCodes = new int[1024];
+    private volatile int[] modelCodes = new int[1024];
+
+    private LocalDateTime lastCreatedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private long lastId;
+    private int nextCode;
+    private volatile boolean loaded;
+
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("mcp.log.search.documents", index, InvertedIndex::size);
+        meterRegistry.gauge("mcp.log.search.posting.bytes", index, i -> i.stats()[1]);
+    }
+
+    /**
+     * ✅ 기동 후 초기 색인 (스케줄러 스레드를 오래 붙잡지 않도록 별도 가상 스레드에서)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Thread.ofVirtual().name("log-text-index-load").start(() -> {
+            long start = System.nanoTime();
+            syncLock.lock();
+            try {
+                int added = catchUp();
+                loaded = true;
+                log.info("🔎 로그 전문 색인 생성 완료: {}건, {}ms", added, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (Exception e) {
+                log.warn("⚠️ 로그 전문 색인 생성 실패 (다음 주기에 이어서 진행): {}", e.getMessage());
+                loaded = true;
+            } finally {
+                syncLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * ✅ 주기적 실행: 새 로그 색인 (초기 색인 중이면 건너뜀)
+     */
+    @Scheduled(fixedDelayString = "${infer.log-text-search.sync-interval:PT5S}")
+    public void sync() {
+        if (!properties.isEnabled() || !loaded || !syncLock.tryLock()) {
+            return;
+        }
+        try {
+            int added = catchUp();
+            if (added > 0) {
+                log.debug("🔎 로그 전문 색인 {}건 추가 (총 {}건)", added, index.size());
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * ✅ 전문 검색
+     *
+     * @param query   검색어 (공백 = AND, OR, "구문", -제외)
+     * @param project 프로젝트 필터 (null이면 전체, 대소문자 무시)
+     * @param model   모델 필터 (null이면 전체, 대소문자 무시)
+     * @param limit   결과 수 (1 ~ max-results)
+     * @return 관련도 높은 순 로그 요약
+     */
+    public List<LogTextSearchHit> search(String query, String project, String model, int limit) {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("❌ 로그 전문 검색이 비활성화되어 있습니다. (infer.log-text-search.enabled)");
+        }
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("❌ 검색어가 비어 있습니다.");
+        }
+
+        IntPredicate filter = filterOf(project, model);
+        if (filter == NO_MATCH) {
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        List<InvertedIndex.Hit> hits = index.search(query, Math.max(1, Math.min(limit, properties.getMaxResults())), filter);
+        Timer.builder("mcp.log.search").register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        long[] ids = logIds;
+        List<Long> hitIds = hits.stream().map(hit -> ids[hit.doc()]).toList();
+        Map<Long, LogSummary> summaries = logRepository.findSummariesByIdIn(hitIds).stream()
+                .collect(Collectors.toMap(LogSummary::getId, Function.identity()));
+        if (summaries.size() < hitIds.size()) {
+            // DB에 없는 id = 보관된 로그 (보관본에도 없으면 삭제된 로그이므로 결과에서 뺌)
+            summaries.putAll(logArchiveService.findLogSummariesByIds(
+                    hitIds.stream().filter(id -> !summaries.containsKey(id)).toList()));
+        }
+
+        return hits.stream()
+                .filter(hit -> summaries.containsKey(ids[hit.doc()]))
+                .map(hit -> new LogTextSearchHit(summaries.get(ids[hit.doc()]), hit.score()))
+                .toList();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * ✅ project/model 필터 → 문서 번호 조건 (색인에 없는 값이면 NO_MATCH)
+     */
+    private IntPredicate filterOf(String project, String model) {
+        String projectKey = Log.keyOf(project);
+        String modelKey = Log.keyOf(model);
+        if (projectKey == null && modelKey == null) {
+            return null;
+        }
+        Integer projectCode = projectKey == null ? null : codes.get("p:" + projectKey);
+        Integer modelCode = modelKey == null ? null : codes.get("m:" + modelKey);
+        if ((projectKey != null && projectCode == null) || (modelKey != null && modelCode == null)) {
+            return NO_MATCH;
+        }
+
+        // 배열은 색인이 커지면 교체되므로 검색 시점의 배열을 매번 읽음
+        return doc -> (projectCode == null || projectCodes[doc] == projectCode)
+                && (modelCode == null || modelCodes[doc] == modelCode);
+    }
+
+    /**
+     * ✅ 워터마크 이후 로그를 청크 단위로 모두 색인 (syncLock 보유 상태에서 호출)
+     */
+    private int catchUp() {
+        LocalDateTime upTo = LocalDateTime.now().minus(properties.getSettleDelay());
+        int added = 0;
+        while (true) {
+            List<LogTextRow> rows = logRepository.findTextRowsAfter(lastCreatedAt, lastId, upTo,
+                    Limit.of(properties.getChunkSize()));
+            if (rows.isEmpty()) {
+                return added;
+            }
+            Map<String, String> results = contentStore.getAll(rows.stream()
+                    .filter(row -> row.result() == null)
+                    .map(LogTextRow::resultHash)
+                    .toList());
+            for (LogTextRow row : rows) {
+                addRow(row, row.result() != null ? row.result() : results.get(row.resultHash()));
+                added++;
+            }
+            LogTextRow last = rows.get(rows.size() - 1);
+            lastCreatedAt = last.createdAt();
+            lastId = last.id();
+        }
+    }
+
+    /**
+     * ✅ 문서 번호 순 배열을 먼저 채운 뒤 색인에 추가 (검색이 아직 채워지지 않은 칸을 보지 않도록)
+     */
+    private void addRow(LogTextRow row, String result) {
+        int doc = index.size();
+        if (doc == logIds.length) {
+            int capacity = doc * 2;
+            projectCodes = Arrays.copyOf(projectCodes, capacity);
+            modelCodes = Arrays.copyOf(modelCodes, capacity);
+            logIds = Arrays.copyOf(logIds, capacity);
+        }
+        logIds[doc] = row.id();
+        projectCodes[doc] = codeOf("p:", row.project());
+        modelCodes[doc] = codeOf("m:", row.model());
+        index.addDocument(row.query(), result);
+    }
+
+    private int codeOf(String prefix, String value) {
+        String key = Log.keyOf(value);
+        return key == null ? -1 : codes.computeIfAbsent(prefix + key, k -> nextCode++);
+    }
+}
@@ -1,51 +1,284 @@
 package com.mcp.server.service;
 
-import jakarta.annotation.PostConstruct;
+import com.mcp.server.config.QuotaProperties;
+import com.mcp.server.dto.QuotaLimits;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * ✅ ModelRateLimiter
- * 특정 모델에 대한 하루 호출 횟수를 제한하는 서비스.
- * 초과 시 IllegalStateException 발생시킴.
+ * 모델 / 프로젝트 / 클라이언트 IP별 하루 호출 횟수를 제한하는 서비스.
+ * 초과 시 QuotaExceededException(IllegalStateException) 발생시킴.
+ *
+ * [구조]
+ * - 키(model:xxx, project:xxx, ip:xxx)마다 AtomicLong 하나를 두고 CAS로만 갱신 (락 없음)
+ *   → 서로 다른 키는 전혀 경합하지 않고, ConcurrentHashMap이 키 조회를 분산(striping)한다.
+ * - AtomicLong 값 = (epochDay << 32) | count
+ *   → 날짜가 바뀌면 각 카운터가 다음 갱신 때 스스로 0부터 다시 시작 (전체 clear 없음)
+ *
+ * [사용 방식: reserve → commit / refund]
+ * - reserve: 모델 호출 전에 한도를 하나 예약 (초과 시 예외, 먼저 잡은 키는 되돌림)
+ * - commit: 호출 성공 → 예약 확정
+ * - refund: 호출 실패 → 예약 반환 (실패한 호출은 한도에 포함되지 않음)
+ * - commitAs: 헤지 요청의 대체 모델이 응답한 경우 → 모델 한도를 실제로 응답한 모델로 옮겨 확정
  */
 @Service
 public class ModelRateLimiter {
 
-    // 모델별 호출 카운트 저장 (날짜 기준으로 초기화됨)
-    private final Map<String, Integer> usageMap = new ConcurrentHashMap<>();
-    private LocalDate today;
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+    private static final long EVICTED = -1L; // 맵에서 제거된 카운터 표시 (이 값을 본 예약은 맵에서 카운터를 다시 가져옴)
 
-    // 모델별 하루 최대 호출 수 설정 (예: groq은 1000, gpt는 1500 등)
-    private final Map<String, Integer> limitMap = Map.of(
-            "gpt", 1500,
-            "groq", 1000,
-            "claude", 500
-    );
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Clock clock;
 
-    @PostConstruct
-    public void init() {
-        today = LocalDate.now();
+    private volatile Limits limits;
+
+    @Autowired
+    public ModelRateLimiter(QuotaProperties properties) {
+        this(properties, Clock.system(properties.getZone()));
+    }
+
+    ModelRateLimiter(QuotaProperties properties, Clock clock) {
+        this.clock = clock;
+        this.limits = new Limits(properties.getDefaultModelLimit(), Map.copyOf(properties.getModels()),
+                properties.getDefaultProjectLimit(), Map.copyOf(properties.getProjects()), properties.getPerIpLimit());
+    }
+
+    /**
+     * ✅ 모델 한도만 확인하고 바로 확정 (기존 호출 방식 호환용)
+     */
+    public void checkQuota(String model) {
+        reserve(model, null, null).commit();
+    }
+
+    /**
+     * ✅ 한도 예약
+     *
+     * @param model    모델 ID
+     * @param project  프로젝트명 (null이면 프로젝트 한도 검사 생략)
+     * @param clientIp 클라이언트 IP (null이면 IP 한도 검사 생략)
+     * @return commit 또는 refund 해야 하는 예약
+     * @throws QuotaExceededException 하나라도 한도를 넘으면
+     */
+    public Reservation reserve(String model, String project, String clientIp) {
+        Limits current = limits;
+        long day = today();
+
+        String[] keys = {
+                "model:" + model,
+                project == null ? null : "project:" + project,
+                clientIp == null ? null : "ip:" + clientIp
+        };
+        long[] caps = {
+                current.models().getOrDefault(model, current.defaultModel()),
+                project == null ? 0 : current.projects().getOrDefault(project, current.defaultProject()),
+                current.perIp()
+        };
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null || caps[i] <= 0) {
+                keys[i] = null; // 제한 없음 → 카운트하지 않음
+                continue;
+            }
+
+            long used = tryAcquire(keys[i], caps[i], day);
+            if (used < 0) {
+                for (int j = 0; j < i; j++) {
+                    release(keys[j], day);
+                }
+                throw new QuotaExceededException("💥 '" + keys[i] + "' 호출 제한 초과 (하루 " + caps[i] + "회)");
+            }
+        }
+
+        return new Reservation(model, keys, day);
     }
 
-    public synchronized void checkQuota(String model) {
-        LocalDate now = LocalDate.now();
-        if (!now.equals(today)) {
-            // 날짜 바뀌면 초기화
-            usageMap.clear();
-            today = now;
+    /**
+     * ✅ 모델 한도에 여유가 있는지 확인 (예약하지 않음)
+     * - 헤지 요청을 대체 모델로 보낼지 정할 때 사용
+     */
+    public boolean hasModelCapacity(String model) {
+        Limits current = limits;
+        long cap = current.models().getOrDefault(model, current.defaultModel());
+        if (cap <= 0) {
+            return true;
         }
+        AtomicLong counter = counters.get("model:" + model);
+        if (counter == null) {
+            return true;
+        }
+        long state = counter.get();
+        return dayOf(state) != today() || countOf(state) < cap;
+    }
+
+    /**
+     * ✅ 현재 한도 조회
+     */
+    public QuotaLimits getLimits() {
+        Limits current = limits;
+        return new QuotaLimits(current.defaultModel(), new LinkedHashMap<>(current.models()),
+                current.defaultProject(), new LinkedHashMap<>(current.projects()), current.perIp());
+    }
+
+    /**
+     * ✅ 한도 변경 (재시작 없이 즉시 적용, 이미 사용한 횟수는 유지)
+     */
+    public void updateLimits(QuotaLimits update) {
+        limits = new Limits(update.getDefaultModelLimit(),
+                update.getModels() == null ? Map.of() : Map.copyOf(update.getModels()),
+                update.getDefaultProjectLimit(),
+                update.getProjects() == null ? Map.of() : Map.copyOf(update.getProjects()),
+                update.getPerIpLimit());
+    }
 
-        int used = usageMap.getOrDefault(model, 0);
-        int limit = limitMap.getOrDefault(model, 1000); // 기본 1000
+    /**
+     * ✅ 오늘 사용량 조회 (키 → 사용 횟수)
+     */
+    public Map<String, Long> getTodayUsage() {
+        long day = today();
+        Map<String, Long> usage = new LinkedHashMap<>();
+        counters.forEach((key, counter) -> {
+            long state = counter.get();
+            if (dayOf(state) == day) {
+                usage.put(key, countOf(state));
+            }
+        });
+        return usage;
+    }
+
+    /**
+     * ✅ 지난 날짜의 카운터 정리 (IP 키처럼 계속 늘어나는 키가 메모리에 쌓이지 않도록)
+     * - 오늘 갱신된 카운터는 건드리지 않음, 제거된 키는 다음 요청 때 새로 생성
+     * - 키마다 computeIfPresent 안에서 지난 날짜 값 → EVICTED로 CAS에 성공한 경우만 제거한다.
+     *   → 같은 순간 tryAcquire가 먼저 오늘 값으로 바꿨으면 CAS가 실패해 남기고,
+     *     제거가 먼저면 tryAcquire가 EVICTED를 보고 새 카운터로 다시 시도하므로 예약이 사라지지 않는다.
+     */
+    @Scheduled(cron = "0 5 * * * *")
+    public void evictStaleCounters() {
+        long day = today();
+        for (String key : counters.keySet()) {
+            counters.computeIfPresent(key, (k, counter) -> {
+                long state = counter.get();
+                return dayOf(state) < day && counter.compareAndSet(state, EVICTED) ? null : counter;
+            });
+        }
+    }
 
-        if (used >= limit) {
-            throw new IllegalStateException("💥 모델 '" + model + "' 호출 제한 초과 (" + used + "/" + limit + ")");
+    /**
+     * @return 예약 후 사용 횟수, 한도 초과면 -1
+     */
+    private long tryAcquire(String key, long cap, long day) {
+        AtomicLong counter = counters.computeIfAbsent(key, k -> new AtomicLong(pack(day, 0)));
+        while (true) {
+            long state = counter.get();
+            if (state == EVICTED) {
+                counter = counters.computeIfAbsent(key, k -> new AtomicLong(pack(day, 0)));
+                continue;
+            }
+            long used = dayOf(state) == day ? countOf(state) : 0;
+            if (used >= cap) {
+                return -1;
+            }
+            if (counter.compareAndSet(state, pack(day, used + 1))) {
+                return used + 1;
+            }
         }
+    }
+
+    private void release(String key, long day) {
+        if (key == null) {
+            return;
+        }
+        AtomicLong counter = counters.get(key);
+        if (counter == null) {
+            return;
+        }
+        while (true) {
+            long state = counter.get();
+            if (dayOf(state) != day || countOf(state) == 0) {
+                return; // 날짜가 바뀌었으면 이미 초기화된 것
+            }
+            if (counter.compareAndSet(state, state - 1)) {
+                return;
+            }
+        }
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    private static long pack(long day, long count) {
+        return (day << 32) | count;
+    }
+
+    private static long dayOf(long state) {
+        return state >>> 32;
+    }
+
+    private static long countOf(long state) {
+        return state & COUNT_MASK;
+    }
+
+    /**
+     * ✅ 예약 (commit / refund 중 한 번만 적용)
+     */
+    public final class Reservation {
+
+        private final String model;
+        private final String[] keys; // [model, project, ip], 제한 없는 키는 null
+        private final long day;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Reservation(String model, String[] keys, long day) {
+            this.model = model;
+            this.keys = keys;
+            this.day = day;
+        }
+
+        public void commit() {
+            settled.set(true);
+        }
+
+        /**
+         * ✅ 실제로 응답한 모델 기준으로 확정
+         * - 예약한 모델과 같으면 commit과 동일
+         * - 다르면 예약한 모델 한도는 돌려주고 응답한 모델 한도에 1회 기록 (이미 호출이 끝났으므로 초과 여부와 관계없이 기록)
+         * - 프로젝트/IP 한도는 요청 단위이므로 그대로 확정
+         */
+        public void commitAs(String answeredModel) {
+            if (answeredModel == null || answeredModel.equals(model)) {
+                commit();
+                return;
+            }
+            if (settled.compareAndSet(false, true)) {
+                release(keys[0], day);
+                Limits current = limits;
+                if (current.models().getOrDefault(answeredModel, current.defaultModel()) > 0) {
+                    tryAcquire("model:" + answeredModel, COUNT_MASK, day);
+                }
+            }
+        }
+
+        public void refund() {
+            if (settled.compareAndSet(false, true)) {
+                for (String key : keys) {
+                    release(key, day);
+                }
+            }
+        }
+    }
 
-        usageMap.put(model, used + 1);
+    private record Limits(long defaultModel, Map<String, Long> models,
+                          long defaultProject, Map<String, Long> projects, long perIp) {
     }
 }
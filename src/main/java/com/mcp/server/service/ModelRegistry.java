@@ -0,0 +1,226 @@
+package com.mcp.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.server.client.AiModelClient;
+import com.mcp.server.config.ModelRegistryProperties;
+import com.mcp.server.dto.ModelInfo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * ✅ ModelRegistry
+ * - 모델명 → 클라이언트(제공자) 라우팅 테이블을 관리하는 컴포넌트
+ *
+ * [동작 방식]
+ * 1. 기동 시: 디스크 스냅샷(infer.models.snapshot-path)만 읽어 즉시 라우팅 테이블 구성 (네트워크 호출 없음)
+ * 2. 기동 후: 스케줄러가 제공자 API에서 모델 목록을 병렬로 조회해 테이블 교체 + 스냅샷 저장
+ * 3. 요청 경로: volatile 참조 하나를 읽고 HashMap 조회 한 번으로 클라이언트 선택
+ *
+ * 💡 테이블은 불변 객체로 만들어 참조만 교체하므로 조회 시 락이 필요 없다.
+ * 💡 특정 제공자 조회가 실패하면 그 제공자는 이전 목록을 유지한다.
+ * 💡 /actuator/health 의 modelRegistry 항목으로 마지막 갱신 시각과 신선도를 확인할 수 있다.
+ */
+@Slf4j
+@Component
+public class ModelRegistry implements HealthIndicator {
+
+    private static final Status STALE = new Status("STALE", "모델 목록이 오래됨 (스냅샷 또는 갱신 실패)");
+
+    private final List<AiModelClient> clients;
+    private final Map<String, AiModelClient> clientsByProvider;
+    private final ModelRegistryProperties properties;
+    private final ExecutorService inferExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Catalog catalog = Catalog.EMPTY;
+
+    public ModelRegistry(List<AiModelClient> clients, ModelRegistryProperties properties, ExecutorService inferExecutor) {
+        this.clients = clients;
+        this.properties = properties;
+        this.inferExecutor = inferExecutor;
+
+        Map<String, AiModelClient> byProvider = new LinkedHashMap<>();
+        clients.forEach(client -> byProvider.put(client.getProviderName(), client));
+        this.clientsByProvider = byProvider;
+    }
+
+    /**
+     * ✅ 기동 시 디스크 스냅샷 로드
+     * - 파일이 없거나 깨져 있어도 빈 테이블로 시작하고 첫 갱신을 기다림
+     */
+    @PostConstruct
+    public void loadSnapshot() {
+        Path path = properties.getSnapshotPath();
+        if (!Files.exists(path)) {
+            log.info("ℹ️ 모델 목록 스냅샷 없음 ({}), 첫 갱신 후 사용 가능", path);
+            return;
+        }
+
+        try {
+            Snapshot snapshot = objectMapper.readValue(path.toFile(), Snapshot.class);
+            Map<String, ProviderModels> providers = new LinkedHashMap<>();
+            snapshot.providers().forEach((provider, models) -> {
+                if (clientsByProvider.containsKey(provider)) {
+                    providers.put(provider, new ProviderModels(Set.copyOf(models.models()),
+                            Instant.ofEpochMilli(models.fetchedAtMillis()), false));
+                }
+            });
+            publish(providers);
+            log.info("✅ 모델 목록 스냅샷 로드: {}개 모델 ({})", catalog.routes().size(), path);
+        } catch (Exception e) {
+            log.warn("⚠️ 모델 목록 스냅샷 읽기 실패 ({}): {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * ✅ 제공자 API에서 모델 목록 갱신
+     * - 기동 직후 한 번, 이후 infer.models.refresh-interval 간격으로 실행
+     * - 제공자별 조회는 가상 스레드에서 병렬로 실행
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${infer.models.refresh-interval:PT10M}")
+    public void refresh() {
+        Map<String, CompletableFuture<Set<String>>> fetches = new LinkedHashMap<>();
+        clientsByProvider.forEach((provider, client) ->
+                fetches.put(provider, CompletableFuture.supplyAsync(client::fetchSupportedModels, inferExecutor)));
+
+        Map<String, ProviderModels> providers = new LinkedHashMap<>(catalog.providers());
+        Instant now = Instant.now();
+        fetches.forEach((provider, fetch) -> {
+            try {
+                providers.put(provider, new ProviderModels(Set.copyOf(fetch.join()), now, true));
+            } catch (Exception e) {
+                log.warn("⚠️ [{}] 모델 목록 갱신 실패, 이전 목록 유지: {}", provider, e.getMessage());
+            }
+        });
+
+        publish(providers);
+        writeSnapshot(providers);
+    }
+
+    /**
+     * ✅ 모델명으로 클라이언트 조회 (해시 조회 한 번)
+     *
+     * @return 지원하는 클라이언트, 없으면 null
+     */
+    public AiModelClient find(String model) {
+        return catalog.routes().get(model);
+    }
+
+    /**
+     * ✅ 모델명으로 클라이언트 조회 (없으면 예외)
+     */
+    public AiModelClient resolve(String model) {
+        AiModelClient client = find(model);
+        if (client == null) {
+            throw new IllegalArgumentException("❌ 지원하지 않는 모델입니다: " + model);
+        }
+        return client;
+    }
+
+    /**
+     * ✅ 제공자별 사용 가능 모델 목록 (대시보드/플레이그라운드 표시용)
+     */
+    public List<ModelInfo> getAvailableModels() {
+        List<ModelInfo> result = new ArrayList<>();
+        catalog.providers().forEach((provider, models) -> {
+            String source = provider + "에서 자동 등록된 모델";
+            new TreeSet<>(models.models()).forEach(modelId -> result.add(new ModelInfo(modelId, provider, source)));
+        });
+        return result;
+    }
+
+    @Override
+    public Health health() {
+        Catalog current = catalog;
+        if (current.routes().isEmpty()) {
+            return Health.down().withDetail("models", 0).build();
+        }
+
+        Instant staleBefore = Instant.now().minus(properties.getStaleAfter());
+        Map<String, Object> details = new LinkedHashMap<>();
+        boolean fresh = true;
+        for (Map.Entry<String, ProviderModels> entry : current.providers().entrySet()) {
+            ProviderModels models = entry.getValue();
+            boolean providerFresh = models.fromNetwork() && models.fetchedAt().isAfter(staleBefore);
+            fresh &= providerFresh;
+            details.put(entry.getKey(), Map.of(
+                    "models", models.models().size(),
+                    "fetchedAt", models.fetchedAt().toString(),
+                    "source", models.fromNetwork() ? "network" : "snapshot",
+                    "fresh", providerFresh));
+        }
+        fresh &= current.providers().keySet().containsAll(clientsByProvider.keySet());
+
+        return Health.status(fresh ? Status.UP : STALE)
+                .withDetail("models", current.routes().size())
+                .withDetails(details)
+                .build();
+    }
+
+    /**
+     * ✅ 불변 라우팅 테이블 생성 후 참조 교체
+     * - 여러 제공자가 같은 모델을 지원하면 클라이언트 등록 순서(@Primary 우선)대로 먼저 나온 쪽 사용
+     */
+    private void publish(Map<String, ProviderModels> providers) {
+        Map<String, AiModelClient> routes = new HashMap<>();
+        for (AiModelClient client : clients) {
+            ProviderModels models = providers.get(client.getProviderName());
+            if (models != null) {
+                models.models().forEach(model -> routes.putIfAbsent(model, client));
+            }
+        }
+        catalog = new Catalog(Map.copyOf(routes), Map.copyOf(providers));
+    }
+
+    /**
+     * ✅ 스냅샷 저장 (임시 파일에 쓴 뒤 원자적 이동)
+     */
+    private void writeSnapshot(Map<String, ProviderModels> providers) {
+        Path path = properties.getSnapshotPath().toAbsolutePath();
+        Map<String, SnapshotEntry> entries = new LinkedHashMap<>();
+        providers.forEach((provider, models) -> entries.put(provider,
+                new SnapshotEntry(new TreeSet<>(models.models()), models.fetchedAt().toEpochMilli())));
+
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), "model-catalog", ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), new Snapshot(entries));
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("⚠️ 모델 목록 스냅샷 저장 실패 ({}): {}", path, e.getMessage());
+        }
+    }
+
+    private record Catalog(Map<String, AiModelClient> routes, Map<String, ProviderModels> providers) {
+        static final Catalog EMPTY = new Catalog(Map.of(), Map.of());
+    }
+
+    private record ProviderModels(Set<String> models, Instant fetchedAt, boolean fromNetwork) {
+    }
+
+    private record Snapshot(Map<String, SnapshotEntry> providers) {
+    }
+
+    private record SnapshotEntry(Set<String> models, long fetchedAtMillis) {
+    }
+}
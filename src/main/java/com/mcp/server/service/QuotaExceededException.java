@@ -0,0 +1,16 @@
+package com.mcp.server.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * ✅ 하루 호출 한도 초과 예외
+ * - 기존 ModelRateLimiter와 같은 IllegalStateException 계열 (호출 측 처리 방식 유지)
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class QuotaExceededException extends IllegalStateException {
+
+    public QuotaExceededException(String message) {
+        super(message);
+    }
+}
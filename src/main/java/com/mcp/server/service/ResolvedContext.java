@@ -0,0 +1,54 @@
+package com.mcp.server.service;
+
+import com.mcp.server.domain.context.ContextSet;
+import com.mcp.server.util.PromptFormatter;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✅ ResolvedContext
+ * - 추론에 필요한 형태로 미리 가공해 둔 ContextSet (ContextSetService 캐시에 저장되는 값)
+ *
+ * - contextJson: 이스케이프 처리된 JSON 문자열
+ * - revision: 생성 시점의 ContextSet.revision (다른 노드 수정 여부 확인용)
+ * - 프로젝트별 프롬프트 앞부분([Project] ~ [User Query])을 한 번만 만들어 두고 query만 이어 붙인다.
+ */
+@Getter
+public final class ResolvedContext {
+
+    private static final int MAX_CACHED_PREFIXES = 64; // 프로젝트명이 많아도 항목 크기가 무한히 커지지 않도록 제한
+
+    private final Long id;
+    private final long revision;
+    private final String contextJson;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<String, String> prefixes = new ConcurrentHashMap<>();
+
+    public ResolvedContext(Long id, long revision, String contextJson) {
+        this.id = id;
+        this.revision = revision;
+        this.contextJson = contextJson;
+    }
+
+    public static ResolvedContext of(ContextSet contextSet) {
+        return new ResolvedContext(contextSet.getId(), contextSet.getRevision(), contextSet.toContextJson());
+    }
+
+    /**
+     * ✅ 최종 프롬프트 생성
+     * - PromptFormatter.formatPrompt(project, contextJson, query)와 같은 결과
+     */
+    public String promptFor(String project, String query) {
+        String prefix = prefixes.get(project);
+        if (prefix == null) {
+            prefix = PromptFormatter.formatPrefix(project, contextJson);
+            if (prefixes.size() < MAX_CACHED_PREFIXES) {
+                prefixes.putIfAbsent(project, prefix);
+            }
+        }
+        return prefix.concat(query);
+    }
+}
@@ -0,0 +1,261 @@
+package com.mcp.server.service;
+
+import com.mcp.server.client.EmbeddingClient;
+import com.mcp.server.config.SemanticCacheProperties;
+import com.mcp.server.util.HnswIndex;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ✅ SemanticCacheService
+ * - 같은 ContextSet에 대해 표현만 다른(의미가 같은) 질의가 들어오면 이전 응답을 재사용하는 캐시
+ * - InferResponseCacheService(정확히 같은 프롬프트)에서 놓친 요청만 여기서 확인한다.
+ *
+ * [동작]
+ * 1. 질의(query)를 EmbeddingClient로 임베딩
+ * 2. 같은 (요청 model, contextSetId, ContextSet revision, project) 범위의 HNSW 인덱스에서 가장 가까운 이전 질의 검색
+ *    → ContextSet이 수정되면 revision이 바뀌어 이전 범위는 조회되지 않음 (새 범위가 생길 때 이전 revision 범위는 제거)
+ * 3. 코사인 유사도 ≥ threshold(프로젝트별 설정 가능)이고 TTL 안이면 그 응답을 반환
+ * 4. 모델을 실제로 호출한 응답은 InferenceRecorder 저장 단계에서 put()으로 추가
+ *
+ * [정리]
+ * - 범위마다 max-entries-per-scope를 넘으면 오래된 항목부터 제거
+ * - 만료 항목은 조회 시 건너뛰고, 주기적으로 인덱스에서도 제거 (삭제가 쌓이면 인덱스를 다시 만듦)
+ *
+ * 💡 적중 품질은 mcp.infer.semantic-cache.similarity(적중/미스별 최고 유사도 분포)로 보고 threshold를 조정한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SemanticCacheService {
+
+    private static final int REBUILD_MIN_REMOVED = 64;
+
+    private final SemanticCacheProperties properties;
+    private final EmbeddingClient embeddingClient;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Scope, ScopeIndex> scopes = new ConcurrentHashMap<>();
+    private final AtomicLong nextLabel = new AtomicLong();
+
+    /**
+     * ✅ 캐시 적중 결과
+     *
+     * @param result     이전 응답 텍스트
+     * @param tokensUsed 이전 호출의 추정 토큰 수
+     * @param similarity 질의 간 코사인 유사도
+     */
+    public record Hit(String result, int tokensUsed, float similarity) {
+    }
+
+    private record Scope(String model, Long contextSetId, long contextRevision, String project) {
+
+        boolean isOlderRevisionOf(Scope other) {
+            return contextRevision < other.contextRevision && Objects.equals(model, other.model)
+                    && Objects.equals(contextSetId, other.contextSetId) && Objects.equals(project, other.project);
+        }
+    }
+
+    private record Entry(String result, int tokensUsed, long expiresAtMillis) {
+    }
+
+    /**
+     * ✅ 범위 하나의 인덱스 (추가/삭제는 lock으로 직렬화, 검색은 HnswIndex가 동시 처리)
+     */
+    private final class ScopeIndex {
+        final ConcurrentSkipListMap<Long, Entry> entries = new ConcurrentSkipListMap<>(); // label 오름차순 = 오래된 순
+        final ReentrantLock lock = new ReentrantLock();
+        volatile HnswIndex index;
+        int removedSinceBuild;
+
+        ScopeIndex(int dimensions) {
+            this.index = newIndex(dimensions);
+        }
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("mcp.infer.semantic-cache.entries", Tags.empty(), scopes,
+                map -> map.values().stream().mapToInt(scope -> scope.entries.size()).sum());
+    }
+
+    /**
+     * ✅ 해당 프로젝트에서 semantic cache를 쓰는지 여부
+     */
+    public boolean isEnabledFor(String project) {
+        return properties.isEnabledFor(project);
+    }
+
+    /**
+     * ✅ 질의 임베딩 (실패 시 null → 이번 요청은 캐시 없이 진행)
+     */
+    public float[] embed(String project, String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        try {
+            return embeddingClient.embed(List.of(query)).get(0);
+        } catch (RuntimeException e) {
+            meterRegistry.counter("mcp.infer.semantic-cache", "result", "error", "project", Objects.toString(project, "")).increment();
+            log.warn("⚠️ semantic cache 질의 임베딩 실패 (캐시 없이 진행): {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * ✅ 비슷한 이전 질의의 응답 조회
+     *
+     * @param model           요청에 지정된 모델 (헤지로 다른 모델이 응답했더라도 요청 기준)
+     * @param contextRevision 현재 ContextSet revision
+     * @param queryVector     embed()로 만든 질의 벡터
+     * @return threshold 이상으로 비슷하고 만료되지 않은 가장 가까운 항목
+     */
+    public Optional<Hit> lookup(String model, Long contextSetId, long contextRevision, String project, float[] queryVector) {
+        ScopeIndex scope = scopes.get(new Scope(model, contextSetId, contextRevision, project));
+        if (scope == null || queryVector.length != scope.index.getDimensions()) {
+            return miss(project, Float.NaN);
+        }
+
+        long now = System.currentTimeMillis();
+        List<HnswIndex.Match> matches = scope.index.search(queryVector, 1, properties.getEfSearch(), label -> {
+            Entry entry = scope.entries.get(label);
+            return entry != null && entry.expiresAtMillis() > now;
+        });
+        if (matches.isEmpty()) {
+            return miss(project, Float.NaN);
+        }
+
+        HnswIndex.Match best = matches.get(0);
+        Entry entry = scope.entries.get(best.label());
+        if (entry == null || best.score() < properties.thresholdFor(project)) {
+            return miss(project, best.score());
+        }
+
+        similarity(project, "hit").record(best.score());
+        meterRegistry.counter("mcp.infer.semantic-cache", "result", "hit", "project", Objects.toString(project, "")).increment();
+        return Optional.of(new Hit(entry.result(), entry.tokensUsed(), best.score()));
+    }
+
+    /**
+     * ✅ 모델을 실제로 호출한 응답 저장 (InferenceRecorder가 호출)
+     * - lookup과 같은 키(요청 model, ContextSet revision)로 저장
+     */
+    public void put(InferenceRecord record) {
+        float[] vector = record.queryVector();
+        if (vector == null || record.result() == null) {
+            return;
+        }
+        Scope key = new Scope(record.requestedModel(), record.contextSetId(), record.contextRevision(), record.project());
+        long expiresAt = System.currentTimeMillis() + properties.ttlFor(record.project()).toMillis();
+        long label = nextLabel.incrementAndGet();
+
+        if (!scopes.containsKey(key)) {
+            scopes.keySet().removeIf(scope -> scope.isOlderRevisionOf(key)); // 수정 전 ContextSet으로 만든 응답
+        }
+        while (true) {
+            ScopeIndex scope = scopes.computeIfAbsent(key, k -> new ScopeIndex(vector.length));
+            if (vector.length != scope.index.getDimensions()) {
+                return; // 임베딩 모델 차원이 바뀐 직후 → 기존 항목이 만료되어 범위가 비워진 뒤부터 저장
+            }
+            scope.lock.lock();
+            try {
+                if (scopes.get(key) != scope) {
+                    continue; // 정리 작업이 방금 빈 범위를 제거함 → 새 범위로 다시 시도
+                }
+                scope.entries.put(label, new Entry(record.result(), record.tokensUsed(), expiresAt));
+                scope.index.add(label, vector);
+                while (scope.entries.size() > Math.max(1, properties.getMaxEntriesPerScope())) {
+                    removeLocked(scope, scope.entries.firstKey());
+                }
+                return;
+            } finally {
+                scope.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * ✅ 만료 항목 정리 (1분마다)
+     * - 삭제 표시가 살아 있는 항목 수보다 많아지면 남은 항목으로 인덱스를 다시 만들어 탐색 효율 유지
+     */
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        for (Map.Entry<Scope, ScopeIndex> item : scopes.entrySet()) {
+            ScopeIndex scope = item.getValue();
+            scope.lock.lock();
+            try {
+                for (Map.Entry<Long, Entry> entry : scope.entries.entrySet()) {
+                    if (entry.getValue().expiresAtMillis() <= now) {
+                        removeLocked(scope, entry.getKey());
+                        purged++;
+                    }
+                }
+                if (scope.entries.isEmpty()) {
+                    scopes.remove(item.getKey(), scope);
+                } else if (scope.removedSinceBuild >= REBUILD_MIN_REMOVED && scope.removedSinceBuild > scope.entries.size()) {
+                    rebuildLocked(scope);
+                }
+            } finally {
+                scope.lock.unlock();
+            }
+        }
+        if (purged > 0) {
+            log.info("🧹 semantic cache 만료 항목 {}건 삭제", purged);
+        }
+    }
+
+    private void removeLocked(ScopeIndex scope, long label) {
+        scope.entries.remove(label);
+        scope.index.remove(label);
+        scope.removedSinceBuild++;
+    }
+
+    private void rebuildLocked(ScopeIndex scope) {
+        HnswIndex rebuilt = newIndex(scope.index.getDimensions());
+        for (Long label : scope.entries.keySet()) {
+            float[] vector = scope.index.getVector(label);
+            if (vector != null) {
+                rebuilt.add(label, vector);
+            }
+        }
+        scope.index = rebuilt;
+        scope.removedSinceBuild = 0;
+    }
+
+    private HnswIndex newIndex(int dimensions) {
+        return new HnswIndex(dimensions, properties.getM(), properties.getEfConstruction(), nextLabel.get());
+    }
+
+    private Optional<Hit> miss(String project, float bestScore) {
+        if (!Float.isNaN(bestScore)) {
+            similarity(project, "miss").record(bestScore);
+        }
+        meterRegistry.counter("mcp.infer.semantic-cache", "result", "miss", "project", Objects.toString(project, "")).increment();
+        return Optional.empty();
+    }
+
+    private DistributionSummary similarity(String project, String result) {
+        return DistributionSummary.builder("mcp.infer.semantic-cache.similarity")
+                .tag("project", Objects.toString(project, ""))
+                .tag("result", result)
+                .serviceLevelObjectives(0.8, 0.85, 0.9, 0.93, 0.95, 0.97, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,14 @@
+package com.mcp.server.service;
+
+import java.time.LocalDate;
+
+/**
+ * ✅ UsageArchivingEvent
+ * - LogArchiveService가 api_usage_log 원본을 지우기 전에 (동기) 발행
+ * - UsageRollupService가 받아 해당 날짜 구간 집계를 원본 기준으로 다시 맞춘다. (실패하면 예외가 전파되어 삭제하지 않음)
+ *
+ * @param from 보관될 가장 오래된 날짜
+ * @param to   보관될 마지막 날짜 (포함)
+ */
+public record UsageArchivingEvent(LocalDate from, LocalDate to) {
+}
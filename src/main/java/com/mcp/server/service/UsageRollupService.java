@@ -0,0 +1,292 @@
+package com.mcp.server.service;
+
+import com.mcp.server.config.UsageRollupProperties;
+import com.mcp.server.domain.backfill.BackfillWatermark;
+import com.mcp.server.domain.backfill.BackfillWatermarkRepository;
+import com.mcp.server.domain.usage.ApiUsageLog;
+import com.mcp.server.domain.usage.ApiUsageLogRepository;
+import com.mcp.server.domain.usage.ApiUsageRollup;
+import com.mcp.server.domain.usage.ApiUsageRollupRepository;
+import com.mcp.server.dto.ApiUsageExportRow;
+import com.mcp.server.dto.ApiUsageStats;
+import com.mcp.server.dto.UsageStatResponse;
+import com.mcp.server.util.LatencyHistogram;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * ✅ UsageRollupService
+ * - api_usage_rollup 집계 테이블을 유지하는 서비스
+ *
+ * [동작]
+ * 1. apply(): 사용 기록이 저장될 때 같은 트랜잭션에서 (날짜, 시간대, 모델)별로 합산해 upsert
+ *    → 로그 저장이 롤백되면 집계도 함께 롤백되어 두 테이블이 어긋나지 않음
+ *    → 응답 시간 분포는 upsert로 잠근 행을 읽어 히스토그램을 합친 뒤 다시 저장
+ * 2. rebuild(): 원본 로그에서 구간 집계를 다시 계산 (수동 복구 / 야간 재계산)
+ *    → 오늘은 apply()가 계속 갱신하는 중이라 지우고 다시 채우면 그 사이 반영분이 사라지므로 어제까지만 재계산한다.
+ *    → 기동 시 최초 한 번 원본의 가장 오래된 날짜부터 어제까지 채운다. (집계 도입 이전 기록 반영)
+ *      완료 여부는 backfill_watermark의 usage-rollup 행으로 남겨, 노드 수나 재기동과 상관없이 한 번만 실행된다.
+ *    → 원본이 보관(삭제)되기 직전에도 해당 날짜를 다시 계산한다. (UsageArchivingEvent)
+ * 3. getModelStats() / getDailyStats(): 집계 행을 합쳐 평균과 p50/p95/p99 계산
+ *    → 평균/백분위는 캐시 적중 건을 뺀 실제 모델 호출 기준 (적중 건의 수 ms 응답이 p50을 끌어내리지 않도록)
+ *
+ * 💡 한 번의 저장(배치) 안에서는 키별로 먼저 합산하므로 upsert 횟수는 건수가 아니라 (시간대 × 모델) 수만큼만 발생한다.
+ *    키를 항상 같은 순서로 갱신해 여러 노드가 동시에 저장해도 행 잠금 순서가 엇갈리지 않게 한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UsageRollupService {
+
+    private static final String BACKFILL_WATERMARK = "usage-rollup";
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator
+            .comparing(RollupKey::date)
+            .thenComparingInt(RollupKey::hour)
+            .thenComparing(RollupKey::model);
+
+    private final ApiUsageRollupRepository rollupRepository;
+    private final ApiUsageLogRepository apiUsageLogRepository;
+    private final UsageRollupProperties properties;
+    private final LogArchiveService logArchiveService;
+    private final BackfillWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private record RollupKey(LocalDate date, int hour, String model) {
+    }
+
+    private static final class RollupDelta {
+        long calls;
+        long cacheHits;
+        long tokens;
+        long elapsedSum;
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        void add(long calls, long cacheHits, long tokens, long elapsedSum, LatencyHistogram latency) {
+            this.calls += calls;
+            this.cacheHits += cacheHits;
+            this.tokens += tokens;
+            this.elapsedSum += elapsedSum;
+            this.latency.merge(latency);
+        }
+    }
+
+    /**
+     * ✅ 저장된 사용 기록을 집계에 반영
+     * - 호출 측 트랜잭션(사용 기록 저장)에 참여한다.
+     *
+     * @param logs 방금 저장한 사용 기록
+     */
+    @Transactional
+    public void apply(List<ApiUsageLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+
+        Map<RollupKey, RollupDelta> deltas = new TreeMap<>(KEY_ORDER);
+        for (ApiUsageLog usage : logs) {
+            RollupKey key = new RollupKey(usage.getDate(), usage.getCreatedAt().getHour(), usage.getModel());
+            RollupDelta delta = deltas.computeIfAbsent(key, k -> new RollupDelta());
+            delta.calls++;
+            delta.tokens += usage.getTokensUsed();
+            if (usage.isCacheHit()) {
+                delta.cacheHits++;
+            } else {
+                delta.elapsedSum += usage.getElapsedTimeMs();
+                delta.latency.record(usage.getElapsedTimeMs());
+            }
+        }
+
+        deltas.forEach((key, delta) -> {
+            rollupRepository.upsert(key.date(), key.hour(), key.model(), delta.calls, delta.cacheHits, delta.tokens, delta.elapsedSum);
+            rollupRepository.findForUpdate(key.date(), key.hour(), key.model())
+                    .ifPresent(rollup -> rollup.mergeLatency(delta.latency));
+        });
+    }
+
+    /**
+     * ✅ 구간 집계 재계산
+     * - from~to(날짜 포함) 집계 행을 지우고 api_usage_log에서 다시 채운다.
+     * - 집계가 원본과 어긋났을 때(수동 데이터 정리, 장애 등) 복구용
+     * - 원본이 보관 세그먼트로 옮겨진 날짜는 DB에 원본이 없으므로 건드리지 않는다. (기존 집계 유지)
+     * - 오늘 이후는 apply()의 증분 갱신과 엇갈리지 않도록 건드리지 않는다. (to를 어제로 당김)
+     *
+     * @return 새로 만들어진 집계 행 수
+     */
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("❌ 시작 날짜가 끝 날짜보다 늦습니다: " + from + " > " + to);
+        }
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        if (to.isAfter(yesterday)) {
+            to = yesterday;
+            if (from.isAfter(to)) {
+                log.info("📊 사용량 집계 재계산 건너뜀: 오늘 집계는 증분 갱신 중");
+                return 0;
+            }
+        }
+        LocalDate archivedThrough = logArchiveService.usageArchivedThrough();
+        if (archivedThrough != null && !from.isAfter(archivedThrough)) {
+            from = archivedThrough.plusDays(1);
+            if (from.isAfter(to)) {
+                log.info("📊 사용량 집계 재계산 건너뜀: {}까지 원본이 보관됨", archivedThrough);
+                return 0;
+            }
+        }
+        int deleted = rollupRepository.deleteBetween(from, to);
+        int inserted = rollupRepository.rebuildBetween(from, to);
+        rebuildLatency(from, to);
+        log.info("📊 사용량 집계 재계산 {} ~ {} (삭제 {}행, 생성 {}행)", from, to, deleted, inserted);
+        return inserted;
+    }
+
+    /**
+     * ✅ 원본 보관 직전 집계 확정
+     * - LogArchiveService가 삭제 전에 동기로 발행하므로, 여기서 실패하면 예외가 전파되어 원본을 지우지 않는다.
+     */
+    @Transactional
+    @EventListener
+    public void beforeUsageArchive(UsageArchivingEvent event) {
+        rebuild(event.from(), event.to());
+    }
+
+    /**
+     * ✅ 구간 응답 시간 분포 재계산
+     * - 원본 로그를 날짜 순 커서로 읽으며 하루치씩 히스토그램을 만들어 덮어쓴다. (메모리는 하루치 (시간대 × 모델)만큼)
+     * - 캐시 적중 건은 분포에 넣지 않는다.
+     */
+    private void rebuildLatency(LocalDate from, LocalDate to) {
+        Map<RollupKey, LatencyHistogram> day = new TreeMap<>(KEY_ORDER);
+        try (Stream<ApiUsageExportRow> rows = apiUsageLogRepository.streamExportRowsBetween(from, to)) {
+            for (ApiUsageExportRow row : (Iterable<ApiUsageExportRow>) rows::iterator) {
+                if (!day.isEmpty() && !day.keySet().iterator().next().date().equals(row.date())) {
+                    writeLatency(day);
+                }
+                if (row.cacheHit()) {
+                    continue;
+                }
+                day.computeIfAbsent(new RollupKey(row.date(), row.createdAt().getHour(), row.model()), k -> new LatencyHistogram())
+                        .record(row.elapsedTimeMs());
+            }
+        }
+        writeLatency(day);
+    }
+
+    private void writeLatency(Map<RollupKey, LatencyHistogram> histograms) {
+        histograms.forEach((key, histogram) ->
+                rollupRepository.updateHistogram(key.date(), key.hour(), key.model(), histogram.toBytes()));
+        histograms.clear();
+    }
+
+    /**
+     * ✅ 최초 집계 채우기
+     * - backfill_watermark에 완료 표시가 없으면 원본의 MIN(date)~어제를 한 번 재계산하고 완료 표시를 남긴다.
+     *   (오늘 기록은 apply()가, 기동 전에 쌓인 오늘 기록은 다음 야간 재계산이 반영)
+     * - 워터마크 행을 잠근 채 실행하므로 여러 노드가 동시에 기동해도 한 노드만 채우고, 나머지는 끝난 표시를 보고 건너뛴다.
+     * - 기동을 붙잡지 않도록 별도 가상 스레드에서 실행
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        Thread.ofVirtual().name("usage-rollup-backfill").start(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    watermarkRepository.insertIfAbsent(BACKFILL_WATERMARK, BackfillWatermark.BEGINNING);
+                    BackfillWatermark watermark = watermarkRepository.findForUpdate(BACKFILL_WATERMARK)
+                            .orElseThrow(() -> new IllegalStateException("❌ 워터마크 행이 없습니다: " + BACKFILL_WATERMARK));
+                    if (!watermark.getLastCreatedAt().isEqual(BackfillWatermark.BEGINNING)) {
+                        return; // 이미 채움
+                    }
+
+                    LocalDate today = LocalDate.now();
+                    LocalDate oldest = apiUsageLogRepository.findMinDate();
+                    if (oldest != null && oldest.isBefore(today)) {
+                        rebuild(oldest, today.minusDays(1));
+                    }
+                    watermark.advance(today.atStartOfDay(), 0L); // 이 시점 이전 날짜는 채웠다는 완료 표시
+                });
+            } catch (Exception e) {
+                log.warn("⚠️ 사용량 집계 최초 채우기 실패 (다음 기동 시 다시 시도, rebuild로 수동 복구 가능): {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * ✅ 야간 재계산
+     * - 지난 rebuild-days일(오늘 제외)을 원본 기준으로 다시 맞춘다.
+     *   오늘은 기록이 계속 들어오고 있으므로 증분 갱신에 맡긴다.
+     */
+    @Transactional
+    @Scheduled(cron = "${infer.usage-rollup.rebuild-cron:0 30 3 * * *}")
+    public void rebuildRecentDays() {
+        if (properties.getRebuildDays() <= 0) {
+            return;
+        }
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        rebuild(yesterday.minusDays(properties.getRebuildDays() - 1L), yesterday);
+    }
+
+    /**
+     * ✅ 기간 내 모델별 통계
+     * - 집계 행만 합산하므로 비용은 (일수 × 24 × 모델 수)에 비례
+     */
+    @Transactional(readOnly = true)
+    public List<UsageStatResponse> getModelStats(LocalDate from, LocalDate to) {
+        Map<String, RollupDelta> byModel = new TreeMap<>();
+        for (ApiUsageRollup rollup : rollupRepository.findByDateBetweenOrderByDateAscModelAsc(from, to)) {
+            byModel.computeIfAbsent(rollup.getModel(), k -> new RollupDelta())
+                    .add(rollup.getCalls(), rollup.getCacheHits(), rollup.getTotalTokens(), rollup.getElapsedSumMs(), rollup.latency());
+        }
+
+        List<UsageStatResponse> stats = new ArrayList<>(byModel.size());
+        byModel.forEach((model, total) -> stats.add(new UsageStatResponse(
+                model,
+                total.calls,
+                total.tokens,
+                total.calls == total.cacheHits ? 0 : total.elapsedSum / (total.calls - total.cacheHits),
+                total.latency.valueAtPercentile(50),
+                total.latency.valueAtPercentile(95),
+                total.latency.valueAtPercentile(99)
+        )));
+        return stats;
+    }
+
+    /**
+     * ✅ 기간 내 날짜별/모델별 통계 (CSV 내보내기용)
+     */
+    @Transactional(readOnly = true)
+    public List<ApiUsageStats> getDailyStats(LocalDate from, LocalDate to) {
+        Map<RollupKey, RollupDelta> byDay = new TreeMap<>(KEY_ORDER);
+        for (ApiUsageRollup rollup : rollupRepository.findByDateBetweenOrderByDateAscModelAsc(from, to)) {
+            byDay.computeIfAbsent(new RollupKey(rollup.getDate(), 0, rollup.getModel()), k -> new RollupDelta())
+                    .add(rollup.getCalls(), rollup.getCacheHits(), rollup.getTotalTokens(), rollup.getElapsedSumMs(), rollup.latency());
+        }
+
+        List<ApiUsageStats> stats = new ArrayList<>(byDay.size());
+        byDay.forEach((key, total) -> stats.add(new ApiUsageStats(
+                key.date(),
+                key.model(),
+                total.calls,
+                total.tokens,
+                total.calls == total.cacheHits ? 0 : (double) total.elapsedSum / (total.calls - total.cacheHits),
+                total.latency.valueAtPercentile(50),
+                total.latency.valueAtPercentile(95),
+                total.latency.valueAtPercentile(99)
+        )));
+        return stats;
+    }
+}
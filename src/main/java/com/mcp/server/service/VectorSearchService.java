@@ -0,0 +1,387 @@
+package com.mcp.server.service;
+
+import com.mcp.server.client.EmbeddingClient;
+import com.mcp.server.config.VectorSearchProperties;
+import com.mcp.server.domain.embedding.ContextEmbeddingMetadataRepository;
+import com.mcp.server.domain.embedding.LogEmbeddingMetadata;
+import com.mcp.server.domain.embedding.LogEmbeddingMetadataRepository;
+import com.mcp.server.dto.EmbeddedVector;
+import com.mcp.server.dto.SimilarItem;
+import com.mcp.server.util.HnswIndex;
+import com.mcp.server.util.VectorCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+/**
+ * ✅ VectorSearchService
+ * - 임베딩이 끝난 Log/Context 메타데이터 벡터를 메모리 HNSW 인덱스에 올려 top-k 유사 항목을 찾는 서비스
+ *
+ * [동기화]
+ * - sync-interval마다 (embeddedAt, id) 워터마크 이후 임베딩된 행만 읽어 인덱스에 추가 (증분)
+ *   → settle-delay보다 최근 행은 다음 주기로 미룸 (embeddedAt이 커밋보다 먼저 정해지므로)
+ * - 다시 임베딩된 행(ContextSet 수정 등)은 같은 label로 들어와 이전 벡터를 교체
+ * - 현재 EmbeddingClient 모델로 만든 벡터만 사용 (모델이 바뀌면 인덱스를 처음부터 다시 만듦)
+ *
+ * [스냅샷]
+ * - snapshot-interval마다, 그리고 종료 시 인덱스 + 워터마크를 snapshot-dir에 저장
+ * - 기동 시 스냅샷을 읽고 워터마크 이후 행만 따라잡음 → DB 전체를 다시 읽지 않음
+ *
+ * 💡 project/contentType 필터는 label → (원본 ID, project, contentType) 맵으로 검색 중에 적용
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VectorSearchService {
+
+    private static final int SYNC_CHUNK_SIZE = 1000;
+    private static final int SNAPSHOT_MAGIC = 0x56535031; // "VSP1"
+    private static final long INDEX_SEED = 42L;
+
+    private final VectorSearchProperties properties;
+    private final EmbeddingClient embeddingClient;
+    private final LogEmbeddingMetadataRepository logMetadataRepository;
+    private final ContextEmbeddingMetadataRepository contextMetadataRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock maintenanceLock = new ReentrantLock(); // 동기화/스냅샷 직렬화
+
+    private Partition logs;
+    private Partition contexts;
+
+    private interface EmbeddedFetcher {
+        List<EmbeddedVector> fetch(String model, LocalDateTime embeddedAt, Long id, LocalDateTime upTo, Limit limit);
+    }
+
+    /**
+     * ✅ 인덱스 항목의 원본 정보 (검색 필터 및 결과 변환용)
+     */
+    private record Entry(long sourceId, String project, String contentType) {
+    }
+
+    /**
+     * ✅ 로그/컨텍스트별 인덱스 + 워터마크
+     */
+    private final class Partition {
+        final String name;
+        final EmbeddedFetcher fetcher;
+        final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        volatile HnswIndex index;          // 첫 벡터의 차원을 보고 생성
+        LocalDateTime lastEmbeddedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+        long lastId;
+
+        Partition(String name, EmbeddedFetcher fetcher) {
+            this.name = name;
+            this.fetcher = fetcher;
+        }
+
+        Path snapshotPath() {
+            return Path.of(properties.getSnapshotDir(), name + ".hnsw").toAbsolutePath();
+        }
+
+        void reset() {
+            entries.clear();
+            index = null;
+            lastEmbeddedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+            lastId = 0;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        logs = new Partition("logs", logMetadataRepository::findEmbeddedAfter);
+        contexts = new Partition("contexts", contextMetadataRepository::findEmbeddedAfter);
+        meterRegistry.gauge("mcp.vector.index.size", List.of(Tag.of("source", "log")),
+                logs, partition -> partition.entries.size());
+        meterRegistry.gauge("mcp.vector.index.size", List.of(Tag.of("source", "context")),
+                contexts, partition -> partition.entries.size());
+
+        if (properties.isEnabled()) {
+            loadSnapshot(logs);
+            loadSnapshot(contexts);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * ✅ 주기적 실행: 새로 임베딩된 행을 인덱스에 반영
+     */
+    @Scheduled(fixedDelayString = "${infer.vector-search.sync-interval:PT10S}")
+    public void sync() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        maintenanceLock.lock();
+        try {
+            catchUp(logs);
+            catchUp(contexts);
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    /**
+     * ✅ 주기적 스냅샷 저장
+     */
+    @Scheduled(fixedDelayString = "${infer.vector-search.snapshot-interval:PT10M}",
+            initialDelayString = "${infer.vector-search.snapshot-interval:PT10M}")
+    public void snapshot() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        maintenanceLock.lock();
+        try {
+            writeSnapshot(logs);
+            writeSnapshot(contexts);
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    /**
+     * ✅ 특정 로그와 비슷한 로그 검색
+     *
+     * @param logId       기준 로그 ID
+     * @param k           결과 수 (1 ~ max-k)
+     * @param project     프로젝트 필터 (null이면 전체)
+     * @param contentType 비교할 본문 종류 (PROMPT / QUERY / RESULT, 기본 QUERY)
+     * @throws IllegalArgumentException 기준 로그의 임베딩이 아직 없는 경우
+     */
+    public List<SimilarItem> findSimilarLogs(Long logId, int k, String project, String contentType) {
+        String type = contentType == null || contentType.isBlank() ? "QUERY" : contentType.toUpperCase();
+        float[] query = logMetadataRepository.findByLogId(logId).stream()
+                .filter(metadata -> type.equals(metadata.getContentType()))
+                .filter(metadata -> metadata.isEmbedded() && metadata.getVector() != null)
+                .map(LogEmbeddingMetadata::getVector)
+                .map(VectorCodec::fromBytes)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("❌ 임베딩된 로그가 아닙니다: logId=" + logId + ", contentType=" + type));
+        return search(logs, query, k, project, type, logId);
+    }
+
+    /**
+     * ✅ 특정 ContextSet과 비슷한 ContextSet 검색
+     *
+     * @throws IllegalArgumentException 기준 ContextSet의 임베딩이 아직 없는 경우
+     */
+    public List<SimilarItem> findSimilarContexts(Long contextSetId, int k, String project) {
+        float[] query = contextMetadataRepository.findByContextSetId(contextSetId).stream()
+                .filter(metadata -> metadata.isEmbedded() && metadata.getVector() != null)
+                .map(metadata -> VectorCodec.fromBytes(metadata.getVector()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("❌ 임베딩된 ContextSet이 아닙니다: contextSetId=" + contextSetId));
+        return search(contexts, query, k, project, null, contextSetId);
+    }
+
+    /**
+     * ✅ 임의의 텍스트와 비슷한 로그 검색 (텍스트는 현재 EmbeddingClient로 임베딩)
+     */
+    public List<SimilarItem> searchLogsByText(String text, int k, String project, String contentType) {
+        String type = contentType == null || contentType.isBlank() ? null : contentType.toUpperCase();
+        return search(logs, embed(text), k, project, type, null);
+    }
+
+    /**
+     * ✅ 임의의 텍스트와 비슷한 ContextSet 검색
+     */
+    public List<SimilarItem> searchContextsByText(String text, int k, String project) {
+        return search(contexts, embed(text), k, project, null, null);
+    }
+
+    private float[] embed(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("❌ 검색할 텍스트가 비어 있습니다.");
+        }
+        return embeddingClient.embed(List.of(text)).get(0);
+    }
+
+    /**
+     * ✅ 인덱스 검색 + 필터 적용 + 원본 ID 기준 중복 제거
+     *
+     * @param excludeSourceId 결과에서 뺄 원본 ID (기준 항목 자신)
+     */
+    private List<SimilarItem> search(Partition partition, float[] query, int k, String project,
+                                     String contentType, Long excludeSourceId) {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("❌ 벡터 검색이 비활성화되어 있습니다. (infer.vector-search.enabled)");
+        }
+        int limit = Math.max(1, Math.min(k, properties.getMaxK()));
+        HnswIndex index = partition.index;
+        if (index == null) {
+            return List.of();
+        }
+        if (query.length != index.getDimensions()) {
+            throw new IllegalArgumentException("❌ 벡터 차원이 인덱스와 다릅니다: " + query.length + " != " + index.getDimensions());
+        }
+
+        LongPredicate filter = label -> {
+            Entry entry = partition.entries.get(label);
+            return entry != null
+                    && (excludeSourceId == null || entry.sourceId() != excludeSourceId)
+                    && (project == null || project.isBlank() || project.equals(entry.project()))
+                    && (contentType == null || contentType.equals(entry.contentType()));
+        };
+
+        // 한 원본에 여러 벡터(PROMPT/QUERY/RESULT)가 있을 수 있으므로 넉넉히 찾은 뒤 원본 기준으로 합침
+        int fetch = contentType == null && partition == logs ? limit * 3 : limit;
+        long start = System.nanoTime();
+        List<HnswIndex.Match> matches = index.search(query, fetch, Math.max(properties.getEfSearch(), fetch), filter);
+        Timer.builder("mcp.vector.search").tag("source", partition.name).register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        Map<Long, SimilarItem> bySource = new LinkedHashMap<>();
+        for (HnswIndex.Match match : matches) {
+            Entry entry = partition.entries.get(match.label());
+            if (entry == null || bySource.containsKey(entry.sourceId())) {
+                continue;
+            }
+            bySource.put(entry.sourceId(), new SimilarItem(entry.sourceId(), match.label(), entry.project(),
+                    entry.contentType(), match.score()));
+            if (bySource.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(bySource.values());
+    }
+
+    /**
+     * ✅ 워터마크 이후 (settle-delay 이전까지) 임베딩된 행을 모두 인덱스에 추가
+     */
+    private void catchUp(Partition partition) {
+        String model = embeddingClient.getModelName();
+        LocalDateTime upTo = LocalDateTime.now().minus(properties.getSettleDelay());
+        int added = 0;
+        while (true) {
+            List<EmbeddedVector> chunk = partition.fetcher.fetch(model, partition.lastEmbeddedAt, partition.lastId,
+                    upTo, Limit.of(SYNC_CHUNK_SIZE));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (EmbeddedVector row : chunk) {
+                float[] vector = VectorCodec.fromBytes(row.vector());
+                HnswIndex index = partition.index;
+                if (index == null) {
+                    index = new HnswIndex(vector.length, properties.getM(), properties.getEfConstruction(), INDEX_SEED);
+                    partition.index = index;
+                }
+                if (vector.length == index.getDimensions()) {
+                    partition.entries.put(row.metadataId(), new Entry(row.sourceId(), row.project(), row.contentType()));
+                    index.add(row.metadataId(), vector);
+                    added++;
+                }
+            }
+            EmbeddedVector last = chunk.get(chunk.size() - 1);
+            partition.lastEmbeddedAt = last.embeddedAt();
+            partition.lastId = last.metadataId();
+        }
+        if (added > 0) {
+            log.info("🧭 [{}] 벡터 인덱스에 {}건 반영 (총 {}건)", partition.name, added, partition.entries.size());
+        }
+    }
+
+    /**
+     * ✅ 스냅샷 저장 (임시 파일에 쓴 뒤 원자적 이동)
+     * - [매직][모델][워터마크][항목 수][(label, 원본 ID, project, contentType)...][HNSW 그래프]
+     */
+    private void writeSnapshot(Partition partition) {
+        HnswIndex index = partition.index;
+        if (index == null) {
+            return;
+        }
+        Path path = partition.snapshotPath();
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), partition.name, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeUTF(embeddingClient.getModelName());
+                out.writeUTF(partition.lastEmbeddedAt.toString());
+                out.writeLong(partition.lastId);
+                Map<Long, Entry> entries = Map.copyOf(partition.entries);
+                out.writeInt(entries.size());
+                for (Map.Entry<Long, Entry> item : entries.entrySet()) {
+                    out.writeLong(item.getKey());
+                    out.writeLong(item.getValue().sourceId());
+                    out.writeUTF(Objects.toString(item.getValue().project(), ""));
+                    out.writeUTF(Objects.toString(item.getValue().contentType(), ""));
+                }
+                index.writeTo(out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("💾 [{}] 벡터 인덱스 스냅샷 저장 ({}건)", partition.name, partition.entries.size());
+        } catch (IOException e) {
+            log.warn("⚠️ [{}] 벡터 인덱스 스냅샷 저장 실패 ({}): {}", partition.name, path, e.getMessage());
+        }
+    }
+
+    /**
+     * ✅ 스냅샷 로드 (없거나, 형식이 다르거나, 임베딩 모델이 바뀌었으면 버리고 DB에서 다시 만듦)
+     */
+    private void loadSnapshot(Partition partition) {
+        Path path = partition.snapshotPath();
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("지원하지 않는 스냅샷 형식");
+            }
+            String model = in.readUTF();
+            if (!model.equals(embeddingClient.getModelName())) {
+                log.info("🔄 [{}] 임베딩 모델 변경({} → {}) → 벡터 인덱스 재생성", partition.name, model, embeddingClient.getModelName());
+                return;
+            }
+            LocalDateTime lastEmbeddedAt = LocalDateTime.parse(in.readUTF());
+            long lastId = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long label = in.readLong();
+                long sourceId = in.readLong();
+                String project = in.readUTF();
+                String contentType = in.readUTF();
+                partition.entries.put(label, new Entry(sourceId, project.isEmpty() ? null : project, contentType));
+            }
+            partition.index = HnswIndex.readFrom(in, INDEX_SEED);
+            partition.lastEmbeddedAt = lastEmbeddedAt;
+            partition.lastId = lastId;
+            log.info("📂 [{}] 벡터 인덱스 스냅샷 로드 ({}건, 워터마크 {})", partition.name, count, lastEmbeddedAt);
+        } catch (IOException | RuntimeException e) {
+            partition.reset();
+            log.warn("⚠️ [{}] 벡터 인덱스 스냅샷 로드 실패 → DB에서 다시 생성: {}", partition.name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.mcp.server.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ✅ ColumnarSegment
+ * 오래된 행을 보관하는 불변(immutable) 열 지향 압축 세그먼트 파일. 읽기는 mmap(MappedByteBuffer)으로 한다.
+ *
+ * [파일 구조]
+ * - MAGIC | 블록 0 | 블록 1 | ... | footer | footer 위치(long) | MAGIC
+ * - 블록: 행 block-rows개를 열(column)마다 따로 직렬화 + deflate 압축
+ *   → 필요한 열만 풀면 되고, 같은 열의 값끼리 모여 있어 압축률이 높다.
+ * - footer(희소 인덱스): 열 목록 + 블록마다 (행 수, 첫/마지막 키, id 최소/최대, 열별 위치/길이)
+ *   → 기간/커서/id 조건에 맞지 않는 블록은 풀지 않고 건너뛴다.
+ *
+ * [규칙]
+ * - 첫 두 열은 반드시 createdAt(LONG, epoch 마이크로초) / id(LONG)이고, 행은 (createdAt, id) 오름차순으로 추가해야 한다.
+ * - 값 인코딩: LONG = 이전 값과의 차이(zigzag varint), INT = zigzag varint, BOOLEAN = 1byte,
+ *   STRING = (UTF-8 길이 + 1) varint + 바이트 (0이면 null)
+ *
+ * 💡 파일은 한 번 쓰면 바뀌지 않으므로 읽기 객체는 여러 스레드가 동시에 사용해도 된다. (절대 위치 읽기만 사용)
+ */
+public final class ColumnarSegment {
+
+    public static final String CREATED_AT = "createdAt";
+    public static final String ID = "id";
+
+    private static final long MAGIC = 0x4D43505345473031L; // "MCPSEG01"
+    private static final int COMPRESSION_LEVEL = 6;
+
+    public enum Type {
+        LONG, INT, BOOLEAN, STRING
+    }
+
+    public record Column(String name, Type type) {
+    }
+
+    /**
+     * ✅ 블록 희소 인덱스 항목 (시간은 epoch 마이크로초)
+     */
+    public record BlockInfo(int rows, long firstTime, long firstId, long lastTime, long lastId, long minId, long maxId) {
+    }
+
+    private record BlockLayout(BlockInfo info, long[] offsets, int[] lengths, int[] rawLengths) {
+    }
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final List<Column> columns;
+    private final Map<String, Integer> columnIndex;
+    private final List<BlockLayout> layouts;
+    private final List<BlockInfo> blocks;
+    private final long rowCount;
+
+    private ColumnarSegment(Path path, ByteBuffer buffer, List<Column> columns, List<BlockLayout> layouts, long rowCount) {
+        this.path = path;
+        this.buffer = buffer;
+        this.columns = columns;
+        this.layouts = layouts;
+        this.rowCount = rowCount;
+        this.blocks = layouts.stream().map(BlockLayout::info).toList();
+        this.columnIndex = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            columnIndex.put(columns.get(i).name(), i);
+        }
+    }
+
+    // =========================
+    // 🔹 시간 변환
+    // =========================
+
+    public static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    public static LocalDateTime dateTimeOf(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * ✅ (time, id) 키 비교
+     */
+    public static int compareKey(long time, long id, long otherTime, long otherId) {
+        int byTime = Long.compare(time, otherTime);
+        return byTime != 0 ? byTime : Long.compare(id, otherId);
+    }
+
+    // =========================
+    // 🔹 쓰기
+    // =========================
+
+    /**
+     * ✅ 세그먼트 파일 쓰기 시작 (기존 파일은 덮어씀, 임시 경로에 쓴 뒤 옮기는 것을 권장)
+     */
+    public static Writer writer(Path path, List<Column> columns, int blockRows) throws IOException {
+        if (columns.size() < 2
+                || !columns.get(0).equals(new Column(CREATED_AT, Type.LONG))
+                || !columns.get(1).equals(new Column(ID, Type.LONG))) {
+            throw new IllegalArgumentException("❌ 첫 두 열은 createdAt(LONG), id(LONG)이어야 합니다.");
+        }
+        return new Writer(path, List.copyOf(columns), Math.max(1, blockRows));
+    }
+
+    public static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final List<Column> columns;
+        private final int blockRows;
+        private final List<Object[]> pending = new ArrayList<>();
+        private final List<BlockLayout> layouts = new ArrayList<>();
+        private long position;
+        private long rowCount;
+        private long lastTime = Long.MIN_VALUE;
+        private long lastId = Long.MIN_VALUE;
+
+        private Writer(Path path, List<Column> columns, int blockRows) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.columns = columns;
+            this.blockRows = blockRows;
+            write(ByteBuffer.allocate(Long.BYTES).putLong(0, MAGIC));
+        }
+
+        /**
+         * ✅ 행 추가 (values[i]는 columns[i] 타입의 Long / Integer / Boolean / String, null은 STRING만 허용)
+         */
+        public void append(Object[] values) throws IOException {
+            if (values.length != columns.size()) {
+                throw new IllegalArgumentException("❌ 열 개수 불일치: " + values.length + " / " + columns.size());
+            }
+            long time = (Long) values[0];
+            long id = (Long) values[1];
+            if (compareKey(time, id, lastTime, lastId) <= 0) {
+                throw new IllegalArgumentException("❌ 행은 (createdAt, id) 오름차순이어야 합니다: " + time + ", " + id);
+            }
+            lastTime = time;
+            lastId = id;
+            pending.add(values);
+            if (pending.size() >= blockRows) {
+                flushBlock();
+            }
+        }
+
+        public long getRowCount() {
+            return rowCount + pending.size();
+        }
+
+        /**
+         * ✅ 남은 블록 + footer 쓰기, 디스크 동기화
+         */
+        public void finish() throws IOException {
+            flushBlock();
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream footer = new DataOutputStream(bytes);
+            footer.writeInt(columns.size());
+            for (Column column : columns) {
+                footer.writeUTF(column.name());
+                footer.writeByte(column.type().ordinal());
+            }
+            footer.writeInt(layouts.size());
+            for (BlockLayout layout : layouts) {
+                BlockInfo info = layout.info();
+                footer.writeInt(info.rows());
+                footer.writeLong(info.firstTime());
+                footer.writeLong(info.firstId());
+                footer.writeLong(info.lastTime());
+                footer.writeLong(info.lastId());
+                footer.writeLong(info.minId());
+                footer.writeLong(info.maxId());
+                for (int c = 0; c < columns.size(); c++) {
+                    footer.writeLong(layout.offsets()[c]);
+                    footer.writeInt(layout.lengths()[c]);
+                    footer.writeInt(layout.rawLengths()[c]);
+                }
+            }
+            footer.writeLong(rowCount);
+            footer.flush();
+
+            long footerOffset = position;
+            write(ByteBuffer.wrap(bytes.toByteArray()));
+            write(ByteBuffer.allocate(Long.BYTES * 2).putLong(0, footerOffset).putLong(Long.BYTES, MAGIC));
+            channel.force(true);
+        }
+
+        /**
+         * ✅ 파일 닫기 (finish() 없이 닫으면 footer가 없는 불완전한 파일이 남으므로 호출 측이 지워야 함)
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private void flushBlock() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            int rows = pending.size();
+            long minId = Long.MAX_VALUE;
+            long maxId = Long.MIN_VALUE;
+            for (Object[] row : pending) {
+                minId = Math.min(minId, (Long) row[1]);
+                maxId = Math.max(maxId, (Long) row[1]);
+            }
+            Object[] first = pending.get(0);
+            Object[] last = pending.get(rows - 1);
+            BlockInfo info = new BlockInfo(rows, (Long) first[0], (Long) first[1], (Long) last[0], (Long) last[1], minId, maxId);
+
+            long[] offsets = new long[columns.size()];
+            int[] lengths = new int[columns.size()];
+            int[] rawLengths = new int[columns.size()];
+            for (int c = 0; c < columns.size(); c++) {
+                byte[] raw = encode(columns.get(c).type(), c);
+                byte[] compressed = DeflateCodec.compress(raw, null, COMPRESSION_LEVEL);
+                offsets[c] = position;
+                lengths[c] = compressed.length;
+                rawLengths[c] = raw.length;
+                write(ByteBuffer.wrap(compressed));
+            }
+            layouts.add(new BlockLayout(info, offsets, lengths, rawLengths));
+            rowCount += rows;
+            pending.clear();
+        }
+
+        private byte[] encode(Type type, int column) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(pending.size() * 4);
+            long previous = 0;
+            for (Object[] row : pending) {
+                Object value = row[column];
+                switch (type) {
+                    case LONG -> {
+                        long current = (Long) value;
+                        writeVarLong(out, zigzag(current - previous));
+                        previous = current;
+                    }
+                    case INT -> writeVarLong(out, zigzag((Integer) value));
+                    case BOOLEAN -> out.write(Boolean.TRUE.equals(value) ? 1 : 0);
+                    case STRING -> {
+                        if (value == null) {
+                            writeVarLong(out, 0);
+                        } else {
+                            byte[] utf8 = ((String) value).getBytes(StandardCharsets.UTF_8);
+                            writeVarLong(out, utf8.length + 1L);
+                            out.writeBytes(utf8);
+                        }
+                    }
+                }
+            }
+            return out.toByteArray();
+        }
+
+        private void write(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes);
+            }
+        }
+    }
+
+    // =========================
+    // 🔹 읽기
+    // =========================
+
+    /**
+     * ✅ 세그먼트 파일 열기 (파일 전체를 읽기 전용으로 mmap)
+     */
+    public static ColumnarSegment open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("❌ 세그먼트 파일이 너무 큽니다 (2GB 초과): " + path);
+            }
+            if (size < Long.BYTES * 3) {
+                throw new IllegalStateException("❌ 세그먼트 파일이 손상되었습니다: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        int size = buffer.capacity();
+        if (buffer.getLong(0) != MAGIC || buffer.getLong(size - Long.BYTES) != MAGIC) {
+            throw new IllegalStateException("❌ 세그먼트 파일 형식이 아닙니다: " + path);
+        }
+        long footerOffset = buffer.getLong(size - Long.BYTES * 2);
+        byte[] footerBytes = new byte[(int) (size - Long.BYTES * 2 - footerOffset)];
+        buffer.get((int) footerOffset, footerBytes);
+
+        DataInputStream footer = new DataInputStream(new ByteArrayInputStream(footerBytes));
+        int columnCount = footer.readInt();
+        List<Column> columns = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+            columns.add(new Column(footer.readUTF(), Type.values()[footer.readByte()]));
+        }
+        int blockCount = footer.readInt();
+        List<BlockLayout> layouts = new ArrayList<>(blockCount);
+        for (int b = 0; b < blockCount; b++) {
+            BlockInfo info = new BlockInfo(footer.readInt(), footer.readLong(), footer.readLong(), footer.readLong(),
+                    footer.readLong(), footer.readLong(), footer.readLong());
+            long[] offsets = new long[columnCount];
+            int[] lengths = new int[columnCount];
+            int[] rawLengths = new int[columnCount];
+            for (int c = 0; c < columnCount; c++) {
+                offsets[c] = footer.readLong();
+                lengths[c] = footer.readInt();
+                rawLengths[c] = footer.readInt();
+            }
+            layouts.add(new BlockLayout(info, offsets, lengths, rawLengths));
+        }
+        long rowCount = footer.readLong();
+        return new ColumnarSegment(path, buffer, List.copyOf(columns), List.copyOf(layouts), rowCount);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public List<BlockInfo> getBlocks() {
+        return blocks;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public boolean isEmpty() {
+        return blocks.isEmpty();
+    }
+
+    public BlockInfo firstBlock() {
+        return blocks.get(0);
+    }
+
+    public BlockInfo lastBlock() {
+        return blocks.get(blocks.size() - 1);
+    }
+
+    /**
+     * ✅ 블록 읽기 (열은 처음 요청할 때 압축을 풀고 블록 객체 안에서 재사용)
+     */
+    public Block block(int index) {
+        return new Block(layouts.get(index));
+    }
+
+    /**
+     * ✅ 블록 한 개의 열 값 (한 스레드 안에서만 사용)
+     */
+    public final class Block {
+
+        private final BlockLayout layout;
+        private final Object[] decoded = new Object[columns.size()];
+
+        private Block(BlockLayout layout) {
+            this.layout = layout;
+        }
+
+        public int rows() {
+            return layout.info().rows();
+        }
+
+        public long[] longs(String column) {
+            return (long[]) column(column, Type.LONG);
+        }
+
+        public int[] ints(String column) {
+            return (int[]) column(column, Type.INT);
+        }
+
+        public boolean[] booleans(String column) {
+            return (boolean[]) column(column, Type.BOOLEAN);
+        }
+
+        public String[] strings(String column) {
+            return (String[]) column(column, Type.STRING);
+        }
+
+        private Object column(String name, Type expected) {
+            Integer index = columnIndex.get(name);
+            if (index == null || columns.get(index).type() != expected) {
+                throw new IllegalArgumentException("❌ 세그먼트에 " + expected + " 열이 없습니다: " + name);
+            }
+            if (decoded[index] == null) {
+                decoded[index] = decode(index, expected);
+            }
+            return decoded[index];
+        }
+
+        private Object decode(int column, Type type) {
+            byte[] compressed = new byte[layout.lengths()[column]];
+            buffer.get((int) layout.offsets()[column], compressed);
+            ByteBuffer raw = ByteBuffer.wrap(DeflateCodec.decompress(compressed, null, layout.rawLengths()[column]));
+
+            int rows = rows();
+            switch (type) {
+                case LONG -> {
+                    long[] values = new long[rows];
+                    long previous = 0;
+                    for (int i = 0; i < rows; i++) {
+                        previous += unzigzag(readVarLong(raw));
+                        values[i] = previous;
+                    }
+                    return values;
+                }
+                case INT -> {
+                    int[] values = new int[rows];
+                    for (int i = 0; i < rows; i++) {
+                        values[i] = (int) unzigzag(readVarLong(raw));
+                    }
+                    return values;
+                }
+                case BOOLEAN -> {
+                    boolean[] values = new boolean[rows];
+                    for (int i = 0; i < rows; i++) {
+                        values[i] = raw.get() != 0;
+                    }
+                    return values;
+                }
+                default -> {
+                    String[] values = new String[rows];
+                    for (int i = 0; i < rows; i++) {
+                        int length = (int) readVarLong(raw) - 1;
+                        if (length >= 0) {
+                            values[i] = new String(raw.array(), raw.position(), length, StandardCharsets.UTF_8);
+                            raw.position(raw.position() + length);
+                        }
+                    }
+                    return values;
+                }
+            }
+        }
+    }
+
+    // =========================
+    // 🔹 varint
+    // =========================
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.mcp.server.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ✅ CsvDownload
+ * - CSV 내보내기 응답 헤더 설정 + (선택) gzip 압축을 처리하는 유틸리티 클래스
+ * - 본문은 응답 출력 스트림에 바로 쓰므로 전체 CSV를 메모리에 만들지 않는다.
+ *
+ * gzip=true 이면 "파일명.csv.gz"(application/gzip)로 내려준다.
+ */
+public final class CsvDownload {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private CsvDownload() {
+    }
+
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * @param response 서블릿 응답
+     * @param filename 확장자를 뺀 파일명 (예: api-usage)
+     * @param gzip     gzip 압축 여부
+     * @param body     CSV 본문을 출력 스트림에 쓰는 함수
+     */
+    public static void write(HttpServletResponse response, String filename, boolean gzip, Body body) throws IOException {
+        if (gzip) {
+            response.setContentType("application/gzip");
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + ".csv.gz\"");
+            GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE);
+            body.writeTo(out);
+            out.finish();
+        } else {
+            response.setContentType("text/csv; charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + ".csv\"");
+            body.writeTo(response.getOutputStream());
+        }
+        response.flushBuffer();
+    }
+}
@@ -0,0 +1,86 @@
+package com.mcp.server.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * ✅ DeflateCodec
+ * 사전(preset dictionary)을 사용하는 raw deflate 압축/해제 유틸리티 클래스.
+ * - zlib 헤더/체크섬 없이(nowrap) 저장 → 짧은 텍스트에서 6바이트를 아낌 (무결성은 content hash로 확인)
+ * - 사전은 압축 창(32KB) 앞에 미리 들어 있는 데이터 취급이라, 자주 나오는 문구가 사전에 있으면
+ *   첫 등장부터 짧은 참조로 바뀐다. → 수백 byte짜리 query/result에서 특히 효과가 큼
+ *
+ * 💡 압축할 때와 같은 사전으로만 풀 수 있으므로 저장 시 사전 id를 함께 기록해야 한다.
+ */
+public final class DeflateCodec {
+
+    public static final int MAX_DICTIONARY_BYTES = 32 * 1024; // deflate 창 크기를 넘는 앞부분은 참조되지 않음
+
+    private DeflateCodec() {
+    }
+
+    /**
+     * ✅ 압축
+     *
+     * @param raw        원본 바이트
+     * @param dictionary 사전 (없으면 null)
+     * @param level      압축 레벨 (0~9)
+     */
+    public static byte[] compress(byte[] raw, byte[] dictionary, int level) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+            byte[] buffer = new byte[Math.min(64 * 1024, Math.max(256, raw.length))];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * ✅ 해제
+     *
+     * @param data           압축된 바이트
+     * @param dictionary     압축 시 사용한 사전 (없으면 null)
+     * @param originalLength 원본 바이트 길이
+     */
+    public static byte[] decompress(byte[] data, byte[] dictionary, int originalLength) {
+        Inflater inflater = new Inflater(true);
+        try {
+            if (dictionary != null) {
+                inflater.setDictionary(dictionary);
+            }
+            inflater.setInput(data);
+
+            byte[] raw = new byte[originalLength];
+            int offset = 0;
+            while (offset < originalLength) {
+                int length = inflater.inflate(raw, offset, originalLength - offset);
+                if (length == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += length;
+            }
+            if (offset != originalLength) {
+                throw new IllegalStateException("❌ 압축 해제 길이 불일치: " + offset + " / " + originalLength);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("❌ 압축 데이터가 손상되었습니다.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mcp.server.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ✅ DictionaryTrainer
+ * 샘플 텍스트에서 deflate 사전(DeflateCodec)을 만드는 도구.
+ *
+ * [방식] (zstd 사전 학습의 단순화 버전)
+ * 1. 단어 경계(글자/숫자가 아닌 문자 다음)에서 시작하는 24글자 조각을 모두 셈
+ *    → 같은 샘플 안의 반복은 1번만 셈 (샘플 하나에서 반복되는 문구는 사전 없이도 압축됨)
+ * 2. 2개 이상의 샘플에 나온 조각을 등장 샘플 수 순으로 골라, 이미 고른 내용에 포함된 조각은 건너뜀
+ * 3. 많이 나온 조각이 사전 끝(압축 대상과 가까운 쪽)에 오도록 역순으로 이어 붙임
+ *    → deflate는 가까운 거리의 참조를 더 짧게 표현한다.
+ */
+public final class DictionaryTrainer {
+
+    private static final int SEGMENT_LENGTH = 24;
+
+    private DictionaryTrainer() {
+    }
+
+    /**
+     * ✅ 사전 생성
+     *
+     * @param samples  학습용 텍스트
+     * @param maxBytes 사전 최대 크기 (byte, DeflateCodec.MAX_DICTIONARY_BYTES 이하 권장)
+     * @return 사전 바이트 (쓸 만한 공통 조각이 없으면 빈 배열)
+     */
+    public static byte[] train(List<String> samples, int maxBytes) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String sample : samples) {
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i + SEGMENT_LENGTH <= sample.length(); i++) {
+                if (i > 0 && Character.isLetterOrDigit(sample.charAt(i - 1))) {
+                    continue;
+                }
+                String segment = sample.substring(i, i + SEGMENT_LENGTH);
+                if (seen.add(segment)) {
+                    counts.merge(segment, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() >= 2) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        List<String> selected = new ArrayList<>();
+        StringBuilder joined = new StringBuilder();
+        int bytes = 0;
+        for (Map.Entry<String, Integer> candidate : candidates) {
+            String segment = candidate.getKey();
+            if (joined.indexOf(segment) >= 0) {
+                continue;
+            }
+            int size = segment.getBytes(StandardCharsets.UTF_8).length;
+            if (bytes + size > maxBytes) {
+                break;
+            }
+            selected.add(segment);
+            joined.append(segment);
+            bytes += size;
+        }
+
+        Collections.reverse(selected);
+        return String.join("", selected).getBytes(StandardCharsets.UTF_8);
+    }
+}
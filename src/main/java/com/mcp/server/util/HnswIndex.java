@@ -0,0 +1,481 @@
+package com.mcp.server.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * ✅ HnswIndex
+ * 코사인 유사도 기반 근사 최근접 이웃(ANN) 검색용 HNSW(Hierarchical Navigable Small World) 그래프.
+ *
+ * [구조]
+ * - 각 벡터는 무작위로 정해진 층(level)까지 존재하고, 층마다 가까운 이웃 M개(0층은 2M개)와 연결된다.
+ * - 검색은 맨 위 층에서 가장 가까운 노드를 따라 내려온 뒤, 0층에서 ef개 후보를 넓게 탐색한다.
+ * - 벡터는 넣을 때 L2 정규화하므로 거리 = 1 - 내적, 유사도(score) = 내적
+ *
+ * [특징]
+ * - add(): 점진적 추가. 같은 label을 다시 넣으면 이전 노드는 삭제 표시 후 새 노드로 교체
+ * - search(): label 필터(LongPredicate)를 받아 조건에 맞는 노드만 결과에 담음 (탐색 경로로는 계속 사용)
+ * - writeTo()/readFrom(): 그래프 전체를 바이너리 스냅샷으로 저장/복원 → 재시작 시 다시 만들 필요 없음
+ * - 읽기(검색)는 동시에, 쓰기(추가)는 하나씩 (ReentrantReadWriteLock)
+ */
+public final class HnswIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x484E5357; // "HNSW"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int[] NO_LINKS = new int[0];
+
+    private final int dimensions;
+    private final int m;
+    private final int maxLinksLevel0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Integer> nodeByLabel = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int deletedCount;
+
+    private static final class Node {
+        final long label;
+        final float[] vector;
+        final int[][] links; // [층][이웃 노드 번호]
+        boolean deleted;
+
+        Node(long label, float[] vector, int level) {
+            this.label = label;
+            this.vector = vector;
+            this.links = new int[level + 1][];
+            Arrays.fill(links, NO_LINKS);
+        }
+
+        int level() {
+            return links.length - 1;
+        }
+    }
+
+    /**
+     * ✅ 검색 결과 한 건
+     *
+     * @param label 추가할 때 넘긴 식별자
+     * @param score 코사인 유사도 (-1 ~ 1, 클수록 가까움)
+     */
+    public record Match(long label, float score) {
+    }
+
+    private record Candidate(int node, float distance) {
+    }
+
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::distance);
+    private static final Comparator<Candidate> FARTHEST_FIRST = NEAREST_FIRST.reversed();
+
+    /**
+     * @param dimensions     벡터 차원 수
+     * @param m              층마다 연결할 이웃 수 (0층은 2배)
+     * @param efConstruction 추가 시 탐색할 후보 수 (클수록 그래프 품질↑, 추가 속도↓)
+     * @param seed           층 결정용 난수 시드
+     */
+    public HnswIndex(int dimensions, int m, int efConstruction, long seed) {
+        if (dimensions <= 0 || m < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("❌ 잘못된 HNSW 설정: dimensions=" + dimensions + ", m=" + m + ", efConstruction=" + efConstruction);
+        }
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxLinksLevel0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * ✅ 현재 검색 대상 벡터 수 (삭제 표시된 노드 제외)
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size() - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long label) {
+        lock.readLock().lock();
+        try {
+            return nodeByLabel.containsKey(label);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ 벡터 추가 (같은 label이 있으면 교체)
+     *
+     * @throws IllegalArgumentException 차원 수가 다른 경우
+     */
+    public void add(long label, float[] vector) {
+        float[] normalized = normalize(vector);
+
+        lock.writeLock().lock();
+        try {
+            remove(label);
+
+            int level = randomLevel();
+            int node = nodes.size();
+            nodes.add(new Node(label, normalized, level));
+            nodeByLabel.put(label, node);
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+
+            int current = entryPoint;
+            for (int layer = maxLevel; layer > level; layer--) {
+                current = greedyClosest(normalized, current, layer);
+            }
+
+            for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+                PriorityQueue<Candidate> found = searchLayer(normalized, current, efConstruction, layer, null);
+                int[] neighbours = selectNearest(found, m);
+                nodes.get(node).links[layer] = neighbours;
+                for (int neighbour : neighbours) {
+                    connect(neighbour, node, layer);
+                }
+                current = nearest(found).node();
+            }
+
+            if (level > maxLevel) {
+                entryPoint = node;
+                maxLevel = level;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ 삭제 표시 (그래프 연결은 유지하고 검색 결과에서만 제외)
+     *
+     * @return 해당 label이 있었으면 true
+     */
+    public boolean remove(long label) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodeByLabel.remove(label);
+            if (node == null) {
+                return false;
+            }
+            nodes.get(node).deleted = true;
+            deletedCount++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ 저장된(정규화된) 벡터 조회
+     *
+     * @return 없으면 null
+     */
+    public float[] getVector(long label) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodeByLabel.get(label);
+            return node == null ? null : nodes.get(node).vector.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ 가장 가까운 k개 검색
+     *
+     * @param query  질의 벡터
+     * @param k      결과 수
+     * @param ef     0층 탐색 후보 수 (k보다 작으면 k 사용, 클수록 정확도↑ 속도↓)
+     * @param filter 결과에 포함할 label 조건 (null이면 전체)
+     * @return 유사도 높은 순 결과
+     */
+    public List<Match> search(float[] query, int k, int ef, LongPredicate filter) {
+        float[] normalized = normalize(query);
+
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+
+            int current = entryPoint;
+            for (int layer = maxLevel; layer > 0; layer--) {
+                current = greedyClosest(normalized, current, layer);
+            }
+
+            LongPredicate accept = filter == null ? label -> true : filter; // 검색 결과에서는 항상 삭제 노드 제외
+            PriorityQueue<Candidate> found = searchLayer(normalized, current, Math.max(ef, k), 0, accept);
+            List<Candidate> sorted = new ArrayList<>(found);
+            sorted.sort(NEAREST_FIRST);
+
+            List<Match> matches = new ArrayList<>(Math.min(k, sorted.size()));
+            for (Candidate candidate : sorted) {
+                if (matches.size() == k) {
+                    break;
+                }
+                matches.add(new Match(nodes.get(candidate.node()).label, 1 - candidate.distance()));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ 스냅샷 저장 (검색과 동시에 실행 가능, 저장 중 추가는 대기)
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(dimensions);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeInt(nodes.size());
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+
+            for (Node node : nodes) {
+                out.writeLong(node.label);
+                out.writeBoolean(node.deleted);
+                out.writeInt(node.level());
+                for (float v : node.vector) {
+                    out.writeFloat(v);
+                }
+                for (int[] links : node.links) {
+                    out.writeInt(links.length);
+                    for (int link : links) {
+                        out.writeInt(link);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ 스냅샷 복원
+     *
+     * @throws IllegalArgumentException 형식이 맞지 않는 경우
+     */
+    public static HnswIndex readFrom(DataInputStream in, long seed) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IllegalArgumentException("❌ HNSW 스냅샷 형식이 아닙니다.");
+        }
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt(), seed);
+        int count = in.readInt();
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+
+        for (int i = 0; i < count; i++) {
+            long label = in.readLong();
+            boolean deleted = in.readBoolean();
+            int level = in.readInt();
+            float[] vector = new float[index.dimensions];
+            for (int d = 0; d < vector.length; d++) {
+                vector[d] = in.readFloat();
+            }
+            Node node = new Node(label, vector, level);
+            for (int layer = 0; layer <= level; layer++) {
+                int[] links = new int[in.readInt()];
+                for (int j = 0; j < links.length; j++) {
+                    links[j] = in.readInt();
+                    if (links[j] < 0 || links[j] >= count) {
+                        throw new IllegalArgumentException("❌ HNSW 스냅샷 연결 정보가 잘못되었습니다.");
+                    }
+                }
+                node.links[layer] = links;
+            }
+            node.deleted = deleted;
+            index.nodes.add(node);
+            if (deleted) {
+                index.deletedCount++;
+            } else {
+                index.nodeByLabel.put(label, i);
+            }
+        }
+        return index;
+    }
+
+    // ---------------------------------------------------------------- 내부 구현
+
+    private int randomLevel() {
+        double u = 1 - random.nextDouble(); // (0, 1]
+        return (int) Math.floor(-Math.log(u) * levelMultiplier);
+    }
+
+    // 한 층에서 더 가까운 이웃이 없을 때까지 이동
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        float currentDistance = distance(query, nodes.get(current).vector);
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (int neighbour : linksOf(current, layer)) {
+                float d = distance(query, nodes.get(neighbour).vector);
+                if (d < currentDistance) {
+                    current = neighbour;
+                    currentDistance = d;
+                    moved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 한 층에서 ef개 후보 탐색
+     * - filter가 있으면 조건에 맞고 삭제되지 않은 노드만 결과에 담고, 나머지는 길찾기에만 사용
+     * - filter가 null이면(그래프 구성 중) 삭제 노드도 이웃 후보로 사용
+     *
+     * @return 결과 (가장 먼 것이 head인 최대 힙)
+     */
+    private PriorityQueue<Candidate> searchLayer(float[] query, int start, int ef, int layer, LongPredicate filter) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(NEAREST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(FARTHEST_FIRST);
+
+        Candidate first = new Candidate(start, distance(query, nodes.get(start).vector));
+        visited.set(start);
+        candidates.add(first);
+        if (accepts(start, filter)) {
+            results.add(first);
+        }
+
+        while (!candidates.isEmpty()) {
+            Candidate closest = candidates.poll();
+            if (results.size() >= ef && closest.distance() > results.peek().distance()) {
+                break;
+            }
+            for (int neighbour : linksOf(closest.node(), layer)) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float d = distance(query, nodes.get(neighbour).vector);
+                if (results.size() < ef || d < results.peek().distance()) {
+                    Candidate candidate = new Candidate(neighbour, d);
+                    candidates.add(candidate);
+                    if (accepts(neighbour, filter)) {
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private boolean accepts(int node, LongPredicate filter) {
+        if (filter == null) {
+            return true; // 그래프 구성용 (삭제 노드 포함)
+        }
+        Node n = nodes.get(node);
+        return !n.deleted && filter.test(n.label);
+    }
+
+    // 새 이웃 연결, 한도를 넘으면 가장 가까운 것만 남김
+    private void connect(int from, int to, int layer) {
+        Node node = nodes.get(from);
+        int[] links = node.links[layer];
+        int[] grown = Arrays.copyOf(links, links.length + 1);
+        grown[links.length] = to;
+
+        int limit = layer == 0 ? maxLinksLevel0 : m;
+        if (grown.length <= limit) {
+            node.links[layer] = grown;
+            return;
+        }
+
+        PriorityQueue<Candidate> scored = new PriorityQueue<>(FARTHEST_FIRST);
+        for (int link : grown) {
+            scored.add(new Candidate(link, distance(node.vector, nodes.get(link).vector)));
+        }
+        node.links[layer] = selectNearest(scored, limit);
+    }
+
+    private static int[] selectNearest(PriorityQueue<Candidate> found, int limit) {
+        List<Candidate> sorted = new ArrayList<>(found);
+        sorted.sort(NEAREST_FIRST);
+        int size = Math.min(limit, sorted.size());
+        int[] selected = new int[size];
+        for (int i = 0; i < size; i++) {
+            selected[i] = sorted.get(i).node();
+        }
+        return selected;
+    }
+
+    private static Candidate nearest(PriorityQueue<Candidate> found) {
+        Candidate best = null;
+        for (Candidate candidate : found) {
+            if (best == null || candidate.distance() < best.distance()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private int[] linksOf(int node, int layer) {
+        int[][] links = nodes.get(node).links;
+        return layer < links.length ? links[layer] : NO_LINKS;
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("❌ 벡터 차원이 다릅니다: 기대 " + dimensions + ", 입력 " + vector.length);
+        }
+        double sum = 0;
+        for (float v : vector) {
+            sum += v * v;
+        }
+        float[] normalized = vector.clone();
+        if (sum > 0) {
+            float scale = (float) (1 / Math.sqrt(sum));
+            for (int i = 0; i < normalized.length; i++) {
+                normalized[i] *= scale;
+            }
+        }
+        return normalized;
+    }
+
+    private static float distance(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return 1 - dot;
+    }
+}
@@ -0,0 +1,506 @@
+package com.mcp.server.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * ✅ InvertedIndex
+ * 메모리 역색인(inverted index) 기반 전문 검색. 토큰화는 TextTokenizer 규칙을 따른다.
+ *
+ * [저장 구조]
+ * - 토큰마다 posting 목록을 byte 배열 하나에 이어 붙여 저장 (문서 번호 오름차순, 추가만 가능)
+ *   → [문서 번호 간격][등장 횟수][위치 간격 ...] 을 모두 varint로 기록 → 문서당 보통 몇 byte
+ * - 문서 번호(doc)는 추가 순서대로 0부터 부여. 외부 ID와의 연결은 호출 측이 관리한다.
+ *
+ * [검색 문법]
+ * - 공백으로 나눈 단어는 모두 포함(AND):   timeout 재시도
+ * - OR로 묶은 묶음 중 하나라도 포함:        timeout OR 시간초과
+ * - 따옴표는 구문(연속 위치) 검색:          "rate limit"
+ * - 앞에 -를 붙이면 제외:                   timeout -groq
+ * - 여러 토큰으로 나뉘는 단어(한글 등)는 자동으로 구문 검색
+ *
+ * [점수] BM25 (k1=1.2, b=0.75), 구문은 하나의 토큰처럼 취급
+ *
+ * 💡 읽기(검색)는 동시에, 쓰기(추가)는 하나씩 (ReentrantReadWriteLock)
+ */
+public final class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int FIELD_POSITION_GAP = 100; // 필드 경계를 넘는 구문 일치 방지
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> terms = new HashMap<>();
+    private int[] docLengths = new int[1024];
+    private int docCount;
+    private long totalLength;
+
+    /**
+     * ✅ 검색 결과 한 건
+     *
+     * @param doc   addDocument()가 돌려준 문서 번호
+     * @param score BM25 점수 (클수록 관련도 높음)
+     */
+    public record Hit(int doc, double score) {
+    }
+
+    /**
+     * ✅ 문서 추가
+     *
+     * @param fields 색인할 텍스트들 (null 허용, 필드 사이에서는 구문이 이어지지 않음)
+     * @return 부여된 문서 번호
+     */
+    public int addDocument(String... fields) {
+        Map<String, IntList> positions = new HashMap<>();
+        int position = 0;
+        int length = 0;
+        for (String field : fields) {
+            List<String> tokens = TextTokenizer.tokenize(field);
+            for (String token : tokens) {
+                positions.computeIfAbsent(token, t -> new IntList()).add(position++);
+            }
+            length += tokens.size();
+            position += FIELD_POSITION_GAP;
+        }
+
+        lock.writeLock().lock();
+        try {
+            int doc = docCount;
+            if (doc == docLengths.length) {
+                docLengths = Arrays.copyOf(docLengths, doc * 2);
+            }
+            docLengths[doc] = length;
+            totalLength += length;
+            positions.forEach((term, list) -> terms.computeIfAbsent(term, t -> new Postings()).append(doc, list));
+            docCount++;
+            return doc;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ 색인 크기 (토큰 수, posting 바이트 수)
+     */
+    public long[] stats() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Postings postings : terms.values()) {
+                bytes += postings.size;
+            }
+            return new long[]{terms.size(), bytes};
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ 검색
+     *
+     * @param query  검색어 (클래스 설명의 문법)
+     * @param k      최대 결과 수
+     * @param filter 결과에 포함할 문서 번호 조건 (null이면 전체)
+     * @return 점수 높은 순 결과
+     */
+    public List<Hit> search(String query, int k, IntPredicate filter) {
+        List<List<Clause>> groups = parse(query);
+        if (groups.isEmpty() || k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            double averageLength = docCount == 0 ? 1 : Math.max(1.0, (double) totalLength / docCount);
+            Scored merged = null;
+            for (List<Clause> group : groups) {
+                Scored scored = evaluateGroup(group, averageLength, filter);
+                merged = merged == null ? scored : union(merged, scored);
+            }
+            return topK(merged, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ───────────────────────── 검색어 해석 ─────────────────────────
+
+    private record Clause(List<String> tokens, boolean negated) {
+    }
+
+    /**
+     * ✅ 검색어 → OR 묶음(각 묶음은 AND 조건 목록)
+     */
+    static List<List<Clause>> parse(String query) {
+        List<List<Clause>> groups = new ArrayList<>();
+        if (query == null) {
+            return groups;
+        }
+        List<Clause> current = new ArrayList<>();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            boolean negated = false;
+            if (c == '-' && i + 1 < query.length() && !Character.isWhitespace(query.charAt(i + 1))) {
+                negated = true;
+                c = query.charAt(++i);
+            }
+
+            String text;
+            if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                end = end < 0 ? query.length() : end;
+                text = query.substring(i + 1, end);
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < query.length() && !Character.isWhitespace(query.charAt(end))) {
+                    end++;
+                }
+                text = query.substring(i, end);
+                i = end;
+                if (!negated && text.equals("OR")) {
+                    if (!current.isEmpty()) {
+                        groups.add(current);
+                        current = new ArrayList<>();
+                    }
+                    continue;
+                }
+            }
+
+            List<String> tokens = TextTokenizer.tokenize(text);
+            if (!tokens.isEmpty()) {
+                current.add(new Clause(tokens, negated));
+            }
+        }
+        if (!current.isEmpty()) {
+            groups.add(current);
+        }
+        groups.removeIf(group -> group.stream().allMatch(Clause::negated)); // 제외 조건만 있는 묶음은 무시
+        return groups;
+    }
+
+    // ───────────────────────── 평가 ─────────────────────────
+
+    /**
+     * ✅ 문서 번호 오름차순 결과 + 점수
+     */
+    private record Scored(int[] docs, double[] scores, int size) {
+        static final Scored EMPTY = new Scored(new int[0], new double[0], 0);
+    }
+
+    private Scored evaluateGroup(List<Clause> group, double averageLength, IntPredicate filter) {
+        List<Scored> positives = new ArrayList<>();
+        List<Scored> negatives = new ArrayList<>();
+        for (Clause clause : group) {
+            Scored matches = evaluateClause(clause.tokens(), averageLength, clause.negated());
+            if (clause.negated()) {
+                negatives.add(matches);
+            } else {
+                if (matches.size() == 0) {
+                    return Scored.EMPTY;
+                }
+                positives.add(matches);
+            }
+        }
+        positives.sort(Comparator.comparingInt(Scored::size)); // 작은 목록부터 교집합
+
+        Scored result = positives.get(0);
+        for (int j = 1; j < positives.size() && result.size() > 0; j++) {
+            result = intersect(result, positives.get(j));
+        }
+        for (Scored negative : negatives) {
+            result = subtract(result, negative);
+        }
+        return filter == null ? result : retain(result, filter);
+    }
+
+    /**
+     * ✅ 토큰 1개는 posting 그대로, 여러 개면 연속 위치(구문) 일치 문서만
+     */
+    private Scored evaluateClause(List<String> tokens, double averageLength, boolean docsOnly) {
+        PostingsReader[] readers = new PostingsReader[tokens.size()];
+        for (int j = 0; j < readers.length; j++) {
+            Postings postings = terms.get(tokens.get(j));
+            if (postings == null) {
+                return Scored.EMPTY;
+            }
+            readers[j] = new PostingsReader(postings);
+        }
+
+        IntList docs = new IntList();
+        IntList frequencies = new IntList();
+        if (readers.length == 1) {
+            PostingsReader reader = readers[0];
+            while (reader.next()) {
+                docs.add(reader.doc);
+                frequencies.add(reader.frequency);
+            }
+        } else {
+            collectPhraseMatches(readers, docs, frequencies);
+        }
+
+        double[] scores = new double[docs.size];
+        if (!docsOnly) {
+            double idf = Math.log(1 + (docCount - docs.size + 0.5) / (docs.size + 0.5));
+            for (int j = 0; j < docs.size; j++) {
+                double tf = frequencies.values[j];
+                double norm = K1 * (1 - B + B * docLengths[docs.values[j]] / averageLength);
+                scores[j] = idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+        return new Scored(docs.values, scores, docs.size);
+    }
+
+    private static void collectPhraseMatches(PostingsReader[] readers, IntList docs, IntList frequencies) {
+        if (!readers[0].next()) {
+            return;
+        }
+        int target = readers[0].doc;
+        while (true) {
+            boolean aligned = true;
+            for (PostingsReader reader : readers) {
+                if (!reader.advance(target)) {
+                    return;
+                }
+                if (reader.doc > target) {
+                    target = reader.doc;
+                    aligned = false;
+                    break;
+                }
+            }
+            if (!aligned) {
+                continue;
+            }
+
+            int occurrences = 0;
+            PostingsReader first = readers[0];
+            for (int p = 0; p < first.frequency; p++) {
+                int start = first.positions[p];
+                boolean match = true;
+                for (int j = 1; j < readers.length && match; j++) {
+                    match = Arrays.binarySearch(readers[j].positions, 0, readers[j].frequency, start + j) >= 0;
+                }
+                if (match) {
+                    occurrences++;
+                }
+            }
+            if (occurrences > 0) {
+                docs.add(target);
+                frequencies.add(occurrences);
+            }
+            target++;
+        }
+    }
+
+    private static Scored intersect(Scored a, Scored b) {
+        int[] docs = new int[Math.min(a.size(), b.size())];
+        double[] scores = new double[docs.length];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.size() && j < b.size(); ) {
+            int da = a.docs()[i];
+            int db = b.docs()[j];
+            if (da == db) {
+                docs[n] = da;
+                scores[n++] = a.scores()[i++] + b.scores()[j++];
+            } else if (da < db) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return new Scored(docs, scores, n);
+    }
+
+    private static Scored subtract(Scored a, Scored b) {
+        int[] docs = new int[a.size()];
+        double[] scores = new double[a.size()];
+        int n = 0;
+        int j = 0;
+        for (int i = 0; i < a.size(); i++) {
+            int doc = a.docs()[i];
+            while (j < b.size() && b.docs()[j] < doc) {
+                j++;
+            }
+            if (j < b.size() && b.docs()[j] == doc) {
+                continue;
+            }
+            docs[n] = doc;
+            scores[n++] = a.scores()[i];
+        }
+        return new Scored(docs, scores, n);
+    }
+
+    private static Scored retain(Scored a, IntPredicate filter) {
+        int[] docs = new int[a.size()];
+        double[] scores = new double[a.size()];
+        int n = 0;
+        for (int i = 0; i < a.size(); i++) {
+            if (filter.test(a.docs()[i])) {
+                docs[n] = a.docs()[i];
+                scores[n++] = a.scores()[i];
+            }
+        }
+        return new Scored(docs, scores, n);
+    }
+
+    private static Scored union(Scored a, Scored b) {
+        int[] docs = new int[a.size() + b.size()];
+        double[] scores = new double[docs.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size() || j < b.size()) {
+            int da = i < a.size() ? a.docs()[i] : Integer.MAX_VALUE;
+            int db = j < b.size() ? b.docs()[j] : Integer.MAX_VALUE;
+            if (da == db) {
+                docs[n] = da;
+                scores[n++] = a.scores()[i++] + b.scores()[j++];
+            } else if (da < db) {
+                docs[n] = da;
+                scores[n++] = a.scores()[i++];
+            } else {
+                docs[n] = db;
+                scores[n++] = b.scores()[j++];
+            }
+        }
+        return new Scored(docs, scores, n);
+    }
+
+    private static List<Hit> topK(Scored scored, int k) {
+        PriorityQueue<Hit> heap = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+        for (int i = 0; i < scored.size(); i++) {
+            if (heap.size() < k) {
+                heap.add(new Hit(scored.docs()[i], scored.scores()[i]));
+            } else if (scored.scores()[i] > heap.peek().score()) {
+                heap.poll();
+                heap.add(new Hit(scored.docs()[i], scored.scores()[i]));
+            }
+        }
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingInt(Hit::doc));
+        return hits;
+    }
+
+    // ───────────────────────── posting 저장 ─────────────────────────
+
+    /**
+     * ✅ 토큰 하나의 posting 목록 (varint 압축, 추가 전용)
+     */
+    private static final class Postings {
+        byte[] data = new byte[16];
+        int size;
+        int lastDoc = -1;
+
+        void append(int doc, IntList positions) {
+            writeVarInt(doc - lastDoc);
+            writeVarInt(positions.size);
+            int previous = 0;
+            for (int j = 0; j < positions.size; j++) {
+                writeVarInt(positions.values[j] - previous);
+                previous = positions.values[j];
+            }
+            lastDoc = doc;
+        }
+
+        private void writeVarInt(int value) {
+            if (size + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + 5));
+            }
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+    }
+
+    /**
+     * ✅ posting 목록 순차 읽기 (검색 중에는 read lock으로 추가가 막혀 있음)
+     */
+    private static final class PostingsReader {
+        final byte[] data;
+        final int size;
+        int offset;
+        int doc = -1;
+        int frequency;
+        int[] positions = new int[8];
+
+        PostingsReader(Postings postings) {
+            this.data = postings.data;
+            this.size = postings.size;
+        }
+
+        boolean next() {
+            if (offset >= size) {
+                return false;
+            }
+            doc += readVarInt();
+            frequency = readVarInt();
+            if (positions.length < frequency) {
+                positions = new int[Math.max(frequency, positions.length * 2)];
+            }
+            int position = 0;
+            for (int j = 0; j < frequency; j++) {
+                position += readVarInt();
+                positions[j] = position;
+            }
+            return true;
+        }
+
+        /**
+         * ✅ target 이상인 첫 문서로 이동 (이미 넘어 있으면 그대로)
+         */
+        boolean advance(int target) {
+            while (doc < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[offset++];
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
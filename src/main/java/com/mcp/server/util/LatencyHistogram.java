@@ -0,0 +1,168 @@
+package com.mcp.server.util;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * ✅ LatencyHistogram
+ * 응답 시간(ms) 분포를 고정 크기 버킷에 세는 로그-선형 히스토그램 (HDR 히스토그램과 같은 방식).
+ *
+ * [버킷 구조]
+ * - 0~63ms: 1ms 단위 버킷
+ * - 그 이상: 2의 거듭제곱 구간마다 32개 버킷 → 상대 오차 최대 약 3%
+ * - 최대 Integer.MAX_VALUE ms까지, 버킷 수는 항상 864개 (값의 범위와 무관한 고정 메모리)
+ *
+ * [특징]
+ * - merge(): 버킷별 덧셈만으로 합칠 수 있어 시간대/모델별 히스토그램을 어떤 구간으로든 다시 묶을 수 있다.
+ * - toBytes(): 0이 아닌 버킷만 (인덱스 간격, 개수) varint 쌍으로 저장 → 보통 수십~수백 byte
+ *
+ * 💡 스레드 안전하지 않음. 한 번의 집계 작업 안에서만 사용한다.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;       // 32
+    private static final long MAX_VALUE = Integer.MAX_VALUE;
+    static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;                // 864
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+
+    /**
+     * ✅ 응답 시간 1건 기록 (음수는 0, 최대값 초과는 최대값으로 기록)
+     */
+    public void record(long valueMs) {
+        record(valueMs, 1);
+    }
+
+    public void record(long valueMs, long count) {
+        counts[indexOf(Math.min(Math.max(valueMs, 0), MAX_VALUE))] += count;
+        totalCount += count;
+    }
+
+    /**
+     * ✅ 다른 히스토그램의 기록을 합침
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * ✅ 백분위 값 조회
+     * - 해당 순위의 값이 들어 있는 버킷의 상한을 반환 (실제 값보다 작게 보고하지 않음)
+     *
+     * @param percentile 0~100 (예: 95, 99.9)
+     * @return 응답 시간(ms), 기록이 없으면 0
+     */
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double clamped = Math.min(Math.max(percentile, 0), 100);
+        long rank = Math.max(1, (long) Math.ceil(clamped / 100 * totalCount));
+
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return MAX_VALUE;
+    }
+
+    /**
+     * ✅ 저장용 바이너리로 변환
+     * - [버전 1byte] + (이전 버킷과의 인덱스 간격, 개수) varint 쌍 반복
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(FORMAT_VERSION);
+        int previous = -1;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] != 0) {
+                writeVarLong(out, i - previous);
+                writeVarLong(out, counts[i]);
+                previous = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * ✅ toBytes()로 저장한 값 복원
+     *
+     * @param bytes 저장된 값 (null 또는 빈 배열이면 빈 히스토그램)
+     * @throws IllegalArgumentException 형식이 맞지 않는 경우
+     */
+    public static LatencyHistogram fromBytes(byte[] bytes) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (bytes == null || bytes.length == 0) {
+            return histogram;
+        }
+        if (bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("❌ 지원하지 않는 히스토그램 형식: " + bytes[0]);
+        }
+
+        int[] position = {1};
+        int index = -1;
+        while (position[0] < bytes.length) {
+            index += (int) readVarLong(bytes, position);
+            long count = readVarLong(bytes, position);
+            if (index < 0 || index >= BUCKET_COUNT) {
+                throw new IllegalArgumentException("❌ 히스토그램 버킷 범위 초과: " + index);
+            }
+            histogram.counts[index] += count;
+            histogram.totalCount += count;
+        }
+        return histogram;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    static long highestValueOf(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] position) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position[0] >= bytes.length) {
+                throw new IllegalArgumentException("❌ 히스토그램 데이터가 잘렸습니다.");
+            }
+            byte b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("❌ 잘못된 varint 값");
+    }
+}
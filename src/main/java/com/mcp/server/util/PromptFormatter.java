@@ -55,10 +55,22 @@ public class PromptFormatter {
      * @return 프롬프트 문자열
      */
     public static String formatPrompt(String project, String contextJson, String query) {
+        return formatPrefix(project, contextJson) + query;
+    }
+
+    /**
+     * ✅ [추가] contextJson 기반 프롬프트의 앞부분 (query 직전까지)
+     * - (project, contextSet)이 같으면 항상 같은 값이므로 미리 만들어 두고 query만 이어 붙일 수 있음
+     *
+     * @param project     프로젝트 이름
+     * @param contextJson JSON 문자열
+     * @return "[Project] ... [Context] ... [User Query]\n" 까지의 문자열
+     */
+    public static String formatPrefix(String project, String contextJson) {
         StringBuilder sb = new StringBuilder();
         sb.append("[Project] ").append(project).append("\n\n");
         sb.append("[Context]\n").append(contextJson).append("\n\n");
-        sb.append("[User Query]\n").append(query);
+        sb.append("[User Query]\n");
         return sb.toString();
     }
 }
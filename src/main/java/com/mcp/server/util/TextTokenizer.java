@@ -0,0 +1,83 @@
+package com.mcp.server.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ✅ TextTokenizer
+ * 한국어/영어가 섞인 텍스트를 전문 검색용 토큰으로 나누는 도구.
+ *
+ * [규칙]
+ * - 영문/숫자: 연속된 글자를 한 단어로, 소문자로 변환 (예: "GPT-4o" → "gpt", "4o")
+ * - 한글/한자: 형태소 분석 없이 글자 2개씩 겹쳐 자름(bigram) (예: "추론로그" → "추론", "론로", "로그")
+ *   → 조사가 붙어도("로그를") 검색어("로그")의 bigram이 그대로 포함되어 찾을 수 있다.
+ *   → 한 글자 단어는 그 글자 하나가 토큰
+ * - 그 외 문자(공백, 기호)는 구분자
+ *
+ * 💡 토큰 위치(position)는 순서대로 1씩 증가하므로, 여러 토큰으로 나뉜 검색어는 "연속 위치" 조건(구문 검색)으로 찾는다.
+ */
+public final class TextTokenizer {
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * ✅ 토큰 목록 (위치 = 목록 인덱스)
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder word = new StringBuilder();
+        StringBuilder cjk = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isBigramScript(codePoint)) {
+                flushWord(word, tokens);
+                cjk.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushBigrams(cjk, tokens);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushBigrams(cjk, tokens);
+            }
+        }
+        flushWord(word, tokens);
+        flushBigrams(cjk, tokens);
+        return tokens;
+    }
+
+    private static boolean isBigramScript(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HANGUL || script == Character.UnicodeScript.HAN;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (!word.isEmpty()) {
+            tokens.add(word.toString().toLowerCase(Locale.ROOT));
+            word.setLength(0);
+        }
+    }
+
+    private static void flushBigrams(StringBuilder run, List<String> tokens) {
+        if (run.isEmpty()) {
+            return;
+        }
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            tokens.add(new String(codePoints, 0, 1));
+        } else {
+            for (int j = 0; j + 1 < codePoints.length; j++) {
+                tokens.add(new String(codePoints, j, 2));
+            }
+        }
+        run.setLength(0);
+    }
+}
@@ -0,0 +1,31 @@
+package com.mcp.server.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * ✅ VectorCodec
+ * 임베딩 벡터(float[])를 DB 저장용 바이트 배열로 변환하는 유틸리티 클래스.
+ * - float32 little-endian 연속 배열 (차원 수 × 4 byte, 별도 헤더 없음)
+ * - JSON 문자열 대비 약 1/3 크기, 변환 시 파싱 비용 없음
+ */
+public class VectorCodec {
+
+    public static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    public static float[] fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length % Float.BYTES != 0) {
+            throw new IllegalArgumentException("❌ 벡터 바이트 길이가 4의 배수가 아닙니다: " + bytes.length);
+        }
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
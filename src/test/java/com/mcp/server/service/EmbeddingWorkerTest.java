@@ -0,0 +1,156 @@
+package com.mcp.server.service;
+
+import com.mcp.server.client.EmbeddingClient;
+import com.mcp.server.client.HashingEmbeddingClient;
+import com.mcp.server.config.EmbeddingProperties;
+import com.mcp.server.domain.embedding.ContextEmbeddingMetadataRepository;
+import com.mcp.server.domain.embedding.LogEmbeddingMetadata;
+import com.mcp.server.domain.embedding.LogEmbeddingMetadataRepository;
+import com.mcp.server.dto.PendingEmbedding;
+import com.mcp.server.util.VectorCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmbeddingWorkerTest {
+
+    private final EmbeddingProperties properties = new EmbeddingProperties();
+    private final LogEmbeddingMetadataRepository logRepository = mock(LogEmbeddingMetadataRepository.class);
+    private final ContextEmbeddingMetadataRepository contextRepository = mock(ContextEmbeddingMetadataRepository.class);
+    private final ContentStore contentStore = mock(ContentStore.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        properties.setInitialBatchSize(32);
+        properties.setMinBatchSize(4);
+        properties.setMaxBatchSize(256);
+        properties.setConcurrency(1);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        when(contextRepository.findPending(anyLong(), anyInt(), any(Limit.class))).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private EmbeddingWorker worker(EmbeddingClient client) {
+        EmbeddingWorker worker = new EmbeddingWorker(client, properties, logRepository, contextRepository, contentStore,
+                new TransactionTemplate(transactionManager), executor, meterRegistry);
+        worker.init();
+        return worker;
+    }
+
+    private static LogEmbeddingMetadata metadata(long id, String content, String contentHash) {
+        return LogEmbeddingMetadata.builder()
+                .id(id).project("p").logId(id).contentType("QUERY")
+                .content(content).contentHash(contentHash).embedded(false)
+                .build();
+    }
+
+    private double batchSize() {
+        return meterRegistry.get("mcp.embedding.batch.size").gauge().value();
+    }
+
+    @Test
+    void rowsChangedWhileEmbeddingAreNotMarkedEmbedded() {
+        when(logRepository.findPending(eq(0L), anyInt(), any(Limit.class))).thenReturn(List.of(
+                new PendingEmbedding(1L, "그대로인 본문"),
+                new PendingEmbedding(2L, "임베딩 중에 바뀐 본문"),
+                new PendingEmbedding(3L, null, "hash-old")));
+        when(logRepository.findPending(eq(3L), anyInt(), any(Limit.class))).thenReturn(List.of());
+        when(contentStore.getAll(anyList())).thenReturn(Map.of("hash-old", "ContentStore 본문"));
+
+        LogEmbeddingMetadata unchanged = metadata(1L, "그대로인 본문", null);
+        LogEmbeddingMetadata contentChanged = metadata(2L, "새 본문", null);
+        LogEmbeddingMetadata hashChanged = metadata(3L, null, "hash-new");
+        when(logRepository.findAllById(any())).thenReturn(List.of(unchanged, contentChanged, hashChanged));
+
+        HashingEmbeddingClient client = new HashingEmbeddingClient(16);
+        worker(client).embedPending();
+
+        assertThat(unchanged.isEmbedded()).isTrue();
+        assertThat(unchanged.getEmbeddingModel()).isEqualTo(client.getModelName());
+        assertThat(VectorCodec.fromBytes(unchanged.getVector())).containsExactly(client.embed(List.of("그대로인 본문")).get(0));
+        assertThat(contentChanged.isEmbedded()).isFalse();
+        assertThat(contentChanged.getVector()).isNull();
+        assertThat(hashChanged.isEmbedded()).isFalse();
+        assertThat(hashChanged.getVector()).isNull();
+    }
+
+    @Test
+    void batchSizeHalvesOnFailure() {
+        when(logRepository.findPending(eq(0L), anyInt(), any(Limit.class))).thenReturn(List.of(new PendingEmbedding(1L, "본문")));
+        when(logRepository.findPending(eq(1L), anyInt(), any(Limit.class))).thenReturn(List.of());
+        EmbeddingClient failing = mock(EmbeddingClient.class);
+        when(failing.embed(anyList())).thenThrow(new IllegalStateException("provider down"));
+
+        EmbeddingWorker worker = worker(failing);
+        assertThat(batchSize()).isEqualTo(32);
+
+        worker.embedPending();
+        assertThat(batchSize()).isEqualTo(16);
+
+        worker.embedPending();
+        worker.embedPending();
+        worker.embedPending();
+        assertThat(batchSize()).isEqualTo(4); // min-batch-size 아래로는 줄지 않음
+    }
+
+    @Test
+    void failuresAreCountedOnlyWhenTheProviderIsUp() {
+        properties.setInitialBatchSize(4);
+        properties.setMaxBatchSize(4);
+        when(logRepository.findPending(eq(0L), anyInt(), any(Limit.class))).thenReturn(List.of(
+                new PendingEmbedding(1L, "본문"), new PendingEmbedding(2L, null, "hash-lost")));
+        when(logRepository.findPending(eq(2L), anyInt(), any(Limit.class))).thenReturn(List.of(new PendingEmbedding(3L, "독이 든 본문")));
+        when(logRepository.findPending(eq(3L), anyInt(), any(Limit.class))).thenReturn(List.of());
+        when(contentStore.getAll(anyList())).thenReturn(Map.of());
+        when(logRepository.findAllById(any())).thenReturn(List.of(metadata(1L, "본문", null)));
+        EmbeddingClient client = mock(EmbeddingClient.class);
+        when(client.embed(List.of("본문"))).thenReturn(List.of(new float[]{1f}));
+        when(client.embed(List.of("독이 든 본문"))).thenThrow(new IllegalStateException("bad input"));
+
+        worker(client).embedPending();
+
+        verify(logRepository).incrementAttempts(List.of(2L)); // 본문 유실은 바로 셈
+        verify(logRepository).incrementAttempts(List.of(3L)); // 다른 배치가 성공했으므로 셈
+    }
+
+    @Test
+    void failuresAreNotCountedWhenEveryBatchFails() {
+        when(logRepository.findPending(eq(0L), anyInt(), any(Limit.class))).thenReturn(List.of(new PendingEmbedding(1L, "본문")));
+        when(logRepository.findPending(eq(1L), anyInt(), any(Limit.class))).thenReturn(List.of());
+        EmbeddingClient failing = mock(EmbeddingClient.class);
+        when(failing.embed(anyList())).thenThrow(new IllegalStateException("provider down"));
+
+        worker(failing).embedPending();
+
+        verify(logRepository, never()).incrementAttempts(anyList());
+    }
+}
@@ -0,0 +1,153 @@
+package com.mcp.server.service;
+
+import com.mcp.server.domain.log.Log;
+import com.mcp.server.domain.log.LogRepository;
+import com.mcp.server.dto.CursorPage;
+import com.mcp.server.dto.LogRequestCondition;
+import com.mcp.server.dto.LogSummary;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LogQueryService.search()가 만드는 SQL이 필터 조합마다 인덱스를 타는지 H2 EXPLAIN으로 확인
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.mcp.server.service.LogQueryServiceIndexTest$LastLogSelect"
+})
+@Import(LogQueryService.class)
+class LogQueryServiceIndexTest {
+
+    private static final Pattern PLAN_INDEX = Pattern.compile("/\\* PUBLIC\\.(\\w+)");
+
+    @Autowired
+    private LogQueryService logQueryService;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoBean
+    private ContentStore contentStore;
+
+    @MockitoBean
+    private LogArchiveService logArchiveService;
+
+    /**
+     * Hibernate가 실행하는 마지막 로그 목록 SELECT를 보관
+     */
+    public static class LastLogSelect implements StatementInspector {
+        static volatile String sql;
+
+        @Override
+        public String inspect(String statement) {
+            if (statement.startsWith("select") && statement.contains(" from log ")) {
+                sql = statement;
+            }
+            return statement;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        logRepository.saveAll(List.of(
+                new Log("Alpha", "Groq", "llama3-8b", "p", "q1", "r", "10ms"),
+                new Log("alpha", "Together", "Qwen/Qwen2", "p", "q2", "r", "10ms"),
+                new Log("Beta", "GROQ", "LLAMA3-8B", "p", "q3", "r", "10ms")));
+        logRepository.flush();
+    }
+
+    @ParameterizedTest
+    @CsvSource(nullValues = "-", value = {
+            "-,     -,    -,         -,     true,  IDX_LOG_CREATED_AT_ID",
+            "ALPHA, -,    -,         -,     true,  IDX_LOG_PROJECT_PROVIDER_CREATED",
+            "alpha, groq, -,         -,     true,  IDX_LOG_PROJECT_PROVIDER_CREATED",
+            "-,     Groq, -,         -,     true,  IDX_LOG_PROVIDER_MODEL_CREATED",
+            "-,     groq, Llama3-8B, -,     true,  IDX_LOG_PROVIDER_MODEL_CREATED",
+            "-,     -,    llama3-8b, -,     true,  IDX_LOG_MODEL_CREATED",
+            "alpha, -,    llama3-8b, -,     true,  IDX_LOG_PROJECT_MODEL_CREATED",
+            "alpha, groq, llama3-8b, -,     true,  IDX_LOG_PROJECT_PROVIDER_CREATED",
+            "-,     -,    -,         asc,   true,  IDX_LOG_CREATED_AT_ID",
+            // 기간 조건 없음
+            "-,     -,    -,         -,     false, IDX_LOG_CREATED_AT_ID",
+            "alpha, -,    -,         -,     false, IDX_LOG_PROJECT_PROVIDER_CREATED",
+            "-,     groq, llama3-8b, -,     false, IDX_LOG_PROVIDER_MODEL_CREATED",
+            "alpha, groq, llama3-8b, -,     false, IDX_LOG_PROJECT_PROVIDER_CREATED",
+            "-,     -,    llama3-8b, -,     false, IDX_LOG_MODEL_CREATED",
+            "alpha, -,    llama3-8b, -,     false, IDX_LOG_PROJECT_MODEL_CREATED",
+            "-,     -,    -,         asc,   false, IDX_LOG_CREATED_AT_ID",
+    })
+    void everyFilterCombinationUsesAnIndex(String project, String provider, String model, String sort, boolean period,
+                                           String expectedIndex) throws SQLException {
+        LogRequestCondition condition = new LogRequestCondition();
+        condition.setProject(project);
+        condition.setProvider(provider);
+        condition.setModel(model);
+        if (period) {
+            condition.setFrom(LocalDate.now().minusDays(1));
+            condition.setTo(LocalDate.now());
+        }
+        if (sort != null) {
+            condition.setSort(sort);
+        }
+
+        CursorPage<LogSummary> page = logQueryService.search(condition);
+        assertThat(page.getItems()).isNotEmpty().allSatisfy(log -> {
+            if (project != null) assertThat(log.getProject()).isEqualToIgnoringCase(project);
+            if (provider != null) assertThat(log.getProvider()).isEqualToIgnoringCase(provider);
+            if (model != null) assertThat(log.getModel()).isEqualToIgnoringCase(model);
+        });
+
+        String plan = explain(LastLogSelect.sql, condition);
+        Matcher matcher = PLAN_INDEX.matcher(plan);
+        assertThat(matcher.find()).as(plan).isTrue();
+        assertThat(matcher.group(1)).as(plan).isEqualTo(expectedIndex);
+        assertThat(plan).doesNotContainIgnoringCase("lower(");
+    }
+
+    /**
+     * 캡처한 SQL을 같은 바인딩 값으로 EXPLAIN (파라미터 순서 = 문자열 조건 → 기간(있으면) → LIMIT)
+     */
+    private String explain(String sql, LogRequestCondition condition) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int index = 1;
+            for (String value : new String[]{condition.getProject(), condition.getProvider(), condition.getModel()}) {
+                if (value != null) {
+                    statement.setString(index++, Log.keyOf(value));
+                }
+            }
+            if (condition.getFrom() != null) {
+                statement.setObject(index++, condition.getFrom().atStartOfDay());
+            }
+            if (condition.getTo() != null) {
+                statement.setObject(index++, condition.getTo().plusDays(1).atStartOfDay());
+            }
+            statement.setInt(index, CursorPage.DEFAULT_SIZE + 1);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.mcp.server.service;
+
+import com.mcp.server.config.QuotaProperties;
+import com.mcp.server.dto.QuotaLimits;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelRateLimiterTest {
+
+    private static QuotaProperties properties(long modelLimit) {
+        QuotaProperties properties = new QuotaProperties();
+        properties.setDefaultModelLimit(modelLimit);
+        properties.setZone(ZoneOffset.UTC);
+        return properties;
+    }
+
+    @Test
+    void refundedReservationDoesNotCountAgainstLimit() {
+        ModelRateLimiter limiter = new ModelRateLimiter(properties(1));
+
+        limiter.reserve("m", "p", "1.1.1.1").refund();
+        limiter.reserve("m", "p", "1.1.1.1").commit();
+
+        assertThatThrownBy(() -> limiter.reserve("m", "p", "1.1.1.1"))
+                .isInstanceOf(QuotaExceededException.class);
+    }
+
+    @Test
+    void failingIpLimitReleasesModelReservation() {
+        QuotaProperties properties = properties(10);
+        properties.setPerIpLimit(1);
+        ModelRateLimiter limiter = new ModelRateLimiter(properties);
+
+        limiter.reserve("m", null, "1.1.1.1").commit();
+        assertThatThrownBy(() -> limiter.reserve("m", null, "1.1.1.1"))
+                .isInstanceOf(QuotaExceededException.class);
+
+        assertThat(limiter.getTodayUsage()).containsEntry("model:m", 1L).containsEntry("ip:1.1.1.1", 1L);
+    }
+
+    @Test
+    void commitAsMovesModelCountToAnsweredModel() {
+        QuotaProperties properties = properties(1);
+        properties.setDefaultProjectLimit(5);
+        ModelRateLimiter limiter = new ModelRateLimiter(properties);
+
+        limiter.reserve("m", "p", null).commitAs("alt");
+
+        assertThat(limiter.getTodayUsage())
+                .containsEntry("model:m", 0L).containsEntry("model:alt", 1L).containsEntry("project:p", 1L);
+        assertThat(limiter.hasModelCapacity("m")).isTrue();
+        assertThat(limiter.hasModelCapacity("alt")).isFalse();
+    }
+
+    @Test
+    void countersResetWhenDayChanges() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T23:59:00Z"));
+        ModelRateLimiter limiter = new ModelRateLimiter(properties(1), clock);
+
+        limiter.checkQuota("m");
+        assertThatThrownBy(() -> limiter.checkQuota("m")).isInstanceOf(QuotaExceededException.class);
+
+        clock.instant = Instant.parse("2024-01-02T00:00:01Z");
+        limiter.checkQuota("m");
+    }
+
+    @Test
+    void evictedCountersStartOverWithoutLosingNewReservations() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T12:00:00Z"));
+        ModelRateLimiter limiter = new ModelRateLimiter(properties(2), clock);
+        limiter.checkQuota("m");
+
+        clock.instant = Instant.parse("2024-01-02T00:10:00Z");
+        limiter.evictStaleCounters();
+        assertThat(limiter.getTodayUsage()).isEmpty();
+
+        limiter.checkQuota("m");
+        limiter.evictStaleCounters(); // 오늘 갱신된 카운터는 남김
+        limiter.checkQuota("m");
+        assertThatThrownBy(() -> limiter.checkQuota("m")).isInstanceOf(QuotaExceededException.class);
+    }
+
+    @Test
+    void updatedLimitsApplyImmediately() {
+        ModelRateLimiter limiter = new ModelRateLimiter(properties(1));
+        limiter.checkQuota("m");
+
+        QuotaLimits limits = limiter.getLimits();
+        limits.setModels(Map.of("m", 2L));
+        limiter.updateLimits(limits);
+
+        limiter.checkQuota("m");
+        assertThatThrownBy(() -> limiter.checkQuota("m")).isInstanceOf(QuotaExceededException.class);
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedLimit() throws Exception {
+        ModelRateLimiter limiter = new ModelRateLimiter(properties(500));
+        AtomicInteger granted = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        limiter.checkQuota("m");
+                        granted.incrementAndGet();
+                    } catch (QuotaExceededException ignored) {
+                        // 한도 초과
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(granted).hasValue(500);
+        assertThat(limiter.getTodayUsage()).containsEntry("model:m", 500L);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
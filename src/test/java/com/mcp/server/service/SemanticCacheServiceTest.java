@@ -0,0 +1,109 @@
+package com.mcp.server.service;
+
+import com.mcp.server.client.EmbeddingClient;
+import com.mcp.server.config.SemanticCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticCacheServiceTest {
+
+    // 고정 벡터: a와 a'는 거의 같은 방향, b는 직교
+    private static final Map<String, float[]> VECTORS = Map.of(
+            "reset password", new float[]{1f, 0f, 0f},
+            "how to reset my password", new float[]{0.98f, 0.2f, 0f},
+            "refund policy", new float[]{0f, 0f, 1f}
+    );
+
+    private static final EmbeddingClient STUB = new EmbeddingClient() {
+        @Override
+        public List<float[]> embed(List<String> texts) {
+            return texts.stream().map(VECTORS::get).toList();
+        }
+
+        @Override
+        public String getModelName() {
+            return "stub";
+        }
+    };
+
+    private static SemanticCacheService service(SemanticCacheProperties properties) {
+        SemanticCacheService service = new SemanticCacheService(properties, STUB, new SimpleMeterRegistry());
+        service.registerMetrics();
+        return service;
+    }
+
+    private static InferenceRecord record(String project, Long contextSetId, String query, String result, float[] vector) {
+        return record(project, "m", contextSetId, 0L, query, result, vector);
+    }
+
+    private static InferenceRecord record(String project, String answeredModel, Long contextSetId, long revision,
+                                          String query, String result, float[] vector) {
+        return new InferenceRecord(project, "groq", answeredModel, "m", contextSetId, revision, "prompt", query, result,
+                10, 100, "1.1.1.1", false, null, vector);
+    }
+
+    @Test
+    void paraphraseAboveThresholdHitsSameScopeOnly() {
+        SemanticCacheProperties properties = new SemanticCacheProperties();
+        properties.setThreshold(0.95);
+        SemanticCacheService cache = service(properties);
+
+        cache.put(record("p", 1L, "reset password", "answer", cache.embed("p", "reset password")));
+
+        float[] paraphrase = cache.embed("p", "how to reset my password");
+        assertThat(cache.lookup("m", 1L, 0L, "p", paraphrase))
+                .hasValueSatisfying(hit -> {
+                    assertThat(hit.result()).isEqualTo("answer");
+                    assertThat(hit.similarity()).isGreaterThan(0.95f);
+                });
+        assertThat(cache.lookup("m", 2L, 0L, "p", paraphrase)).isEmpty();
+        assertThat(cache.lookup("other-model", 1L, 0L, "p", paraphrase)).isEmpty();
+        assertThat(cache.lookup("m", 1L, 0L, "p", cache.embed("p", "refund policy"))).isEmpty();
+    }
+
+    @Test
+    void projectPolicyOverridesThresholdAndTtl() {
+        SemanticCacheProperties properties = new SemanticCacheProperties();
+        properties.setThreshold(0.95);
+        SemanticCacheProperties.ProjectPolicy strict = new SemanticCacheProperties.ProjectPolicy();
+        strict.setThreshold(0.999);
+        SemanticCacheProperties.ProjectPolicy expired = new SemanticCacheProperties.ProjectPolicy();
+        expired.setTtl(Duration.ZERO);
+        properties.setProjects(Map.of("strict", strict, "expired", expired));
+        SemanticCacheService cache = service(properties);
+
+        float[] original = cache.embed("p", "reset password");
+        float[] paraphrase = cache.embed("p", "how to reset my password");
+        cache.put(record("strict", 1L, "reset password", "answer", original));
+        cache.put(record("expired", 1L, "reset password", "answer", original));
+
+        assertThat(cache.lookup("m", 1L, 0L, "strict", paraphrase)).isEmpty();
+        assertThat(cache.lookup("m", 1L, 0L, "strict", original)).isPresent();
+        assertThat(cache.lookup("m", 1L, 0L, "expired", original)).isEmpty();
+    }
+
+    @Test
+    void editedContextSetAndHedgedModelUseRequestScope() {
+        SemanticCacheProperties properties = new SemanticCacheProperties();
+        properties.setThreshold(0.95);
+        SemanticCacheService cache = service(properties);
+        float[] vector = cache.embed("p", "reset password");
+
+        // 헤지 요청의 대체 모델이 응답했어도 요청 모델("m") 범위에 저장
+        cache.put(record("p", "alternate-model", 1L, 0L, "reset password", "old answer", vector));
+        assertThat(cache.lookup("m", 1L, 0L, "p", vector)).isPresent();
+        assertThat(cache.lookup("alternate-model", 1L, 0L, "p", vector)).isEmpty();
+
+        // ContextSet 수정(revision 증가) 후에는 이전 응답을 쓰지 않음
+        assertThat(cache.lookup("m", 1L, 1L, "p", vector)).isEmpty();
+        cache.put(record("p", "m", 1L, 1L, "reset password", "new answer", vector));
+        assertThat(cache.lookup("m", 1L, 1L, "p", vector)).hasValueSatisfying(hit -> assertThat(hit.result()).isEqualTo("new answer"));
+        assertThat(cache.lookup("m", 1L, 0L, "p", vector)).isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.mcp.server.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarSegmentTest {
+
+    private static final List<ColumnarSegment.Column> COLUMNS = List.of(
+            new ColumnarSegment.Column(ColumnarSegment.CREATED_AT, ColumnarSegment.Type.LONG),
+            new ColumnarSegment.Column(ColumnarSegment.ID, ColumnarSegment.Type.LONG),
+            new ColumnarSegment.Column("model", ColumnarSegment.Type.STRING),
+            new ColumnarSegment.Column("tokens", ColumnarSegment.Type.INT),
+            new ColumnarSegment.Column("cacheHit", ColumnarSegment.Type.BOOLEAN));
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0, 0, 123_456_000);
+
+    @Test
+    void roundTripAcrossBlocks(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("usage.seg");
+        try (ColumnarSegment.Writer writer = ColumnarSegment.writer(path, COLUMNS, 4)) {
+            for (int i = 0; i < 10; i++) {
+                writer.append(new Object[]{ColumnarSegment.micros(START.plusSeconds(i)), 100L + i,
+                        i % 3 == 0 ? null : "모델-" + i, i * 7, i % 2 == 0});
+            }
+            writer.finish();
+        }
+
+        ColumnarSegment segment = ColumnarSegment.open(path);
+        assertThat(segment.getRowCount()).isEqualTo(10);
+        assertThat(segment.getBlocks()).hasSize(3);
+        assertThat(segment.lastBlock().rows()).isEqualTo(2);
+        assertThat(segment.getBlocks().get(1).minId()).isEqualTo(104);
+        assertThat(segment.getBlocks().get(1).maxId()).isEqualTo(107);
+
+        ColumnarSegment.Block block = segment.block(1);
+        assertThat(block.longs(ColumnarSegment.ID)).containsExactly(104, 105, 106, 107);
+        assertThat(ColumnarSegment.dateTimeOf(block.longs(ColumnarSegment.CREATED_AT)[0])).isEqualTo(START.plusSeconds(4));
+        assertThat(block.strings("model")).containsExactly("모델-4", "모델-5", null, "모델-7");
+        assertThat(block.ints("tokens")).containsExactly(28, 35, 42, 49);
+        assertThat(block.booleans("cacheHit")).containsExactly(true, false, true, false);
+    }
+
+    @Test
+    void emptySegmentHasNoBlocks(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("empty.seg");
+        try (ColumnarSegment.Writer writer = ColumnarSegment.writer(path, COLUMNS, 4)) {
+            writer.finish();
+        }
+
+        ColumnarSegment segment = ColumnarSegment.open(path);
+        assertThat(segment.isEmpty()).isTrue();
+        assertThat(segment.getColumns()).isEqualTo(COLUMNS);
+    }
+}
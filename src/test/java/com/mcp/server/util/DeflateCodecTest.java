@@ -0,0 +1,51 @@
+package com.mcp.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeflateCodecTest {
+
+    private static String prompt(int i) {
+        return "[Project] resume-ai\n[Context]\n{\"persona\":\"친절한 커리어 코치\",\"role\":\"이력서 첨삭 도우미\","
+                + "\"situation\":\"신입 개발자 지원서 검토\",\"goal\":\"강점을 구체적으로 드러내기\",\"tone\":\"존댓말\"}\n"
+                + "[User Query]\n질문 " + i + "번: 프로젝트 경험을 어떻게 정리하면 좋을까요?";
+    }
+
+    @Test
+    void roundTripWithAndWithoutDictionary() {
+        byte[] raw = prompt(1).getBytes(StandardCharsets.UTF_8);
+        byte[] dictionary = prompt(0).getBytes(StandardCharsets.UTF_8);
+
+        assertThat(DeflateCodec.decompress(DeflateCodec.compress(raw, null, 6), null, raw.length)).isEqualTo(raw);
+        assertThat(DeflateCodec.decompress(DeflateCodec.compress(raw, dictionary, 6), dictionary, raw.length)).isEqualTo(raw);
+    }
+
+    @Test
+    void wrongDictionaryFails() {
+        byte[] raw = prompt(1).getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = DeflateCodec.compress(raw, prompt(0).getBytes(StandardCharsets.UTF_8), 6);
+
+        assertThatThrownBy(() -> DeflateCodec.decompress(compressed, null, raw.length))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void trainedDictionaryShrinksUnseenSamples() {
+        List<String> training = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            training.add(prompt(i));
+        }
+        byte[] dictionary = DictionaryTrainer.train(training, DeflateCodec.MAX_DICTIONARY_BYTES);
+        byte[] unseen = prompt(99).getBytes(StandardCharsets.UTF_8);
+
+        assertThat(dictionary.length).isPositive().isLessThanOrEqualTo(DeflateCodec.MAX_DICTIONARY_BYTES);
+        assertThat(DeflateCodec.compress(unseen, dictionary, 6).length * 2)
+                .isLessThan(DeflateCodec.compress(unseen, null, 6).length);
+    }
+}
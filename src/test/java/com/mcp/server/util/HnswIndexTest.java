@@ -0,0 +1,133 @@
+package com.mcp.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @Test
+    void recallAgainstBruteForceIsHigh() {
+        Random random = new Random(7);
+        float[][] vectors = randomVectors(random, 2000);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 200, 1);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+
+        int hits = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            Set<Long> expected = bruteForce(vectors, query, 10);
+            Set<Long> actual = index.search(query, 10, 64, null).stream()
+                    .map(HnswIndex.Match::label)
+                    .collect(Collectors.toSet());
+            actual.retainAll(expected);
+            hits += actual.size();
+        }
+        assertThat(hits / (double) (queries * 10)).isGreaterThan(0.9);
+    }
+
+    @Test
+    void filterRestrictsResults() {
+        Random random = new Random(11);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 100, 1);
+        float[][] vectors = randomVectors(random, 500);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+
+        List<HnswIndex.Match> matches = index.search(vectors[0], 20, 64, label -> label % 5 == 0);
+        assertThat(matches).hasSize(20);
+        assertThat(matches).allMatch(match -> match.label() % 5 == 0);
+        assertThat(matches.get(0).label()).isZero();
+    }
+
+    @Test
+    void addingSameLabelReplacesVector() {
+        Random random = new Random(3);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 100, 1);
+        float[][] vectors = randomVectors(random, 100);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+
+        index.add(0, vectors[50]);
+        assertThat(index.size()).isEqualTo(100);
+        assertThat(index.search(vectors[50], 2, 32, null))
+                .extracting(HnswIndex.Match::label)
+                .containsExactlyInAnyOrder(0L, 50L);
+
+        assertThat(index.remove(0)).isTrue();
+        assertThat(index.search(vectors[50], 5, 32, null)).noneMatch(match -> match.label() == 0);
+    }
+
+    @Test
+    void snapshotRoundTripKeepsSearchResults() throws IOException {
+        Random random = new Random(5);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 100, 1);
+        float[][] vectors = randomVectors(random, 300);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+        index.remove(10);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        HnswIndex restored = HnswIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 1);
+
+        assertThat(restored.size()).isEqualTo(index.size());
+        assertThat(restored.contains(10)).isFalse();
+        float[] query = randomVector(random);
+        assertThat(restored.search(query, 10, 64, null)).isEqualTo(index.search(query, 10, 64, null));
+    }
+
+    private static Set<Long> bruteForce(float[][] vectors, float[] query, int k) {
+        return IntStream.range(0, vectors.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> -cosine(vectors[i], query)))
+                .limit(k)
+                .map(Integer::longValue)
+                .collect(Collectors.toSet());
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0, na = 0, nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return dot / Math.sqrt(na * nb);
+    }
+
+    private static float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][];
+        Arrays.setAll(vectors, i -> randomVector(random));
+        return vectors;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
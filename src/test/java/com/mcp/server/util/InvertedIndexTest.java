@@ -0,0 +1,76 @@
+package com.mcp.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private static List<Integer> docs(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::doc).toList();
+    }
+
+    private static InvertedIndex sample() {
+        InvertedIndex index = new InvertedIndex();
+        index.addDocument("Rate limit exceeded on Groq", "재시도 후 성공했습니다");           // 0
+        index.addDocument("추론로그를 조회하는 방법", "GET /logs 로 조회합니다");               // 1
+        index.addDocument("limit the rate of requests", "timeout 발생");                       // 2
+        index.addDocument("rate limit", null);                                                 // 3
+        index.addDocument("요청 시간초과", "Together timeout, rate limit 아님");               // 4
+        return index;
+    }
+
+    @Test
+    void tokenizesMixedKoreanAndEnglish() {
+        assertThat(TextTokenizer.tokenize("GPT-4o로 추론로그 조회"))
+                .containsExactly("gpt", "4o", "로", "추론", "론로", "로그", "조회");
+    }
+
+    @Test
+    void phraseRequiresAdjacentPositions() {
+        InvertedIndex index = sample();
+
+        assertThat(docs(index.search("\"rate limit\"", 10, null))).containsExactlyInAnyOrder(0, 3, 4);
+        assertThat(docs(index.search("rate limit", 10, null))).containsExactlyInAnyOrder(0, 2, 3, 4);
+    }
+
+    @Test
+    void koreanWordMatchesInsideLongerWord() {
+        InvertedIndex index = sample();
+
+        assertThat(docs(index.search("로그", 10, null))).containsExactly(1);
+        assertThat(docs(index.search("조회", 10, null))).containsExactly(1);
+        assertThat(docs(index.search("시간초과", 10, null))).containsExactly(4);
+    }
+
+    @Test
+    void booleanOperatorsAndFilter() {
+        InvertedIndex index = sample();
+
+        assertThat(docs(index.search("timeout -together", 10, null))).containsExactly(2);
+        assertThat(docs(index.search("재시도 OR 시간초과", 10, null))).containsExactlyInAnyOrder(0, 4);
+        assertThat(docs(index.search("\"rate limit\"", 10, doc -> doc != 3))).containsExactlyInAnyOrder(0, 4);
+        assertThat(index.search("-timeout", 10, null)).isEmpty();
+        assertThat(index.search("unknownword", 10, null)).isEmpty();
+    }
+
+    @Test
+    void shorterDocumentRanksHigherForSameTerm() {
+        InvertedIndex index = sample();
+
+        List<InvertedIndex.Hit> hits = index.search("\"rate limit\"", 3, null);
+        assertThat(hits.get(0).doc()).isEqualTo(3);
+        assertThat(hits).isSortedAccordingTo((a, b) -> Double.compare(b.score(), a.score()));
+    }
+
+    @Test
+    void phraseDoesNotSpanFields() {
+        InvertedIndex index = new InvertedIndex();
+        index.addDocument("hello rate", "limit world");
+
+        assertThat(index.search("\"rate limit\"", 10, null)).isEmpty();
+        assertThat(index.search("rate limit", 10, null)).hasSize(1);
+    }
+}
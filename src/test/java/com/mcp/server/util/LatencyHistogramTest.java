@@ -0,0 +1,75 @@
+package com.mcp.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsAreContiguousAndBoundRelativeError() {
+        int previous = -1;
+        for (long value = 0; value < 200_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(index).isBetween(previous, previous + 1);
+            long highest = LatencyHistogram.highestValueOf(index);
+            assertThat(highest).isGreaterThanOrEqualTo(value);
+            assertThat(highest - value).isLessThanOrEqualTo(Math.max(0, value / 32));
+            previous = index;
+        }
+        assertThat(LatencyHistogram.indexOf(Integer.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    void percentilesFollowRecordedDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 1000; ms++) {
+            histogram.record(ms);
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(1000);
+        assertThat(histogram.valueAtPercentile(50)).isBetween(500L, 515L);
+        assertThat(histogram.valueAtPercentile(99)).isBetween(990L, 1020L);
+        assertThat(histogram.valueAtPercentile(100)).isBetween(1000L, 1031L);
+        assertThat(new LatencyHistogram().valueAtPercentile(95)).isZero();
+    }
+
+    @Test
+    void mergeEqualsRecordingEverythingInOne() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        for (int i = 0; i < 900; i++) {
+            fast.record(20 + i % 30);
+            all.record(20 + i % 30);
+        }
+        for (int i = 0; i < 100; i++) {
+            slow.record(3_000 + i * 10);
+            all.record(3_000 + i * 10);
+        }
+
+        fast.merge(slow);
+
+        assertThat(fast.toBytes()).isEqualTo(all.toBytes());
+        assertThat(fast.valueAtPercentile(95)).isGreaterThanOrEqualTo(3_000);
+    }
+
+    @Test
+    void bytesRoundTripCompactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(42, 1_000_000);
+        histogram.record(Long.MAX_VALUE);
+
+        byte[] bytes = histogram.toBytes();
+        LatencyHistogram restored = LatencyHistogram.fromBytes(bytes);
+
+        assertThat(bytes.length).isLessThan(16);
+        assertThat(restored.getTotalCount()).isEqualTo(1_000_002);
+        assertThat(restored.toBytes()).isEqualTo(bytes);
+        assertThat(LatencyHistogram.fromBytes(null).getTotalCount()).isZero();
+        assertThatThrownBy(() -> LatencyHistogram.fromBytes(new byte[]{1, (byte) 0x80}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,31 @@
+package com.mcp.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VectorCodecTest {
+
+    @Test
+    void roundTripKeepsEveryFloatExactly() {
+        float[] vector = {0f, -0f, 1.5f, -3.25e-7f, Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN, Float.NEGATIVE_INFINITY};
+
+        byte[] bytes = VectorCodec.toBytes(vector);
+
+        assertThat(bytes).hasSize(vector.length * Float.BYTES);
+        assertThat(VectorCodec.fromBytes(bytes)).usingElementComparator(Float::compare).containsExactly(vector);
+    }
+
+    @Test
+    void encodesLittleEndianFloat32() {
+        assertThat(VectorCodec.toBytes(new float[]{1f})).containsExactly(0x00, 0x00, 0x80, 0x3F);
+    }
+
+    @Test
+    void rejectsTruncatedBytes() {
+        assertThat(VectorCodec.fromBytes(null)).isNull();
+        assertThatThrownBy(() -> VectorCodec.fromBytes(new byte[6]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}